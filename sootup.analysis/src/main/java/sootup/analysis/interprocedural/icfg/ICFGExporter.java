@@ -0,0 +1,109 @@
+package sootup.analysis.interprocedural.icfg;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.callgraph.CallGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.graph.export.GraphWriter;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Streams an interprocedural control flow graph to a {@link GraphWriter}. In contrast to {@link
+ * ICFGDotExporter} no intermediate string is built, so the export of large programs needs memory
+ * only for the node ids of the Stmts of a single method.
+ *
+ * <p>The nodes are of the kinds "method" and "stmt". The edges are of the types "entry" (from a
+ * method to its starting Stmt), "cfg" and "exceptional" (between the Stmts of a method) and "call"
+ * (from a call site to the method node of its callee).
+ */
+public class ICFGExporter {
+
+  private ICFGExporter() {}
+
+  /**
+   * Writes the method graphs and the calls between them. The writer is not closed.
+   *
+   * @param signatureToStmtGraph the graphs of the methods with a body, e.g. computed by {@link
+   *     JimpleBasedInterproceduralCFG#computeAllCalls(MethodSignature, Map, CallGraph)}
+   * @param callGraph provides the callees of the call sites
+   * @param writer receives the nodes and edges
+   */
+  public static void export(
+      @Nonnull Map<MethodSignature, StmtGraph<?>> signatureToStmtGraph,
+      @Nonnull CallGraph callGraph,
+      @Nonnull GraphWriter writer)
+      throws IOException {
+    // method nodes first, so call edges can point to methods whose Stmts are written later
+    Map<MethodSignature, Integer> methodIds = new LinkedHashMap<>();
+    for (MethodSignature method : signatureToStmtGraph.keySet()) {
+      methodIds.put(method, writer.addNode("method", method.toString()));
+    }
+    for (MethodSignature method : signatureToStmtGraph.keySet()) {
+      if (!callGraph.containsMethod(method)) {
+        continue;
+      }
+      for (MethodSignature target : callGraph.callTargetsFrom(method)) {
+        if (!methodIds.containsKey(target)) {
+          methodIds.put(target, writer.addNode("method", target.toString()));
+        }
+      }
+    }
+
+    for (Map.Entry<MethodSignature, StmtGraph<?>> entry : signatureToStmtGraph.entrySet()) {
+      StmtGraph<?> stmtGraph = entry.getValue();
+      List<Stmt> stmts = stmtGraph.getStmts();
+      Map<Stmt, Integer> stmtIds = new IdentityHashMap<>(stmts.size() * 2);
+      for (Stmt stmt : stmts) {
+        stmtIds.put(stmt, writer.addNode("stmt", stmt.toString()));
+      }
+
+      Stmt startingStmt = stmtGraph.getStartingStmt();
+      if (startingStmt != null) {
+        writer.addEdge("entry", methodIds.get(entry.getKey()), stmtIds.get(startingStmt));
+      }
+      for (Stmt stmt : stmts) {
+        int source = stmtIds.get(stmt);
+        for (Stmt successor : stmtGraph.successors(stmt)) {
+          writer.addEdge("cfg", source, stmtIds.get(successor));
+        }
+        for (Stmt handler : stmtGraph.exceptionalSuccessors(stmt).values()) {
+          writer.addEdge("exceptional", source, stmtIds.get(handler));
+        }
+      }
+
+      if (!callGraph.containsMethod(entry.getKey())) {
+        continue;
+      }
+      for (CallGraph.Call call : callGraph.callsFrom(entry.getKey())) {
+        Integer callSite = stmtIds.get(call.getInvokableStmt());
+        if (callSite != null) {
+          writer.addEdge("call", callSite, methodIds.get(call.getTargetMethodSignature()));
+        }
+      }
+    }
+  }
+}
@@ -29,6 +29,7 @@ import heros.InterproceduralCFG;
 import heros.SynchronizedBy;
 import heros.ThreadSafe;
 import heros.solver.IDESolver;
+import java.io.IOException;
 import java.util.*;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -40,6 +41,7 @@ import sootup.callgraph.CallGraph;
 import sootup.callgraph.CallGraphAlgorithm;
 import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
 import sootup.core.graph.StmtGraph;
+import sootup.core.graph.export.GraphWriter;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
 import sootup.core.jimple.common.stmt.InvokableStmt;
 import sootup.core.jimple.common.stmt.Stmt;
@@ -157,6 +159,17 @@ public class JimpleBasedInterproceduralCFG extends AbstractJimpleBasedICFG {
     return ICFGDotExporter.buildICFGGraph(signatureToStmtGraph, view, callGraph);
   }
 
+  /**
+   * Streams the ICFG that is reachable from the main method to the given writer, see {@link
+   * ICFGExporter}. The writer is not closed.
+   */
+  public void exportICFG(@Nonnull CallGraph callGraph, @Nonnull GraphWriter writer)
+      throws IOException {
+    Map<MethodSignature, StmtGraph<?>> signatureToStmtGraph = new LinkedHashMap<>();
+    computeAllCalls(mainMethodSignature, signatureToStmtGraph, callGraph);
+    ICFGExporter.export(signatureToStmtGraph, callGraph, writer);
+  }
+
   public void computeAllCalls(
       MethodSignature methodSignature,
       Map<MethodSignature, StmtGraph<?>> signatureToStmtGraph,
@@ -0,0 +1,142 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.LValue;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.expr.AbstractBinopExpr;
+import sootup.core.jimple.common.expr.AbstractUnopExpr;
+import sootup.core.jimple.common.expr.Expr;
+import sootup.core.jimple.common.expr.JCastExpr;
+import sootup.core.jimple.common.expr.JInstanceOfExpr;
+import sootup.core.jimple.common.stmt.Stmt;
+
+/**
+ * Computes the expressions that are available at a Stmt, i.e. that were computed on every path to
+ * the Stmt and whose operands were not redefined since, as a forward must-analysis. Only
+ * expressions without side effects are considered (binary and unary operations, casts and
+ * instanceof checks). Expressions are identified via {@link Expr#equivTo(Object)}, the domain
+ * contains the first occurrence of every expression.
+ */
+public class AvailableExpressionsAnalysis extends BitVectorFlowAnalysis<Expr> {
+
+  @Nonnull private final Map<EquivalentExpr, Integer> exprIndices = new HashMap<>();
+
+  /** the indices of the expressions that use a local */
+  @Nonnull private final Map<Local, List<Integer>> exprsUsingLocal = new HashMap<>();
+
+  public AvailableExpressionsAnalysis(@Nonnull StmtGraph<? extends BasicBlock<?>> graph) {
+    super(graph, true, Meet.INTERSECTION);
+    execute();
+  }
+
+  private static boolean isCandidate(@Nonnull Value value) {
+    return value instanceof AbstractBinopExpr
+        || value instanceof AbstractUnopExpr
+        || value instanceof JCastExpr
+        || value instanceof JInstanceOfExpr;
+  }
+
+  @Nonnull
+  @Override
+  protected List<Expr> collectDomain() {
+    List<Expr> exprs = new ArrayList<>();
+    for (Stmt stmt : graph.getStmts()) {
+      stmt.getUses()
+          .filter(AvailableExpressionsAnalysis::isCandidate)
+          .forEach(
+              value -> {
+                Expr expr = (Expr) value;
+                EquivalentExpr key = new EquivalentExpr(expr);
+                if (!exprIndices.containsKey(key)) {
+                  int idx = exprs.size();
+                  exprIndices.put(key, idx);
+                  exprs.add(expr);
+                  expr.getUses()
+                      .filter(use -> use instanceof Local)
+                      .distinct()
+                      .forEach(
+                          use ->
+                              exprsUsingLocal
+                                  .computeIfAbsent((Local) use, local -> new ArrayList<>())
+                                  .add(idx));
+                }
+              });
+    }
+    return exprs;
+  }
+
+  @Override
+  protected void computeGenKill(
+      @Nonnull Stmt stmt, @Nonnull BitVector gen, @Nonnull BitVector kill) {
+    stmt.getUses()
+        .filter(AvailableExpressionsAnalysis::isCandidate)
+        .forEach(value -> gen.set(exprIndices.get(new EquivalentExpr((Expr) value))));
+
+    final Optional<LValue> def = stmt.getDef();
+    if (def.isPresent() && def.get() instanceof Local) {
+      List<Integer> killed = exprsUsingLocal.get((Local) def.get());
+      if (killed != null) {
+        for (int idx : killed) {
+          kill.set(idx);
+          // e.g. "a = a + 1" does not make "a + 1" available
+          gen.clear(idx);
+        }
+      }
+    }
+  }
+
+  /** @return whether an expression equivalent to the given one is available before the Stmt */
+  public boolean isAvailableBefore(@Nonnull Stmt stmt, @Nonnull Expr expr) {
+    Integer idx = exprIndices.get(new EquivalentExpr(expr));
+    return idx != null && getFlowBefore(stmt).get(idx);
+  }
+
+  /** wraps an expression so it is compared via equivTo */
+  private static final class EquivalentExpr {
+    @Nonnull private final Expr expr;
+
+    private EquivalentExpr(@Nonnull Expr expr) {
+      this.expr = expr;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof EquivalentExpr && expr.equivTo(((EquivalentExpr) o).expr);
+    }
+
+    @Override
+    public int hashCode() {
+      return expr.equivHashCode();
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * A fixed size set of bits backed by {@code long} words. All vectors that are combined with each
+ * other have to be of the same size, i.e. they belong to the same domain of a {@link
+ * BitVectorFlowAnalysis}. In contrast to {@link java.util.BitSet} the operations never grow or
+ * reallocate the words.
+ */
+public final class BitVector {
+
+  private static final int ADDRESS_BITS_PER_WORD = 6;
+
+  private final int size;
+  @Nonnull final long[] words;
+
+  public BitVector(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size must not be negative.");
+    }
+    this.size = size;
+    this.words = new long[wordCount(size)];
+  }
+
+  static int wordCount(int size) {
+    return (size + 63) >>> ADDRESS_BITS_PER_WORD;
+  }
+
+  /** @return the number of bits, i.e. the size of the domain */
+  public int size() {
+    return size;
+  }
+
+  public boolean get(int bit) {
+    checkIndex(bit);
+    return (words[bit >>> ADDRESS_BITS_PER_WORD] & (1L << bit)) != 0;
+  }
+
+  public void set(int bit) {
+    checkIndex(bit);
+    words[bit >>> ADDRESS_BITS_PER_WORD] |= 1L << bit;
+  }
+
+  public void clear(int bit) {
+    checkIndex(bit);
+    words[bit >>> ADDRESS_BITS_PER_WORD] &= ~(1L << bit);
+  }
+
+  public void clear() {
+    Arrays.fill(words, 0);
+  }
+
+  /** sets all bits of the domain */
+  public void setAll() {
+    if (words.length == 0) {
+      return;
+    }
+    Arrays.fill(words, -1L);
+    words[words.length - 1] = -1L >>> -size;
+  }
+
+  public boolean isEmpty() {
+    for (long word : words) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int cardinality() {
+    int count = 0;
+    for (long word : words) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  /** @return the index of the first set bit starting at {@code from}, or -1 if there is none */
+  public int nextSetBit(int from) {
+    if (from < 0) {
+      throw new IndexOutOfBoundsException("from < 0: " + from);
+    }
+    int wordIdx = from >>> ADDRESS_BITS_PER_WORD;
+    if (wordIdx >= words.length) {
+      return -1;
+    }
+    long word = words[wordIdx] & (-1L << from);
+    while (true) {
+      if (word != 0) {
+        return (wordIdx << ADDRESS_BITS_PER_WORD) + Long.numberOfTrailingZeros(word);
+      }
+      if (++wordIdx == words.length) {
+        return -1;
+      }
+      word = words[wordIdx];
+    }
+  }
+
+  public void copyFrom(@Nonnull BitVector source) {
+    checkSize(source);
+    System.arraycopy(source.words, 0, words, 0, words.length);
+  }
+
+  /** this = this | other */
+  public void union(@Nonnull BitVector other) {
+    checkSize(other);
+    for (int i = 0; i < words.length; i++) {
+      words[i] |= other.words[i];
+    }
+  }
+
+  /** this = this &amp; other */
+  public void intersect(@Nonnull BitVector other) {
+    checkSize(other);
+    for (int i = 0; i < words.length; i++) {
+      words[i] &= other.words[i];
+    }
+  }
+
+  /** this = this &amp; ~other */
+  public void difference(@Nonnull BitVector other) {
+    checkSize(other);
+    for (int i = 0; i < words.length; i++) {
+      words[i] &= ~other.words[i];
+    }
+  }
+
+  private void checkIndex(int bit) {
+    if (bit < 0 || bit >= size) {
+      throw new IndexOutOfBoundsException("bit " + bit + " is not in [0, " + size + ").");
+    }
+  }
+
+  private void checkSize(@Nonnull BitVector other) {
+    if (other.size != size) {
+      throw new IllegalArgumentException(
+          "BitVectors of different sizes: " + size + " and " + other.size);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BitVector)) {
+      return false;
+    }
+    BitVector other = (BitVector) o;
+    return size == other.size && Arrays.equals(words, other.words);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * size + Arrays.hashCode(words);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    for (int bit = nextSetBit(0); bit >= 0; bit = nextSetBit(bit + 1)) {
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(bit);
+    }
+    return sb.append('}').toString();
+  }
+}
@@ -0,0 +1,260 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.ImmutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.common.stmt.Stmt;
+
+/**
+ * A {@link FlowAnalysis} for gen/kill problems over a finite domain, e.g. locals, definitions or
+ * expressions. The elements of the domain are numbered once per body and the gen and kill sets of
+ * every Stmt are precomputed as {@code long} words, so the fixpoint iteration only combines words
+ * and does not allocate per Stmt: the transfer function is {@code out = gen | (in & ~kill)} and the
+ * flows of several predecessors are combined by {@link Meet#UNION} or {@link Meet#INTERSECTION}.
+ *
+ * <p>Subclasses provide the domain and the gen/kill sets and call {@link #execute()} at the end of
+ * their constructor.
+ *
+ * @param <D> the type of the domain elements
+ */
+public abstract class BitVectorFlowAnalysis<D> extends FlowAnalysis<BitVector> {
+
+  /** How the flows of several predecessors are combined. */
+  public enum Meet {
+    /** may-analysis: a fact holds if it holds on any path */
+    UNION,
+    /** must-analysis: a fact holds if it holds on all paths */
+    INTERSECTION
+  }
+
+  private final boolean forward;
+  @Nonnull private final Meet meet;
+
+  @Nonnull private List<D> domain = Collections.emptyList();
+  @Nonnull private Map<D, Integer> domainIndices = Collections.emptyMap();
+
+  /** set if the Stmt indices of the graph itself can be used */
+  @Nullable private ImmutableBlockStmtGraph indexedGraph;
+
+  @Nullable private Map<Stmt, Integer> stmtIndices;
+  private int wordsPerStmt;
+
+  /** the gen/kill words of all Stmts, the Stmt with index i owns the words at i * wordsPerStmt */
+  @Nonnull private long[] gens = new long[0];
+
+  @Nonnull private long[] kills = new long[0];
+  @Nullable private BitVector loopFlow;
+
+  protected BitVectorFlowAnalysis(
+      @Nonnull StmtGraph<? extends BasicBlock<?>> graph, boolean forward, @Nonnull Meet meet) {
+    super(graph);
+    this.forward = forward;
+    this.meet = meet;
+  }
+
+  /**
+   * Collects the domain of the analysis; it is called once by {@link #execute()}.
+   *
+   * @return the distinct domain elements, their position is the bit they are assigned to
+   */
+  @Nonnull
+  protected abstract List<D> collectDomain();
+
+  /**
+   * Computes the gen and kill set of the given Stmt; it is called once per Stmt by {@link
+   * #execute()}. Both vectors are empty when passed in.
+   */
+  protected abstract void computeGenKill(
+      @Nonnull Stmt stmt, @Nonnull BitVector gen, @Nonnull BitVector kill);
+
+  @Override
+  protected boolean isForward() {
+    return forward;
+  }
+
+  @Nonnull
+  public Meet getMeet() {
+    return meet;
+  }
+
+  @Override
+  protected void execute() {
+    domain = Collections.unmodifiableList(new ArrayList<>(collectDomain()));
+    domainIndices = new HashMap<>(domain.size() * 2);
+    for (int i = 0; i < domain.size(); i++) {
+      if (domainIndices.put(domain.get(i), i) != null) {
+        throw new IllegalArgumentException(
+            "The domain contains '" + domain.get(i) + "' more than once.");
+      }
+    }
+    wordsPerStmt = BitVector.wordCount(domain.size());
+
+    final List<Stmt> stmts = graph.getStmts();
+    final int stmtCount;
+    if (graph instanceof ImmutableBlockStmtGraph) {
+      indexedGraph = (ImmutableBlockStmtGraph) graph;
+      stmtCount = indexedGraph.size();
+    } else {
+      stmtCount = stmts.size();
+      stmtIndices = new IdentityHashMap<>(stmtCount * 2);
+      for (int i = 0; i < stmtCount; i++) {
+        stmtIndices.put(stmts.get(i), i);
+      }
+    }
+
+    gens = new long[stmtCount * wordsPerStmt];
+    kills = new long[stmtCount * wordsPerStmt];
+    BitVector gen = new BitVector(domain.size());
+    BitVector kill = new BitVector(domain.size());
+    for (Stmt stmt : stmts) {
+      gen.clear();
+      kill.clear();
+      computeGenKill(stmt, gen, kill);
+      int offset = stmtIndexOf(stmt) * wordsPerStmt;
+      System.arraycopy(gen.words, 0, gens, offset, wordsPerStmt);
+      System.arraycopy(kill.words, 0, kills, offset, wordsPerStmt);
+    }
+
+    loopFlow = new BitVector(domain.size());
+    if (forward) {
+      execute(stmtToBeforeFlow, stmtToAfterFlow);
+    } else {
+      execute(stmtToAfterFlow, stmtToBeforeFlow);
+    }
+  }
+
+  private int stmtIndexOf(@Nonnull Stmt stmt) {
+    if (indexedGraph != null) {
+      return indexedGraph.indexOf(stmt);
+    }
+    return stmtIndices.get(stmt);
+  }
+
+  /** @return the bit of the given domain element, or -1 if it is not part of the domain */
+  protected int indexOf(@Nonnull D element) {
+    Integer idx = domainIndices.get(element);
+    return idx == null ? -1 : idx;
+  }
+
+  /** @return the domain elements, the index of an element is its bit in the flows */
+  @Nonnull
+  public List<D> getDomain() {
+    return domain;
+  }
+
+  /** @return the domain elements whose bits are set in the given flow */
+  @Nonnull
+  public List<D> getElements(@Nonnull BitVector flow) {
+    List<D> elements = new ArrayList<>(flow.cardinality());
+    for (int bit = flow.nextSetBit(0); bit >= 0; bit = flow.nextSetBit(bit + 1)) {
+      elements.add(domain.get(bit));
+    }
+    return elements;
+  }
+
+  /** @return the domain elements that hold before the given Stmt */
+  @Nonnull
+  public List<D> getElementsBefore(@Nonnull Stmt stmt) {
+    return getElements(getFlowBefore(stmt));
+  }
+
+  /** @return the domain elements that hold after the given Stmt */
+  @Nonnull
+  public List<D> getElementsAfter(@Nonnull Stmt stmt) {
+    return getElements(getFlowAfter(stmt));
+  }
+
+  @Override
+  protected void flowThrough(@Nonnull BitVector in, Stmt d, @Nonnull BitVector out) {
+    final long[] inWords = in.words;
+    final long[] outWords = out.words;
+    final int offset = stmtIndexOf(d) * wordsPerStmt;
+    for (int i = 0; i < wordsPerStmt; i++) {
+      outWords[i] = gens[offset + i] | (inWords[i] & ~kills[offset + i]);
+    }
+  }
+
+  /** Stmts that neither generate nor kill anything can share the flow of their predecessor. */
+  @Override
+  protected boolean omissible(@Nonnull Stmt stmt) {
+    final int offset = stmtIndexOf(stmt) * wordsPerStmt;
+    for (int i = offset; i < offset + wordsPerStmt; i++) {
+      if (gens[i] != 0 || kills[i] != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Nonnull
+  @Override
+  protected BitVector newInitialFlow() {
+    BitVector flow = new BitVector(domain.size());
+    if (meet == Meet.INTERSECTION) {
+      flow.setAll();
+    }
+    return flow;
+  }
+
+  @Override
+  protected BitVector entryInitialFlow() {
+    return new BitVector(domain.size());
+  }
+
+  /** the result of flowThrough is written to all words, so a single instance is sufficient */
+  @Nonnull
+  @Override
+  protected BitVector newLoopFlow() {
+    return loopFlow;
+  }
+
+  @Override
+  protected void merge(@Nonnull BitVector in1, @Nonnull BitVector in2, @Nonnull BitVector out) {
+    out.copyFrom(in1);
+    meetInto(out, in2);
+  }
+
+  @Override
+  protected void mergeInto(
+      @Nonnull Stmt succNode, @Nonnull BitVector inout, @Nonnull BitVector in) {
+    meetInto(inout, in);
+  }
+
+  private void meetInto(@Nonnull BitVector inout, @Nonnull BitVector in) {
+    if (meet == Meet.UNION) {
+      inout.union(in);
+    } else {
+      inout.intersect(in);
+    }
+  }
+
+  @Override
+  protected void copy(@Nonnull BitVector source, @Nonnull BitVector dest) {
+    dest.copyFrom(source);
+  }
+}
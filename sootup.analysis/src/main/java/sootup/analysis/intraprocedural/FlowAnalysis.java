@@ -414,6 +414,18 @@ public abstract class FlowAnalysis<A> extends AbstractFlowAnalysis<A> {
     return false;
   }
 
+  /**
+   * Returns the flow object that receives the result of {@link #flowThrough(Object, Stmt, Object)}
+   * of a node within a loop, before it is compared to the current out-flow of the node. Analyses
+   * whose flowThrough overwrites its out-flow completely may return the same instance every time.
+   *
+   * @return a new initial flow
+   */
+  @Nonnull
+  protected A newLoopFlow() {
+    return newInitialFlow();
+  }
+
   /**
    * You can specify which flow set you would like to use of node {@code from}
    *
@@ -494,7 +506,7 @@ public abstract class FlowAnalysis<A> extends AbstractFlowAnalysis<A> {
       // Depending on the "merge"+"flowThrough" costs, it can be cheaper
       // to fall through. Only nodes with real back-references always
       // need to be checked for changes
-      A out = newInitialFlow();
+      A out = newLoopFlow();
       flowThrough(d.inFlow, d.data, out);
       if (out.equals(d.outFlow)) {
         return false;
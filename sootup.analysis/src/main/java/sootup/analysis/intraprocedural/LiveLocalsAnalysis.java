@@ -0,0 +1,71 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.LValue;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.common.stmt.Stmt;
+
+/**
+ * Computes the live locals, i.e. the locals whose current value may be used later, as a backward
+ * may-analysis.
+ */
+public class LiveLocalsAnalysis extends BitVectorFlowAnalysis<Local> {
+
+  public LiveLocalsAnalysis(@Nonnull StmtGraph<? extends BasicBlock<?>> graph) {
+    super(graph, false, Meet.UNION);
+    execute();
+  }
+
+  @Nonnull
+  @Override
+  protected List<Local> collectDomain() {
+    Set<Local> locals = new LinkedHashSet<>();
+    for (Stmt stmt : graph.getStmts()) {
+      stmt.getUsesAndDefs()
+          .filter(value -> value instanceof Local)
+          .forEach(value -> locals.add((Local) value));
+    }
+    return new ArrayList<>(locals);
+  }
+
+  @Override
+  protected void computeGenKill(
+      @Nonnull Stmt stmt, @Nonnull BitVector gen, @Nonnull BitVector kill) {
+    final Optional<LValue> def = stmt.getDef();
+    if (def.isPresent() && def.get() instanceof Local) {
+      kill.set(indexOf((Local) def.get()));
+    }
+    stmt.getUses()
+        .filter(value -> value instanceof Local)
+        .forEach(value -> gen.set(indexOf((Local) value)));
+  }
+}
@@ -0,0 +1,90 @@
+package sootup.analysis.intraprocedural;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.LValue;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.common.stmt.Stmt;
+
+/**
+ * Computes the definitions of locals that reach a Stmt, i.e. the Stmts whose assigned value may
+ * still be held by a local, as a forward may-analysis.
+ */
+public class ReachingDefinitionsAnalysis extends BitVectorFlowAnalysis<Stmt> {
+
+  /** all definitions of each local */
+  @Nonnull private final Map<Local, List<Stmt>> definitions = new HashMap<>();
+
+  public ReachingDefinitionsAnalysis(@Nonnull StmtGraph<? extends BasicBlock<?>> graph) {
+    super(graph, true, Meet.UNION);
+    execute();
+  }
+
+  @Nonnull
+  @Override
+  protected List<Stmt> collectDomain() {
+    List<Stmt> definingStmts = new ArrayList<>();
+    for (Stmt stmt : graph.getStmts()) {
+      final Optional<LValue> def = stmt.getDef();
+      if (def.isPresent() && def.get() instanceof Local) {
+        definingStmts.add(stmt);
+        definitions.computeIfAbsent((Local) def.get(), local -> new ArrayList<>()).add(stmt);
+      }
+    }
+    return definingStmts;
+  }
+
+  @Override
+  protected void computeGenKill(
+      @Nonnull Stmt stmt, @Nonnull BitVector gen, @Nonnull BitVector kill) {
+    final Optional<LValue> def = stmt.getDef();
+    if (def.isPresent() && def.get() instanceof Local) {
+      for (Stmt otherDefinition : definitions.get((Local) def.get())) {
+        kill.set(indexOf(otherDefinition));
+      }
+      gen.set(indexOf(stmt));
+    }
+  }
+
+  /** @return the definitions of the given local that reach the given Stmt */
+  @Nonnull
+  public List<Stmt> getDefinitionsBefore(@Nonnull Stmt stmt, @Nonnull Local local) {
+    List<Stmt> reaching = new ArrayList<>();
+    BitVector flow = getFlowBefore(stmt);
+    for (Stmt definition : definitions.getOrDefault(local, Collections.emptyList())) {
+      if (flow.get(indexOf(definition))) {
+        reaching.add(definition);
+      }
+    }
+    return reaching;
+  }
+}
@@ -4,6 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.*;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -11,6 +15,9 @@ import sootup.analysis.interprocedural.ifds.IFDSTaintTestSetUp;
 import sootup.callgraph.CallGraph;
 import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
 import sootup.core.graph.StmtGraph;
+import sootup.core.graph.export.BinaryGraphReader;
+import sootup.core.graph.export.BinaryGraphWriter;
+import sootup.core.graph.export.ExportedGraph;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.SootClass;
@@ -71,6 +78,57 @@ public class ICFGDotExporterTest extends IFDSTaintTestSetUp {
         String.join(" -> ", digraph.blocks[0].edges));
   }
 
+  @Test
+  public void ICFGExportTest() throws IOException {
+    view =
+        new JavaView(
+            Collections.singletonList(
+                new JavaClassPathAnalysisInputLocation("src/test/resources/icfg/binary")));
+    SootClass sc = view.getClass(view.getIdentifierFactory().getClassType("ICFGExample")).get();
+    entryMethodSignature =
+        sc.getMethods().stream()
+            .filter(e -> e.getName().equals("entryPoint"))
+            .findFirst()
+            .get()
+            .getSignature();
+    JimpleBasedInterproceduralCFG icfg =
+        new JimpleBasedInterproceduralCFG(view, entryMethodSignature, false, false);
+    CallGraph callGraph = loadCallGraph(view);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BinaryGraphWriter writer = new BinaryGraphWriter(Channels.newChannel(out))) {
+      icfg.exportICFG(callGraph, writer);
+    }
+    ExportedGraph graph =
+        BinaryGraphReader.load(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+
+    Map<MethodSignature, StmtGraph<?>> signatureToStmtGraph = new LinkedHashMap<>();
+    icfg.computeAllCalls(entryMethodSignature, signatureToStmtGraph, callGraph);
+    int stmtCount = 0;
+    int cfgEdgeCount = 0;
+    for (StmtGraph<?> stmtGraph : signatureToStmtGraph.values()) {
+      for (Stmt stmt : stmtGraph.getNodes()) {
+        stmtCount++;
+        cfgEdgeCount += stmtGraph.successors(stmt).size();
+      }
+    }
+    Map<String, Integer> nodeKinds = new HashMap<>();
+    for (int node = 0; node < graph.getNodeCount(); node++) {
+      nodeKinds.merge(graph.getNodeKind(node), 1, Integer::sum);
+    }
+    Map<String, Integer> edgeTypes = new HashMap<>();
+    for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+      edgeTypes.merge(graph.getEdgeType(edge), 1, Integer::sum);
+    }
+    assertEquals(stmtCount, (int) nodeKinds.get("stmt"));
+    assertEquals(cfgEdgeCount, (int) edgeTypes.get("cfg"));
+    assertEquals(signatureToStmtGraph.size(), (int) edgeTypes.get("entry"));
+    assertEquals("method", graph.getNodeKind(0));
+    assertEquals(entryMethodSignature.toString(), graph.getNodeLabel(0));
+    // the entry point calls other methods of the example
+    assertTrue(edgeTypes.get("call") >= callGraph.callsFrom(entryMethodSignature).size());
+  }
+
   @Test
   public void ICFGDotExportTest2() {
     List<AnalysisInputLocation> inputLocations = new ArrayList<>();
@@ -0,0 +1,118 @@
+package sootup.analysis.intraprocedural;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.graph.ImmutableBlockStmtGraph;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.LValue;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.common.expr.AbstractBinopExpr;
+import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.interceptors.LocalLivenessAnalyser;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class BitVectorFlowAnalysisTest {
+
+  /** bodies without traps, as the FlowAnalysis does not follow exceptional flows */
+  private static List<Body> loadBodies() {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar"));
+    return view.getClasses()
+        .flatMap(c -> c.getMethods().stream())
+        .filter(SootMethod::hasBody)
+        .map(SootMethod::getBody)
+        .filter(body -> body.getTraps().isEmpty())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testLiveLocals() {
+    List<Body> bodies = loadBodies();
+    assertFalse(bodies.isEmpty());
+    for (Body body : bodies) {
+      StmtGraph<?> graph = body.getStmtGraph();
+      assertTrue(graph instanceof ImmutableBlockStmtGraph);
+      LocalLivenessAnalyser expected = new LocalLivenessAnalyser(graph);
+      LiveLocalsAnalysis liveLocals = new LiveLocalsAnalysis(graph);
+      LiveLocalsAnalysis mutableLiveLocals =
+          new LiveLocalsAnalysis(new MutableBlockStmtGraph(graph));
+      for (Stmt stmt : graph.getStmts()) {
+        assertEquals(
+            expected.getLiveLocalsBeforeStmt(stmt),
+            new HashSet<>(liveLocals.getElementsBefore(stmt)),
+            stmt::toString);
+        assertEquals(
+            expected.getLiveLocalsAfterStmt(stmt),
+            new HashSet<>(liveLocals.getElementsAfter(stmt)),
+            stmt::toString);
+        assertEquals(liveLocals.getFlowBefore(stmt), mutableLiveLocals.getFlowBefore(stmt));
+      }
+    }
+  }
+
+  @Test
+  public void testReachingDefinitions() {
+    for (Body body : loadBodies()) {
+      StmtGraph<?> graph = body.getStmtGraph();
+      ReachingDefinitionsAnalysis reachingDefs = new ReachingDefinitionsAnalysis(graph);
+      for (Stmt stmt : graph.getStmts()) {
+        for (Local local :
+            stmt.getUses()
+                .filter(value -> value instanceof Local)
+                .map(value -> (Local) value)
+                .collect(Collectors.toSet())) {
+          List<Stmt> definitions = reachingDefs.getDefinitionsBefore(stmt, local);
+          assertFalse(definitions.isEmpty(), () -> local + " in " + stmt);
+          for (Stmt definition : definitions) {
+            assertEquals(local, definition.getDef().orElse(null));
+          }
+
+          // a definition directly before a use is the only one that reaches it
+          List<Stmt> predecessors = graph.predecessors(stmt);
+          if (predecessors.size() == 1
+              && predecessors.get(0).getDef().filter(local::equals).isPresent()) {
+            assertEquals(predecessors, definitions);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAvailableExpressions() {
+    int checked = 0;
+    for (Body body : loadBodies()) {
+      StmtGraph<?> graph = body.getStmtGraph();
+      AvailableExpressionsAnalysis availableExprs = new AvailableExpressionsAnalysis(graph);
+      assertTrue(availableExprs.getElementsBefore(graph.getStartingStmt()).isEmpty());
+      for (Stmt stmt : graph.getStmts()) {
+        for (Stmt successor : graph.successors(stmt)) {
+          if (!(stmt instanceof JAssignStmt)
+              || !(((JAssignStmt) stmt).getRightOp() instanceof AbstractBinopExpr)
+              || graph.predecessors(successor).size() != 1) {
+            continue;
+          }
+          AbstractBinopExpr expr = (AbstractBinopExpr) ((JAssignStmt) stmt).getRightOp();
+          LValue def = ((JAssignStmt) stmt).getLeftOp();
+          boolean redefined = expr.getUses().anyMatch(def::equals);
+          assertEquals(!redefined, availableExprs.isAvailableBefore(successor, expr));
+          checked++;
+        }
+      }
+    }
+    assertTrue(checked > 0);
+  }
+}
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import main.AndroidVersionInfo;
@@ -31,12 +32,29 @@ public class ApkAnalysisInputLocation implements AnalysisInputLocation {
 
   final Map<String, EnumSet<ClassModifier>> classNamesList;
 
+  private final boolean concurrent;
+
   public ApkAnalysisInputLocation(
       Path apkPath, String android_jar_path, List<BodyInterceptor> bodyInterceptors) {
+    this(apkPath, android_jar_path, bodyInterceptors, false);
+  }
+
+  /**
+   * @param concurrent if set, the dex files of a multi-dex apk are loaded and indexed in parallel,
+   *     the class sources are created in parallel and the method bodies of a class are converted in
+   *     parallel. Use it together with a view that can be accessed concurrently, e.g. a
+   *     ConcurrentJavaView, and with BodyInterceptors that can intercept several bodies at once.
+   */
+  public ApkAnalysisInputLocation(
+      Path apkPath,
+      String android_jar_path,
+      List<BodyInterceptor> bodyInterceptors,
+      boolean concurrent) {
     this.apk_path = apkPath;
     androidSDKVersionInfo = new AndroidVersionInfo(apkPath, android_jar_path);
     this.android_jar_path = android_jar_path;
     this.bodyInterceptors = bodyInterceptors;
+    this.concurrent = concurrent;
     this.classNamesList = extractDexFilesFromPath();
   }
 
@@ -46,22 +64,39 @@ public class ApkAnalysisInputLocation implements AnalysisInputLocation {
     try {
       dexFromSource =
           DexFileProvider.getInstance()
-              .getDexFromSource(apk_path.toFile(), androidSDKVersionInfo.getApi_version());
+              .getDexFromSource(
+                  apk_path.toFile(), androidSDKVersionInfo.getApi_version(), concurrent);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
+    if (concurrent && dexFromSource.size() > 1) {
+      // list the classes of each dex file in parallel and merge them in the order of the dex files
+      List<Map<String, EnumSet<ClassModifier>>> classLists =
+          dexFromSource
+              .parallelStream()
+              .map(dexContainer -> extractClasses(dexContainer, new HashMap<>()))
+              .collect(Collectors.toList());
+      Map<String, EnumSet<ClassModifier>> classList = new HashMap<>();
+      classLists.forEach(classList::putAll);
+      return classList;
+    }
     Map<String, EnumSet<ClassModifier>> classList = new HashMap<>();
-    dexFromSource.forEach(
-        dexContainer ->
-            dexContainer
-                .getBase()
-                .getDexFile()
-                .getClasses()
-                .forEach(
-                    dexClass ->
-                        classList.put(
-                            DexUtil.dottedClassName(dexClass.toString()),
-                            Modifiers.getClassModifiers(dexClass.getAccessFlags()))));
+    dexFromSource.forEach(dexContainer -> extractClasses(dexContainer, classList));
+    return classList;
+  }
+
+  private static Map<String, EnumSet<ClassModifier>> extractClasses(
+      DexFileProvider.DexContainer<? extends DexFile> dexContainer,
+      Map<String, EnumSet<ClassModifier>> classList) {
+    dexContainer
+        .getBase()
+        .getDexFile()
+        .getClasses()
+        .forEach(
+            dexClass ->
+                classList.put(
+                    DexUtil.dottedClassName(dexClass.toString()),
+                    Modifiers.getClassModifiers(dexClass.getAccessFlags())));
     return classList;
   }
 
@@ -69,7 +104,8 @@ public class ApkAnalysisInputLocation implements AnalysisInputLocation {
   @Override
   public Optional<? extends SootClassSource> getClassSource(
       @Nonnull ClassType type, @Nonnull View view) {
-    return Objects.requireNonNull(getClassSourceInternal(type, new DexClassProvider(view)));
+    return Objects.requireNonNull(
+        getClassSourceInternal(type, new DexClassProvider(view, concurrent)));
   }
 
   private Optional<? extends SootClassSource> getClassSourceInternal(
@@ -81,7 +117,12 @@ public class ApkAnalysisInputLocation implements AnalysisInputLocation {
   @Nonnull
   @Override
   public Collection<? extends SootClassSource> getClassSources(@Nonnull View view) {
-    return classNamesList.entrySet().stream()
+    Stream<Map.Entry<String, EnumSet<ClassModifier>>> classNames =
+        classNamesList.entrySet().stream();
+    if (concurrent) {
+      classNames = classNames.parallel();
+    }
+    return classNames
         .flatMap(
             className ->
                 StreamUtils.optionalToStream(
@@ -12,15 +12,26 @@ import sootup.core.views.View;
 
 public class DexClassProvider implements ClassProvider {
   @Nonnull private final View view;
+  private final boolean concurrent;
 
   public DexClassProvider(@Nonnull View view) {
+    this(view, false);
+  }
+
+  /**
+   * @param concurrent whether the dex files are indexed and the method bodies of a class are
+   *     converted in parallel. The class sources can be created by several threads at once.
+   */
+  public DexClassProvider(@Nonnull View view, boolean concurrent) {
     this.view = view;
+    this.concurrent = concurrent;
   }
 
   @Override
   public Optional<SootClassSource> createClassSource(
       AnalysisInputLocation inputLocation, Path sourcePath, ClassType classSignature) {
-    return Optional.of(new DexClassSource(view, inputLocation, classSignature, sourcePath));
+    return Optional.of(
+        new DexClassSource(view, inputLocation, classSignature, sourcePath, concurrent));
   }
 
   @Override
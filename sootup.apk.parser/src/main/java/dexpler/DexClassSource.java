@@ -37,18 +37,31 @@ public class DexClassSource extends JavaSootClassSource {
   List<BodyInterceptor> bodyInterceptors;
 
   @Nonnull private final View view;
+  private final boolean concurrent;
 
   public DexClassSource(
       @Nonnull View view,
       @Nonnull AnalysisInputLocation analysisInputLocation,
       @Nonnull ClassType classSignature,
       @Nonnull Path sourcePath) {
+    this(view, analysisInputLocation, classSignature, sourcePath, false);
+  }
+
+  /** @param concurrent whether the method bodies are converted in parallel */
+  public DexClassSource(
+      @Nonnull View view,
+      @Nonnull AnalysisInputLocation analysisInputLocation,
+      @Nonnull ClassType classSignature,
+      @Nonnull Path sourcePath,
+      boolean concurrent) {
     super(analysisInputLocation, classSignature, sourcePath);
     // Initialize only for the first time.
     this.view = view;
+    this.concurrent = concurrent;
     this.bodyInterceptors = analysisInputLocation.getBodyInterceptors();
     if (this.wrapper == null) {
-      this.wrapper = DexResolver.getInstance().initializeDexFile(new File(sourcePath.toString()));
+      this.wrapper =
+          DexResolver.getInstance().initializeDexFile(new File(sourcePath.toString()), concurrent);
     }
     this.classInformation = wrapper.getClassInformation(classSignature);
   }
@@ -66,9 +79,12 @@ public class DexClassSource extends JavaSootClassSource {
           classInformation.classDefinition.getVirtualMethods();
       Stream<? extends Method> virtualMethodStream =
           StreamSupport.stream(virtualMethodIterable.spliterator(), false);
-      return Stream.concat(methodStream, virtualMethodStream)
-          .map(method -> loadMethod(method, dexMethod))
-          .collect(Collectors.toSet());
+      Stream<? extends Method> methods = Stream.concat(methodStream, virtualMethodStream);
+      if (concurrent) {
+        // each DexBody is converted and intercepted independently of the others
+        methods = methods.parallel();
+      }
+      return methods.map(method -> loadMethod(method, dexMethod)).collect(Collectors.toSet());
     } else {
       throw new IllegalStateException("Class Information Should not be null");
     }
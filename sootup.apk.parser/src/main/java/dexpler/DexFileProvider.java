@@ -2,7 +2,10 @@ package dexpler;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import org.jf.dexlib2.DexFileFactory;
 import org.jf.dexlib2.Opcodes;
 import org.jf.dexlib2.dexbacked.DexBackedDexFile;
@@ -15,14 +18,11 @@ public class DexFileProvider {
 
   private final Logger logger = LoggerFactory.getLogger(DexFileProvider.class);
 
-  private int api_version;
+  private volatile int api_version;
 
-  private static DexFileProvider instance;
+  private static final DexFileProvider instance = new DexFileProvider();
 
   public static DexFileProvider getInstance() {
-    if (instance == null) {
-      instance = new DexFileProvider();
-    }
     return instance;
   }
 
@@ -46,8 +46,12 @@ public class DexFileProvider {
     }
   }
 
-  /** Mapping of filesystem file (apk, dex, etc.) to mapping of dex name to dex file */
-  private final Map<String, Map<String, DexContainer<? extends DexFile>>> dexMap = new HashMap<>();
+  /**
+   * Mapping of filesystem file (apk, dex, etc.) to mapping of dex name to dex file. It is shared by
+   * all threads that load dex files.
+   */
+  private final Map<String, Map<String, DexContainer<? extends DexFile>>> dexMap =
+      new ConcurrentHashMap<>();
 
   /**
    * Returns all dex files found in dex source
@@ -59,15 +63,38 @@ public class DexFileProvider {
    */
   public List<DexContainer<? extends DexFile>> getDexFromSource(File dexSource, int api_version)
       throws IOException {
+    return getDexFromSource(dexSource, api_version, false);
+  }
+
+  /**
+   * Returns all dex files found in dex source
+   *
+   * @param dexSource Path to a jar, apk, dex, odex or a directory containing multiple dex files
+   * @param api_version the version of the currently instrumenting APK
+   * @param parallel whether the dex entries of a multi-dex source are loaded in parallel
+   * @return List of dex files derived from source
+   * @throws IOException if the dex source is not parsed properly
+   */
+  public List<DexContainer<? extends DexFile>> getDexFromSource(
+      File dexSource, int api_version, boolean parallel) throws IOException {
     this.api_version = api_version;
-    return getDexFromSource(dexSource, DEFAULT_PRIORITIZER);
+    return getDexFromSource(dexSource, api_version, parallel, DEFAULT_PRIORITIZER);
   }
 
   public List<DexContainer<? extends DexFile>> getDexFromSource(
       File dexSource, Comparator<DexContainer<? extends DexFile>> prioritizer) throws IOException {
+    return getDexFromSource(dexSource, api_version, false, prioritizer);
+  }
+
+  private List<DexContainer<? extends DexFile>> getDexFromSource(
+      File dexSource,
+      int api_version,
+      boolean parallel,
+      Comparator<DexContainer<? extends DexFile>> prioritizer)
+      throws IOException {
     ArrayList<DexContainer<? extends DexFile>> resultList = new ArrayList<>();
     List<File> allSources = allSourcesFromFile(dexSource);
-    updateIndex(allSources);
+    updateIndex(allSources, api_version, parallel);
     for (File theSource : allSources) {
       resultList.addAll(dexMap.get(theSource.getCanonicalPath()).values());
     }
@@ -78,18 +105,20 @@ public class DexFileProvider {
     return resultList;
   }
 
-  private void updateIndex(List<File> dexSources) throws IOException {
+  private void updateIndex(List<File> dexSources, int api_version, boolean parallel)
+      throws IOException {
     for (File theSource : dexSources) {
       String key = theSource.getCanonicalPath();
-      Map<String, DexContainer<? extends DexFile>> dexFiles = dexMap.get(key);
-      if (dexFiles == null) {
-        try {
-          dexFiles = mappingForFile(theSource);
-          dexMap.put(key, dexFiles);
-        } catch (IOException e) {
-          throw new IllegalStateException("Error parsing dex source", e);
-        }
-      }
+      // computeIfAbsent: concurrent requests for the same source load it only once
+      dexMap.computeIfAbsent(
+          key,
+          k -> {
+            try {
+              return mappingForFile(theSource, api_version, parallel);
+            } catch (IOException e) {
+              throw new IllegalStateException("Error parsing dex source", e);
+            }
+          });
     }
   }
 
@@ -99,8 +128,8 @@ public class DexFileProvider {
    * @return
    * @throws IOException
    */
-  private Map<String, DexContainer<? extends DexFile>> mappingForFile(File dexSourceFile)
-      throws IOException {
+  private Map<String, DexContainer<? extends DexFile>> mappingForFile(
+      File dexSourceFile, int api_version, boolean parallel) throws IOException {
     // load dex files from apk/folder/file
     boolean multiple_dex = true;
     MultiDexContainer<? extends DexBackedDexFile> dexContainer =
@@ -113,6 +142,31 @@ public class DexFileProvider {
       return Collections.emptyMap();
     }
 
+    // reading and indexing the entries (e.g. classes.dex, classes2.dex, ...) of a multi-dex apk is
+    // independent of each other
+    final Map<String, MultiDexContainer.DexEntry<? extends DexFile>> entries;
+    if (parallel && multiple_dex && dexFileCount > 1) {
+      try {
+        entries =
+            dexEntryNameList
+                .parallelStream()
+                .collect(
+                    Collectors.toConcurrentMap(
+                        entryName -> entryName,
+                        entryName -> {
+                          try {
+                            return dexContainer.getEntry(entryName);
+                          } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                          }
+                        }));
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    } else {
+      entries = null;
+    }
+
     Map<String, DexContainer<? extends DexFile>> dexMap = new HashMap<>(dexFileCount);
 
     // report found dex files and add to list.
@@ -122,7 +176,8 @@ public class DexFileProvider {
     ListIterator<String> entryNameIterator = dexEntryNameList.listIterator(dexFileCount);
     while (entryNameIterator.hasPrevious()) {
       String entryName = entryNameIterator.previous();
-      MultiDexContainer.DexEntry<? extends DexFile> entry = dexContainer.getEntry(entryName);
+      MultiDexContainer.DexEntry<? extends DexFile> entry =
+          entries != null ? entries.get(entryName) : dexContainer.getEntry(entryName);
       entryName = deriveDexName(entryName);
       logger.debug(
           String.format(
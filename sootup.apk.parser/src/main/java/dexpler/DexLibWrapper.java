@@ -4,6 +4,7 @@ import Util.*;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.stream.Collectors;
 import org.jf.dexlib2.iface.ClassDef;
 import org.jf.dexlib2.iface.DexFile;
 import org.jf.dexlib2.iface.MultiDexContainer;
@@ -31,6 +32,7 @@ public class DexLibWrapper {
 
   private final Map<String, ClassInformation> classesToDefItems = new HashMap<>();
   private final Collection<MultiDexContainer.DexEntry<? extends DexFile>> dexFiles;
+  private final boolean parallel;
 
   /**
    * Construct a DexlibWrapper from a dex file and stores its classes referenced by their name. No
@@ -39,10 +41,20 @@ public class DexLibWrapper {
    * @param dexSource the dex file from which the classes are taken for jimplification
    */
   public DexLibWrapper(File dexSource) {
+    this(dexSource, false);
+  }
+
+  /**
+   * @param dexSource the dex file from which the classes are taken for jimplification
+   * @param parallel whether the dex entries are loaded and indexed in parallel
+   */
+  public DexLibWrapper(File dexSource, boolean parallel) {
+    this.parallel = parallel;
     try {
       List<DexFileProvider.DexContainer<? extends DexFile>> containers =
           DexFileProvider.getInstance()
-              .getDexFromSource(dexSource, DexUtil.getAndroidVersionInfo().getApi_version());
+              .getDexFromSource(
+                  dexSource, DexUtil.getAndroidVersionInfo().getApi_version(), parallel);
       this.dexFiles = new ArrayList<>(containers.size());
       for (DexFileProvider.DexContainer<? extends DexFile> container : containers) {
         this.dexFiles.add(container.getBase());
@@ -53,14 +65,33 @@ public class DexLibWrapper {
   }
 
   public void initialize() {
+    if (parallel && dexFiles.size() > 1) {
+      // index the dex files in parallel, but merge them in their order: if a class is defined in
+      // several dex files, the same definition as in the sequential mode is kept
+      List<Map<String, ClassInformation>> indices =
+          dexFiles.parallelStream().map(DexLibWrapper::index).collect(Collectors.toList());
+      indices.forEach(classesToDefItems::putAll);
+      return;
+    }
     // resolve classes in dex files
     for (MultiDexContainer.DexEntry<? extends DexFile> dexEntry : dexFiles) {
-      final DexFile dexFile = dexEntry.getDexFile();
-      for (ClassDef defItem : dexFile.getClasses()) {
-        String forClassName = DexUtil.dottedClassName(defItem.getType());
-        classesToDefItems.put(forClassName, new ClassInformation(dexEntry, defItem));
-      }
+      index(dexEntry, classesToDefItems);
+    }
+  }
+
+  private static Map<String, ClassInformation> index(
+      MultiDexContainer.DexEntry<? extends DexFile> dexEntry) {
+    return index(dexEntry, new HashMap<>());
+  }
+
+  private static Map<String, ClassInformation> index(
+      MultiDexContainer.DexEntry<? extends DexFile> dexEntry, Map<String, ClassInformation> index) {
+    final DexFile dexFile = dexEntry.getDexFile();
+    for (ClassDef defItem : dexFile.getClasses()) {
+      String forClassName = DexUtil.dottedClassName(defItem.getType());
+      index.put(forClassName, new ClassInformation(dexEntry, defItem));
     }
+    return index;
   }
 
   public ClassInformation getClassInformation(ClassType classType) {
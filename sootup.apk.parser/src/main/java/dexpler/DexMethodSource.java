@@ -49,9 +49,10 @@ public class DexMethodSource implements BodySource {
     this.method = method;
   }
 
+  /** The interceptors work on the shared stmt graph of this source, so calls are serialized. */
   @Nonnull
   @Override
-  public Body resolveBody(@Nonnull Iterable<MethodModifier> modifiers)
+  public synchronized Body resolveBody(@Nonnull Iterable<MethodModifier> modifiers)
       throws ResolveException, IOException {
     Set<MethodModifier> modifiersSet =
         StreamSupport.stream(modifiers.spliterator(), false).collect(Collectors.toSet());
@@ -64,7 +65,7 @@ public class DexMethodSource implements BodySource {
     for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
       bodyInterceptor.interceptBody(bodyBuilder, view);
     }
-    return bodyBuilder.build();
+    return bodyBuilder.build().withImmutableStmtGraph();
   }
 
   public JavaSootMethod makeSootMethod() {
@@ -1,27 +1,35 @@
 package dexpler;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DexResolver {
-  protected Map<File, DexLibWrapper> cache = new HashMap<>();
+  protected Map<File, DexLibWrapper> cache = new ConcurrentHashMap<>();
 
-  private static DexResolver instance;
+  private static final DexResolver instance = new DexResolver();
 
   public static DexResolver getInstance() {
-    if (instance == null) {
-      instance = new DexResolver();
-    }
     return instance;
   }
 
   public DexLibWrapper initializeDexFile(File file) {
+    return initializeDexFile(file, false);
+  }
+
+  /** @param parallel whether the dex entries of the file are loaded and indexed in parallel */
+  public DexLibWrapper initializeDexFile(File file, boolean parallel) {
     DexLibWrapper wrapper = cache.get(file);
     if (wrapper == null) {
-      wrapper = new DexLibWrapper(file);
-      cache.put(file, wrapper);
-      wrapper.initialize();
+      // computeIfAbsent: threads that request the same file wait for a single initialization
+      wrapper =
+          cache.computeIfAbsent(
+              file,
+              f -> {
+                DexLibWrapper newWrapper = new DexLibWrapper(f, parallel);
+                newWrapper.initialize();
+                return newWrapper;
+              });
     }
     return wrapper;
   }
@@ -1,10 +1,17 @@
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.Collectors;
-import org.junit.Test;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
 import sootup.core.model.ClassModifier;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
@@ -13,6 +20,7 @@ import sootup.core.types.ClassType;
 import sootup.core.types.VoidType;
 import sootup.java.core.JavaSootClass;
 import sootup.java.core.JavaSootMethod;
+import sootup.java.core.views.ConcurrentJavaView;
 import sootup.java.core.views.JavaView;
 
 public class ApkToDexTest {
@@ -90,4 +98,60 @@ public class ApkToDexTest {
     assertTrue(sootClass.getMethod(methodSignature.getSubSignature()).isPresent());
     SootMethod sootMethod = sootClass.getMethod(methodSignature.getSubSignature()).get();
   }
+
+  /** @return a copy of the apk with a second dex file that contains the same classes */
+  private static Path createMultiDexApk(Path apk) throws IOException {
+    Path multiDexApk = Files.createTempFile("multidex", ".apk");
+    multiDexApk.toFile().deleteOnExit();
+    try (ZipFile in = new ZipFile(apk.toFile());
+        ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(multiDexApk))) {
+      for (ZipEntry entry : Collections.list(in.entries())) {
+        byte[] content = ByteStreams.toByteArray(in.getInputStream(entry));
+        out.putNextEntry(new ZipEntry(entry.getName()));
+        out.write(content);
+        if (entry.getName().equals("classes.dex")) {
+          out.putNextEntry(new ZipEntry("classes2.dex"));
+          out.write(content);
+        }
+      }
+    }
+    return multiDexApk;
+  }
+
+  /** @return the sorted bodies of each class, the signatures of the methods are not unique */
+  private static Map<String, List<String>> convertBodies(JavaView view) {
+    Map<String, List<String>> bodies = new HashMap<>();
+    view.getClasses()
+        .forEach(
+            c -> {
+              List<String> classBodies = new ArrayList<>();
+              for (SootMethod method : c.getMethods()) {
+                if (method.hasBody()) {
+                  // not Body.toString(): building the traps fails for a few bodies of the apk
+                  classBodies.add(method.getBody().getStmts().toString());
+                }
+              }
+              Collections.sort(classBodies);
+              bodies.put(c.getType().toString(), classBodies);
+            });
+    return bodies;
+  }
+
+  @Test
+  public void loadMultiDexApkConcurrently() throws IOException {
+    Path apk = Paths.get("resources/FlowSensitivity1.apk");
+    JavaView view =
+        new JavaView(
+            new ApkAnalysisInputLocation(
+                createMultiDexApk(apk), "", DexBodyInterceptors.Default.bodyInterceptors()));
+    JavaView concurrentView =
+        new ConcurrentJavaView(
+            new ApkAnalysisInputLocation(
+                createMultiDexApk(apk), "", DexBodyInterceptors.Default.bodyInterceptors(), true));
+
+    assertEquals(740, concurrentView.getClasses().count());
+    Map<String, List<String>> bodies = convertBodies(view);
+    assertEquals(740, bodies.size());
+    assertEquals(bodies, convertBodies(concurrentView));
+  }
 }
@@ -23,9 +23,15 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sootup.callgraph.CallGraph.Call;
@@ -59,10 +65,47 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
   @Nonnull protected final View view;
 
+  @Nullable private Executor bodyPrefetchExecutor;
+
   protected AbstractCallGraphAlgorithm(@Nonnull View view) {
     this.view = view;
   }
 
+  /**
+   * Sets an executor which builds the bodies of the methods as soon as they are added to the work
+   * list, so the bodies are usually resolved by the time the method is processed. Only bodies of
+   * methods in non-library classes are prefetched, as the others are not processed.
+   *
+   * @param executor the executor which builds the bodies or null to disable the prefetching
+   * @see View#prefetchBodies(Collection, Executor)
+   */
+  public void setBodyPrefetchExecutor(@Nullable Executor executor) {
+    this.bodyPrefetchExecutor = executor;
+  }
+
+  /**
+   * Is called for every method which is added to the work list. Starts building its body in the
+   * background if a body prefetch executor is set.
+   */
+  protected void prefetchBody(@Nonnull MethodSignature method) {
+    Executor executor = bodyPrefetchExecutor;
+    if (executor == null) {
+      return;
+    }
+    // the result is ignored, errors occur again when the method is processed
+    CompletableFuture.runAsync(
+        () -> {
+          boolean isApplicationMethod =
+              view.getClass(method.getDeclClassType())
+                  .map(clazz -> !clazz.isLibraryClass())
+                  .orElse(false);
+          if (isApplicationMethod) {
+            view.prefetchBodies(Collections.singletonList(method), Runnable::run);
+          }
+        },
+        executor);
+  }
+
   /**
    * This method starts the construction of the call graph algorithm. It initializes the needed
    * objects for the call graph generation and calls processWorkList method.
@@ -81,12 +124,97 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     List<MethodSignature> clinits = getClinitFromEntryPoints(entryPoints);
 
     workList.addAll(clinits);
+    workList.forEach(this::prefetchBody);
     MutableCallGraph cg = initializeCallGraph(entryPoints, clinits);
 
     processWorkList(view, workList, processed, cg);
     return cg;
   }
 
+  /**
+   * Same as {@link #constructCompleteCallGraph(View, List)}, but the reachable methods are
+   * processed in parallel by the tasks of the given pool. Each task processes one method and forks
+   * a new task for each method it discovers. The view, its type hierarchy and the data structures
+   * of the call graph algorithm have to be thread-safe.
+   *
+   * @param view the view contains all needed class files.
+   * @param entryPoints a list of method signatures the call graph generation starts from.
+   * @param pool the pool which runs the tasks.
+   * @return the complete constructed call graph starting from the entry methods.
+   */
+  @Nonnull
+  final CallGraph constructCompleteCallGraph(
+      View view, List<MethodSignature> entryPoints, @Nonnull ForkJoinPool pool) {
+    Set<MethodSignature> processed = ConcurrentHashMap.newKeySet();
+
+    // find additional entry points
+    List<MethodSignature> clinits = getClinitFromEntryPoints(entryPoints);
+
+    List<MethodSignature> workList = new ArrayList<>(entryPoints);
+    workList.addAll(clinits);
+    MutableCallGraph cg = initializeConcurrentCallGraph(entryPoints, clinits);
+
+    pool.invoke(new ProcessMethodsTask(null, view, workList, processed, cg));
+    return cg;
+  }
+
+  /**
+   * This method creates the thread-safe mutable call graph which is used in the parallel
+   * construction of the call graph. Overwrite it to change the used mutable call graph
+   *
+   * @return the initialized call graph used in the call graph algorithm
+   */
+  protected MutableCallGraph initializeConcurrentCallGraph(
+      List<MethodSignature> entryPoints, List<MethodSignature> clinits) {
+    ArrayList<MethodSignature> rootSignatures = new ArrayList<>(entryPoints);
+    rootSignatures.addAll(clinits);
+    return new ConcurrentCallGraph(rootSignatures);
+  }
+
+  /**
+   * Processes the given methods and forks a task for every method which is added to the work list
+   * in the meantime. The task completes when all the forked tasks are completed.
+   */
+  private class ProcessMethodsTask extends CountedCompleter<Void> {
+    @Nonnull private final View view;
+    @Nonnull private final Collection<MethodSignature> methodSignatures;
+    @Nonnull private final Set<MethodSignature> processed;
+    @Nonnull private final MutableCallGraph cg;
+
+    private ProcessMethodsTask(
+        ProcessMethodsTask parent,
+        @Nonnull View view,
+        @Nonnull Collection<MethodSignature> methodSignatures,
+        @Nonnull Set<MethodSignature> processed,
+        @Nonnull MutableCallGraph cg) {
+      super(parent);
+      this.view = view;
+      this.methodSignatures = methodSignatures;
+      this.processed = processed;
+      this.cg = cg;
+    }
+
+    @Override
+    public void compute() {
+      Deque<MethodSignature> workList = new ArrayDeque<>();
+      for (MethodSignature methodSignature : methodSignatures) {
+        // claim the method, so it is processed by exactly one task
+        if (processed.add(methodSignature)) {
+          processMethod(view, methodSignature, workList, processed, cg);
+        }
+      }
+      for (MethodSignature methodSignature : workList) {
+        if (!processed.contains(methodSignature)) {
+          addToPendingCount(1);
+          new ProcessMethodsTask(
+                  this, view, Collections.singletonList(methodSignature), processed, cg)
+              .fork();
+        }
+      }
+      tryComplete();
+    }
+  }
+
   /**
    * This method creates the mutable call graph which is used in the call graph algorithm. Overwrite
    * it to change the used mutable call graph
@@ -145,38 +273,50 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
       if (processed.contains(currentMethodSignature)) {
         continue;
       }
+      processMethod(view, currentMethodSignature, workList, processed, cg);
+    }
+  }
 
-      // skip if library class
-      SootClass currentClass =
-          view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
-      if (currentClass == null || currentClass.isLibraryClass()) {
-        continue;
-      }
+  /**
+   * Processes a single method of the work list: adds it to the call graph, adds the edges of all
+   * its calls and adds newly discovered methods to the <code>workList</code>. Methods of library
+   * classes are skipped.
+   */
+  private void processMethod(
+      View view,
+      MethodSignature currentMethodSignature,
+      Deque<MethodSignature> workList,
+      Set<MethodSignature> processed,
+      MutableCallGraph cg) {
+    // skip if library class
+    SootClass currentClass = view.getClass(currentMethodSignature.getDeclClassType()).orElse(null);
+    if (currentClass == null || currentClass.isLibraryClass()) {
+      return;
+    }
 
-      // perform pre-processing if needed
-      preProcessingMethod(view, currentMethodSignature, workList, cg);
+    // perform pre-processing if needed
+    preProcessingMethod(view, currentMethodSignature, workList, cg);
 
-      // process the method
-      if (!cg.containsMethod(currentMethodSignature)) {
-        cg.addMethod(currentMethodSignature);
-      }
+    // process the method
+    if (!cg.containsMethod(currentMethodSignature)) {
+      cg.addMethod(currentMethodSignature);
+    }
 
-      // transform the method signature to the actual SootMethod
-      SootMethod currentMethod =
-          currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
+    // transform the method signature to the actual SootMethod
+    SootMethod currentMethod =
+        currentClass.getMethod(currentMethodSignature.getSubSignature()).orElse(null);
 
-      // get all call targets of invocations in the method body
-      resolveAllCallsFromSourceMethod(currentMethod, cg, workList);
+    // get all call targets of invocations in the method body
+    resolveAllCallsFromSourceMethod(currentMethod, cg, workList);
 
-      // get all call targets of implicit edges in the method body
-      resolveAllImplicitCallsFromSourceMethod(currentMethod, cg, workList);
+    // get all call targets of implicit edges in the method body
+    resolveAllImplicitCallsFromSourceMethod(currentMethod, cg, workList);
 
-      // set method as processed
-      processed.add(currentMethodSignature);
+    // set method as processed
+    processed.add(currentMethodSignature);
 
-      // perform post-processing if needed
-      postProcessingMethod(view, currentMethodSignature, workList, cg);
-    }
+    // perform post-processing if needed
+    postProcessingMethod(view, currentMethodSignature, workList, cg);
   }
 
   /**
@@ -199,10 +339,12 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
     if (!cg.containsMethod(source)) {
       cg.addMethod(source);
       workList.push(source);
+      prefetchBody(source);
     }
     if (!cg.containsMethod(target)) {
       cg.addMethod(target);
       workList.push(target);
+      prefetchBody(target);
     }
     if (!cg.containsCall(source, target, invokeStmt)) {
       cg.addCall(source, target, invokeStmt);
@@ -396,6 +538,7 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
 
     // Step 1: Add edges from the new methods to other methods
     Deque<MethodSignature> workList = new ArrayDeque<>(newMethodSignatures);
+    workList.forEach(this::prefetchBody);
     Set<MethodSignature> processed = new HashSet<>(oldCallGraph.getMethodSignatures());
     processWorkList(view, workList, processed, updated);
 
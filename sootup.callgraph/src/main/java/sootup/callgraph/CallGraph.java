@@ -22,9 +22,15 @@ package sootup.callgraph;
  * #L%
  */
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import sootup.core.graph.export.GraphWriter;
 import sootup.core.jimple.common.stmt.InvokableStmt;
 import sootup.core.signatures.MethodSignature;
 
@@ -188,6 +194,52 @@ public interface CallGraph {
   /** This method converts the call graph object into dot format and write it to a string file. */
   String exportAsDot();
 
+  /**
+   * Writes the call graph to the given writer, e.g. a {@link
+   * sootup.core.graph.export.BinaryGraphWriter}. Every method becomes a node of the kind "method"
+   * that is labeled with its signature and every call becomes an edge of the type "call". The
+   * methods are written in the order of their signatures, so the node ids do not depend on the
+   * implementation of the call graph. The writer is not closed.
+   *
+   * <p>This is not fully streaming: the sorted methods and their node ids are kept for the whole
+   * export, and the calls of one method are copied and sorted before they are written. The memory
+   * usage therefore grows with the number of methods and the largest number of calls of a single
+   * method, but not with the number of all calls.
+   *
+   * @param writer receives the nodes and edges
+   */
+  default void exportTo(@Nonnull GraphWriter writer) throws IOException {
+    // the string keys are computed once per signature and statement, not once per comparison
+    Map<MethodSignature, String> names = new HashMap<>();
+    for (MethodSignature method : getMethodSignatures()) {
+      names.put(method, method.toString());
+    }
+    List<MethodSignature> methods = new ArrayList<>(names.keySet());
+    methods.sort(Comparator.comparing(names::get));
+    Map<MethodSignature, Integer> nodeIds = new HashMap<>(methods.size() * 2);
+    for (MethodSignature method : methods) {
+      nodeIds.put(method, writer.addNode("method", names.get(method)));
+    }
+    for (MethodSignature method : methods) {
+      int source = nodeIds.get(method);
+      List<Call> calls = new ArrayList<>(callsFrom(method));
+      Map<Call, String> stmtNames = new HashMap<>(calls.size() * 2);
+      for (Call call : calls) {
+        names.computeIfAbsent(call.getTargetMethodSignature(), MethodSignature::toString);
+        stmtNames.put(call, call.getInvokableStmt().toString());
+      }
+      calls.sort(
+          Comparator.comparing((Call call) -> names.get(call.getTargetMethodSignature()))
+              .thenComparing(stmtNames::get));
+      for (Call call : calls) {
+        Integer target = nodeIds.get(call.getTargetMethodSignature());
+        if (target != null) {
+          writer.addEdge("call", source, target);
+        }
+      }
+    }
+  }
+
   /**
    * This method copies a call graph.
    *
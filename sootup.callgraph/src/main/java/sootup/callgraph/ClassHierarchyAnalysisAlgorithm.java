@@ -23,6 +23,7 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import sootup.core.IdentifierFactory;
@@ -66,6 +67,21 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
     return constructCompleteCallGraph(view, entryPoints);
   }
 
+  /**
+   * Same as {@link #initialize(List)}, but the reachable methods are processed in parallel by the
+   * given pool. The view has to be thread-safe. The resulting call graph is the same as the one of
+   * the sequential construction.
+   *
+   * @param entryPoints the methods the algorithm starts at.
+   * @param pool the pool which processes the methods.
+   * @return a generated call graph with every entry point as starting point.
+   */
+  @Nonnull
+  public CallGraph initialize(
+      @Nonnull List<MethodSignature> entryPoints, @Nonnull ForkJoinPool pool) {
+    return constructCompleteCallGraph(view, entryPoints, pool);
+  }
+
   /**
    * In the CHA algorithm, every virtual call is resolved by only using the hierarchy. Every
    * subclass of the class is considered as target if it contains an implementation of the methods
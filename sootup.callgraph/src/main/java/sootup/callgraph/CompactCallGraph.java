@@ -0,0 +1,500 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.base.Preconditions;
+import java.util.*;
+import java.util.function.IntConsumer;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.InvokableStmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.SootClassMemberSignature;
+
+/**
+ * A memory efficient {@link MutableCallGraph} for very large call graphs. Methods and call-site
+ * statements are numbered densely and each call is stored as an id in a few int arrays instead of
+ * an object: while the call graph is mutable, the calls of a method are linked lists in int arrays;
+ * {@link #freeze()} compacts them to a read-only CSR (compressed sparse row) form.
+ *
+ * <p>Besides the methods of {@link CallGraph}, which create their result sets on each call, the
+ * graph can be traversed without allocations via the method and call ids, e.g. {@link
+ * #forEachCallFrom(int, IntConsumer)}, {@link #getCallTarget(int)}.
+ *
+ * <p>This class is not thread-safe while it is mutable. A frozen call graph can be read
+ * concurrently.
+ */
+public class CompactCallGraph implements MutableCallGraph {
+
+  private static final int[] EMPTY = new int[0];
+
+  @Nonnull private final List<MethodSignature> entryMethods;
+
+  @Nonnull private final Map<MethodSignature, Integer> methodIds = new HashMap<>();
+  @Nonnull private final List<MethodSignature> methods = new ArrayList<>();
+  @Nonnull private final Map<InvokableStmt, Integer> stmtIds = new HashMap<>();
+  @Nonnull private final List<InvokableStmt> stmts = new ArrayList<>();
+
+  private int callCount = 0;
+  @Nonnull private int[] callSource = new int[16];
+  @Nonnull private int[] callTarget = new int[16];
+  @Nonnull private int[] callStmt = new int[16];
+
+  /** open addressing hash table of call ids + 1 to find duplicate calls. */
+  @Nonnull private int[] callTable = new int[32];
+
+  // mutable form: linked lists of the incoming and outgoing calls of each method
+  @Nonnull private int[] firstCallFrom = new int[16];
+  @Nonnull private int[] firstCallTo = new int[16];
+  @Nonnull private int[] nextCallFrom = new int[16];
+  @Nonnull private int[] nextCallTo = new int[16];
+
+  // frozen form: the calls are sorted by their source method, so the calls from a method are the
+  // ids in [callsFromOffsets[m], callsFromOffsets[m+1]), the calls to a method are the entries in
+  // [callsToOffsets[m], callsToOffsets[m+1]) of callsTo.
+  private boolean frozen = false;
+  @Nonnull private int[] callsFromOffsets = EMPTY;
+  @Nonnull private int[] callsToOffsets = EMPTY;
+  @Nonnull private int[] callsTo = EMPTY;
+
+  public CompactCallGraph(@Nonnull List<MethodSignature> entryMethods) {
+    this.entryMethods = entryMethods;
+  }
+
+  /** Creates a mutable copy of the given call graph. */
+  @Nonnull
+  public static CompactCallGraph copyOf(@Nonnull CallGraph callGraph) {
+    CompactCallGraph copy = new CompactCallGraph(new ArrayList<>(callGraph.getEntryMethods()));
+    callGraph.getMethodSignatures().forEach(copy::addMethod);
+    for (MethodSignature method : callGraph.getMethodSignatures()) {
+      for (Call call : callGraph.callsFrom(method)) {
+        copy.addCall(
+            call.getSourceMethodSignature(),
+            call.getTargetMethodSignature(),
+            call.getInvokableStmt());
+      }
+    }
+    return copy;
+  }
+
+  private void checkMutable() {
+    if (frozen) {
+      throw new IllegalStateException("The call graph is frozen and can not be modified.");
+    }
+  }
+
+  @Override
+  public void addMethod(@Nonnull MethodSignature calledMethod) {
+    checkMutable();
+    if (methodIds.containsKey(calledMethod)) {
+      return;
+    }
+    final int id = methods.size();
+    methodIds.put(calledMethod, id);
+    methods.add(calledMethod);
+    if (id == firstCallFrom.length) {
+      firstCallFrom = Arrays.copyOf(firstCallFrom, id * 2);
+      firstCallTo = Arrays.copyOf(firstCallTo, id * 2);
+    }
+    firstCallFrom[id] = -1;
+    firstCallTo[id] = -1;
+  }
+
+  @Override
+  public void addCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull InvokableStmt invokableStmt) {
+    checkMutable();
+    final int source = idOf(sourceMethod);
+    final int target = idOf(targetMethod);
+    Integer stmt = stmtIds.get(invokableStmt);
+    if (stmt == null) {
+      stmt = stmts.size();
+      stmtIds.put(invokableStmt, stmt);
+      stmts.add(invokableStmt);
+    }
+    final int slot = findSlot(source, target, stmt);
+    if (callTable[slot] != 0) {
+      return;
+    }
+
+    final int call = callCount++;
+    if (call == callSource.length) {
+      final int capacity = call * 2;
+      callSource = Arrays.copyOf(callSource, capacity);
+      callTarget = Arrays.copyOf(callTarget, capacity);
+      callStmt = Arrays.copyOf(callStmt, capacity);
+      nextCallFrom = Arrays.copyOf(nextCallFrom, capacity);
+      nextCallTo = Arrays.copyOf(nextCallTo, capacity);
+    }
+    callSource[call] = source;
+    callTarget[call] = target;
+    callStmt[call] = stmt;
+    nextCallFrom[call] = firstCallFrom[source];
+    firstCallFrom[source] = call;
+    nextCallTo[call] = firstCallTo[target];
+    firstCallTo[target] = call;
+
+    callTable[slot] = call + 1;
+    if (callCount * 2 > callTable.length) {
+      rehash(callTable.length * 2);
+    }
+  }
+
+  private static int hash(int source, int target, int stmt) {
+    int h = source * 0x9E3779B1;
+    h = (h ^ target) * 0x9E3779B1;
+    h = (h ^ stmt) * 0x9E3779B1;
+    return h ^ (h >>> 16);
+  }
+
+  /** @return the slot of the call in the hash table or the empty slot it would be stored in. */
+  private int findSlot(int source, int target, int stmt) {
+    final int mask = callTable.length - 1;
+    int slot = hash(source, target, stmt) & mask;
+    while (true) {
+      final int entry = callTable[slot];
+      if (entry == 0) {
+        return slot;
+      }
+      final int call = entry - 1;
+      if (callSource[call] == source && callTarget[call] == target && callStmt[call] == stmt) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private void rehash(int capacity) {
+    callTable = new int[capacity];
+    final int mask = capacity - 1;
+    for (int call = 0; call < callCount; call++) {
+      int slot = hash(callSource[call], callTarget[call], callStmt[call]) & mask;
+      while (callTable[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      callTable[slot] = call + 1;
+    }
+  }
+
+  /**
+   * Converts this call graph into its read-only form: the calls are renumbered in the order of
+   * their source methods and the per-call links are replaced by offset arrays. Afterwards, the call
+   * graph can not be modified anymore.
+   *
+   * @return this call graph
+   */
+  @Nonnull
+  public CompactCallGraph freeze() {
+    if (frozen) {
+      return this;
+    }
+    final int methodCount = methods.size();
+
+    // counting sort of the calls by their source method
+    callsFromOffsets = new int[methodCount + 1];
+    for (int call = 0; call < callCount; call++) {
+      callsFromOffsets[callSource[call] + 1]++;
+    }
+    for (int m = 0; m < methodCount; m++) {
+      callsFromOffsets[m + 1] += callsFromOffsets[m];
+    }
+    final int[] position = Arrays.copyOf(callsFromOffsets, methodCount);
+    final int[] sortedSource = new int[callCount];
+    final int[] sortedTarget = new int[callCount];
+    final int[] sortedStmt = new int[callCount];
+    // keep the insertion order of the calls of a method
+    for (int call = 0; call < callCount; call++) {
+      final int newCall = position[callSource[call]]++;
+      sortedSource[newCall] = callSource[call];
+      sortedTarget[newCall] = callTarget[call];
+      sortedStmt[newCall] = callStmt[call];
+    }
+    callSource = sortedSource;
+    callTarget = sortedTarget;
+    callStmt = sortedStmt;
+
+    callsToOffsets = new int[methodCount + 1];
+    for (int call = 0; call < callCount; call++) {
+      callsToOffsets[callTarget[call] + 1]++;
+    }
+    for (int m = 0; m < methodCount; m++) {
+      callsToOffsets[m + 1] += callsToOffsets[m];
+    }
+    System.arraycopy(callsToOffsets, 0, position, 0, methodCount);
+    callsTo = new int[callCount];
+    for (int call = 0; call < callCount; call++) {
+      callsTo[position[callTarget[call]]++] = call;
+    }
+
+    firstCallFrom = EMPTY;
+    firstCallTo = EMPTY;
+    nextCallFrom = EMPTY;
+    nextCallTo = EMPTY;
+    rehash(Math.max(2, Integer.highestOneBit(Math.max(1, callCount)) * 4));
+    frozen = true;
+    return this;
+  }
+
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * Estimates the memory used by this call graph in bytes, i.e. its arrays and the index maps of
+   * the methods and statements. The signatures and statements themselves are not included, as they
+   * are shared with the rest of the analysis.
+   */
+  public long getMemoryFootprint() {
+    // object header + length of an array
+    final long arrayOverhead = 16;
+    long bytes = 0;
+    for (int[] array :
+        new int[][] {
+          callSource,
+          callTarget,
+          callStmt,
+          callTable,
+          firstCallFrom,
+          firstCallTo,
+          nextCallFrom,
+          nextCallTo,
+          callsFromOffsets,
+          callsToOffsets,
+          callsTo
+        }) {
+      bytes += arrayOverhead + 4L * array.length;
+    }
+    // a HashMap entry, its table slot and the boxed id; plus the slot in the list
+    final long mapEntry = 32 + 4 + 16 + 4;
+    bytes += (long) methods.size() * mapEntry + (long) stmts.size() * mapEntry;
+    return bytes;
+  }
+
+  private int idOf(@Nonnull MethodSignature method) {
+    final Integer id = methodIds.get(method);
+    Preconditions.checkNotNull(id, "Node for " + method + " has not been added yet");
+    return id;
+  }
+
+  /** @return the number of methods in this call graph. */
+  public int getMethodCount() {
+    return methods.size();
+  }
+
+  /** @return the id of the method or -1 if it is not contained in this call graph. */
+  public int getMethodId(@Nonnull MethodSignature method) {
+    final Integer id = methodIds.get(method);
+    return id == null ? -1 : id;
+  }
+
+  @Nonnull
+  public MethodSignature getMethod(int methodId) {
+    return methods.get(methodId);
+  }
+
+  /** @return the id of the source method of the call with the given id. */
+  public int getCallSource(int callId) {
+    return callSource[callId];
+  }
+
+  /** @return the id of the target method of the call with the given id. */
+  public int getCallTarget(int callId) {
+    return callTarget[callId];
+  }
+
+  /** @return the statement of the call with the given id. */
+  @Nonnull
+  public InvokableStmt getCallStmt(int callId) {
+    return stmts.get(callStmt[callId]);
+  }
+
+  /** Passes the ids of all calls from the method with the given id to the action. */
+  public void forEachCallFrom(int methodId, @Nonnull IntConsumer action) {
+    if (frozen) {
+      for (int call = callsFromOffsets[methodId]; call < callsFromOffsets[methodId + 1]; call++) {
+        action.accept(call);
+      }
+    } else {
+      for (int call = firstCallFrom[methodId]; call >= 0; call = nextCallFrom[call]) {
+        action.accept(call);
+      }
+    }
+  }
+
+  /** Passes the ids of all calls to the method with the given id to the action. */
+  public void forEachCallTo(int methodId, @Nonnull IntConsumer action) {
+    if (frozen) {
+      for (int i = callsToOffsets[methodId]; i < callsToOffsets[methodId + 1]; i++) {
+        action.accept(callsTo[i]);
+      }
+    } else {
+      for (int call = firstCallTo[methodId]; call >= 0; call = nextCallTo[call]) {
+        action.accept(call);
+      }
+    }
+  }
+
+  @Nonnull
+  private Call toCall(int callId) {
+    return new Call(
+        methods.get(callSource[callId]), methods.get(callTarget[callId]), getCallStmt(callId));
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    return Collections.unmodifiableSet(methodIds.keySet());
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callTargetsFrom(@Nonnull MethodSignature sourceMethod) {
+    Set<MethodSignature> targets = new HashSet<>();
+    forEachCallFrom(idOf(sourceMethod), call -> targets.add(methods.get(callTarget[call])));
+    return targets;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callSourcesTo(@Nonnull MethodSignature targetMethod) {
+    Set<MethodSignature> sources = new HashSet<>();
+    forEachCallTo(idOf(targetMethod), call -> sources.add(methods.get(callSource[call])));
+    return sources;
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    Set<Call> calls = new HashSet<>();
+    forEachCallFrom(idOf(sourceMethod), call -> calls.add(toCall(call)));
+    return calls;
+  }
+
+  @Nonnull
+  @Override
+  public Set<Call> callsTo(@Nonnull MethodSignature targetMethod) {
+    Set<Call> calls = new HashSet<>();
+    forEachCallTo(idOf(targetMethod), call -> calls.add(toCall(call)));
+    return calls;
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return methodIds.containsKey(method);
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod,
+      @Nonnull MethodSignature targetMethod,
+      @Nonnull InvokableStmt invokableStmt) {
+    final Integer source = methodIds.get(sourceMethod);
+    final Integer target = methodIds.get(targetMethod);
+    final Integer stmt = stmtIds.get(invokableStmt);
+    if (source == null || target == null || stmt == null) {
+      return false;
+    }
+    return callTable[findSlot(source, target, stmt)] != 0;
+  }
+
+  @Override
+  public boolean containsCall(@Nonnull Call call) {
+    return containsCall(
+        call.getSourceMethodSignature(), call.getTargetMethodSignature(), call.getInvokableStmt());
+  }
+
+  @Override
+  public int callCount() {
+    return callCount;
+  }
+
+  @Override
+  public String exportAsDot() {
+    StringBuilder dotFormatBuilder = new StringBuilder();
+    // sorted by the source method and then the target method; each by class name, method name and
+    // parameters
+    Comparator<MethodSignature> sourceOrder =
+        Comparator.comparing((MethodSignature m) -> m.getDeclClassType().getFullyQualifiedName())
+            .thenComparing(SootClassMemberSignature::getName)
+            .thenComparing(m -> m.getParameterTypes().toString());
+    Comparator<MethodSignature> targetOrder =
+        Comparator.comparing((MethodSignature m) -> m.getDeclClassType().getClassName())
+            .thenComparing(SootClassMemberSignature::getName)
+            .thenComparing(m -> m.getParameterTypes().toString());
+    Integer[] calls = new Integer[callCount];
+    for (int call = 0; call < callCount; call++) {
+      calls[call] = call;
+    }
+    Arrays.sort(
+        calls,
+        Comparator.comparing((Integer call) -> methods.get(callSource[call]), sourceOrder)
+            .thenComparing(call -> methods.get(callTarget[call]), targetOrder));
+    for (int call : calls) {
+      dotFormatBuilder
+          .append("\t")
+          .append("\"")
+          .append(methods.get(callSource[call]))
+          .append("\"")
+          .append(" -> ")
+          .append("\"")
+          .append(methods.get(callTarget[call]))
+          .append("\"")
+          .append(";\n");
+    }
+    return "strict digraph ObjectGraph {\n" + dotFormatBuilder + "}";
+  }
+
+  /** @return a mutable copy of this call graph, also if this call graph is frozen. */
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    CompactCallGraph copy = new CompactCallGraph(new ArrayList<>(entryMethods));
+    methods.forEach(copy::addMethod);
+    for (int call = 0; call < callCount; call++) {
+      copy.addCall(methods.get(callSource[call]), methods.get(callTarget[call]), getCallStmt(call));
+    }
+    return copy;
+  }
+
+  @Override
+  public List<MethodSignature> getEntryMethods() {
+    return entryMethods;
+  }
+
+  @Nonnull
+  @Override
+  public CallGraphDifference diff(@Nonnull CallGraph callGraph) {
+    return new CallGraphDifference(this, callGraph);
+  }
+
+  @Override
+  public String toString() {
+    return "CompactCallGraph("
+        + methods.size()
+        + " methods, "
+        + callCount
+        + " calls"
+        + (frozen ? ", frozen)" : ")");
+  }
+}
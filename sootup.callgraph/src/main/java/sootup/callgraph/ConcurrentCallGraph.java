@@ -0,0 +1,104 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import org.jgrapht.graph.DirectedPseudograph;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A thread-safe {@link GraphBasedCallGraph} which is filled by the parallel construction of a call
+ * graph. Lookups of methods do not lock, while changes and queries of the underlying graph are
+ * synchronized.
+ */
+public class ConcurrentCallGraph extends GraphBasedCallGraph {
+
+  public ConcurrentCallGraph(@Nonnull List<MethodSignature> entryMethods) {
+    super(new DirectedPseudograph<>(null, null, false), new ConcurrentHashMap<>(), entryMethods);
+  }
+
+  @Override
+  protected synchronized void addMethod(@Nonnull MethodSignature calledMethod, Vertex vertex) {
+    super.addMethod(calledMethod, vertex);
+  }
+
+  @Override
+  protected synchronized void addCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod, Call call) {
+    super.addCall(sourceMethod, targetMethod, call);
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Set<MethodSignature> callTargetsFrom(@Nonnull MethodSignature sourceMethod) {
+    return super.callTargetsFrom(sourceMethod);
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Set<MethodSignature> callSourcesTo(@Nonnull MethodSignature targetMethod) {
+    return super.callSourcesTo(targetMethod);
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Set<Call> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    return new HashSet<>(super.callsFrom(sourceMethod));
+  }
+
+  @Nonnull
+  @Override
+  public synchronized Set<Call> callsTo(@Nonnull MethodSignature targetMethod) {
+    return new HashSet<>(super.callsTo(targetMethod));
+  }
+
+  @Override
+  public synchronized boolean containsCall(@Nonnull Call call) {
+    return super.containsCall(call);
+  }
+
+  @Override
+  public synchronized int callCount() {
+    return super.callCount();
+  }
+
+  @Override
+  public synchronized String exportAsDot() {
+    return super.exportAsDot();
+  }
+
+  @Nonnull
+  @Override
+  public synchronized MutableCallGraph copy() {
+    return super.copy();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return super.toString();
+  }
+}
@@ -23,6 +23,8 @@ package sootup.callgraph;
  */
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -82,6 +84,30 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     return cg;
   }
 
+  /**
+   * Same as {@link #initialize(List)}, but the reachable methods are processed in parallel by the
+   * given pool. The view has to be thread-safe. The resulting call graph is the same as the one of
+   * the sequential construction.
+   *
+   * @param entryPoints the methods the algorithm starts at.
+   * @param pool the pool which processes the methods.
+   * @return a generated call graph with every entry point as starting point.
+   */
+  @Nonnull
+  public CallGraph initialize(
+      @Nonnull List<MethodSignature> entryPoints, @Nonnull ForkJoinPool pool) {
+    // init thread-safe helper data structures
+    instantiatedClasses = ConcurrentHashMap.newKeySet();
+    ignoredCalls = new ConcurrentHashMap<>();
+
+    CallGraph cg = constructCompleteCallGraph(view, entryPoints, pool);
+
+    // delete the data structures
+    instantiatedClasses = Collections.emptySet();
+    ignoredCalls = Collections.emptyMap();
+    return cg;
+  }
+
   /**
    * This method is called to collect all instantiation of classes in a given method body. This is
    * important since the RTA algorithm resolves virtual calls only to instantiated classes
@@ -100,11 +126,12 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
             .filter(value -> value instanceof JNewExpr)
             .map(value -> ((JNewExpr) value).getType())
             .collect(Collectors.toSet());
-    List<ClassType> newInstantiatedClassTypes =
-        instantiated.stream()
-            .filter(classType -> !instantiatedClasses.contains(classType))
-            .collect(Collectors.toList());
-    instantiatedClasses.addAll(instantiated);
+    List<ClassType> newInstantiatedClassTypes = new ArrayList<>();
+    for (ClassType classType : instantiated) {
+      if (instantiatedClasses.add(classType)) {
+        newInstantiatedClassTypes.add(classType);
+      }
+    }
     return newInstantiatedClassTypes;
   }
 
@@ -139,14 +166,15 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
         || (invokeExpr instanceof JSpecialInvokeExpr)) {
       return result;
     } else {
-      // the class of the actual method call is instantiated
-      if (instantiatedClasses.contains(resolveBaseMethodSignature.getDeclClassType())) {
+      // the class of the actual method call is instantiated (or got instantiated concurrently)
+      if (instantiatedClasses.contains(resolveBaseMethodSignature.getDeclClassType())
+          || !saveIgnoredCall(
+              sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt)) {
         return Stream.concat(
             Stream.of(concreteBaseMethod.getSignature()),
             resolveAllCallTargets(
                 sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt));
       } else {
-        saveIgnoredCall(sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt);
         return resolveAllCallTargets(
             sourceMethod.getSignature(), resolveBaseMethodSignature, invokableStmt);
       }
@@ -176,10 +204,10 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
               MethodSignature method =
                   view.getIdentifierFactory()
                       .getMethodSignature(classType, resolveBaseMethodSignature.getSubSignature());
-              if (instantiatedClasses.contains(classType)) {
+              if (instantiatedClasses.contains(classType)
+                  || !saveIgnoredCall(source, method, invokableStmt)) {
                 return resolveConcreteDispatch(view, method);
               } else {
-                saveIgnoredCall(source, method, invokableStmt);
                 return Optional.<MethodSignature>empty();
               }
             })
@@ -194,17 +222,28 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    * @param source the source method of the call
    * @param target the target method of the call
    * @param invokableStmt the statement causing the call
+   * @return false if the class is instantiated in the meantime, so the call is not ignored.
    */
-  private void saveIgnoredCall(
+  private boolean saveIgnoredCall(
       MethodSignature source, MethodSignature target, InvokableStmt invokableStmt) {
     ClassType notInstantiatedClass = target.getDeclClassType();
-    List<Call> calls = ignoredCalls.get(notInstantiatedClass);
     Call ignoredCall = new Call(source, target, invokableStmt);
-    if (calls == null) {
-      calls = new ArrayList<>();
-      ignoredCalls.put(notInstantiatedClass, calls);
-    }
-    calls.add(ignoredCall);
+    boolean[] saved = new boolean[1];
+    // atomic with respect to the removal in includeIgnoredCallsToClass
+    ignoredCalls.compute(
+        notInstantiatedClass,
+        (classType, calls) -> {
+          if (instantiatedClasses.contains(classType)) {
+            return calls;
+          }
+          if (calls == null) {
+            calls = new ArrayList<>();
+          }
+          calls.add(ignoredCall);
+          saved[0] = true;
+          return calls;
+        });
+    return saved[0];
   }
 
   /**
@@ -248,7 +287,8 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
    */
   protected void includeIgnoredCallsToClass(
       ClassType classType, MutableCallGraph cg, Deque<MethodSignature> workList) {
-    List<Call> newEdges = ignoredCalls.get(classType);
+    // can be removed because the instantiated class will be considered in future resolves
+    List<Call> newEdges = ignoredCalls.remove(classType);
     if (newEdges != null) {
       newEdges.forEach(
           call -> {
@@ -264,8 +304,6 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
                 cg,
                 workList);
           });
-      // can be removed because the instantiated class will be considered in future resolves
-      ignoredCalls.remove(classType);
     }
   }
 
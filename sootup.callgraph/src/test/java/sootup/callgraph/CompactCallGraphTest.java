@@ -0,0 +1,166 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.graph.export.BinaryGraphReader;
+import sootup.core.graph.export.BinaryGraphWriter;
+import sootup.core.graph.export.ExportedGraph;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class CompactCallGraphTest {
+
+  private static void assertSameCallGraph(CallGraph expected, CallGraph actual) {
+    assertEquals(expected.getMethodSignatures(), actual.getMethodSignatures());
+    assertEquals(expected.callCount(), actual.callCount());
+    assertEquals(expected.getEntryMethods(), actual.getEntryMethods());
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      assertEquals(expected.callsFrom(method), actual.callsFrom(method));
+      assertEquals(expected.callsTo(method), actual.callsTo(method));
+      assertEquals(expected.callTargetsFrom(method), actual.callTargetsFrom(method));
+      assertEquals(expected.callSourcesTo(method), actual.callSourcesTo(method));
+      for (CallGraph.Call call : expected.callsFrom(method)) {
+        assertTrue(actual.containsCall(call));
+      }
+    }
+    assertEquals(expected.exportAsDot(), actual.exportAsDot());
+  }
+
+  @Test
+  public void testSameAsGraphBasedCallGraph() {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar"));
+    List<MethodSignature> entryPoints =
+        view.getClasses()
+            .flatMap(c -> c.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+
+    CallGraph expected = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+    CallGraph compact =
+        new ClassHierarchyAnalysisAlgorithm(view) {
+          @Override
+          protected MutableCallGraph initializeCallGraph(
+              List<MethodSignature> entryPoints, List<MethodSignature> clinits) {
+            List<MethodSignature> rootSignatures = new ArrayList<>(entryPoints);
+            rootSignatures.addAll(clinits);
+            return new CompactCallGraph(rootSignatures);
+          }
+        }.initialize(entryPoints);
+    assertTrue(compact instanceof CompactCallGraph);
+    assertTrue(expected.callCount() > 0);
+    assertSameCallGraph(expected, compact);
+
+    CompactCallGraph copy = CompactCallGraph.copyOf(expected);
+    long mutableFootprint = copy.getMemoryFootprint();
+    assertTrue(mutableFootprint > 0);
+    assertSameCallGraph(expected, copy.freeze());
+    assertTrue(copy.isFrozen());
+    assertSameCallGraph(expected, copy.copy());
+
+    // id based traversal
+    int[] calls = new int[1];
+    for (int method = 0; method < copy.getMethodCount(); method++) {
+      int source = method;
+      copy.forEachCallFrom(
+          method,
+          call -> {
+            assertEquals(source, copy.getCallSource(call));
+            calls[0]++;
+          });
+      assertEquals(copy.callsTo(copy.getMethod(method)).size(), countCallsTo(copy, method));
+    }
+    assertEquals(expected.callCount(), calls[0]);
+
+    MethodSignature method = entryPoints.get(0);
+    assertThrows(IllegalStateException.class, () -> copy.addMethod(method));
+  }
+
+  private static int countCallsTo(CompactCallGraph cg, int method) {
+    int[] count = new int[1];
+    cg.forEachCallTo(method, call -> count[0]++);
+    return count[0];
+  }
+
+  @Test
+  public void testDuplicateCalls() {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/java-miniapps/MiniApp.jar"));
+    MethodSignature main =
+        view.getIdentifierFactory()
+            .parseMethodSignature("<MiniApp: void main(java.lang.String[])>");
+    CallGraph expected =
+        new ClassHierarchyAnalysisAlgorithm(view).initialize(Collections.singletonList(main));
+    CompactCallGraph cg = CompactCallGraph.copyOf(expected);
+    for (CallGraph.Call call : expected.callsFrom(main)) {
+      cg.addCall(
+          call.getSourceMethodSignature(),
+          call.getTargetMethodSignature(),
+          call.getInvokableStmt());
+    }
+    assertEquals(expected.callCount(), cg.callCount());
+    assertEquals(main, cg.getMethod(cg.getMethodId(main)));
+    assertEquals(
+        -1, cg.getMethodId(view.getIdentifierFactory().parseMethodSignature("<A: void a()>")));
+    assertThrows(
+        NullPointerException.class,
+        () -> cg.callsFrom(view.getIdentifierFactory().parseMethodSignature("<A: void a()>")));
+  }
+
+  private static byte[] export(CallGraph cg) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BinaryGraphWriter writer = new BinaryGraphWriter(Channels.newChannel(out))) {
+      cg.exportTo(writer);
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testExport() throws IOException {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/java-miniapps/MiniApp.jar"));
+    MethodSignature main =
+        view.getIdentifierFactory()
+            .parseMethodSignature("<MiniApp: void main(java.lang.String[])>");
+    CallGraph cg =
+        new ClassHierarchyAnalysisAlgorithm(view).initialize(Collections.singletonList(main));
+    byte[] bytes = export(cg);
+    // the export does not depend on the implementation of the call graph
+    assertArrayEquals(bytes, export(CompactCallGraph.copyOf(cg)));
+
+    ExportedGraph graph =
+        BinaryGraphReader.load(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    assertEquals(cg.getMethodSignatures().size(), graph.getNodeCount());
+    assertEquals(cg.callCount(), graph.getEdgeCount());
+    for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+      assertEquals("call", graph.getEdgeType(edge));
+      MethodSignature source =
+          view.getIdentifierFactory()
+              .parseMethodSignature(graph.getNodeLabel(graph.getEdgeSource(edge)));
+      MethodSignature target =
+          view.getIdentifierFactory()
+              .parseMethodSignature(graph.getNodeLabel(graph.getEdgeTarget(edge)));
+      assertTrue(cg.callTargetsFrom(source).contains(target), source + " -> " + target);
+    }
+  }
+}
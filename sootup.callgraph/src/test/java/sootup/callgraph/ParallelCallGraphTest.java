@@ -0,0 +1,108 @@
+package sootup.callgraph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.ConcurrentJavaView;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class ParallelCallGraphTest {
+
+  private static JavaView createView(String classPath) {
+    // no runtime library: calls into it are added, but not processed
+    return new ConcurrentJavaView(new JavaClassPathAnalysisInputLocation(classPath));
+  }
+
+  private static List<MethodSignature> allApplicationMethods(JavaView view) {
+    return view.getClasses()
+        .filter(c -> !c.isLibraryClass())
+        .flatMap(c -> c.getMethods().stream())
+        .filter(SootMethod::hasBody)
+        .map(SootMethod::getSignature)
+        .collect(Collectors.toList());
+  }
+
+  private static void assertSameCallGraph(CallGraph expected, CallGraph actual) {
+    assertEquals(expected.getMethodSignatures(), actual.getMethodSignatures());
+    assertEquals(expected.callCount(), actual.callCount());
+    for (MethodSignature method : expected.getMethodSignatures()) {
+      assertEquals(expected.callsFrom(method), actual.callsFrom(method), method.toString());
+    }
+    assertEquals(expected.getEntryMethods(), actual.getEntryMethods());
+  }
+
+  @Test
+  public void testParallelConstructionEqualsSequential() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (String classPath :
+          new String[] {
+            "../shared-test-resources/java-miniapps/MiniApp.jar",
+            "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar",
+            "src/test/resources/callgraph/RTA/binary"
+          }) {
+        // the same view is used, so the calls share their statements
+        JavaView view = createView(classPath);
+        List<MethodSignature> entryPoints = allApplicationMethods(view);
+        assertFalse(entryPoints.isEmpty());
+
+        ClassHierarchyAnalysisAlgorithm cha = new ClassHierarchyAnalysisAlgorithm(view);
+        CallGraph sequentialCha = cha.initialize(entryPoints);
+        CallGraph parallelCha = cha.initialize(entryPoints, pool);
+        assertTrue(parallelCha instanceof ConcurrentCallGraph);
+        assertSameCallGraph(sequentialCha, parallelCha);
+
+        RapidTypeAnalysisAlgorithm rta = new RapidTypeAnalysisAlgorithm(view);
+        CallGraph sequentialRta = rta.initialize(entryPoints);
+        CallGraph parallelRta = rta.initialize(entryPoints, pool);
+        assertSameCallGraph(sequentialRta, parallelRta);
+        assertTrue(sequentialRta.callCount() <= sequentialCha.callCount());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testBodyPrefetching() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      String classPath =
+          "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar";
+      JavaView view = createView(classPath);
+      List<MethodSignature> entryPoints = allApplicationMethods(view);
+      CompletableFuture<Void> prefetching =
+          view.prefetchBodies(entryPoints.subList(0, 10), executor);
+      prefetching.get();
+      for (MethodSignature method : entryPoints.subList(0, 10)) {
+        SootMethod sootMethod = view.getMethod(method).get();
+        assertSame(sootMethod.getBody(), sootMethod.getBody());
+      }
+
+      CallGraph expected = new ClassHierarchyAnalysisAlgorithm(view).initialize(entryPoints);
+      // another view, so only the targets are compared, not the statements of the calls
+      JavaView prefetchingView = new JavaView(new JavaClassPathAnalysisInputLocation(classPath));
+      ClassHierarchyAnalysisAlgorithm cha = new ClassHierarchyAnalysisAlgorithm(prefetchingView);
+      cha.setBodyPrefetchExecutor(executor);
+      CallGraph prefetched = cha.initialize(allApplicationMethods(prefetchingView));
+      assertEquals(expected.getMethodSignatures(), prefetched.getMethodSignatures());
+      assertEquals(expected.callCount(), prefetched.callCount());
+      for (MethodSignature method : expected.getMethodSignatures()) {
+        assertEquals(expected.callTargetsFrom(method), prefetched.callTargetsFrom(method));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -24,6 +24,7 @@ Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
 
 import java.util.List;
 import java.util.Set;
+import sootup.codepropertygraph.cpg.MethodGraphContext;
 import sootup.codepropertygraph.propertygraph.*;
 import sootup.codepropertygraph.propertygraph.edges.*;
 import sootup.codepropertygraph.propertygraph.nodes.*;
@@ -102,10 +103,21 @@ public class AstCreator {
    * @return the AST property graph
    */
   public PropertyGraph createGraph(SootMethod method) {
+    return createGraph(new MethodGraphContext(method));
+  }
+
+  /**
+   * Creates the AST property graph for the method of the given context.
+   *
+   * @param context the method and its body
+   * @return the AST property graph
+   */
+  public PropertyGraph createGraph(MethodGraphContext context) {
+    SootMethod method = context.getMethod();
     PropertyGraph.Builder graphBuilder = new AstPropertyGraph.Builder();
     graphBuilder.setName("ast_" + method.getName());
 
-    if (method.isAbstract() || method.isNative()) {
+    if (!context.hasBody()) {
       return graphBuilder.build();
     }
 
@@ -120,7 +132,7 @@ public class AstCreator {
 
     addModifierEdges(graphBuilder, modifiersNode, method.getModifiers());
     addParameterTypeEdges(graphBuilder, parametersTypesNode, method.getParameterTypes());
-    addBodyStmtEdges(graphBuilder, bodyStmtsNode, method.getBody().getStmts());
+    addBodyStmtEdges(graphBuilder, bodyStmtsNode, context.getBody().getStmts());
     addReturnStmtEdge(graphBuilder, rootNode, method.getReturnType());
 
     return graphBuilder.build();
@@ -23,6 +23,7 @@ Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
 */
 
 import java.util.*;
+import sootup.codepropertygraph.cpg.MethodGraphContext;
 import sootup.codepropertygraph.propertygraph.PropertyGraph;
 import sootup.codepropertygraph.propertygraph.StmtMethodPropertyGraph;
 import sootup.codepropertygraph.propertygraph.edges.CdgEdge;
@@ -46,15 +47,26 @@ public class CdgCreator {
    * @return the CDG property graph
    */
   public PropertyGraph createGraph(SootMethod method) {
+    return createGraph(new MethodGraphContext(method));
+  }
+
+  /**
+   * Creates the CDG property graph for the method of the given context. The post-dominator tree of
+   * the context is reused if it was computed before.
+   *
+   * @param context the method and its body
+   * @return the CDG property graph
+   */
+  public PropertyGraph createGraph(MethodGraphContext context) {
     PropertyGraph.Builder graphBuilder = new StmtMethodPropertyGraph.Builder();
-    graphBuilder.setName("cdg_" + method.getName());
+    graphBuilder.setName("cdg_" + context.getMethod().getName());
 
-    if (method.isAbstract() || method.isNative()) {
+    if (!context.hasBody()) {
       return graphBuilder.build();
     }
 
-    StmtGraph<?> stmtGraph = method.getBody().getStmtGraph();
-    PostDominanceFinder postDominanceFinder = new PostDominanceFinder(stmtGraph);
+    StmtGraph<?> stmtGraph = context.getStmtGraph();
+    PostDominanceFinder postDominanceFinder = context.getPostDominanceFinder();
 
     List<? extends BasicBlock<?>> blocks = stmtGraph.getBlocksSorted();
     for (BasicBlock<?> currBlock : blocks) {
@@ -22,6 +22,7 @@ Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
 * #L%
 */
 
+import sootup.codepropertygraph.cpg.MethodGraphContext;
 import sootup.codepropertygraph.propertygraph.PropertyGraph;
 import sootup.codepropertygraph.propertygraph.StmtMethodPropertyGraph;
 import sootup.codepropertygraph.propertygraph.edges.*;
@@ -44,14 +45,24 @@ public class CfgCreator {
    * @return the CFG property graph
    */
   public PropertyGraph createGraph(SootMethod method) {
+    return createGraph(new MethodGraphContext(method));
+  }
+
+  /**
+   * Creates the CFG property graph for the method of the given context.
+   *
+   * @param context the method and its body
+   * @return the CFG property graph
+   */
+  public PropertyGraph createGraph(MethodGraphContext context) {
     PropertyGraph.Builder graphBuilder = new StmtMethodPropertyGraph.Builder();
-    graphBuilder.setName("cfg_" + method.getName());
+    graphBuilder.setName("cfg_" + context.getMethod().getName());
 
-    if (method.isAbstract() || method.isNative()) {
+    if (!context.hasBody()) {
       return graphBuilder.build();
     }
 
-    StmtGraph<?> stmtGraph = method.getBody().getStmtGraph();
+    StmtGraph<?> stmtGraph = context.getStmtGraph();
     stmtGraph.forEach(
         currStmt -> {
           int expectedCount = currStmt.getExpectedSuccessorCount();
@@ -0,0 +1,91 @@
+package sootup.codepropertygraph.cpg;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+
+/**
+ * The time spent in each stage of the creation of code property graphs, summed over all methods and
+ * threads. Stages are recorded concurrently by the workers of a {@link ParallelCpgCreator}.
+ */
+public class CpgBuildStatistics {
+
+  /** The stages of the creation of the code property graph of a method. */
+  public enum Stage {
+    /** building the body of the method */
+    BODY,
+    AST,
+    CFG,
+    CDG,
+    DDG,
+    /** merging the subgraphs into the code property graph */
+    MERGE,
+    /** passing the code property graph to the consumer */
+    SINK
+  }
+
+  private final LongAdder[] nanos = new LongAdder[Stage.values().length];
+  private final LongAdder[] counts = new LongAdder[Stage.values().length];
+
+  public CpgBuildStatistics() {
+    for (int i = 0; i < nanos.length; i++) {
+      nanos[i] = new LongAdder();
+      counts[i] = new LongAdder();
+    }
+  }
+
+  /** adds a single run of the given stage */
+  public void record(@Nonnull Stage stage, long elapsedNanos) {
+    nanos[stage.ordinal()].add(elapsedNanos);
+    counts[stage.ordinal()].increment();
+  }
+
+  /** @return the time spent in the given stage by all threads */
+  public long getNanos(@Nonnull Stage stage) {
+    return nanos[stage.ordinal()].sum();
+  }
+
+  /** @return how many methods passed the given stage */
+  public long getCount(@Nonnull Stage stage) {
+    return counts[stage.ordinal()].sum();
+  }
+
+  /** @return the methods per second a single thread processes in the given stage */
+  public double getThroughput(@Nonnull Stage stage) {
+    long stageNanos = getNanos(stage);
+    return stageNanos == 0 ? 0 : getCount(stage) * 1_000_000_000.0 / stageNanos;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (Stage stage : Stage.values()) {
+      sb.append(
+          String.format(
+              "%-6s %8d methods %10.1f ms %10.1f methods/s%n",
+              stage, getCount(stage), getNanos(stage) / 1_000_000.0, getThroughput(stage)));
+    }
+    return sb.toString();
+  }
+}
@@ -22,6 +22,7 @@ Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
 * #L%
 */
 
+import javax.annotation.Nullable;
 import sootup.codepropertygraph.ast.AstCreator;
 import sootup.codepropertygraph.cdg.CdgCreator;
 import sootup.codepropertygraph.cfg.CfgCreator;
@@ -60,10 +61,41 @@ public class CpgCreator {
    * @return the CPG
    */
   public PropertyGraph createCpg(SootMethod method) {
-    PropertyGraph cpgGraph = astCreator.createGraph(method);
-    cpgGraph = PropertyGraphsMerger.mergeGraphs(cpgGraph, cfgCreator.createGraph(method));
-    cpgGraph = PropertyGraphsMerger.mergeGraphs(cpgGraph, cdgCreator.createGraph(method));
-    cpgGraph = PropertyGraphsMerger.mergeGraphs(cpgGraph, ddgCreator.createGraph(method));
+    return createCpg(new MethodGraphContext(method), null);
+  }
+
+  /**
+   * Creates the CPG for the method of the given context. The body and the post-dominator tree of
+   * the context are shared by the creators of the subgraphs.
+   *
+   * @param context the method and its body
+   * @param statistics receives the time spent in each stage, may be null
+   * @return the CPG
+   */
+  public PropertyGraph createCpg(
+      MethodGraphContext context, @Nullable CpgBuildStatistics statistics) {
+    long start = System.nanoTime();
+    PropertyGraph astGraph = astCreator.createGraph(context);
+    start = record(statistics, CpgBuildStatistics.Stage.AST, start);
+    PropertyGraph cfgGraph = cfgCreator.createGraph(context);
+    start = record(statistics, CpgBuildStatistics.Stage.CFG, start);
+    PropertyGraph cdgGraph = cdgCreator.createGraph(context);
+    start = record(statistics, CpgBuildStatistics.Stage.CDG, start);
+    PropertyGraph ddgGraph = ddgCreator.createGraph(context);
+    start = record(statistics, CpgBuildStatistics.Stage.DDG, start);
+    PropertyGraph cpgGraph =
+        PropertyGraphsMerger.mergeGraphs(astGraph, cfgGraph, cdgGraph, ddgGraph);
+    record(statistics, CpgBuildStatistics.Stage.MERGE, start);
     return cpgGraph;
   }
+
+  /** @return the end of the stage, i.e. the start of the next one */
+  private static long record(
+      @Nullable CpgBuildStatistics statistics, CpgBuildStatistics.Stage stage, long start) {
+    long end = System.nanoTime();
+    if (statistics != null) {
+      statistics.record(stage, end - start);
+    }
+    return end;
+  }
 }
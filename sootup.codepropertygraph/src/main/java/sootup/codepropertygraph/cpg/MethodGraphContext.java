@@ -0,0 +1,89 @@
+package sootup.codepropertygraph.cpg;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.graph.PostDominanceFinder;
+import sootup.core.graph.StmtGraph;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+
+/**
+ * The per-method state that is shared by the creators of the subgraphs of a code property graph:
+ * the body is retrieved once and the post-dominator tree is computed at most once, no matter how
+ * many creators ask for it.
+ *
+ * <p>A context belongs to a single method and is used by a single thread at a time.
+ */
+public final class MethodGraphContext {
+  @Nonnull private final SootMethod method;
+  @Nullable private final Body body;
+
+  @Nullable private PostDominanceFinder postDominanceFinder;
+
+  /** Creates the context with the body of {@link SootMethod#getBody()}, if the method has one. */
+  public MethodGraphContext(@Nonnull SootMethod method) {
+    this(method, method.isConcrete() ? method.getBody() : null);
+  }
+
+  /**
+   * @param method the method
+   * @param body the body of the method, e.g. one that is built without keeping it in the method;
+   *     null if the method is abstract or native
+   */
+  public MethodGraphContext(@Nonnull SootMethod method, @Nullable Body body) {
+    this.method = method;
+    this.body = body;
+  }
+
+  @Nonnull
+  public SootMethod getMethod() {
+    return method;
+  }
+
+  public boolean hasBody() {
+    return body != null;
+  }
+
+  @Nonnull
+  public Body getBody() {
+    if (body == null) {
+      throw new IllegalStateException(method.getSignature() + " has no body.");
+    }
+    return body;
+  }
+
+  @Nonnull
+  public StmtGraph<?> getStmtGraph() {
+    return getBody().getStmtGraph();
+  }
+
+  @Nonnull
+  public PostDominanceFinder getPostDominanceFinder() {
+    if (postDominanceFinder == null) {
+      postDominanceFinder = new PostDominanceFinder(getStmtGraph());
+    }
+    return postDominanceFinder;
+  }
+}
@@ -0,0 +1,263 @@
+package sootup.codepropertygraph.cpg;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.codepropertygraph.propertygraph.PropertyGraph;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BatchBodyTransformer;
+
+/**
+ * Creates the code property graphs of many methods, e.g. of a whole program, with a {@link
+ * CpgCreator}.
+ *
+ * <ul>
+ *   <li>The methods are split into shards of {@link #getShardSize()} methods that are processed by
+ *       the workers of a {@link ForkJoinPool}; idle workers steal shards from busy ones.
+ *   <li>Each method gets its own {@link MethodGraphContext}, so its body is built once and the
+ *       post-dominator tree is shared between the stages.
+ *   <li>The code property graph of a method is passed to the consumer as soon as it is created.
+ *       Neither the graphs nor the bodies are kept, so the memory usage is bounded by the methods
+ *       in flight, not by the size of the program.
+ *   <li>A method whose graph can not be created does not stop the others; its error is collected in
+ *       the {@link Result}.
+ * </ul>
+ */
+public class ParallelCpgCreator {
+
+  public static final int DEFAULT_SHARD_SIZE = 8;
+
+  /** Receives the progress of a run; it is called concurrently by the workers. */
+  @FunctionalInterface
+  public interface ProgressListener {
+    /**
+     * @param processedMethods the methods that are done, successful or not
+     * @param totalMethods the methods of the run
+     */
+    void onProgress(int processedMethods, int totalMethods);
+  }
+
+  @Nonnull private final CpgCreator cpgCreator;
+  @Nonnull private final ForkJoinPool pool;
+  private final int shardSize;
+
+  public ParallelCpgCreator(@Nonnull CpgCreator cpgCreator) {
+    this(cpgCreator, ForkJoinPool.commonPool(), DEFAULT_SHARD_SIZE);
+  }
+
+  /**
+   * @param cpgCreator creates the graph of a single method; it is used by all workers
+   * @param pool the workers
+   * @param shardSize the number of methods a worker processes without splitting them further
+   */
+  public ParallelCpgCreator(
+      @Nonnull CpgCreator cpgCreator, @Nonnull ForkJoinPool pool, int shardSize) {
+    if (shardSize < 1) {
+      throw new IllegalArgumentException("shardSize must be positive.");
+    }
+    this.cpgCreator = cpgCreator;
+    this.pool = pool;
+    this.shardSize = shardSize;
+  }
+
+  public int getShardSize() {
+    return shardSize;
+  }
+
+  /**
+   * Creates the code property graphs of the given methods and blocks until all are done.
+   *
+   * @param methods the methods; abstract and native methods are skipped
+   * @param consumer receives each method with its graph; it is called concurrently, in no
+   *     particular order, and has to be thread-safe
+   * @return the number of created graphs, the errors and the time spent per stage
+   */
+  @Nonnull
+  public Result createCpgs(
+      @Nonnull Collection<? extends SootMethod> methods,
+      @Nonnull BiConsumer<? super SootMethod, ? super PropertyGraph> consumer) {
+    return createCpgs(methods, consumer, null);
+  }
+
+  /**
+   * Creates the code property graphs of the given methods and blocks until all are done.
+   *
+   * @param methods the methods; abstract and native methods are skipped
+   * @param consumer receives each method with its graph; it is called concurrently, in no
+   *     particular order, and has to be thread-safe
+   * @param progressListener is notified after each method, may be null
+   * @return the number of created graphs, the errors and the time spent per stage
+   */
+  @Nonnull
+  public Result createCpgs(
+      @Nonnull Collection<? extends SootMethod> methods,
+      @Nonnull BiConsumer<? super SootMethod, ? super PropertyGraph> consumer,
+      @Nullable ProgressListener progressListener) {
+    List<SootMethod> concreteMethods = new ArrayList<>(methods.size());
+    for (SootMethod method : methods) {
+      if (method.isConcrete()) {
+        concreteMethods.add(method);
+      }
+    }
+    Run run = new Run(concreteMethods, consumer, progressListener);
+    long start = System.nanoTime();
+    pool.invoke(new ShardTask(run, 0, concreteMethods.size()));
+    return new Result(run.created.get(), run.failures, run.statistics, System.nanoTime() - start);
+  }
+
+  /** The state of a single call of {@link #createCpgs}, shared by its tasks. */
+  private class Run {
+    @Nonnull final List<SootMethod> methods;
+    @Nonnull final BiConsumer<? super SootMethod, ? super PropertyGraph> consumer;
+    @Nullable final ProgressListener progressListener;
+
+    @Nonnull final CpgBuildStatistics statistics = new CpgBuildStatistics();
+    @Nonnull final Map<MethodSignature, Throwable> failures = new ConcurrentHashMap<>();
+    @Nonnull final AtomicInteger created = new AtomicInteger();
+    @Nonnull final AtomicInteger processed = new AtomicInteger();
+
+    Run(
+        @Nonnull List<SootMethod> methods,
+        @Nonnull BiConsumer<? super SootMethod, ? super PropertyGraph> consumer,
+        @Nullable ProgressListener progressListener) {
+      this.methods = methods;
+      this.consumer = consumer;
+      this.progressListener = progressListener;
+    }
+
+    void process(@Nonnull SootMethod method) {
+      try {
+        long start = System.nanoTime();
+        Body body = BatchBodyTransformer.resolveBody(method);
+        statistics.record(CpgBuildStatistics.Stage.BODY, System.nanoTime() - start);
+
+        PropertyGraph cpg = cpgCreator.createCpg(new MethodGraphContext(method, body), statistics);
+
+        start = System.nanoTime();
+        consumer.accept(method, cpg);
+        statistics.record(CpgBuildStatistics.Stage.SINK, System.nanoTime() - start);
+        created.incrementAndGet();
+      } catch (Throwable e) {
+        // every error is reported for its method, e.g. a LinkageError of a missing class
+        failures.put(method.getSignature(), e);
+      }
+      int done = processed.incrementAndGet();
+      if (progressListener != null) {
+        progressListener.onProgress(done, methods.size());
+      }
+    }
+  }
+
+  /** Processes the methods [from, to) of a run, it splits itself until a shard is small enough. */
+  private class ShardTask extends RecursiveAction {
+    @Nonnull private final Run run;
+    private final int from;
+    private final int to;
+
+    ShardTask(@Nonnull Run run, int from, int to) {
+      this.run = run;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= shardSize) {
+        for (int i = from; i < to; i++) {
+          run.process(run.methods.get(i));
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new ShardTask(run, from, mid), new ShardTask(run, mid, to));
+    }
+  }
+
+  /** The outcome of a run: the number of created graphs, the errors and the statistics. */
+  public static class Result {
+    private final int createdCount;
+    @Nonnull private final Map<MethodSignature, Throwable> failures;
+    @Nonnull private final CpgBuildStatistics statistics;
+    private final long elapsedNanos;
+
+    Result(
+        int createdCount,
+        @Nonnull Map<MethodSignature, Throwable> failures,
+        @Nonnull CpgBuildStatistics statistics,
+        long elapsedNanos) {
+      this.createdCount = createdCount;
+      this.failures = Collections.unmodifiableMap(failures);
+      this.statistics = statistics;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    /** @return the number of methods whose graph was created and consumed successfully */
+    public int getCreatedCount() {
+      return createdCount;
+    }
+
+    /** @return the errors of the methods whose graph could not be created or consumed */
+    @Nonnull
+    public Map<MethodSignature, Throwable> getFailures() {
+      return failures;
+    }
+
+    public boolean isSuccessful() {
+      return failures.isEmpty();
+    }
+
+    /** @return the time spent in each stage, summed over all workers */
+    @Nonnull
+    public CpgBuildStatistics getStatistics() {
+      return statistics;
+    }
+
+    /** @return the wall-clock time of the run */
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    /** @return the methods per second of the whole run */
+    public double getThroughput() {
+      return elapsedNanos == 0 ? 0 : createdCount * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+      return "created: " + createdCount + ", failed: " + failures.size();
+    }
+  }
+}
@@ -25,6 +25,7 @@ Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import sootup.codepropertygraph.cpg.MethodGraphContext;
 import sootup.codepropertygraph.propertygraph.PropertyGraph;
 import sootup.codepropertygraph.propertygraph.StmtMethodPropertyGraph;
 import sootup.codepropertygraph.propertygraph.edges.DdgEdge;
@@ -46,14 +47,24 @@ public class DdgCreator {
    * @return the DDG property graph
    */
   public PropertyGraph createGraph(SootMethod method) {
+    return createGraph(new MethodGraphContext(method));
+  }
+
+  /**
+   * Creates the DDG property graph for the method of the given context.
+   *
+   * @param context the method and its body
+   * @return the DDG property graph
+   */
+  public PropertyGraph createGraph(MethodGraphContext context) {
     PropertyGraph.Builder graphBuilder = new StmtMethodPropertyGraph.Builder();
-    graphBuilder.setName("ddg_" + method.getName());
+    graphBuilder.setName("ddg_" + context.getMethod().getName());
 
-    if (method.isAbstract() || method.isNative()) {
+    if (!context.hasBody()) {
       return graphBuilder.build();
     }
 
-    StmtGraph<?> stmtGraph = method.getBody().getStmtGraph();
+    StmtGraph<?> stmtGraph = context.getStmtGraph();
     Map<Stmt, List<Stmt>> reachingDefs = (new ReachingDefs(stmtGraph)).getReachingDefs();
 
     // Custom comparator for Stmt objects
@@ -67,22 +67,27 @@ class ReachingDefs {
 
   static class ReachingDefsAnalysis extends ForwardFlowAnalysis<Set<VariableDefinition>> {
 
+    /** the definitions of the body, computed once instead of for every flow */
+    private final Set<VariableDefinition> initialValues = new HashSet<>();
+
+    /** the kill set of each assignment, computed on the first visit of the Stmt */
+    private final Map<Stmt, List<VariableDefinition>> killSets = new HashMap<>();
+
     /** Construct the analysis from StmtGraph. */
     <B extends BasicBlock<B>> ReachingDefsAnalysis(StmtGraph<B> graph) {
       super(graph);
+      graph.getNodes().stream()
+          .map(Stmt::getDef)
+          .filter(Optional::isPresent)
+          .map(Optional::get)
+          .forEach(def -> initialValues.add(new VariableDefinition(def, null)));
       execute();
     }
 
     @Nonnull
     @Override
     protected Set<VariableDefinition> newInitialFlow() {
-      Set<VariableDefinition> initialValues = new HashSet<>();
-      graph.getNodes().stream()
-          .map(Stmt::getDef)
-          .filter(Optional::isPresent)
-          .map(Optional::get)
-          .forEach(def -> initialValues.add(new VariableDefinition(def, null)));
-      return initialValues;
+      return new HashSet<>(initialValues);
     }
 
     @Override
@@ -111,22 +116,27 @@ class ReachingDefs {
       gen(d).forEach(out::add);
     }
 
-    private Stream<VariableDefinition> kill(Stmt d) {
-      if (!(d instanceof JAssignStmt)) return Stream.empty();
-
-      return d.getDef()
-          .map(
-              definedValue -> {
-                List<VariableDefinition> output = new ArrayList<>();
-                output.add(new VariableDefinition(definedValue, null));
-                graph.getNodes().stream()
-                    .filter(
-                        stmt ->
-                            stmt.getDef().isPresent() && stmt.getDef().get().equals(definedValue))
-                    .forEach(stmt -> output.add(new VariableDefinition(definedValue, stmt)));
-                return output.stream();
-              })
-          .orElseGet(Stream::empty);
+    private List<VariableDefinition> kill(Stmt d) {
+      if (!(d instanceof JAssignStmt)) return Collections.emptyList();
+
+      return killSets.computeIfAbsent(
+          d,
+          stmt ->
+              stmt.getDef()
+                  .map(
+                      definedValue -> {
+                        List<VariableDefinition> output = new ArrayList<>();
+                        output.add(new VariableDefinition(definedValue, null));
+                        graph.getNodes().stream()
+                            .filter(
+                                node ->
+                                    node.getDef().isPresent()
+                                        && node.getDef().get().equals(definedValue))
+                            .forEach(
+                                node -> output.add(new VariableDefinition(definedValue, node)));
+                        return output;
+                      })
+                  .orElseGet(Collections::emptyList));
     }
 
     private Stream<VariableDefinition> gen(Stmt d) {
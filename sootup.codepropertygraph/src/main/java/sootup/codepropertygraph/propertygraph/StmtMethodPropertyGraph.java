@@ -24,7 +24,9 @@ Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import sootup.codepropertygraph.propertygraph.edges.PropertyGraphEdge;
 import sootup.codepropertygraph.propertygraph.nodes.MethodGraphNode;
 import sootup.codepropertygraph.propertygraph.nodes.PropertyGraphNode;
@@ -65,6 +67,9 @@ public final class StmtMethodPropertyGraph implements PropertyGraph {
   public static class Builder implements PropertyGraph.Builder {
     private final List<PropertyGraphNode> nodes = new ArrayList<>();
     private final List<PropertyGraphEdge> edges = new ArrayList<>();
+    // for the duplicate checks, the lists keep the insertion order
+    private final Set<PropertyGraphNode> nodeSet = new HashSet<>();
+    private final Set<PropertyGraphEdge> edgeSet = new HashSet<>();
     private String name;
 
     public Builder setName(String name) {
@@ -77,7 +82,7 @@ public final class StmtMethodPropertyGraph implements PropertyGraph {
       if (!(node instanceof StmtGraphNode || node instanceof MethodGraphNode)) {
         throw new IllegalArgumentException("Graph can only contain statement or method nodes");
       }
-      if (!nodes.contains(node)) {
+      if (nodeSet.add(node)) {
         nodes.add(node);
       }
       return this;
@@ -87,7 +92,7 @@ public final class StmtMethodPropertyGraph implements PropertyGraph {
     public Builder addEdge(PropertyGraphEdge edge) {
       addNode(edge.getSource());
       addNode(edge.getDestination());
-      if (!edges.contains(edge)) {
+      if (edgeSet.add(edge)) {
         edges.add(edge);
       }
       return this;
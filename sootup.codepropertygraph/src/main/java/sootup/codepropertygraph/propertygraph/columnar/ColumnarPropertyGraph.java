@@ -0,0 +1,436 @@
+package sootup.codepropertygraph.propertygraph.columnar;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.codepropertygraph.propertygraph.PropertyGraph;
+import sootup.core.model.SootMethod;
+
+/**
+ * A read-only code property graph for many methods that is stored column-wise in primitive arrays
+ * instead of one object per node and edge.
+ *
+ * <ul>
+ *   <li>Nodes are numbered densely. Their kind, label and source line are stored in one array each,
+ *       labels are ids of the shared {@link StringTable}.
+ *   <li>The nodes of a method form a contiguous id range, see {@link #getMethodNodeStart(int)}.
+ *   <li>Edges are grouped by their label, the <i>edge type</i>. The edges of a type are stored as
+ *       two int arrays sorted by source and target, so successors are found by binary search and
+ *       predecessors via a permutation sorted by target.
+ * </ul>
+ *
+ * <p>Use a {@link Builder} to create the graph. The per-method {@link MethodGraphFragment}s can be
+ * created in parallel; the builder appends them in a deterministic order.
+ */
+public final class ColumnarPropertyGraph {
+
+  /** Receives an edge as pair of node ids. */
+  @FunctionalInterface
+  public interface EdgeConsumer {
+    void accept(int source, int target);
+  }
+
+  @Nonnull private final StringTable strings;
+
+  @Nonnull private final byte[] nodeKinds;
+  @Nonnull private final int[] nodeLabels;
+  @Nonnull private final int[] nodeLines;
+
+  @Nonnull private final int[] methodNames;
+
+  /** the nodes of method m are [methodNodeOffsets[m], methodNodeOffsets[m + 1]) */
+  @Nonnull private final int[] methodNodeOffsets;
+
+  @Nonnull private final int[] edgeTypeLabels;
+  @Nonnull private final EdgeCategory[] edgeTypeCategories;
+
+  /** the edges of each type, sorted by source and target */
+  @Nonnull private final int[][] edgeSources;
+
+  @Nonnull private final int[][] edgeTargets;
+
+  /** the edge indices of each type, sorted by target */
+  @Nonnull private final int[][] edgesByTarget;
+
+  private final int edgeCount;
+
+  private ColumnarPropertyGraph(@Nonnull Builder builder) {
+    this.strings = builder.strings;
+    this.nodeKinds = Arrays.copyOf(builder.nodeKinds, builder.nodeCount);
+    this.nodeLabels = builder.nodeLabels.toArray();
+    this.nodeLines = builder.nodeLines.toArray();
+    this.methodNames = builder.methodNames.toArray();
+    this.methodNodeOffsets = new int[methodNames.length + 1];
+    for (int m = 0; m < methodNames.length; m++) {
+      methodNodeOffsets[m] = builder.methodNodeStarts.get(m);
+    }
+    methodNodeOffsets[methodNames.length] = builder.nodeCount;
+
+    final int typeCount = builder.edgeTypeLabels.size();
+    this.edgeTypeLabels = builder.edgeTypeLabels.toArray();
+    this.edgeTypeCategories = builder.edgeTypeCategories.toArray(new EdgeCategory[0]);
+    this.edgeSources = new int[typeCount][];
+    this.edgeTargets = new int[typeCount][];
+    this.edgesByTarget = new int[typeCount][];
+    int count = 0;
+    for (int type = 0; type < typeCount; type++) {
+      IntList sources = builder.edgeSources.get(type);
+      IntList targets = builder.edgeTargets.get(type);
+      final int size = sources.size();
+      final long[] pairs = new long[size];
+      for (int i = 0; i < size; i++) {
+        pairs[i] = ((long) sources.get(i) << 32) | targets.get(i);
+      }
+      Arrays.sort(pairs);
+      final int[] sortedSources = new int[size];
+      final int[] sortedTargets = new int[size];
+      for (int i = 0; i < size; i++) {
+        sortedSources[i] = (int) (pairs[i] >>> 32);
+        sortedTargets[i] = (int) pairs[i];
+        pairs[i] = ((long) sortedTargets[i] << 32) | i;
+      }
+      Arrays.sort(pairs);
+      final int[] byTarget = new int[size];
+      for (int i = 0; i < size; i++) {
+        byTarget[i] = (int) pairs[i];
+      }
+      edgeSources[type] = sortedSources;
+      edgeTargets[type] = sortedTargets;
+      edgesByTarget[type] = byTarget;
+      count += size;
+    }
+    this.edgeCount = count;
+  }
+
+  @Nonnull
+  public StringTable getStringTable() {
+    return strings;
+  }
+
+  public int getNodeCount() {
+    return nodeKinds.length;
+  }
+
+  @Nonnull
+  public NodeKind getNodeKind(int node) {
+    return NodeKind.valueOf(nodeKinds[node]);
+  }
+
+  /** @return the string id of the label of the node */
+  public int getNodeLabelId(int node) {
+    return nodeLabels[node];
+  }
+
+  @Nonnull
+  public String getNodeLabel(int node) {
+    return strings.get(nodeLabels[node]);
+  }
+
+  /** @return the first source line of the node, or -1 if it is unknown */
+  public int getNodeLine(int node) {
+    return nodeLines[node];
+  }
+
+  public int getMethodCount() {
+    return methodNames.length;
+  }
+
+  @Nonnull
+  public String getMethodName(int method) {
+    return strings.get(methodNames[method]);
+  }
+
+  /** @return the first node id of the given method */
+  public int getMethodNodeStart(int method) {
+    return methodNodeOffsets[method];
+  }
+
+  /** @return the node id after the last node of the given method */
+  public int getMethodNodeEnd(int method) {
+    return methodNodeOffsets[method + 1];
+  }
+
+  /** @return the index of the method the given node belongs to */
+  public int getMethodOfNode(int node) {
+    if (node < 0 || node >= getNodeCount()) {
+      throw new IndexOutOfBoundsException("There is no node with id " + node + ".");
+    }
+    // the last method whose first node is <= node; methods without nodes share their offset
+    int low = 0;
+    int high = methodNames.length - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (methodNodeOffsets[mid] <= node) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  /** @return the number of distinct edge labels */
+  public int getEdgeTypeCount() {
+    return edgeTypeLabels.length;
+  }
+
+  /** @return the edge type with the given label, or -1 if the graph has no such edges */
+  public int getEdgeType(@Nonnull String label) {
+    int labelId = strings.indexOf(label);
+    for (int type = 0; labelId >= 0 && type < edgeTypeLabels.length; type++) {
+      if (edgeTypeLabels[type] == labelId) {
+        return type;
+      }
+    }
+    return -1;
+  }
+
+  @Nonnull
+  public String getEdgeLabel(int type) {
+    return strings.get(edgeTypeLabels[type]);
+  }
+
+  @Nonnull
+  public EdgeCategory getEdgeCategory(int type) {
+    return edgeTypeCategories[type];
+  }
+
+  public int getEdgeCount() {
+    return edgeCount;
+  }
+
+  public int getEdgeCount(int type) {
+    return edgeSources[type].length;
+  }
+
+  /** @return the source of the i-th edge of the given type, in the order of sources */
+  public int getEdgeSource(int type, int i) {
+    return edgeSources[type][i];
+  }
+
+  /** @return the target of the i-th edge of the given type, in the order of sources */
+  public int getEdgeTarget(int type, int i) {
+    return edgeTargets[type][i];
+  }
+
+  /** passes all edges of the given type to the consumer, ordered by source and target */
+  public void forEachEdge(int type, @Nonnull EdgeConsumer consumer) {
+    final int[] sources = edgeSources[type];
+    final int[] targets = edgeTargets[type];
+    for (int i = 0; i < sources.length; i++) {
+      consumer.accept(sources[i], targets[i]);
+    }
+  }
+
+  public void forEachSuccessor(int node, int type, @Nonnull IntConsumer consumer) {
+    final int[] sources = edgeSources[type];
+    final int[] targets = edgeTargets[type];
+    for (int i = lowerBound(sources, node); i < sources.length && sources[i] == node; i++) {
+      consumer.accept(targets[i]);
+    }
+  }
+
+  public void forEachPredecessor(int node, int type, @Nonnull IntConsumer consumer) {
+    final int[] sources = edgeSources[type];
+    final int[] targets = edgeTargets[type];
+    final int[] byTarget = edgesByTarget[type];
+    // binary search for the first edge in target order that points to node
+    int low = 0;
+    int high = byTarget.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (targets[byTarget[mid]] < node) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    for (int i = low; i < byTarget.length && targets[byTarget[i]] == node; i++) {
+      consumer.accept(sources[byTarget[i]]);
+    }
+  }
+
+  @Nonnull
+  public int[] getSuccessors(int node, int type) {
+    final int[] sources = edgeSources[type];
+    final int from = lowerBound(sources, node);
+    int to = from;
+    while (to < sources.length && sources[to] == node) {
+      to++;
+    }
+    return Arrays.copyOfRange(edgeTargets[type], from, to);
+  }
+
+  @Nonnull
+  public int[] getPredecessors(int node, int type) {
+    IntList predecessors = new IntList(4);
+    forEachPredecessor(node, type, predecessors::add);
+    return predecessors.toArray();
+  }
+
+  private static int lowerBound(@Nonnull int[] sorted, int key) {
+    int low = 0;
+    int high = sorted.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sorted[mid] < key) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** @return an estimation of the bytes used by the graph including its string table */
+  public long getMemoryFootprint() {
+    long bytes = nodeKinds.length + 4L * (nodeLabels.length + nodeLines.length);
+    bytes += 4L * (methodNames.length + methodNodeOffsets.length);
+    bytes += 12L * edgeCount + 16L * 3 * edgeSources.length;
+    return bytes + strings.getMemoryFootprint();
+  }
+
+  /**
+   * Collects the {@link MethodGraphFragment}s of many methods. Fragments are appended in the order
+   * of the calls; the builder is thread-safe, but the node ids depend on that order.
+   */
+  public static class Builder {
+    @Nonnull private final StringTable strings;
+
+    private int nodeCount;
+    @Nonnull private byte[] nodeKinds = new byte[64];
+    @Nonnull private final IntList nodeLabels = new IntList(64);
+    @Nonnull private final IntList nodeLines = new IntList(64);
+
+    @Nonnull private final IntList methodNames = new IntList();
+    @Nonnull private final IntList methodNodeStarts = new IntList();
+
+    /** the edge type of each label, indexed by string id */
+    @Nonnull private final Map<Integer, Integer> edgeTypes = new HashMap<>();
+
+    @Nonnull private final IntList edgeTypeLabels = new IntList();
+    @Nonnull private final List<EdgeCategory> edgeTypeCategories = new ArrayList<>();
+    @Nonnull private final List<IntList> edgeSources = new ArrayList<>();
+    @Nonnull private final List<IntList> edgeTargets = new ArrayList<>();
+
+    public Builder() {
+      this(new StringTable());
+    }
+
+    /** @param strings the table the fragments are interned into, it can be shared by builders */
+    public Builder(@Nonnull StringTable strings) {
+      this.strings = strings;
+    }
+
+    @Nonnull
+    public StringTable getStringTable() {
+      return strings;
+    }
+
+    /**
+     * Appends the nodes and edges of the fragment; the node ids of the fragment are shifted by the
+     * number of nodes added before.
+     */
+    @Nonnull
+    public synchronized Builder add(@Nonnull MethodGraphFragment fragment) {
+      if (fragment.getStringTable() != strings) {
+        throw new IllegalArgumentException(
+            "The fragment was not created with the string table of this builder.");
+      }
+      final int offset = nodeCount;
+      final int fragmentNodeCount = fragment.getNodeCount();
+      methodNames.add(fragment.getName());
+      methodNodeStarts.add(offset);
+      if (offset + fragmentNodeCount > nodeKinds.length) {
+        nodeKinds =
+            Arrays.copyOf(nodeKinds, Math.max(nodeKinds.length * 2, offset + fragmentNodeCount));
+      }
+      for (int i = 0; i < fragmentNodeCount; i++) {
+        nodeKinds[offset + i] = (byte) fragment.getNodeKind(i).ordinal();
+        nodeLabels.add(fragment.getNodeLabel(i));
+        nodeLines.add(fragment.getNodeLine(i));
+      }
+      nodeCount += fragmentNodeCount;
+
+      for (int e = 0; e < fragment.getEdgeCount(); e++) {
+        int type = edgeTypeOf(fragment.getEdgeLabel(e), fragment.getEdgeCategory(e));
+        edgeSources.get(type).add(offset + fragment.getEdgeSource(e));
+        edgeTargets.get(type).add(offset + fragment.getEdgeTarget(e));
+      }
+      return this;
+    }
+
+    private int edgeTypeOf(int label, @Nonnull EdgeCategory category) {
+      Integer type = edgeTypes.get(label);
+      if (type == null) {
+        type = edgeTypeLabels.size();
+        edgeTypes.put(label, type);
+        edgeTypeLabels.add(label);
+        edgeTypeCategories.add(category);
+        edgeSources.add(new IntList());
+        edgeTargets.add(new IntList());
+      }
+      return type;
+    }
+
+    /** Converts the given graph into a fragment with the given name and appends it. */
+    @Nonnull
+    public Builder add(@Nonnull String name, @Nonnull PropertyGraph graph) {
+      return add(MethodGraphFragment.of(name, graph, strings));
+    }
+
+    /**
+     * Creates the property graphs of the given methods in parallel and appends them in the order of
+     * the collection. Each property graph is converted into its fragment right away, so only the
+     * fragments are held in memory.
+     *
+     * @param methods the methods to add, their signatures are the names of the fragments
+     * @param graphCreator creates the property graph of a method, e.g. {@code
+     *     cpgCreator::createCpg}; it is called concurrently
+     */
+    @Nonnull
+    public Builder addMethods(
+        @Nonnull Collection<? extends SootMethod> methods,
+        @Nonnull Function<? super SootMethod, ? extends PropertyGraph> graphCreator) {
+      List<MethodGraphFragment> fragments =
+          methods
+              .parallelStream()
+              .map(
+                  method ->
+                      MethodGraphFragment.of(
+                          method.getSignature().toString(), graphCreator.apply(method), strings))
+              .collect(Collectors.toList());
+      fragments.forEach(this::add);
+      return this;
+    }
+
+    @Nonnull
+    public synchronized ColumnarPropertyGraph build() {
+      return new ColumnarPropertyGraph(this);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package sootup.codepropertygraph.propertygraph.columnar;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import javax.annotation.Nonnull;
+import sootup.codepropertygraph.propertygraph.edges.AbstAstEdge;
+import sootup.codepropertygraph.propertygraph.edges.AbstCdgEdge;
+import sootup.codepropertygraph.propertygraph.edges.AbstCfgEdge;
+import sootup.codepropertygraph.propertygraph.edges.AbstDdgEdge;
+import sootup.codepropertygraph.propertygraph.edges.PropertyGraphEdge;
+
+/** The subgraph of the code property graph an edge belongs to. */
+public enum EdgeCategory {
+  AST,
+  CFG,
+  CDG,
+  DDG;
+
+  private static final EdgeCategory[] VALUES = values();
+
+  @Nonnull
+  public static EdgeCategory of(@Nonnull PropertyGraphEdge edge) {
+    if (edge instanceof AbstAstEdge) {
+      return AST;
+    } else if (edge instanceof AbstCfgEdge) {
+      return CFG;
+    } else if (edge instanceof AbstCdgEdge) {
+      return CDG;
+    } else if (edge instanceof AbstDdgEdge) {
+      return DDG;
+    }
+    throw new IllegalArgumentException("Unknown edge type: " + edge.getClass().getName());
+  }
+
+  @Nonnull
+  static EdgeCategory valueOf(int ordinal) {
+    return VALUES[ordinal];
+  }
+}
@@ -0,0 +1,59 @@
+package sootup.codepropertygraph.propertygraph.columnar;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import java.util.Arrays;
+
+/** A growable list of primitive ints, used as column while a graph is built. */
+final class IntList {
+  private int[] values;
+  private int size;
+
+  IntList() {
+    this(16);
+  }
+
+  IntList(int capacity) {
+    values = new int[Math.max(capacity, 1)];
+  }
+
+  void add(int value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+    }
+    values[size++] = value;
+  }
+
+  int get(int index) {
+    return values[index];
+  }
+
+  int size() {
+    return size;
+  }
+
+  /** @return a copy of the values, trimmed to the size of the list */
+  int[] toArray() {
+    return Arrays.copyOf(values, size);
+  }
+}
@@ -0,0 +1,189 @@
+package sootup.codepropertygraph.propertygraph.columnar;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import sootup.codepropertygraph.propertygraph.PropertyGraph;
+import sootup.codepropertygraph.propertygraph.edges.PropertyGraphEdge;
+import sootup.codepropertygraph.propertygraph.nodes.PropertyGraphNode;
+import sootup.codepropertygraph.propertygraph.nodes.StmtGraphNode;
+
+/**
+ * The columnar form of the property graph of a single method. Its nodes are numbered from 0, in the
+ * order of {@link PropertyGraph#getNodes()}, and all strings are interned into the {@link
+ * StringTable} the fragment was created with. Fragments of different methods are independent of
+ * each other, so they can be created in parallel and appended to a {@link
+ * ColumnarPropertyGraph.Builder} or exported one after another.
+ */
+public final class MethodGraphFragment {
+  @Nonnull private final StringTable strings;
+  private final int name;
+
+  @Nonnull private final byte[] nodeKinds;
+  @Nonnull private final int[] nodeLabels;
+  @Nonnull private final int[] nodeLines;
+
+  @Nonnull private final int[] edgeLabels;
+  @Nonnull private final byte[] edgeCategories;
+  @Nonnull private final int[] edgeSources;
+  @Nonnull private final int[] edgeTargets;
+
+  private MethodGraphFragment(
+      @Nonnull StringTable strings,
+      int name,
+      @Nonnull byte[] nodeKinds,
+      @Nonnull int[] nodeLabels,
+      @Nonnull int[] nodeLines,
+      @Nonnull int[] edgeLabels,
+      @Nonnull byte[] edgeCategories,
+      @Nonnull int[] edgeSources,
+      @Nonnull int[] edgeTargets) {
+    this.strings = strings;
+    this.name = name;
+    this.nodeKinds = nodeKinds;
+    this.nodeLabels = nodeLabels;
+    this.nodeLines = nodeLines;
+    this.edgeLabels = edgeLabels;
+    this.edgeCategories = edgeCategories;
+    this.edgeSources = edgeSources;
+    this.edgeTargets = edgeTargets;
+  }
+
+  /**
+   * Converts the given property graph. The graph can be discarded afterwards, the fragment only
+   * references the string table.
+   *
+   * @param name the name of the fragment, usually the signature of the method
+   * @param graph the property graph of the method
+   * @param strings the table the strings of the graph are interned into
+   * @return the fragment
+   */
+  @Nonnull
+  public static MethodGraphFragment of(
+      @Nonnull String name, @Nonnull PropertyGraph graph, @Nonnull StringTable strings) {
+    final List<PropertyGraphNode> nodes = graph.getNodes();
+    final int nodeCount = nodes.size();
+    final Map<PropertyGraphNode, Integer> nodeIds = new HashMap<>(nodeCount * 2);
+    final byte[] nodeKinds = new byte[nodeCount];
+    final int[] nodeLabels = new int[nodeCount];
+    final int[] nodeLines = new int[nodeCount];
+    for (int i = 0; i < nodeCount; i++) {
+      PropertyGraphNode node = nodes.get(i);
+      nodeIds.put(node, i);
+      nodeKinds[i] = (byte) NodeKind.of(node).ordinal();
+      nodeLabels[i] = strings.intern(node.toString());
+      nodeLines[i] =
+          node instanceof StmtGraphNode
+              ? ((StmtGraphNode) node).getStmt().getPositionInfo().getStmtPosition().getFirstLine()
+              : -1;
+    }
+
+    final List<PropertyGraphEdge> edges = graph.getEdges();
+    final int edgeCount = edges.size();
+    final int[] edgeLabels = new int[edgeCount];
+    final byte[] edgeCategories = new byte[edgeCount];
+    final int[] edgeSources = new int[edgeCount];
+    final int[] edgeTargets = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      PropertyGraphEdge edge = edges.get(i);
+      edgeLabels[i] = strings.intern(edge.getLabel());
+      edgeCategories[i] = (byte) EdgeCategory.of(edge).ordinal();
+      edgeSources[i] = nodeId(nodeIds, edge.getSource());
+      edgeTargets[i] = nodeId(nodeIds, edge.getDestination());
+    }
+
+    return new MethodGraphFragment(
+        strings,
+        strings.intern(name),
+        nodeKinds,
+        nodeLabels,
+        nodeLines,
+        edgeLabels,
+        edgeCategories,
+        edgeSources,
+        edgeTargets);
+  }
+
+  private static int nodeId(
+      @Nonnull Map<PropertyGraphNode, Integer> nodeIds, @Nonnull PropertyGraphNode node) {
+    Integer id = nodeIds.get(node);
+    if (id == null) {
+      throw new IllegalArgumentException("The edge references the unknown node '" + node + "'.");
+    }
+    return id;
+  }
+
+  @Nonnull
+  public StringTable getStringTable() {
+    return strings;
+  }
+
+  /** @return the string id of the name of the fragment */
+  public int getName() {
+    return name;
+  }
+
+  public int getNodeCount() {
+    return nodeKinds.length;
+  }
+
+  @Nonnull
+  public NodeKind getNodeKind(int node) {
+    return NodeKind.valueOf(nodeKinds[node]);
+  }
+
+  /** @return the string id of the label of the node */
+  public int getNodeLabel(int node) {
+    return nodeLabels[node];
+  }
+
+  /** @return the first source line of the node, or -1 if it is unknown */
+  public int getNodeLine(int node) {
+    return nodeLines[node];
+  }
+
+  public int getEdgeCount() {
+    return edgeSources.length;
+  }
+
+  /** @return the string id of the label of the edge */
+  public int getEdgeLabel(int edge) {
+    return edgeLabels[edge];
+  }
+
+  @Nonnull
+  public EdgeCategory getEdgeCategory(int edge) {
+    return EdgeCategory.valueOf(edgeCategories[edge]);
+  }
+
+  public int getEdgeSource(int edge) {
+    return edgeSources[edge];
+  }
+
+  public int getEdgeTarget(int edge) {
+    return edgeTargets[edge];
+  }
+}
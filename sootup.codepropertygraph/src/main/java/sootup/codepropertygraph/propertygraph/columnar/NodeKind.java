@@ -0,0 +1,67 @@
+package sootup.codepropertygraph.propertygraph.columnar;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import javax.annotation.Nonnull;
+import sootup.codepropertygraph.propertygraph.nodes.*;
+
+/** The kind of a node of a {@link ColumnarPropertyGraph}, i.e. the class of the original node. */
+public enum NodeKind {
+  STMT,
+  METHOD,
+  TYPE,
+  MODIFIER,
+  EXPR,
+  REF,
+  IMMEDIATE,
+  AGGREGATE;
+
+  private static final NodeKind[] VALUES = values();
+
+  @Nonnull
+  public static NodeKind of(@Nonnull PropertyGraphNode node) {
+    if (node instanceof StmtGraphNode) {
+      return STMT;
+    } else if (node instanceof MethodGraphNode) {
+      return METHOD;
+    } else if (node instanceof TypeGraphNode) {
+      return TYPE;
+    } else if (node instanceof ModifierGraphNode) {
+      return MODIFIER;
+    } else if (node instanceof ExprGraphNode) {
+      return EXPR;
+    } else if (node instanceof RefGraphNode) {
+      return REF;
+    } else if (node instanceof ImmediateGraphNode) {
+      return IMMEDIATE;
+    } else if (node instanceof AggregateGraphNode) {
+      return AGGREGATE;
+    }
+    throw new IllegalArgumentException("Unknown node type: " + node.getClass().getName());
+  }
+
+  @Nonnull
+  static NodeKind valueOf(int ordinal) {
+    return VALUES[ordinal];
+  }
+}
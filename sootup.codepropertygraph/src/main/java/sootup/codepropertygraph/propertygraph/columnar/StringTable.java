@@ -0,0 +1,102 @@
+package sootup.codepropertygraph.propertygraph.columnar;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+
+/**
+ * Interns the property strings of a {@link ColumnarPropertyGraph}, e.g. node labels, edge labels
+ * and method names. Every distinct string is stored once and referenced by its dense id.
+ *
+ * <p>The table is thread-safe, so the {@link MethodGraphFragment}s of several methods can be
+ * created in parallel with a shared table. Lookups of already interned strings do not lock.
+ */
+public final class StringTable {
+  private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+  /** written under the lock of this table; an id is published to other threads only via ids */
+  @Nonnull private volatile String[] strings = new String[64];
+
+  private int size;
+
+  /** @return the id of the given string, it is added to the table if it was not interned yet */
+  public int intern(@Nonnull String string) {
+    Integer id = ids.get(string);
+    if (id != null) {
+      return id;
+    }
+    synchronized (this) {
+      id = ids.get(string);
+      if (id != null) {
+        return id;
+      }
+      String[] values = strings;
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size] = string;
+      strings = values;
+      ids.put(string, size);
+      return size++;
+    }
+  }
+
+  /** @return the id of the given string, or -1 if it is not part of the table */
+  public int indexOf(@Nonnull String string) {
+    Integer id = ids.get(string);
+    return id == null ? -1 : id;
+  }
+
+  @Nonnull
+  public String get(int id) {
+    String string = strings[id];
+    if (string == null) {
+      throw new IndexOutOfBoundsException("There is no string with id " + id + ".");
+    }
+    return string;
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  /** @return a snapshot of the interned strings, the position of a string is its id */
+  @Nonnull
+  public synchronized List<String> getStrings() {
+    return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(strings, size)));
+  }
+
+  /** @return an estimation of the bytes used by the strings and the index of the table */
+  public synchronized long getMemoryFootprint() {
+    long bytes = 16L + 4L * strings.length;
+    for (int i = 0; i < size; i++) {
+      // String object, its char/byte array and the entry of the index
+      bytes += 40 + 16 + strings[i].length() * 2L + 48;
+    }
+    return bytes;
+  }
+}
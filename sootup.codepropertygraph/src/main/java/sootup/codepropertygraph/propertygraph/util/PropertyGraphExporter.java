@@ -0,0 +1,115 @@
+package sootup.codepropertygraph.propertygraph.util;
+
+/*-
+* #%L
+* Soot - a J*va Optimization Framework
+* %%
+Copyright (C) 2024 Michael Youkeim, Stefan Schott and others
+* %%
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU Lesser General Public License as
+* published by the Free Software Foundation, either version 2.1 of the
+* License, or (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Lesser Public License for more details.
+*
+* You should have received a copy of the GNU General Lesser Public
+* License along with this program.  If not, see
+* <http://www.gnu.org/licenses/lgpl-2.1.html>.
+* #L%
+*/
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import sootup.codepropertygraph.propertygraph.PropertyGraph;
+import sootup.codepropertygraph.propertygraph.columnar.ColumnarPropertyGraph;
+import sootup.codepropertygraph.propertygraph.columnar.NodeKind;
+import sootup.codepropertygraph.propertygraph.edges.PropertyGraphEdge;
+import sootup.codepropertygraph.propertygraph.nodes.PropertyGraphNode;
+import sootup.core.graph.export.GraphWriter;
+import sootup.core.model.SootMethod;
+
+/**
+ * Streams property graphs to a {@link GraphWriter}, e.g. to the binary format or to CSV files for a
+ * graph database. The kind of a node is its {@link NodeKind} in lower case and its label is the
+ * same as in the DOT output; the type of an edge is its label. The writer is never closed.
+ *
+ * <p>Several graphs can be written to the same writer, the node ids of each graph continue after
+ * the nodes of the previous graphs.
+ */
+public class PropertyGraphExporter {
+
+  private PropertyGraphExporter() {}
+
+  /**
+   * Writes the nodes and edges of the given graph in the order of {@link PropertyGraph#getNodes()}.
+   */
+  public static void export(@Nonnull PropertyGraph graph, @Nonnull GraphWriter writer)
+      throws IOException {
+    List<PropertyGraphNode> nodes = graph.getNodes();
+    Map<PropertyGraphNode, Integer> nodeIds = new HashMap<>(nodes.size() * 2);
+    for (PropertyGraphNode node : nodes) {
+      if (!nodeIds.containsKey(node)) {
+        nodeIds.put(node, writer.addNode(kindOf(NodeKind.of(node)), node.toString()));
+      }
+    }
+    for (PropertyGraphEdge edge : graph.getEdges()) {
+      Integer source = nodeIds.get(edge.getSource());
+      Integer target = nodeIds.get(edge.getDestination());
+      if (source == null || target == null) {
+        throw new IllegalArgumentException(
+            "The edge " + edge.getLabel() + " connects nodes that are not part of the graph.");
+      }
+      writer.addEdge(edge.getLabel(), source, target);
+    }
+  }
+
+  /** Writes the nodes in the order of their ids and the edges grouped by their type. */
+  public static void export(@Nonnull ColumnarPropertyGraph graph, @Nonnull GraphWriter writer)
+      throws IOException {
+    final int offset = writer.getNodeCount();
+    for (int node = 0; node < graph.getNodeCount(); node++) {
+      writer.addNode(kindOf(graph.getNodeKind(node)), graph.getNodeLabel(node));
+    }
+    for (int type = 0; type < graph.getEdgeTypeCount(); type++) {
+      String label = graph.getEdgeLabel(type);
+      for (int i = 0; i < graph.getEdgeCount(type); i++) {
+        writer.addEdge(
+            label, offset + graph.getEdgeSource(type, i), offset + graph.getEdgeTarget(type, i));
+      }
+    }
+  }
+
+  /**
+   * Creates a consumer for {@link sootup.codepropertygraph.cpg.ParallelCpgCreator} that streams
+   * every created graph to the given writer, so the graphs of a whole program do not have to be
+   * kept in memory. The calls are serialized on the writer; an {@link IOException} is rethrown as
+   * {@link UncheckedIOException} and reported as failure of the method.
+   */
+  @Nonnull
+  public static BiConsumer<SootMethod, PropertyGraph> consumer(@Nonnull GraphWriter writer) {
+    return (method, graph) -> {
+      synchronized (writer) {
+        try {
+          export(graph, writer);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    };
+  }
+
+  @Nonnull
+  private static String kindOf(@Nonnull NodeKind kind) {
+    return kind.name().toLowerCase(Locale.ROOT);
+  }
+}
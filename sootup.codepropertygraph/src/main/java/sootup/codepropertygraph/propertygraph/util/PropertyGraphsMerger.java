@@ -27,13 +27,24 @@ import sootup.codepropertygraph.propertygraph.PropertyGraph;
 
 public class PropertyGraphsMerger {
   public static PropertyGraph mergeGraphs(PropertyGraph graph1, PropertyGraph graph2) {
+    return mergeGraphs(new PropertyGraph[] {graph1, graph2});
+  }
+
+  /**
+   * Merges the given graphs in a single pass. The result is the same as merging them pairwise from
+   * left to right, without copying the intermediate graphs.
+   *
+   * @param graphs the graphs to merge
+   * @return the merged graph
+   */
+  public static PropertyGraph mergeGraphs(PropertyGraph... graphs) {
     PropertyGraph.Builder mergedGraphBuilder = new AstPropertyGraph.Builder();
     mergedGraphBuilder.setName("merged_graph");
 
-    graph1.getNodes().forEach(mergedGraphBuilder::addNode);
-    graph1.getEdges().forEach(mergedGraphBuilder::addEdge);
-    graph2.getNodes().forEach(mergedGraphBuilder::addNode);
-    graph2.getEdges().forEach(mergedGraphBuilder::addEdge);
+    for (PropertyGraph graph : graphs) {
+      graph.getNodes().forEach(mergedGraphBuilder::addNode);
+      graph.getEdges().forEach(mergedGraphBuilder::addEdge);
+    }
 
     return mergedGraphBuilder.build();
   }
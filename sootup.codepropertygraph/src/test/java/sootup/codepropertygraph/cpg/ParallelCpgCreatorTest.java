@@ -0,0 +1,137 @@
+package sootup.codepropertygraph.cpg;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.codepropertygraph.ast.AstCreator;
+import sootup.codepropertygraph.cdg.CdgCreator;
+import sootup.codepropertygraph.cfg.CfgCreator;
+import sootup.codepropertygraph.ddg.DdgCreator;
+import sootup.codepropertygraph.propertygraph.PropertyGraph;
+import sootup.codepropertygraph.propertygraph.edges.PropertyGraphEdge;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class ParallelCpgCreatorTest {
+  private final CpgCreator cpgCreator =
+      new CpgCreator(new AstCreator(), new CfgCreator(), new CdgCreator(), new DdgCreator());
+
+  private List<SootMethod> getMethods() {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/miniTestSuite/java6/binary"));
+    List<SootMethod> methods =
+        view.getClasses().flatMap(c -> c.getMethods().stream()).collect(Collectors.toList());
+    assertTrue(methods.stream().filter(SootMethod::isConcrete).count() > 50);
+    return methods;
+  }
+
+  @Test
+  public void testSameGraphsAsCpgCreator() {
+    List<SootMethod> methods = getMethods();
+    Map<MethodSignature, Map<String, Long>> graphs = new ConcurrentHashMap<>();
+    AtomicInteger lastProgress = new AtomicInteger();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    ParallelCpgCreator.Result result =
+        new ParallelCpgCreator(cpgCreator, pool, 2)
+            .createCpgs(
+                methods,
+                (method, cpg) -> graphs.put(method.getSignature(), summarize(cpg)),
+                (processed, total) -> lastProgress.accumulateAndGet(processed, Math::max));
+    pool.shutdown();
+
+    assertTrue(result.isSuccessful(), () -> result.getFailures().toString());
+    List<SootMethod> concreteMethods =
+        methods.stream().filter(SootMethod::isConcrete).collect(Collectors.toList());
+    assertEquals(concreteMethods.size(), result.getCreatedCount());
+    assertEquals(concreteMethods.size(), lastProgress.get());
+    // the bodies are built again, so only compare what does not depend on the names of locals
+    for (SootMethod method : concreteMethods) {
+      assertEquals(summarize(cpgCreator.createCpg(method)), graphs.get(method.getSignature()));
+    }
+
+    CpgBuildStatistics statistics = result.getStatistics();
+    for (CpgBuildStatistics.Stage stage : CpgBuildStatistics.Stage.values()) {
+      assertEquals(concreteMethods.size(), statistics.getCount(stage), stage.toString());
+      assertTrue(statistics.getThroughput(stage) > 0);
+    }
+    assertTrue(result.getThroughput() > 0);
+  }
+
+  /** the number of nodes and the number of edges per label */
+  private static Map<String, Long> summarize(PropertyGraph graph) {
+    Map<String, Long> summary =
+        graph.getEdges().stream()
+            .collect(Collectors.groupingBy(PropertyGraphEdge::getLabel, Collectors.counting()));
+    summary.put("nodes", (long) graph.getNodes().size());
+    return summary;
+  }
+
+  @Test
+  public void testFailuresDoNotStopOtherMethods() {
+    List<SootMethod> methods = getMethods();
+    SootMethod failing = methods.stream().filter(SootMethod::isConcrete).findFirst().get();
+    AtomicInteger consumed = new AtomicInteger();
+    ParallelCpgCreator.Result result =
+        new ParallelCpgCreator(cpgCreator)
+            .createCpgs(
+                methods,
+                (method, cpg) -> {
+                  if (method == failing) {
+                    throw new IllegalStateException("sink failed");
+                  }
+                  consumed.incrementAndGet();
+                });
+
+    assertFalse(result.isSuccessful());
+    assertEquals(1, result.getFailures().size());
+    assertEquals("sink failed", result.getFailures().get(failing.getSignature()).getMessage());
+    assertEquals(consumed.get(), result.getCreatedCount());
+    assertEquals(
+        methods.stream().filter(SootMethod::isConcrete).count() - 1, result.getCreatedCount());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ParallelCpgCreator(cpgCreator, ForkJoinPool.commonPool(), 0));
+  }
+
+  @Test
+  public void testErrorsAreReported() {
+    List<SootMethod> methods = getMethods();
+    SootMethod failing = methods.stream().filter(SootMethod::isConcrete).findFirst().get();
+    ParallelCpgCreator.Result result =
+        new ParallelCpgCreator(cpgCreator)
+            .createCpgs(
+                methods,
+                (method, cpg) -> {
+                  if (method == failing) {
+                    throw new AssertionError("sink failed");
+                  }
+                });
+
+    assertEquals(1, result.getFailures().size());
+    assertTrue(result.getFailures().get(failing.getSignature()) instanceof AssertionError);
+    assertEquals(
+        methods.stream().filter(SootMethod::isConcrete).count() - 1, result.getCreatedCount());
+  }
+
+  @Test
+  public void testSharedContext() {
+    SootMethod method = getMethods().stream().filter(SootMethod::isConcrete).findFirst().get();
+    MethodGraphContext context = new MethodGraphContext(method);
+    assertSame(context.getPostDominanceFinder(), context.getPostDominanceFinder());
+    assertEquals(
+        new CdgCreator().createGraph(method).toDotGraph(),
+        new CdgCreator().createGraph(context).toDotGraph());
+  }
+}
@@ -0,0 +1,176 @@
+package sootup.codepropertygraph.propertygraph.columnar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.codepropertygraph.BenchmarkTestSuiteBase;
+import sootup.codepropertygraph.ast.AstCreator;
+import sootup.codepropertygraph.cdg.CdgCreator;
+import sootup.codepropertygraph.cfg.CfgCreator;
+import sootup.codepropertygraph.cpg.CpgCreator;
+import sootup.codepropertygraph.ddg.DdgCreator;
+import sootup.codepropertygraph.propertygraph.PropertyGraph;
+import sootup.codepropertygraph.propertygraph.edges.PropertyGraphEdge;
+import sootup.core.model.SootMethod;
+import sootup.core.types.ClassType;
+
+@Tag("Java8")
+public class ColumnarPropertyGraphTest extends BenchmarkTestSuiteBase {
+  private final CpgCreator cpgCreator =
+      new CpgCreator(new AstCreator(), new CfgCreator(), new CdgCreator(), new DdgCreator());
+
+  private List<SootMethod> getMethods() {
+    ClassType ifElse = getClassType("IfElseStatement");
+    ClassType tryCatch = getClassType("TryCatchFinally");
+    List<SootMethod> methods = new ArrayList<>();
+    for (String name :
+        Arrays.asList(
+            "ifStatement", "ifElseStatement", "ifElseIfStatement", "ifElseCascadingStatement")) {
+      methods.add(
+          getMinimalTestSuiteMethod(
+                  getMethodSignature(ifElse, name, "int", Collections.singletonList("int")))
+              .get());
+    }
+    for (String name : Arrays.asList("tryCatch", "tryCatchNested", "tryCatchFinallyNested")) {
+      methods.add(
+          getMinimalTestSuiteMethod(
+                  getMethodSignature(tryCatch, name, "void", Collections.emptyList()))
+              .get());
+    }
+    return methods;
+  }
+
+  /** the edges of a method as "label: source -> target" */
+  private static List<String> edgesOf(PropertyGraph graph) {
+    List<String> edges = new ArrayList<>();
+    for (PropertyGraphEdge edge : graph.getEdges()) {
+      edges.add(edge.getLabel() + ": " + edge.getSource() + " -> " + edge.getDestination());
+    }
+    Collections.sort(edges);
+    return edges;
+  }
+
+  private static List<String> edgesOf(ColumnarPropertyGraph graph, int method) {
+    List<String> edges = new ArrayList<>();
+    int start = graph.getMethodNodeStart(method);
+    int end = graph.getMethodNodeEnd(method);
+    for (int type = 0; type < graph.getEdgeTypeCount(); type++) {
+      String label = graph.getEdgeLabel(type);
+      graph.forEachEdge(
+          type,
+          (source, target) -> {
+            if (source >= start && source < end) {
+              assertTrue(target >= start && target < end);
+              edges.add(
+                  label + ": " + graph.getNodeLabel(source) + " -> " + graph.getNodeLabel(target));
+            }
+          });
+    }
+    Collections.sort(edges);
+    return edges;
+  }
+
+  @Test
+  public void testSameGraphAsPropertyGraphs() {
+    List<SootMethod> methods = getMethods();
+    ColumnarPropertyGraph graph =
+        new ColumnarPropertyGraph.Builder().addMethods(methods, cpgCreator::createCpg).build();
+
+    assertEquals(methods.size(), graph.getMethodCount());
+    int nodeCount = 0;
+    int edgeCount = 0;
+    for (int m = 0; m < methods.size(); m++) {
+      SootMethod method = methods.get(m);
+      PropertyGraph cpg = cpgCreator.createCpg(method);
+      assertEquals(method.getSignature().toString(), graph.getMethodName(m));
+      assertEquals(cpg.getNodes().size(), graph.getMethodNodeEnd(m) - graph.getMethodNodeStart(m));
+      for (int i = 0; i < cpg.getNodes().size(); i++) {
+        int node = graph.getMethodNodeStart(m) + i;
+        assertEquals(cpg.getNodes().get(i).toString(), graph.getNodeLabel(node));
+        assertEquals(NodeKind.of(cpg.getNodes().get(i)), graph.getNodeKind(node));
+        assertEquals(m, graph.getMethodOfNode(node));
+      }
+      assertEquals(edgesOf(cpg), edgesOf(graph, m));
+      nodeCount += cpg.getNodes().size();
+      edgeCount += cpg.getEdges().size();
+    }
+    assertEquals(nodeCount, graph.getNodeCount());
+    assertEquals(edgeCount, graph.getEdgeCount());
+
+    // the labels are interned once for all methods
+    assertTrue(graph.getStringTable().size() < nodeCount);
+    assertEquals(EdgeCategory.CFG, graph.getEdgeCategory(graph.getEdgeType("cfg_next")));
+    assertEquals(-1, graph.getEdgeType("unknown_label"));
+    assertTrue(graph.getMemoryFootprint() > 0);
+  }
+
+  @Test
+  public void testSuccessorsAndPredecessors() {
+    ColumnarPropertyGraph graph =
+        new ColumnarPropertyGraph.Builder().addMethods(getMethods(), cpgCreator::createCpg).build();
+    for (int type = 0; type < graph.getEdgeTypeCount(); type++) {
+      Map<Integer, List<Integer>> successors = new HashMap<>();
+      Map<Integer, List<Integer>> predecessors = new HashMap<>();
+      for (int i = 0; i < graph.getEdgeCount(type); i++) {
+        int source = graph.getEdgeSource(type, i);
+        int target = graph.getEdgeTarget(type, i);
+        successors.computeIfAbsent(source, k -> new ArrayList<>()).add(target);
+        predecessors.computeIfAbsent(target, k -> new ArrayList<>()).add(source);
+      }
+      for (int node = 0; node < graph.getNodeCount(); node++) {
+        assertEquals(
+            successors.getOrDefault(node, Collections.emptyList()),
+            toList(graph.getSuccessors(node, type)));
+        List<Integer> expected =
+            new ArrayList<>(predecessors.getOrDefault(node, new ArrayList<>()));
+        List<Integer> actual = toList(graph.getPredecessors(node, type));
+        Collections.sort(expected);
+        Collections.sort(actual);
+        assertEquals(expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testFragmentsOfSharedStringTable() {
+    List<SootMethod> methods = getMethods();
+    StringTable strings = new StringTable();
+    ColumnarPropertyGraph.Builder builder = new ColumnarPropertyGraph.Builder(strings);
+    for (SootMethod method : methods) {
+      builder.add(method.getSignature().toString(), cpgCreator.createCpg(method));
+    }
+    ColumnarPropertyGraph sequential = builder.build();
+    ColumnarPropertyGraph parallel =
+        new ColumnarPropertyGraph.Builder(strings)
+            .addMethods(methods, cpgCreator::createCpg)
+            .build();
+
+    assertEquals(sequential.getNodeCount(), parallel.getNodeCount());
+    for (int node = 0; node < sequential.getNodeCount(); node++) {
+      assertEquals(sequential.getNodeLabelId(node), parallel.getNodeLabelId(node));
+      assertEquals(sequential.getNodeLine(node), parallel.getNodeLine(node));
+    }
+    assertEquals(sequential.getEdgeTypeCount(), parallel.getEdgeTypeCount());
+    for (int type = 0; type < sequential.getEdgeTypeCount(); type++) {
+      assertEquals(sequential.getEdgeLabel(type), parallel.getEdgeLabel(type));
+      for (int i = 0; i < sequential.getEdgeCount(type); i++) {
+        assertEquals(sequential.getEdgeSource(type, i), parallel.getEdgeSource(type, i));
+        assertEquals(sequential.getEdgeTarget(type, i), parallel.getEdgeTarget(type, i));
+      }
+    }
+
+    MethodGraphFragment foreign =
+        MethodGraphFragment.of("m", cpgCreator.createCpg(methods.get(0)), new StringTable());
+    assertThrows(IllegalArgumentException.class, () -> builder.add(foreign));
+  }
+
+  private static List<Integer> toList(int[] values) {
+    List<Integer> list = new ArrayList<>();
+    for (int value : values) {
+      list.add(value);
+    }
+    return list;
+  }
+}
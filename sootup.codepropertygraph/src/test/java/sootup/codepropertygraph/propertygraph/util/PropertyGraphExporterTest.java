@@ -0,0 +1,139 @@
+package sootup.codepropertygraph.propertygraph.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.*;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.codepropertygraph.BenchmarkTestSuiteBase;
+import sootup.codepropertygraph.ast.AstCreator;
+import sootup.codepropertygraph.cdg.CdgCreator;
+import sootup.codepropertygraph.cfg.CfgCreator;
+import sootup.codepropertygraph.cpg.CpgCreator;
+import sootup.codepropertygraph.cpg.ParallelCpgCreator;
+import sootup.codepropertygraph.ddg.DdgCreator;
+import sootup.codepropertygraph.propertygraph.PropertyGraph;
+import sootup.codepropertygraph.propertygraph.columnar.ColumnarPropertyGraph;
+import sootup.codepropertygraph.propertygraph.edges.PropertyGraphEdge;
+import sootup.core.graph.export.BinaryGraphReader;
+import sootup.core.graph.export.BinaryGraphWriter;
+import sootup.core.graph.export.ExportedGraph;
+import sootup.core.graph.export.GraphWriter;
+import sootup.core.model.SootMethod;
+import sootup.core.types.ClassType;
+
+@Tag("Java8")
+public class PropertyGraphExporterTest extends BenchmarkTestSuiteBase {
+  private final CpgCreator cpgCreator =
+      new CpgCreator(new AstCreator(), new CfgCreator(), new CdgCreator(), new DdgCreator());
+
+  private List<SootMethod> getMethods() {
+    ClassType ifElse = getClassType("IfElseStatement");
+    List<SootMethod> methods = new ArrayList<>();
+    for (String name : Arrays.asList("ifStatement", "ifElseStatement", "ifElseIfStatement")) {
+      methods.add(
+          getMinimalTestSuiteMethod(
+                  getMethodSignature(ifElse, name, "int", Collections.singletonList("int")))
+              .get());
+    }
+    return methods;
+  }
+
+  private interface Export {
+    void to(GraphWriter writer) throws IOException;
+  }
+
+  private static ExportedGraph roundTrip(Export export) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (BinaryGraphWriter writer = new BinaryGraphWriter(Channels.newChannel(out))) {
+      export.to(writer);
+    }
+    return BinaryGraphReader.load(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+  }
+
+  /** the edges as "label: source -> target" */
+  private static List<String> edgesOf(ExportedGraph graph) {
+    List<String> edges = new ArrayList<>();
+    for (int edge = 0; edge < graph.getEdgeCount(); edge++) {
+      edges.add(
+          graph.getEdgeType(edge)
+              + ": "
+              + graph.getNodeLabel(graph.getEdgeSource(edge))
+              + " -> "
+              + graph.getNodeLabel(graph.getEdgeTarget(edge)));
+    }
+    Collections.sort(edges);
+    return edges;
+  }
+
+  @Test
+  public void testExport() throws IOException {
+    List<SootMethod> methods = getMethods();
+    List<PropertyGraph> cpgs = new ArrayList<>();
+    List<String> expectedEdges = new ArrayList<>();
+    int nodeCount = 0;
+    for (SootMethod method : methods) {
+      PropertyGraph cpg = cpgCreator.createCpg(method);
+      cpgs.add(cpg);
+      nodeCount += cpg.getNodes().size();
+      for (PropertyGraphEdge edge : cpg.getEdges()) {
+        expectedEdges.add(
+            edge.getLabel() + ": " + edge.getSource() + " -> " + edge.getDestination());
+      }
+    }
+    Collections.sort(expectedEdges);
+
+    ExportedGraph exported =
+        roundTrip(
+            writer -> {
+              for (PropertyGraph cpg : cpgs) {
+                PropertyGraphExporter.export(cpg, writer);
+              }
+            });
+    assertEquals(nodeCount, exported.getNodeCount());
+    assertEquals(expectedEdges, edgesOf(exported));
+    assertEquals("method", exported.getNodeKind(0));
+
+    // the columnar graph is exported with the same nodes and edges
+    ColumnarPropertyGraph columnar =
+        new ColumnarPropertyGraph.Builder().addMethods(methods, cpgCreator::createCpg).build();
+    ExportedGraph exportedColumnar =
+        roundTrip(
+            writer -> {
+              writer.addNode("program", "offset");
+              PropertyGraphExporter.export(columnar, writer);
+            });
+    assertEquals(nodeCount + 1, exportedColumnar.getNodeCount());
+    assertEquals(expectedEdges, edgesOf(exportedColumnar));
+    for (int node = 0; node < nodeCount; node++) {
+      assertEquals(exported.getNodeKind(node), exportedColumnar.getNodeKind(node + 1));
+    }
+  }
+
+  @Test
+  public void testStreamParallelCreatedGraphs() throws IOException {
+    List<SootMethod> methods = getMethods();
+    int[] created = new int[1];
+    ExportedGraph exported =
+        roundTrip(
+            writer -> {
+              ParallelCpgCreator.Result result =
+                  new ParallelCpgCreator(cpgCreator)
+                      .createCpgs(methods, PropertyGraphExporter.consumer(writer));
+              assertTrue(result.isSuccessful(), () -> result.getFailures().toString());
+              created[0] = result.getCreatedCount();
+            });
+    assertEquals(methods.size(), created[0]);
+    int methodNodes = 0;
+    for (int node = 0; node < exported.getNodeCount(); node++) {
+      if (exported.getNodeKind(node).equals("method")) {
+        methodNodes++;
+      }
+    }
+    assertEquals(methods.size(), methodNodes);
+  }
+}
@@ -0,0 +1,95 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+
+/**
+ * Base class for {@link BodyCache}s that are backed by a Guava {@link Cache}. The methods are
+ * referenced weakly and compared by identity, so bodies of methods that are no longer reachable are
+ * dropped as well. Concurrent requests for the same method build its body only once.
+ */
+public abstract class AbstractBodyCache implements BodyCache {
+
+  @Nonnull protected final Cache<SootMethod, Body> cache;
+
+  /**
+   * @param cacheBuilder a builder that is already configured with the eviction strategy of the
+   *     subclass.
+   */
+  protected AbstractBodyCache(
+      @Nonnull CacheBuilder<? super SootMethod, ? super Body> cacheBuilder) {
+    this.cache = cacheBuilder.weakKeys().recordStats().build();
+  }
+
+  @Nonnull
+  @Override
+  public Body getBody(@Nonnull SootMethod method, @Nonnull Supplier<Body> bodyBuilder) {
+    try {
+      return cache.get(method, bodyBuilder::get);
+    } catch (UncheckedExecutionException | ExecutionError | ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(
+          "Could not build the body of " + method.getSignature() + ".", cause);
+    }
+  }
+
+  @Override
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public long size() {
+    return cache.size();
+  }
+
+  @Override
+  public long getHitCount() {
+    return cache.stats().hitCount();
+  }
+
+  @Override
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  @Override
+  public long getEvictionCount() {
+    return cache.stats().evictionCount();
+  }
+}
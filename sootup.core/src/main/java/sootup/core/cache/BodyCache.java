@@ -0,0 +1,59 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+
+/**
+ * Interface for different strategies of keeping resolved method bodies in memory. Without a
+ * BodyCache, a {@link SootMethod} keeps its body forever once it is resolved. With a BodyCache,
+ * bodies can be dropped again and are rebuilt from the {@link sootup.core.frontend.BodySource} of
+ * the method when they are requested the next time.
+ */
+public interface BodyCache {
+
+  /**
+   * Returns the cached body of the given method. If there is none, the body is built by the given
+   * builder and stored in the cache.
+   */
+  @Nonnull
+  Body getBody(@Nonnull SootMethod method, @Nonnull Supplier<Body> bodyBuilder);
+
+  /** Removes all cached bodies. */
+  void invalidateAll();
+
+  /** Returns the number of bodies that are currently stored in the cache. */
+  long size();
+
+  /** Returns how often a requested body was found in the cache. */
+  long getHitCount();
+
+  /** Returns how often a requested body had to be built. */
+  long getMissCount();
+
+  /** Returns how many bodies were removed from the cache to free memory. */
+  long getEvictionCount();
+}
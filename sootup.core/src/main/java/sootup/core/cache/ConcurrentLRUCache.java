@@ -0,0 +1,116 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.ToIntFunction;
+import javax.annotation.Nonnull;
+import sootup.core.model.SootClass;
+import sootup.core.types.ClassType;
+
+/**
+ * Thread-safe cache that implements a least recently used strategy. In contrast to the {@link
+ * LRUCache} it is bounded by the estimated weight of the stored classes instead of their number: if
+ * the summed up weight exceeds the specified maximum, the least recently used classes are removed.
+ * The cache is split into segments that are locked independently, so it can be shared by many
+ * threads, e.g. during a parallel call graph construction. Since each segment evicts on its own, a
+ * single class should weigh considerably less than the maximum weight.
+ */
+public class ConcurrentLRUCache implements ClassCache {
+  private final Cache<ClassType, SootClass> cache;
+
+  /** Creates a cache that estimates the weight of a class with {@link #estimateWeight}. */
+  public ConcurrentLRUCache(long maximumWeight) {
+    this(maximumWeight, ConcurrentLRUCache::estimateWeight);
+  }
+
+  /**
+   * Creates a cache with a custom weigher. The weight of a class is computed once, when it is put
+   * into the cache.
+   */
+  public ConcurrentLRUCache(long maximumWeight, @Nonnull ToIntFunction<SootClass> weigher) {
+    cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher(
+                (Weigher<ClassType, SootClass>)
+                    (classType, sootClass) -> weigher.applyAsInt(sootClass))
+            .recordStats()
+            .build();
+  }
+
+  /** Estimates the weight of a class by the number of its members. */
+  public static int estimateWeight(@Nonnull SootClass sootClass) {
+    return 1 + sootClass.getMethods().size() + sootClass.getFields().size();
+  }
+
+  @Override
+  public SootClass getClass(ClassType classType) {
+    return cache.getIfPresent(classType);
+  }
+
+  @Nonnull
+  @Override
+  public Collection<SootClass> getClasses() {
+    return Collections.unmodifiableCollection(cache.asMap().values());
+  }
+
+  @Override
+  public void putClass(ClassType classType, SootClass sootClass) {
+    cache.asMap().putIfAbsent(classType, sootClass);
+  }
+
+  @Override
+  public boolean hasClass(ClassType classType) {
+    return cache.asMap().containsKey(classType);
+  }
+
+  @Override
+  public int size() {
+    return (int) cache.size();
+  }
+
+  /** Returns how often a requested class was found in the cache. */
+  public long getHitCount() {
+    return cache.stats().hitCount();
+  }
+
+  /** Returns how often a requested class was not found in the cache. */
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  /** Returns the ratio of requests that were served by the cache, or 1.0 if there were none. */
+  public double getHitRate() {
+    return cache.stats().hitRate();
+  }
+
+  /** Returns how many classes were removed from the cache to stay below the maximum weight. */
+  public long getEvictionCount() {
+    return cache.stats().evictionCount();
+  }
+}
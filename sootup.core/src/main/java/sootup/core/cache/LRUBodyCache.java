@@ -0,0 +1,45 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+
+/**
+ * Cache that implements a least recently used strategy for bodies. The size of a body is estimated
+ * by the number of its statements. If the summed up size of the cached bodies exceeds the specified
+ * maximum, the least recently used bodies are removed.
+ */
+public class LRUBodyCache extends AbstractBodyCache {
+
+  public LRUBodyCache(long maximumStmtCount) {
+    super(
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumStmtCount)
+            .weigher(
+                (Weigher<SootMethod, Body>)
+                    (method, body) -> body.getStmtGraph().getNodes().size()));
+  }
+}
@@ -56,17 +56,17 @@ public class LRUCache implements ClassCache {
   }
 
   @Override
-  public void putClass(ClassType classType, SootClass sootClass) {
+  public synchronized void putClass(ClassType classType, SootClass sootClass) {
     cache.putIfAbsent(classType, sootClass);
   }
 
   @Override
-  public boolean hasClass(ClassType classType) {
+  public synchronized boolean hasClass(ClassType classType) {
     return cache.containsKey(classType);
   }
 
   @Override
-  public int size() {
+  public synchronized int size() {
     return cache.size();
   }
 }
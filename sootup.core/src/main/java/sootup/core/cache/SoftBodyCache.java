@@ -0,0 +1,36 @@
+package sootup.core.cache;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Cache that references bodies softly. Bodies stay in memory until the garbage collector needs the
+ * space, so the heap is used as a cache without risking an {@link OutOfMemoryError}.
+ */
+public class SoftBodyCache extends AbstractBodyCache {
+
+  public SoftBodyCache() {
+    super(CacheBuilder.newBuilder().softValues());
+  }
+}
@@ -0,0 +1,68 @@
+package sootup.core.cache.provider;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.ToIntFunction;
+import javax.annotation.Nonnull;
+import sootup.core.cache.ClassCache;
+import sootup.core.cache.ConcurrentLRUCache;
+import sootup.core.model.SootClass;
+
+/** Provides a new {@link ConcurrentLRUCache} object. */
+public class ConcurrentLRUCacheProvider implements ClassCacheProvider {
+  private final long maximumWeight;
+  @Nonnull private final ToIntFunction<SootClass> weigher;
+
+  /**
+   * Create a new ConcurrentLRUCacheProvider that returns a {@link ConcurrentLRUCache} with a
+   * default maximum weight of 100,000.
+   */
+  public ConcurrentLRUCacheProvider() {
+    this(100_000);
+  }
+
+  /**
+   * Create a new ConcurrentLRUCacheProvider that returns a {@link ConcurrentLRUCache} with the
+   * specified maximum weight.
+   */
+  public ConcurrentLRUCacheProvider(long maximumWeight) {
+    this(maximumWeight, ConcurrentLRUCache::estimateWeight);
+  }
+
+  /**
+   * Create a new ConcurrentLRUCacheProvider that returns a {@link ConcurrentLRUCache} with the
+   * specified maximum weight and a custom weigher for classes.
+   */
+  public ConcurrentLRUCacheProvider(long maximumWeight, @Nonnull ToIntFunction<SootClass> weigher) {
+    if (maximumWeight < 1) {
+      throw new IllegalArgumentException("Cache size has to be at least 1");
+    }
+    this.maximumWeight = maximumWeight;
+    this.weigher = weigher;
+  }
+
+  @Override
+  public ClassCache createCache() {
+    return new ConcurrentLRUCache(maximumWeight, weigher);
+  }
+}
@@ -22,7 +22,7 @@ package sootup.core.graph;
  * #L%
  */
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.ComparisonChain;
 import java.util.*;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -30,161 +30,483 @@ import sootup.core.jimple.basic.Trap;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.types.ClassType;
 
-// FIXME: implement!
+/**
+ * A read-only, compact copy of a {@link StmtGraph}. The Stmts are numbered densely in the order of
+ * their iteration i.e. the Stmts of a {@link BasicBlock} have consecutive indices. Successors,
+ * predecessors and exceptional edges are stored in int arrays, so besides the {@link StmtGraph}
+ * API, analyses can traverse the graph via the index based methods (e.g. {@link #indexOf(Stmt)},
+ * {@link #getSuccessorCount(int)} and {@link #getSuccessor(int, int)}) without allocating objects.
+ * Looking up the index of a Stmt is a lookup in an identity hash table.
+ *
+ * <p>It answers all queries exactly like the graph it was copied from. Bodies that are created by
+ * the frontends keep their StmtGraph in this form once the BodyInterceptors are applied.
+ */
 public class ImmutableBlockStmtGraph
     extends StmtGraph<ImmutableBlockStmtGraph.ImmutableBasicBlock> {
 
-  private final List<ImmutableBasicBlock> blocks;
-  private final Map<Stmt, ImmutableBasicBlock> stmtToBlock = new HashMap<>();
+  @Nonnull private final Stmt[] stmts;
+  /** open addressing hash table which contains index+1 of the Stmt or 0 if the slot is empty */
+  @Nonnull private final int[] indexTable;
+
+  private final int startingStmtIdx;
+  @Nonnull private final List<ImmutableBasicBlock> blocks;
+  @Nonnull private final int[] stmtToBlock;
+
+  // adjacency in compressed sparse row format: the edges of stmt i are in [offsets[i],
+  // offsets[i+1])
+  @Nonnull private final int[] successorOffsets;
+  @Nonnull private final int[] successors;
+  @Nonnull private final int[] predecessorOffsets;
+  @Nonnull private final int[] predecessors;
+  @Nonnull private final int[] exceptionalPredecessorOffsets;
+  @Nonnull private final int[] exceptionalPredecessors;
+  /** the exceptional successors are the same for all Stmts of a block; indexed by block */
+  @Nonnull private final int[] exceptionalSuccessorOffsets;
+
+  @Nonnull private final int[] exceptionalSuccessors;
+
+  /** built on demand, like the traps of the other StmtGraphs */
+  @Nullable private volatile List<Trap> traps;
+
+  public ImmutableBlockStmtGraph(@Nonnull StmtGraph<?> graph) {
+    List<BasicBlock<?>> sourceBlocks = new ArrayList<>(graph.getBlocks().size());
+    graph.getBlockIterator().forEachRemaining(sourceBlocks::add);
+
+    int stmtCount = 0;
+    for (BasicBlock<?> block : sourceBlocks) {
+      stmtCount += block.getStmtCount();
+    }
+    stmts = new Stmt[stmtCount];
+    stmtToBlock = new int[stmtCount];
+    indexTable = new int[tableSizeFor(stmtCount)];
+
+    // number the Stmts and create the blocks
+    Map<BasicBlock<?>, ImmutableBasicBlock> blockMap = new IdentityHashMap<>();
+    List<ImmutableBasicBlock> blockList = new ArrayList<>(sourceBlocks.size());
+    int idx = 0;
+    for (BasicBlock<?> sourceBlock : sourceBlocks) {
+      ImmutableBasicBlock block = new ImmutableBasicBlock(blockList.size(), idx);
+      for (Stmt stmt : sourceBlock.getStmts()) {
+        stmts[idx] = stmt;
+        stmtToBlock[idx] = block.index;
+        insertIndex(stmt, idx);
+        idx++;
+      }
+      block.endIdx = idx;
+      blockList.add(block);
+      blockMap.put(sourceBlock, block);
+    }
+    blocks = Collections.unmodifiableList(blockList);
+
+    // link the blocks
+    exceptionalSuccessorOffsets = new int[blockList.size() + 1];
+    int exceptionalSuccessorCount = 0;
+    for (int i = 0; i < sourceBlocks.size(); i++) {
+      BasicBlock<?> sourceBlock = sourceBlocks.get(i);
+      ImmutableBasicBlock block = blockList.get(i);
+      block.successors = mapBlocks(sourceBlock.getSuccessors(), blockMap);
+      block.predecessors = mapBlocks(sourceBlock.getPredecessors(), blockMap);
+      block.exceptionalSuccessors = mapBlocks(sourceBlock.getExceptionalSuccessors(), blockMap);
+      Map<ClassType, ? extends BasicBlock<?>> exceptionalPredecessorBlocks =
+          sourceBlock.getExceptionalPredecessors();
+      block.exceptionalPredecessors =
+          exceptionalPredecessorBlocks == null
+              ? Collections.emptyMap()
+              : mapBlocks(exceptionalPredecessorBlocks, blockMap);
+      exceptionalSuccessorCount += block.exceptionalSuccessors.size();
+      exceptionalSuccessorOffsets[i + 1] = exceptionalSuccessorCount;
+    }
+    exceptionalSuccessors = new int[exceptionalSuccessorCount];
+    for (ImmutableBasicBlock block : blockList) {
+      int pos = exceptionalSuccessorOffsets[block.index];
+      for (ImmutableBasicBlock handler : block.exceptionalSuccessors.values()) {
+        exceptionalSuccessors[pos++] = handler.startIdx;
+      }
+    }
 
-  public ImmutableBlockStmtGraph(@Nonnull MutableStmtGraph graph) {
+    // copy the edges between the Stmts
+    successorOffsets = new int[stmtCount + 1];
+    predecessorOffsets = new int[stmtCount + 1];
+    exceptionalPredecessorOffsets = new int[stmtCount + 1];
+    int[][] edges = new int[3][];
+    int[] edgeCounts = new int[3];
+    for (int i = 0; i < 3; i++) {
+      edges[i] = new int[Math.max(stmtCount, 1)];
+    }
+    for (int i = 0; i < stmtCount; i++) {
+      Stmt stmt = stmts[i];
+      appendEdges(graph.successors(stmt), edges, edgeCounts, 0);
+      successorOffsets[i + 1] = edgeCounts[0];
+      appendEdges(graph.predecessors(stmt), edges, edgeCounts, 1);
+      predecessorOffsets[i + 1] = edgeCounts[1];
+      appendEdges(graph.exceptionalPredecessors(stmt), edges, edgeCounts, 2);
+      exceptionalPredecessorOffsets[i + 1] = edgeCounts[2];
+    }
+    successors = Arrays.copyOf(edges[0], edgeCounts[0]);
+    predecessors = Arrays.copyOf(edges[1], edgeCounts[1]);
+    exceptionalPredecessors = Arrays.copyOf(edges[2], edgeCounts[2]);
 
-    final List<? extends BasicBlock<?>> mblocks = graph.getBlocksSorted();
-    blocks = Lists.newArrayListWithExpectedSize(mblocks.size());
-    for (BasicBlock<?> block : mblocks) {
-      /* TODO: link predecessors/successors as well..
-      // final ImmutableBasicBlock ib = new ImmutableBasicBlock();
-      block.getStmts().forEach(stmt -> stmtToBlock.put(stmt, ib));
+    Stmt startingStmt = graph.getStartingStmt();
+    startingStmtIdx = startingStmt == null ? -1 : indexOf(startingStmt);
+  }
 
-      blocks.add(ib);*/
+  private void appendEdges(
+      @Nonnull List<Stmt> targets, @Nonnull int[][] edges, @Nonnull int[] edgeCounts, int kind) {
+    int count = edgeCounts[kind];
+    if (count + targets.size() > edges[kind].length) {
+      edges[kind] = Arrays.copyOf(edges[kind], Math.max(count + targets.size(), count * 2));
+    }
+    for (Stmt target : targets) {
+      edges[kind][count++] = getIndexOrThrow(target);
     }
+    edgeCounts[kind] = count;
+  }
+
+  @Nonnull
+  private static List<ImmutableBasicBlock> mapBlocks(
+      @Nonnull List<? extends BasicBlock<?>> sourceBlocks,
+      @Nonnull Map<BasicBlock<?>, ImmutableBasicBlock> blockMap) {
+    if (sourceBlocks.isEmpty()) {
+      return Collections.emptyList();
+    }
+    ImmutableBasicBlock[] mapped = new ImmutableBasicBlock[sourceBlocks.size()];
+    for (int i = 0; i < mapped.length; i++) {
+      mapped[i] = blockMap.get(sourceBlocks.get(i));
+    }
+    return Collections.unmodifiableList(Arrays.asList(mapped));
+  }
+
+  @Nonnull
+  private static Map<ClassType, ImmutableBasicBlock> mapBlocks(
+      @Nonnull Map<? extends ClassType, ? extends BasicBlock<?>> sourceBlocks,
+      @Nonnull Map<BasicBlock<?>, ImmutableBasicBlock> blockMap) {
+    if (sourceBlocks.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<ClassType, ImmutableBasicBlock> mapped = new LinkedHashMap<>(sourceBlocks.size() * 2);
+    sourceBlocks.forEach((type, block) -> mapped.put(type, blockMap.get(block)));
+    return Collections.unmodifiableMap(mapped);
+  }
+
+  private static int tableSizeFor(int count) {
+    int size = 2;
+    while (size < count * 2) {
+      size <<= 1;
+    }
+    return size;
+  }
+
+  private static int hash(@Nonnull Stmt stmt) {
+    int h = System.identityHashCode(stmt);
+    return h ^ (h >>> 16);
+  }
+
+  private void insertIndex(@Nonnull Stmt stmt, int idx) {
+    int mask = indexTable.length - 1;
+    int slot = hash(stmt) & mask;
+    while (indexTable[slot] != 0) {
+      if (stmts[indexTable[slot] - 1] == stmt) {
+        throw new IllegalArgumentException("Stmt '" + stmt + "' is contained more than once.");
+      }
+      slot = (slot + 1) & mask;
+    }
+    indexTable[slot] = idx + 1;
+  }
+
+  /** @return the index of the given Stmt or -1 if it is not contained in this graph */
+  public int indexOf(@Nonnull Stmt stmt) {
+    int mask = indexTable.length - 1;
+    int slot = hash(stmt) & mask;
+    int entry;
+    while ((entry = indexTable[slot]) != 0) {
+      if (stmts[entry - 1] == stmt) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private int getIndexOrThrow(@Nonnull Stmt stmt) {
+    int idx = indexOf(stmt);
+    if (idx < 0) {
+      throw new IllegalArgumentException(
+          "Stmt '" + stmt + "' is not contained in the BlockStmtGraph");
+    }
+    return idx;
+  }
+
+  /** the number of Stmts in this graph */
+  public int size() {
+    return stmts.length;
+  }
+
+  @Nonnull
+  public Stmt getStmt(int idx) {
+    return stmts[idx];
+  }
+
+  /** @return the index of the starting Stmt or -1 if there is none */
+  public int getStartingStmtIndex() {
+    return startingStmtIdx;
+  }
+
+  /** @return the index of the block in {@link #getBlocks()} which contains the given Stmt */
+  public int getBlockIndex(int stmtIdx) {
+    return stmtToBlock[stmtIdx];
+  }
+
+  public int getSuccessorCount(int stmtIdx) {
+    return successorOffsets[stmtIdx + 1] - successorOffsets[stmtIdx];
+  }
+
+  /** @return the index of the i-th successor of the Stmt */
+  public int getSuccessor(int stmtIdx, int i) {
+    return successors[successorOffsets[stmtIdx] + i];
+  }
+
+  public int getPredecessorCount(int stmtIdx) {
+    return predecessorOffsets[stmtIdx + 1] - predecessorOffsets[stmtIdx];
+  }
+
+  /** @return the index of the i-th predecessor of the Stmt */
+  public int getPredecessor(int stmtIdx, int i) {
+    return predecessors[predecessorOffsets[stmtIdx] + i];
+  }
+
+  public int getExceptionalPredecessorCount(int stmtIdx) {
+    return exceptionalPredecessorOffsets[stmtIdx + 1] - exceptionalPredecessorOffsets[stmtIdx];
+  }
+
+  /** @return the index of the i-th exceptional predecessor of the Stmt */
+  public int getExceptionalPredecessor(int stmtIdx, int i) {
+    return exceptionalPredecessors[exceptionalPredecessorOffsets[stmtIdx] + i];
+  }
+
+  public int getExceptionalSuccessorCount(int stmtIdx) {
+    int block = stmtToBlock[stmtIdx];
+    return exceptionalSuccessorOffsets[block + 1] - exceptionalSuccessorOffsets[block];
+  }
+
+  /**
+   * @return the index of the i-th exceptional successor i.e. the trap handler of the Stmt, in the
+   *     order of {@link #exceptionalSuccessors(Stmt)}
+   */
+  public int getExceptionalSuccessor(int stmtIdx, int i) {
+    return exceptionalSuccessors[exceptionalSuccessorOffsets[stmtToBlock[stmtIdx]] + i];
   }
 
   @Nullable
   @Override
   public Stmt getStartingStmt() {
-    return blocks.isEmpty() ? null : blocks.get(0).getHead();
+    return startingStmtIdx < 0 ? null : stmts[startingStmtIdx];
   }
 
+  @Nullable
   @Override
   public BasicBlock<?> getStartingStmtBlock() {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return startingStmtIdx < 0 ? null : blocks.get(stmtToBlock[startingStmtIdx]);
   }
 
   @Override
-  public BasicBlock<ImmutableBasicBlock> getBlockOf(@Nonnull Stmt stmt) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+  public ImmutableBasicBlock getBlockOf(@Nonnull Stmt stmt) {
+    int idx = indexOf(stmt);
+    if (idx < 0) {
+      throw new IllegalArgumentException("stmt '" + stmt + "' does not exist in this StmtGraph!");
+    }
+    return blocks.get(stmtToBlock[idx]);
   }
 
   @Nonnull
   @Override
-  public List<Stmt> getNodes() {
-    int size = 0;
-    for (ImmutableBasicBlock block : blocks) {
-      size += block.getStmtCount();
-    }
-    final ArrayList<Stmt> stmts = new ArrayList<>(size);
-    for (ImmutableBasicBlock block : blocks) {
-      stmts.addAll(block.getStmts());
-    }
-    return stmts;
+  public Set<Stmt> getNodes() {
+    return new AbstractSet<Stmt>() {
+      @Override
+      public Iterator<Stmt> iterator() {
+        return ImmutableBlockStmtGraph.this.iterator();
+      }
+
+      @Override
+      public int size() {
+        return stmts.length;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return o instanceof Stmt && indexOf((Stmt) o) >= 0;
+      }
+    };
+  }
+
+  @Nonnull
+  @Override
+  public List<Stmt> getStmts() {
+    return new ArrayList<>(Arrays.asList(stmts));
   }
 
   @Nonnull
   @Override
-  public Collection<ImmutableBasicBlock> getBlocks() {
+  public List<ImmutableBasicBlock> getBlocks() {
     return blocks;
   }
 
   @Nonnull
   @Override
   public List<? extends BasicBlock<?>> getBlocksSorted() {
-    return blocks;
+    return ReversePostOrderBlockTraversal.getBlocksSorted(this);
   }
 
   @Override
   public boolean containsNode(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return indexOf(node) >= 0;
   }
 
   @Nonnull
   @Override
   public List<Stmt> predecessors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    int idx = getIndexOrThrow(node);
+    return new StmtSlice(predecessors, predecessorOffsets[idx], predecessorOffsets[idx + 1]);
   }
 
   @Nonnull
   @Override
   public List<Stmt> exceptionalPredecessors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("not implemented");
+    int idx = getIndexOrThrow(node);
+    return new StmtSlice(
+        exceptionalPredecessors,
+        exceptionalPredecessorOffsets[idx],
+        exceptionalPredecessorOffsets[idx + 1]);
   }
 
   @Nonnull
   @Override
   public List<Stmt> successors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    int idx = getIndexOrThrow(node);
+    return new StmtSlice(successors, successorOffsets[idx], successorOffsets[idx + 1]);
   }
 
   @Nonnull
   @Override
   public Map<ClassType, Stmt> exceptionalSuccessors(@Nonnull Stmt node) {
-    // FIXME! implement
-    throw new RuntimeException("not implemented");
+    return blocks.get(stmtToBlock[getIndexOrThrow(node)]).getExceptionalSuccessorStmts();
   }
 
   @Override
   public int inDegree(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return getPredecessorCount(getIndexOrThrow(node));
   }
 
   @Override
   public int outDegree(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return getSuccessorCount(getIndexOrThrow(node));
   }
 
   @Override
   public boolean hasEdgeConnecting(@Nonnull Stmt source, @Nonnull Stmt target) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    int sourceIdx = getIndexOrThrow(source);
+    int targetIdx = getIndexOrThrow(target);
+    for (int i = successorOffsets[sourceIdx]; i < successorOffsets[sourceIdx + 1]; i++) {
+      if (successors[i] == targetIdx) {
+        return true;
+      }
+    }
+    return false;
   }
 
+  /** the traps are computed once, on the first call */
   @Nonnull
   @Override
   public List<Trap> buildTraps() {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    List<Trap> builtTraps = traps;
+    if (builtTraps == null) {
+      BlockGraphIteratorAndTrapAggregator it =
+          new BlockGraphIteratorAndTrapAggregator(new ImmutableBasicBlock(-1, 0));
+      // the blocks are already numbered in the order of the iteration
+      while (it.hasNext()) {
+        it.next();
+      }
+      List<Trap> collectedTraps = it.getTraps();
+      collectedTraps.sort(
+          (a, b) ->
+              ComparisonChain.start()
+                  .compare(blockIndexOf(a.getBeginStmt()), blockIndexOf(b.getBeginStmt()))
+                  .compare(blockIndexOf(a.getEndStmt()), blockIndexOf(b.getEndStmt()))
+                  .compare(a.getExceptionType().toString(), b.getExceptionType().toString())
+                  .result());
+      builtTraps = Collections.unmodifiableList(collectedTraps);
+      traps = builtTraps;
+    }
+    return new ArrayList<>(builtTraps);
+  }
+
+  private int blockIndexOf(@Nonnull Stmt stmt) {
+    return stmtToBlock[getIndexOrThrow(stmt)];
   }
 
   @Nonnull
   @Override
   public Iterator<Stmt> iterator() {
-    return new Iterator<Stmt>() {
-      final Iterator<ImmutableBasicBlock> blockIt = blocks.iterator();
-      Iterator<Stmt> stmtIt = blockIt.next().getStmts().iterator();
+    return Collections.unmodifiableList(Arrays.asList(stmts)).iterator();
+  }
 
-      @Override
-      public boolean hasNext() {
-        // hint: there are no empty blocks!
-        return stmtIt.hasNext() || blockIt.hasNext();
-      }
+  /** a read-only view of the Stmts whose indices are stored in the range of an edge array */
+  private class StmtSlice extends AbstractList<Stmt> implements RandomAccess {
+    @Nonnull private final int[] indices;
+    private final int from;
+    private final int to;
 
-      @Override
-      public Stmt next() {
-        if (stmtIt.hasNext()) {
-          return stmtIt.next();
-        }
-        stmtIt = blockIt.next().getStmts().iterator();
-        return stmtIt.next();
+    private StmtSlice(@Nonnull int[] indices, int from, int to) {
+      this.indices = indices;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public Stmt get(int i) {
+      if (i < 0 || i >= to - from) {
+        throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + (to - from));
       }
-    };
+      return stmts[indices[from + i]];
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
   }
 
+  /** a block of consecutive Stmts of the {@link ImmutableBlockStmtGraph} */
   public class ImmutableBasicBlock implements BasicBlock<ImmutableBasicBlock> {
-    private final MutableBasicBlock graph;
+    private final int index;
     private final int startIdx;
-    private final int endIdx;
-    private final List<ImmutableBasicBlock> successors;
-    private final List<ImmutableBasicBlock> predecessors;
-
-    private ImmutableBasicBlock(
-        MutableBasicBlock graph,
-        int startIdx,
-        int endIdx,
-        List<ImmutableBasicBlock> successors,
-        List<ImmutableBasicBlock> predecessors) {
-      this.graph = graph;
+    private int endIdx;
+    @Nonnull private List<ImmutableBasicBlock> successors = Collections.emptyList();
+    @Nonnull private List<ImmutableBasicBlock> predecessors = Collections.emptyList();
+    @Nonnull private Map<ClassType, ImmutableBasicBlock> exceptionalSuccessors;
+    @Nonnull private Map<ClassType, ImmutableBasicBlock> exceptionalPredecessors;
+    /* memoized; volatile, as the graph is shared between threads and the map is built lazily */
+    @Nullable private volatile Map<ClassType, Stmt> exceptionalSuccessorStmts;
+
+    private ImmutableBasicBlock(int index, int startIdx) {
+      this.index = index;
       this.startIdx = startIdx;
-      this.endIdx = endIdx;
-      this.successors = successors;
-      this.predecessors = predecessors;
+      this.exceptionalSuccessors = Collections.emptyMap();
+      this.exceptionalPredecessors = Collections.emptyMap();
+    }
+
+    /** @return the position of this block in {@link ImmutableBlockStmtGraph#getBlocks()} */
+    public int getIndex() {
+      return index;
+    }
+
+    /** @return the index of the head Stmt of this block */
+    public int getHeadIndex() {
+      return startIdx;
+    }
+
+    /** @return the index of the tail Stmt of this block */
+    public int getTailIndex() {
+      return endIdx - 1;
     }
 
     @Nonnull
@@ -202,36 +524,57 @@ public class ImmutableBlockStmtGraph
     @Override
     @Nonnull
     public Map<ClassType, ImmutableBasicBlock> getExceptionalPredecessors() {
-      throw new UnsupportedOperationException("not implemented yet");
+      return exceptionalPredecessors;
     }
 
     @Nonnull
     @Override
-    public Map<? extends ClassType, ImmutableBasicBlock> getExceptionalSuccessors() {
-      throw new UnsupportedOperationException("not implemented yet");
+    public Map<ClassType, ImmutableBasicBlock> getExceptionalSuccessors() {
+      return exceptionalSuccessors;
+    }
+
+    @Nonnull
+    private Map<ClassType, Stmt> getExceptionalSuccessorStmts() {
+      Map<ClassType, Stmt> stmtMap = exceptionalSuccessorStmts;
+      if (stmtMap == null) {
+        if (exceptionalSuccessors.isEmpty()) {
+          stmtMap = Collections.emptyMap();
+        } else {
+          Map<ClassType, Stmt> map = new LinkedHashMap<>(exceptionalSuccessors.size() * 2);
+          exceptionalSuccessors.forEach((type, block) -> map.put(type, block.getHead()));
+          stmtMap = Collections.unmodifiableMap(map);
+        }
+        exceptionalSuccessorStmts = stmtMap;
+      }
+      return stmtMap;
     }
 
     @Nonnull
     @Override
     public List<Stmt> getStmts() {
-      throw new UnsupportedOperationException();
+      return Collections.unmodifiableList(Arrays.asList(stmts).subList(startIdx, endIdx));
     }
 
     @Override
     public int getStmtCount() {
-      return endIdx - startIdx + 1;
+      return endIdx - startIdx;
     }
 
     @Nonnull
     @Override
     public Stmt getHead() {
-      throw new UnsupportedOperationException();
+      return stmts[startIdx];
     }
 
     @Nonnull
     @Override
     public Stmt getTail() {
-      throw new UnsupportedOperationException();
+      return stmts[endIdx - 1];
+    }
+
+    @Override
+    public String toString() {
+      return "Block " + getStmts();
     }
   }
 }
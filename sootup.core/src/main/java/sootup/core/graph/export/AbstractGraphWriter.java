@@ -0,0 +1,111 @@
+package sootup.core.graph.export;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import javax.annotation.Nonnull;
+
+/** The common part of the writers: node and edge counting and buffered channel output. */
+abstract class AbstractGraphWriter implements GraphWriter {
+
+  static final int BUFFER_SIZE = 1 << 16;
+
+  private int nodeCount;
+  private long edgeCount;
+  private boolean closed;
+
+  @Override
+  public int addNode(@Nonnull String kind, @Nonnull String label) throws IOException {
+    checkOpen();
+    writeNode(nodeCount, kind, label);
+    return nodeCount++;
+  }
+
+  @Override
+  public void addEdge(@Nonnull String type, int source, int target) throws IOException {
+    checkOpen();
+    checkNode(source);
+    checkNode(target);
+    writeEdge(type, source, target);
+    edgeCount++;
+  }
+
+  @Override
+  public int getNodeCount() {
+    return nodeCount;
+  }
+
+  @Override
+  public long getEdgeCount() {
+    return edgeCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      finish();
+    } finally {
+      closeChannels();
+    }
+  }
+
+  protected abstract void writeNode(int id, @Nonnull String kind, @Nonnull String label)
+      throws IOException;
+
+  protected abstract void writeEdge(@Nonnull String type, int source, int target)
+      throws IOException;
+
+  /** writes the end of the output and flushes it */
+  protected abstract void finish() throws IOException;
+
+  protected abstract void closeChannels() throws IOException;
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("The writer is closed.");
+    }
+  }
+
+  private void checkNode(int node) {
+    if (node < 0 || node >= nodeCount) {
+      throw new IllegalArgumentException(
+          "Node " + node + " has not been added, the writer has " + nodeCount + " nodes.");
+    }
+  }
+
+  /** writes the buffer completely and clears it */
+  static void drain(@Nonnull ByteBuffer buffer, @Nonnull WritableByteChannel channel)
+      throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
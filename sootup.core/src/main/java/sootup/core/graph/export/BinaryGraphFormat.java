@@ -0,0 +1,63 @@
+package sootup.core.graph.export;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * The constants of the binary graph format that is written by {@link BinaryGraphWriter} and read by
+ * {@link BinaryGraphReader}.
+ *
+ * <pre>
+ * graph   := MAGIC VERSION record* END
+ * record  := STRING string                             defines the next string id
+ *          | NODE varint(kind) string(label)           defines the next node id
+ *          | EDGE varint(type) varint(source) zigzag(target - source)
+ * string  := varint(byte length) UTF-8 bytes
+ * </pre>
+ *
+ * Kinds and types are string ids; a string is defined by a STRING record before its first use.
+ * Labels, e.g. the text of a statement, are mostly unique and are written inline. Varints are
+ * unsigned LEB128, i.e. ids below 128 take a single byte. The target of an edge is stored relative
+ * to its source, since most edges connect nodes that were added close to each other.
+ */
+final class BinaryGraphFormat {
+  static final byte[] MAGIC = {'S', 'U', 'P', 'G'};
+  static final byte VERSION = 2;
+
+  static final byte END = 0;
+  static final byte STRING = 1;
+  static final byte NODE = 2;
+  static final byte EDGE = 3;
+
+  /** the maximal length of a varint encoded int */
+  static final int MAX_VARINT_BYTES = 5;
+
+  private BinaryGraphFormat() {}
+
+  static int zigZag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  static int unZigZag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,285 @@
+package sootup.core.graph.export;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static sootup.core.graph.export.BinaryGraphFormat.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Reads graphs that were written by a {@link BinaryGraphWriter}. A graph can either be streamed
+ * record by record to a {@link Visitor} or be loaded completely into an {@link ExportedGraph}.
+ * Files are memory-mapped if they fit into a single mapping; larger files and other channels are
+ * read through a buffer.
+ */
+public final class BinaryGraphReader {
+
+  /** Receives the records of a graph in the order they were written. */
+  public interface Visitor {
+    void visitNode(int id, @Nonnull String kind, @Nonnull String label);
+
+    void visitEdge(@Nonnull String type, int source, int target);
+  }
+
+  /** receives the records with string ids, the strings are in the table of the parser */
+  private interface RecordHandler {
+    void node(int id, int kind, @Nonnull String label);
+
+    void edge(int type, int source, int target);
+  }
+
+  private BinaryGraphReader() {}
+
+  /** Streams the graph of the given file to the visitor. */
+  public static void read(@Nonnull Path file, @Nonnull Visitor visitor) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      parse(open(channel), visitor);
+    }
+  }
+
+  /** Streams the graph of the given channel to the visitor; the channel is not closed. */
+  public static void read(@Nonnull ReadableByteChannel channel, @Nonnull Visitor visitor)
+      throws IOException {
+    parse(new Input(channel), visitor);
+  }
+
+  /** Loads the complete graph of the given file. */
+  @Nonnull
+  public static ExportedGraph load(@Nonnull Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return load(open(channel));
+    }
+  }
+
+  /** Loads the complete graph of the given channel; the channel is not closed. */
+  @Nonnull
+  public static ExportedGraph load(@Nonnull ReadableByteChannel channel) throws IOException {
+    return load(new Input(channel));
+  }
+
+  @Nonnull
+  private static Input open(@Nonnull FileChannel channel) throws IOException {
+    long size = channel.size();
+    if (size <= Integer.MAX_VALUE) {
+      return new Input(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+    return new Input(channel);
+  }
+
+  private static void parse(@Nonnull Input input, @Nonnull Visitor visitor) throws IOException {
+    List<String> strings = new ArrayList<>();
+    parse(
+        input,
+        strings,
+        new RecordHandler() {
+          @Override
+          public void node(int id, int kind, @Nonnull String label) {
+            visitor.visitNode(id, strings.get(kind), label);
+          }
+
+          @Override
+          public void edge(int type, int source, int target) {
+            visitor.visitEdge(strings.get(type), source, target);
+          }
+        });
+  }
+
+  @Nonnull
+  private static ExportedGraph load(@Nonnull Input input) throws IOException {
+    List<String> strings = new ArrayList<>();
+    ExportedGraph.Builder builder = new ExportedGraph.Builder();
+    parse(
+        input,
+        strings,
+        new RecordHandler() {
+          @Override
+          public void node(int id, int kind, @Nonnull String label) {
+            builder.addNode(kind, label);
+          }
+
+          @Override
+          public void edge(int type, int source, int target) {
+            builder.addEdge(type, source, target);
+          }
+        });
+    return builder.build(strings);
+  }
+
+  private static void parse(
+      @Nonnull Input input, @Nonnull List<String> strings, @Nonnull RecordHandler handler)
+      throws IOException {
+    byte[] magic = new byte[MAGIC.length];
+    input.get(magic);
+    if (!Arrays.equals(magic, MAGIC)) {
+      throw new IOException("The input is not a binary graph.");
+    }
+    byte version = input.get();
+    if (version != VERSION) {
+      throw new IOException("Unsupported version of the binary graph format: " + version);
+    }
+
+    int nodeCount = 0;
+    while (true) {
+      byte tag = input.get();
+      switch (tag) {
+        case END:
+          return;
+        case STRING:
+          strings.add(input.getString());
+          break;
+        case NODE:
+          {
+            int kind = checkString(input.getVarInt(), strings);
+            String label = input.getString();
+            handler.node(nodeCount++, kind, label);
+            break;
+          }
+        case EDGE:
+          {
+            int type = checkString(input.getVarInt(), strings);
+            int source = input.getVarInt();
+            int target = source + unZigZag(input.getVarInt());
+            if (source < 0 || source >= nodeCount || target < 0 || target >= nodeCount) {
+              throw new IOException("Edge " + source + " -> " + target + " of an unknown node.");
+            }
+            handler.edge(type, source, target);
+            break;
+          }
+        default:
+          throw new IOException("Unknown record type " + tag + ".");
+      }
+    }
+  }
+
+  private static int checkString(int id, @Nonnull List<String> strings) throws IOException {
+    if (id < 0 || id >= strings.size()) {
+      throw new IOException("Reference to the undefined string " + id + ".");
+    }
+    return id;
+  }
+
+  /** A mapped buffer, or a buffer that is refilled from a channel. */
+  private static final class Input {
+    @Nonnull private ByteBuffer buffer;
+    @Nullable private final ReadableByteChannel channel;
+
+    Input(@Nonnull ByteBuffer mapped) {
+      this.buffer = mapped;
+      this.channel = null;
+    }
+
+    Input(@Nonnull ReadableByteChannel channel) {
+      this.buffer = ByteBuffer.allocate(AbstractGraphWriter.BUFFER_SIZE);
+      this.buffer.flip();
+      this.channel = channel;
+    }
+
+    /** makes sure that the given number of bytes can be read from the buffer */
+    private void require(int bytes) throws IOException {
+      if (buffer.remaining() >= bytes) {
+        return;
+      }
+      if (channel == null) {
+        throw new EOFException("Unexpected end of the binary graph.");
+      }
+      if (bytes > buffer.capacity()) {
+        ByteBuffer larger = ByteBuffer.allocate(bytes);
+        larger.put(buffer);
+        buffer = larger;
+      } else {
+        buffer.compact();
+      }
+      while (buffer.position() < bytes) {
+        if (channel.read(buffer) < 0) {
+          throw new EOFException("Unexpected end of the binary graph.");
+        }
+      }
+      buffer.flip();
+    }
+
+    byte get() throws IOException {
+      require(1);
+      return buffer.get();
+    }
+
+    void get(@Nonnull byte[] bytes) throws IOException {
+      require(bytes.length);
+      buffer.get(bytes);
+    }
+
+    /** reads a string, its length is checked against the input before it is allocated */
+    @Nonnull
+    String getString() throws IOException {
+      int length = getVarInt();
+      if (length < 0) {
+        throw new IOException("Malformed string length " + length + ".");
+      }
+      byte[] bytes;
+      if (channel == null) {
+        if (length > buffer.remaining()) {
+          throw new EOFException("Unexpected end of the binary graph.");
+        }
+        bytes = new byte[length];
+        buffer.get(bytes);
+      } else {
+        // read in pieces, so a corrupt length ends at the end of the channel instead of allocating
+        bytes = new byte[Math.min(length, buffer.capacity())];
+        int read = 0;
+        while (read < length) {
+          require(1);
+          int n = Math.min(buffer.remaining(), length - read);
+          if (read + n > bytes.length) {
+            bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * (read + n)));
+          }
+          buffer.get(bytes, read, n);
+          read += n;
+        }
+      }
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int getVarInt() throws IOException {
+      int value = 0;
+      for (int shift = 0; shift < 7 * MAX_VARINT_BYTES; shift += 7) {
+        byte b = get();
+        value |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          return value;
+        }
+      }
+      throw new IOException("Malformed varint.");
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package sootup.core.graph.export;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static sootup.core.graph.export.BinaryGraphFormat.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+/**
+ * Writes a graph in the compact binary format that is described in {@link BinaryGraphFormat} and
+ * can be loaded again with {@link BinaryGraphReader}. Records are collected in a fixed size buffer
+ * and written to the channel whenever it is full.
+ *
+ * <p>Every distinct kind and type is written once; the writer keeps their ids, so its memory usage
+ * grows with the number of distinct kinds and types only. Labels are written inline and are not
+ * kept.
+ */
+public class BinaryGraphWriter extends AbstractGraphWriter {
+
+  @Nonnull private final WritableByteChannel channel;
+  @Nonnull private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  @Nonnull private final Map<String, Integer> stringIds = new HashMap<>();
+
+  public BinaryGraphWriter(@Nonnull WritableByteChannel channel) throws IOException {
+    this.channel = channel;
+    buffer.put(MAGIC).put(VERSION);
+  }
+
+  @Override
+  protected void writeNode(int id, @Nonnull String kind, @Nonnull String label) throws IOException {
+    int kindId = stringId(kind);
+    ensureCapacity(1 + MAX_VARINT_BYTES);
+    buffer.put(NODE);
+    putVarInt(kindId);
+    putString(label);
+  }
+
+  @Override
+  protected void writeEdge(@Nonnull String type, int source, int target) throws IOException {
+    int typeId = stringId(type);
+    ensureCapacity(1 + 3 * MAX_VARINT_BYTES);
+    buffer.put(EDGE);
+    putVarInt(typeId);
+    putVarInt(source);
+    putVarInt(zigZag(target - source));
+  }
+
+  /** @return the id of the kind or type, it is written first if it was not used before */
+  private int stringId(@Nonnull String string) throws IOException {
+    Integer id = stringIds.get(string);
+    if (id != null) {
+      return id;
+    }
+    id = stringIds.size();
+    stringIds.put(string, id);
+
+    ensureCapacity(1);
+    buffer.put(STRING);
+    putString(string);
+    return id;
+  }
+
+  private void putString(@Nonnull String string) throws IOException {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    ensureCapacity(MAX_VARINT_BYTES);
+    putVarInt(bytes.length);
+    if (bytes.length <= buffer.remaining()) {
+      buffer.put(bytes);
+    } else {
+      // strings larger than the buffer bypass it
+      drain(buffer, channel);
+      ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+      while (wrapped.hasRemaining()) {
+        channel.write(wrapped);
+      }
+    }
+  }
+
+  private void putVarInt(int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private void ensureCapacity(int bytes) throws IOException {
+    if (buffer.remaining() < bytes) {
+      drain(buffer, channel);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    drain(buffer, channel);
+  }
+
+  @Override
+  protected void finish() throws IOException {
+    ensureCapacity(1);
+    buffer.put(END);
+    flush();
+  }
+
+  @Override
+  protected void closeChannels() throws IOException {
+    channel.close();
+  }
+}
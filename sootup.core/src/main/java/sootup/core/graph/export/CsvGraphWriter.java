@@ -0,0 +1,133 @@
+package sootup.core.graph.export;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nonnull;
+
+/**
+ * Writes a graph as two CSV files (RFC 4180) for the bulk import of graph databases, e.g. with
+ * {@code neo4j-admin database import}: one file for the nodes and one for the edges. The headers
+ * use the column types of that importer:
+ *
+ * <pre>
+ * nodes: id:ID,:LABEL,label
+ * edges: :START_ID,:END_ID,:TYPE
+ * </pre>
+ *
+ * Labels are always quoted since they usually contain commas; a label that spans several lines
+ * requires the multiline option of the importer.
+ */
+public class CsvGraphWriter extends AbstractGraphWriter {
+
+  public static final String NODE_HEADER = "id:ID,:LABEL,label";
+  public static final String EDGE_HEADER = ":START_ID,:END_ID,:TYPE";
+
+  @Nonnull private final WritableByteChannel nodeChannel;
+  @Nonnull private final WritableByteChannel edgeChannel;
+  @Nonnull private final StringBuilder nodes = new StringBuilder(BUFFER_SIZE);
+  @Nonnull private final StringBuilder edges = new StringBuilder(BUFFER_SIZE);
+
+  public CsvGraphWriter(
+      @Nonnull WritableByteChannel nodeChannel, @Nonnull WritableByteChannel edgeChannel) {
+    this.nodeChannel = nodeChannel;
+    this.edgeChannel = edgeChannel;
+    nodes.append(NODE_HEADER).append('\n');
+    edges.append(EDGE_HEADER).append('\n');
+  }
+
+  @Override
+  protected void writeNode(int id, @Nonnull String kind, @Nonnull String label) throws IOException {
+    nodes.append(id).append(',');
+    appendField(nodes, kind, false);
+    nodes.append(',');
+    appendField(nodes, label, true);
+    nodes.append('\n');
+    if (nodes.length() >= BUFFER_SIZE) {
+      write(nodes, nodeChannel);
+    }
+  }
+
+  @Override
+  protected void writeEdge(@Nonnull String type, int source, int target) throws IOException {
+    edges.append(source).append(',').append(target).append(',');
+    appendField(edges, type, false);
+    edges.append('\n');
+    if (edges.length() >= BUFFER_SIZE) {
+      write(edges, edgeChannel);
+    }
+  }
+
+  private static void appendField(@Nonnull StringBuilder sb, @Nonnull String value, boolean quote) {
+    boolean needsQuotes = quote;
+    for (int i = 0; !needsQuotes && i < value.length(); i++) {
+      char c = value.charAt(i);
+      needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!needsQuotes) {
+      sb.append(value);
+      return;
+    }
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        sb.append('"');
+      }
+      sb.append(c);
+    }
+    sb.append('"');
+  }
+
+  private static void write(@Nonnull StringBuilder sb, @Nonnull WritableByteChannel channel)
+      throws IOException {
+    ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    while (bytes.hasRemaining()) {
+      channel.write(bytes);
+    }
+    sb.setLength(0);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    write(nodes, nodeChannel);
+    write(edges, edgeChannel);
+  }
+
+  @Override
+  protected void finish() throws IOException {
+    flush();
+  }
+
+  @Override
+  protected void closeChannels() throws IOException {
+    try {
+      nodeChannel.close();
+    } finally {
+      edgeChannel.close();
+    }
+  }
+}
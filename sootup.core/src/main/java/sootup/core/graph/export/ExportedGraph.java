@@ -0,0 +1,125 @@
+package sootup.core.graph.export;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * A graph that was loaded by {@link BinaryGraphReader#load}. Nodes and edges are stored in columns;
+ * kinds and types are ids of strings that are shared by all nodes and edges.
+ */
+public final class ExportedGraph {
+  @Nonnull private final List<String> strings;
+  @Nonnull private final int[] nodeKinds;
+  @Nonnull private final String[] nodeLabels;
+  @Nonnull private final int[] edgeTypes;
+  @Nonnull private final int[] edgeSources;
+  @Nonnull private final int[] edgeTargets;
+
+  private ExportedGraph(@Nonnull Builder builder, @Nonnull List<String> strings) {
+    this.strings = Collections.unmodifiableList(strings);
+    this.nodeKinds = Arrays.copyOf(builder.nodeKinds, builder.nodeCount);
+    this.nodeLabels = Arrays.copyOf(builder.nodeLabels, builder.nodeCount);
+    this.edgeTypes = Arrays.copyOf(builder.edgeTypes, builder.edgeCount);
+    this.edgeSources = Arrays.copyOf(builder.edgeSources, builder.edgeCount);
+    this.edgeTargets = Arrays.copyOf(builder.edgeTargets, builder.edgeCount);
+  }
+
+  /** @return the distinct kinds and types of the graph */
+  @Nonnull
+  public List<String> getStrings() {
+    return strings;
+  }
+
+  public int getNodeCount() {
+    return nodeKinds.length;
+  }
+
+  @Nonnull
+  public String getNodeKind(int node) {
+    return strings.get(nodeKinds[node]);
+  }
+
+  @Nonnull
+  public String getNodeLabel(int node) {
+    return nodeLabels[node];
+  }
+
+  public int getEdgeCount() {
+    return edgeTypes.length;
+  }
+
+  @Nonnull
+  public String getEdgeType(int edge) {
+    return strings.get(edgeTypes[edge]);
+  }
+
+  public int getEdgeSource(int edge) {
+    return edgeSources[edge];
+  }
+
+  public int getEdgeTarget(int edge) {
+    return edgeTargets[edge];
+  }
+
+  static class Builder {
+    private int nodeCount;
+    private int[] nodeKinds = new int[64];
+    private String[] nodeLabels = new String[64];
+
+    private int edgeCount;
+    private int[] edgeTypes = new int[64];
+    private int[] edgeSources = new int[64];
+    private int[] edgeTargets = new int[64];
+
+    void addNode(int kind, @Nonnull String label) {
+      if (nodeCount == nodeKinds.length) {
+        nodeKinds = Arrays.copyOf(nodeKinds, nodeCount * 2);
+        nodeLabels = Arrays.copyOf(nodeLabels, nodeCount * 2);
+      }
+      nodeKinds[nodeCount] = kind;
+      nodeLabels[nodeCount] = label;
+      nodeCount++;
+    }
+
+    void addEdge(int type, int source, int target) {
+      if (edgeCount == edgeTypes.length) {
+        edgeTypes = Arrays.copyOf(edgeTypes, edgeCount * 2);
+        edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+        edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+      }
+      edgeTypes[edgeCount] = type;
+      edgeSources[edgeCount] = source;
+      edgeTargets[edgeCount] = target;
+      edgeCount++;
+    }
+
+    @Nonnull
+    ExportedGraph build(@Nonnull List<String> strings) {
+      return new ExportedGraph(this, strings);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package sootup.core.graph.export;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import javax.annotation.Nonnull;
+
+/**
+ * Writes a graph to an export format while it is traversed, so the graph never has to be held in
+ * memory as a whole in its exported form.
+ *
+ * <p>Nodes are numbered in the order they are added, starting with 0. An edge can only reference
+ * nodes that were added before. Every node has a kind, e.g. "method" or "stmt", and a label; every
+ * edge has a type, e.g. "call" or "cfg_next".
+ *
+ * <p>Implementations are not thread-safe. Closing the writer completes the output and closes the
+ * underlying channels.
+ *
+ * @see BinaryGraphWriter
+ * @see CsvGraphWriter
+ */
+public interface GraphWriter extends Closeable {
+
+  /** @return the id of the added node */
+  int addNode(@Nonnull String kind, @Nonnull String label) throws IOException;
+
+  /**
+   * @param type the type of the edge
+   * @param source the id of the source node
+   * @param target the id of the target node
+   */
+  void addEdge(@Nonnull String type, int source, int target) throws IOException;
+
+  /** @return the number of nodes added so far, i.e. the id of the next node */
+  int getNodeCount();
+
+  /** @return the number of edges added so far */
+  long getEdgeCount();
+
+  /** Writes the buffered records to the underlying channels. */
+  void flush() throws IOException;
+}
@@ -29,6 +29,7 @@ import java.util.*;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import sootup.core.graph.ImmutableBlockStmtGraph;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.graph.StmtGraph;
@@ -294,6 +295,19 @@ public class Body implements HasPosition {
     return new Body(getMethodSignature(), locals, getStmtGraph(), getPosition());
   }
 
+  /**
+   * Returns a Body whose StmtGraph is a compact, read-only {@link ImmutableBlockStmtGraph} copy of
+   * the StmtGraph of this Body. The frontends use it once all BodyInterceptors are applied.
+   */
+  @Nonnull
+  public Body withImmutableStmtGraph() {
+    if (graph instanceof ImmutableBlockStmtGraph) {
+      return this;
+    }
+    return new Body(
+        getMethodSignature(), locals, new ImmutableBlockStmtGraph(graph), getPosition());
+  }
+
   public static BodyBuilder builder() {
     return new BodyBuilder();
   }
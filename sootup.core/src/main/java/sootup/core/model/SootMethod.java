@@ -36,6 +36,7 @@ import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
+import sootup.core.cache.BodyCache;
 import sootup.core.frontend.BodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.ResolveException;
@@ -69,6 +70,12 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
   /** Tells this method how to find out where its body lives. */
   @Nonnull protected final BodySource bodySource;
 
+  /**
+   * Keeps the resolved body of this method. If it is null, the body is kept by this method as soon
+   * as it is resolved.
+   */
+  @Nullable protected final BodyCache bodyCache;
+
   /** Constructs a SootMethod object with the given attributes. */
   public SootMethod(
       @Nonnull BodySource source,
@@ -76,9 +83,24 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
       @Nonnull Iterable<MethodModifier> modifiers,
       @Nonnull Iterable<ClassType> thrownExceptions,
       @Nonnull Position position) {
+    this(source, methodSignature, modifiers, thrownExceptions, position, null);
+  }
+
+  /**
+   * Constructs a SootMethod object with the given attributes whose body is kept by the given {@link
+   * BodyCache}.
+   */
+  public SootMethod(
+      @Nonnull BodySource source,
+      @Nonnull MethodSignature methodSignature,
+      @Nonnull Iterable<MethodModifier> modifiers,
+      @Nonnull Iterable<ClassType> thrownExceptions,
+      @Nonnull Position position,
+      @Nullable BodyCache bodyCache) {
     super(methodSignature, position);
 
     this.bodySource = source;
+    this.bodyCache = bodyCache;
     this.parameterTypes = ImmutableUtils.immutableListOf(methodSignature.getParameterTypes());
     this.modifiers = ImmutableUtils.immutableEnumSetOf(modifiers);
     this.exceptions = ImmutableUtils.immutableListOf(thrownExceptions);
@@ -171,9 +193,15 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
 
   @Nonnull private final Supplier<Body> _lazyBody = Suppliers.memoize(this::lazyBodyInitializer);
 
-  /** Retrieves the active body for this method. */
+  /**
+   * Retrieves the active body for this method. If the body is kept by a {@link BodyCache} and was
+   * evicted, it is rebuilt from the {@link BodySource} of this method.
+   */
   @Nonnull
   public Body getBody() {
+    if (bodyCache != null) {
+      return bodyCache.getBody(this, this::lazyBodyInitializer);
+    }
     return this._lazyBody.get();
   }
 
@@ -182,6 +210,11 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
     return isConcrete();
   }
 
+  /** Returns true if the body of this method is kept by a {@link BodyCache}. */
+  public boolean hasBodyCache() {
+    return bodyCache != null;
+  }
+
   @Nonnull
   public BodySource getBodySource() {
     return bodySource;
@@ -255,24 +288,26 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
         getSignature(),
         getModifiers(),
         exceptions,
-        getPosition());
+        getPosition(),
+        bodyCache);
   }
 
   @Nonnull
   public SootMethod withSource(BodySource source) {
-    return new SootMethod(source, getSignature(), getModifiers(), exceptions, getPosition());
+    return new SootMethod(
+        source, getSignature(), getModifiers(), exceptions, getPosition(), bodyCache);
   }
 
   @Nonnull
   public SootMethod withModifiers(Iterable<MethodModifier> modifiers) {
     return new SootMethod(
-        bodySource, getSignature(), modifiers, getExceptionSignatures(), getPosition());
+        bodySource, getSignature(), modifiers, getExceptionSignatures(), getPosition(), bodyCache);
   }
 
   @Nonnull
   public SootMethod withThrownExceptions(Iterable<ClassType> thrownExceptions) {
     return new SootMethod(
-        bodySource, getSignature(), getModifiers(), thrownExceptions, getPosition());
+        bodySource, getSignature(), getModifiers(), thrownExceptions, getPosition(), bodyCache);
   }
 
   @Nonnull
@@ -282,7 +317,8 @@ public class SootMethod extends SootClassMember<MethodSignature> implements Meth
         getSignature(),
         getModifiers(),
         exceptions,
-        getPosition());
+        getPosition(),
+        bodyCache);
   }
 
   /**
@@ -0,0 +1,204 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Builds the bodies of many methods concurrently, i.e. runs the {@link BodyInterceptor}s that are
+ * configured for the input location of each method in a separate task of an {@link Executor}.
+ *
+ * <ul>
+ *   <li>A method whose body can not be built does not stop the others; its error is collected in
+ *       the {@link Result}.
+ *   <li>At most {@link #getMaxPendingBodies()} methods are submitted or in progress at the same
+ *       time. The thread that calls {@link #transform} blocks until a slot is free, so neither the
+ *       task queue of the executor nor the bodies in flight can grow without limit.
+ *   <li>Bodies can be streamed to a consumer without keeping them in the {@link SootMethod} or the
+ *       {@link sootup.core.cache.BodyCache} of the view.
+ * </ul>
+ *
+ * @see sootup.core.views.View#transformBodies
+ */
+public class BatchBodyTransformer {
+
+  public static final int DEFAULT_MAX_PENDING_BODIES =
+      4 * Runtime.getRuntime().availableProcessors();
+
+  @Nonnull private final Executor executor;
+  private final int maxPendingBodies;
+
+  public BatchBodyTransformer(@Nonnull Executor executor) {
+    this(executor, DEFAULT_MAX_PENDING_BODIES);
+  }
+
+  /** @param maxPendingBodies how many bodies may be built or consumed at the same time */
+  public BatchBodyTransformer(@Nonnull Executor executor, int maxPendingBodies) {
+    if (maxPendingBodies < 1) {
+      throw new IllegalArgumentException("maxPendingBodies must be positive.");
+    }
+    this.executor = executor;
+    this.maxPendingBodies = maxPendingBodies;
+  }
+
+  public int getMaxPendingBodies() {
+    return maxPendingBodies;
+  }
+
+  /**
+   * Builds the bodies of the given methods and keeps them like {@link SootMethod#getBody()} does.
+   */
+  @Nonnull
+  public Result transform(@Nonnull Stream<? extends SootMethod> methods) {
+    return run(
+        methods,
+        method -> {
+          method.getBody();
+        });
+  }
+
+  /**
+   * Builds the bodies of the given methods and passes each of them to the consumer. Methods with a
+   * {@link sootup.core.cache.BodyCache} get their body from it, the bodies of the other methods are
+   * built from their {@link sootup.core.frontend.BodySource} and are not kept, so they can be
+   * garbage collected as soon as the consumer returns. Body sources have to allow concurrent calls,
+   * as a method may be resolved by {@link SootMethod#getBody()} or appear more than once at the
+   * same time. The consumer is called from the threads of the executor and has to be thread-safe;
+   * if it throws, the error is collected like an error while building the body.
+   */
+  @Nonnull
+  public Result transform(
+      @Nonnull Stream<? extends SootMethod> methods,
+      @Nonnull BiConsumer<? super SootMethod, ? super Body> consumer) {
+    return run(
+        methods,
+        method -> {
+          consumer.accept(method, resolveBody(method));
+        });
+  }
+
+  /**
+   * Returns the body of the method without keeping it in the method, unless the method has a
+   * {@link sootup.core.cache.BodyCache}, which decides how long its bodies are kept. Used by every
+   * batch that streams bodies to a consumer, e.g. {@link #transform(Stream, BiConsumer)}.
+   *
+   * @throws IllegalStateException if the body source fails to read the body
+   */
+  @Nonnull
+  public static Body resolveBody(@Nonnull SootMethod method) {
+    if (method.hasBodyCache()) {
+      // the cache decides how long the body is kept and builds it only once at a time
+      return method.getBody();
+    }
+    try {
+      return method.getBodySource().resolveBody(method.getModifiers());
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not resolve the body of " + method, e);
+    }
+  }
+
+  /** blocks until all methods are processed */
+  @Nonnull
+  private Result run(@Nonnull Stream<? extends SootMethod> methods, @Nonnull MethodTask task) {
+    Semaphore pending = new Semaphore(maxPendingBodies);
+    LongAdder transformed = new LongAdder();
+    Map<MethodSignature, Throwable> failures = new ConcurrentHashMap<>();
+
+    methods
+        .filter(SootMethod::hasBody)
+        .forEach(
+            method -> {
+              pending.acquireUninterruptibly();
+              try {
+                executor.execute(
+                    () -> {
+                      try {
+                        task.run(method);
+                        transformed.increment();
+                      } catch (Throwable e) {
+                        // every error is reported for its method, e.g. a LinkageError of a
+                        // missing class; an interrupt of the batch stays set on the thread
+                        failures.put(method.getSignature(), e);
+                      } finally {
+                        pending.release();
+                      }
+                    });
+              } catch (RuntimeException e) {
+                // e.g. the executor rejected the task
+                pending.release();
+                throw e;
+              }
+            });
+
+    // all tasks are done when every slot is free again
+    pending.acquireUninterruptibly(maxPendingBodies);
+    return new Result(transformed.sum(), failures);
+  }
+
+  private interface MethodTask {
+    void run(@Nonnull SootMethod method);
+  }
+
+  /** The outcome of a batch: the number of built bodies and the errors per method. */
+  public static class Result {
+    private final long transformedCount;
+    @Nonnull private final Map<MethodSignature, Throwable> failures;
+
+    Result(long transformedCount, @Nonnull Map<MethodSignature, Throwable> failures) {
+      this.transformedCount = transformedCount;
+      this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /** @return the number of methods whose body was built (and consumed) successfully */
+    public long getTransformedCount() {
+      return transformedCount;
+    }
+
+    /** @return the errors of the methods whose body could not be built or consumed */
+    @Nonnull
+    public Map<MethodSignature, Throwable> getFailures() {
+      return failures;
+    }
+
+    public boolean isSuccessful() {
+      return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return "transformed: " + transformedCount + ", failed: " + failures.size();
+    }
+  }
+}
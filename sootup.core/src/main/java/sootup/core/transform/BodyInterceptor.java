@@ -22,6 +22,9 @@ package sootup.core.transform;
  * #L%
  */
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.views.View;
@@ -37,4 +40,28 @@ public interface BodyInterceptor {
    * @param view
    */
   void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view);
+
+  /**
+   * Identifies what this interceptor does, including its options, e.g. for caches which persist
+   * intercepted bodies across runs. Interceptors with options have to override this and include
+   * the options in the key.
+   *
+   * @return the class name for named classes without instance fields, otherwise Optional.empty():
+   *     the bodies of such interceptors are not persisted.
+   */
+  @Nonnull
+  default Optional<String> getCacheKey() {
+    Class<?> clazz = getClass();
+    if (clazz.isSynthetic() || clazz.isAnonymousClass() || clazz.isLocalClass()) {
+      return Optional.empty();
+    }
+    for (Class<?> c = clazz; c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          return Optional.empty();
+        }
+      }
+    }
+    return Optional.of(clazz.getName());
+  }
 }
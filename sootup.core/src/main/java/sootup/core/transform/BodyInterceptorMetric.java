@@ -22,6 +22,11 @@ package sootup.core.transform;
  * #L%
  */
 
+/**
+ * A snapshot of the runtime (in ms) and the allocated memory (in MB) of a {@link BodyInterceptor}.
+ *
+ * @see RunTimeBodyInterceptor#getBiMetric()
+ */
 public class BodyInterceptorMetric {
 
   private long runtime;
@@ -0,0 +1,262 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * The measurements of a single {@link BodyInterceptor}, collected over all bodies it was applied
+ * to. Recording is thread-safe, so bodies may be resolved from many threads at once.
+ *
+ * <p>Durations and allocated bytes are additionally collected in histograms with power of two
+ * buckets: bucket 0 counts the value 0 and bucket {@code i > 0} counts the values in {@code
+ * [2^(i-1), 2^i)}.
+ */
+public class BodyInterceptorProfile {
+
+  public static final int HISTOGRAM_BUCKETS = 64;
+
+  private static final Comparator<MethodSample> BY_DURATION =
+      Comparator.comparingLong(MethodSample::getNanos);
+
+  @Nonnull private final String name;
+  private final int slowestMethodCount;
+
+  private final LongAdder invocations = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAdder allocatedBytes = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+  private final LongAccumulator maxAllocatedBytes = new LongAccumulator(Long::max, 0);
+  private final AtomicLongArray durationHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+  private final AtomicLongArray allocationHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+  /** min-heap of the slowest methods, the root is the fastest of them */
+  private final PriorityQueue<MethodSample> slowestMethods = new PriorityQueue<>(BY_DURATION);
+  /** duration a method has to exceed to be added to a full {@link #slowestMethods} */
+  private volatile long slowestThreshold = -1;
+
+  public BodyInterceptorProfile(@Nonnull String name, int slowestMethodCount) {
+    if (slowestMethodCount < 0) {
+      throw new IllegalArgumentException("slowestMethodCount must not be negative.");
+    }
+    this.name = name;
+    this.slowestMethodCount = slowestMethodCount;
+  }
+
+  /**
+   * Records a single application of the interceptor.
+   *
+   * @param method the method whose body was intercepted, or null if it is unknown
+   * @param nanos the elapsed time
+   * @param bytes the bytes allocated by the intercepting thread, or a negative value if the JVM
+   *     does not support measuring them
+   */
+  public void record(@Nullable MethodSignature method, long nanos, long bytes) {
+    invocations.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+    durationHistogram.incrementAndGet(bucketOf(nanos));
+    if (bytes >= 0) {
+      allocatedBytes.add(bytes);
+      maxAllocatedBytes.accumulate(bytes);
+      allocationHistogram.incrementAndGet(bucketOf(bytes));
+    }
+    if (method != null && slowestMethodCount > 0 && nanos > slowestThreshold) {
+      recordSlowMethod(new MethodSample(method, nanos, bytes));
+    }
+  }
+
+  private synchronized void recordSlowMethod(@Nonnull MethodSample sample) {
+    if (slowestMethods.size() < slowestMethodCount) {
+      slowestMethods.add(sample);
+    } else if (sample.getNanos() > slowestMethods.peek().getNanos()) {
+      slowestMethods.poll();
+      slowestMethods.add(sample);
+    }
+    if (slowestMethods.size() == slowestMethodCount) {
+      slowestThreshold = slowestMethods.peek().getNanos();
+    }
+  }
+
+  static int bucketOf(long value) {
+    return value <= 0 ? 0 : HISTOGRAM_BUCKETS - Long.numberOfLeadingZeros(value);
+  }
+
+  /** the largest value that is counted in the given histogram bucket */
+  public static long bucketUpperBound(int bucket) {
+    return bucket >= HISTOGRAM_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+  }
+
+  @Nonnull
+  public String getName() {
+    return name;
+  }
+
+  public long getInvocationCount() {
+    return invocations.sum();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  public long getMeanNanos() {
+    long count = getInvocationCount();
+    return count == 0 ? 0 : getTotalNanos() / count;
+  }
+
+  /** the summed bytes allocated by the interceptor; 0 if the JVM can not measure allocations */
+  public long getAllocatedBytes() {
+    return allocatedBytes.sum();
+  }
+
+  public long getMaxAllocatedBytes() {
+    return maxAllocatedBytes.get();
+  }
+
+  @Nonnull
+  public long[] getDurationHistogram() {
+    return toArray(durationHistogram);
+  }
+
+  @Nonnull
+  public long[] getAllocationHistogram() {
+    return toArray(allocationHistogram);
+  }
+
+  /**
+   * Estimates a percentile of the durations from the histogram.
+   *
+   * @param percentile a value in [0, 100]
+   * @return the upper bound of the histogram bucket which contains the percentile
+   */
+  public long getDurationPercentileNanos(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile has to be in [0, 100].");
+    }
+    long[] histogram = getDurationHistogram();
+    long count = 0;
+    for (long bucketCount : histogram) {
+      count += bucketCount;
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int bucket = 0; bucket < histogram.length; bucket++) {
+      seen += histogram[bucket];
+      if (seen >= rank) {
+        return Math.min(bucketUpperBound(bucket), getMaxNanos());
+      }
+    }
+    return getMaxNanos();
+  }
+
+  /** the slowest methods, starting with the slowest one */
+  @Nonnull
+  public synchronized List<MethodSample> getSlowestMethods() {
+    List<MethodSample> samples = new ArrayList<>(slowestMethods);
+    samples.sort(BY_DURATION.reversed());
+    return samples;
+  }
+
+  public synchronized void reset() {
+    invocations.reset();
+    totalNanos.reset();
+    allocatedBytes.reset();
+    maxNanos.reset();
+    maxAllocatedBytes.reset();
+    for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+      durationHistogram.set(i, 0);
+      allocationHistogram.set(i, 0);
+    }
+    slowestMethods.clear();
+    slowestThreshold = -1;
+  }
+
+  private static long[] toArray(AtomicLongArray array) {
+    long[] values = new long[array.length()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = array.get(i);
+    }
+    return values;
+  }
+
+  @Override
+  public String toString() {
+    return name
+        + " (invocations: "
+        + getInvocationCount()
+        + ", total: "
+        + getTotalNanos()
+        + " ns, allocated: "
+        + getAllocatedBytes()
+        + " bytes)";
+  }
+
+  /** The measurement of a single application of an interceptor to the body of a method. */
+  public static final class MethodSample {
+    @Nonnull private final MethodSignature method;
+    private final long nanos;
+    private final long allocatedBytes;
+
+    public MethodSample(@Nonnull MethodSignature method, long nanos, long allocatedBytes) {
+      this.method = method;
+      this.nanos = nanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+
+    @Nonnull
+    public MethodSignature getMethod() {
+      return method;
+    }
+
+    public long getNanos() {
+      return nanos;
+    }
+
+    /** the allocated bytes, or a negative value if the JVM can not measure allocations */
+    public long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return method + ": " + nanos + " ns";
+    }
+  }
+}
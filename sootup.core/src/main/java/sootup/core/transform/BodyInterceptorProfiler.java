@@ -0,0 +1,322 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nonnull;
+
+/**
+ * Profiles a pipeline of {@link BodyInterceptor}s. Each interceptor is wrapped into a {@link
+ * RunTimeBodyInterceptor} which measures the elapsed nanoseconds and the bytes allocated by the
+ * intercepting thread for every body, so the measurements are not distorted by other threads that
+ * resolve bodies at the same time.
+ *
+ * <pre>{@code
+ * BodyInterceptorProfiler profiler = new BodyInterceptorProfiler();
+ * List<BodyInterceptor> interceptors =
+ *     profiler.instrument(BytecodeBodyInterceptors.Default.getBodyInterceptors());
+ * // ... create the input location with interceptors and resolve bodies
+ * System.out.println(profiler.toCsv());
+ * }</pre>
+ */
+public class BodyInterceptorProfiler {
+
+  public static final int DEFAULT_SLOWEST_METHOD_COUNT = 10;
+
+  private static final String CSV_HEADER =
+      "interceptor,invocations,totalNanos,meanNanos,p50Nanos,p90Nanos,p99Nanos,maxNanos,"
+          + "allocatedBytes,maxAllocatedBytes,slowestMethod,slowestMethodNanos";
+
+  private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = allocationBean();
+
+  private final int slowestMethodCount;
+  private final List<BodyInterceptorProfile> profiles = new CopyOnWriteArrayList<>();
+
+  public BodyInterceptorProfiler() {
+    this(DEFAULT_SLOWEST_METHOD_COUNT);
+  }
+
+  /** @param slowestMethodCount how many of the slowest methods are kept per interceptor */
+  public BodyInterceptorProfiler(int slowestMethodCount) {
+    if (slowestMethodCount < 0) {
+      throw new IllegalArgumentException("slowestMethodCount must not be negative.");
+    }
+    this.slowestMethodCount = slowestMethodCount;
+  }
+
+  @Nonnull
+  public RunTimeBodyInterceptor instrument(@Nonnull BodyInterceptor interceptor) {
+    BodyInterceptorProfile profile =
+        new BodyInterceptorProfile(nameOf(interceptor), slowestMethodCount);
+    profiles.add(profile);
+    return new RunTimeBodyInterceptor(interceptor, profile);
+  }
+
+  /** wraps each interceptor of the pipeline; the order of the interceptors is kept */
+  @Nonnull
+  public List<BodyInterceptor> instrument(@Nonnull List<? extends BodyInterceptor> interceptors) {
+    List<BodyInterceptor> instrumented = new ArrayList<>(interceptors.size());
+    for (BodyInterceptor interceptor : interceptors) {
+      instrumented.add(instrument(interceptor));
+    }
+    return Collections.unmodifiableList(instrumented);
+  }
+
+  /** the profiles in the order the interceptors were instrumented */
+  @Nonnull
+  public List<BodyInterceptorProfile> getProfiles() {
+    return Collections.unmodifiableList(profiles);
+  }
+
+  public void reset() {
+    profiles.forEach(BodyInterceptorProfile::reset);
+  }
+
+  @Nonnull
+  static String nameOf(@Nonnull BodyInterceptor interceptor) {
+    String name = interceptor.getClass().getSimpleName();
+    return name.isEmpty() ? interceptor.getClass().getName() : name;
+  }
+
+  @SuppressWarnings("restriction")
+  private static com.sun.management.ThreadMXBean allocationBean() {
+    try {
+      ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        if (allocationBean.isThreadAllocatedMemorySupported()) {
+          if (!allocationBean.isThreadAllocatedMemoryEnabled()) {
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+          }
+          return allocationBean;
+        }
+      }
+    } catch (LinkageError | RuntimeException e) {
+      // the JVM does not provide per thread allocation counters
+    }
+    return null;
+  }
+
+  /** whether the JVM can measure the bytes allocated by a thread */
+  public static boolean isAllocationMeasurementSupported() {
+    return ALLOCATION_BEAN != null;
+  }
+
+  /**
+   * @return the bytes allocated by the current thread so far, or -1 if the JVM does not support
+   *     measuring them
+   */
+  static long currentThreadAllocatedBytes() {
+    if (ALLOCATION_BEAN == null) {
+      return -1;
+    }
+    return ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Exports the summary of each interceptor, including the slowest method, with one line per
+   * interceptor.
+   */
+  @Nonnull
+  public String toCsv() {
+    StringBuilder sb = new StringBuilder();
+    writeCsv(sb);
+    return sb.toString();
+  }
+
+  public void writeCsv(@Nonnull Appendable out) {
+    try {
+      out.append(CSV_HEADER).append('\n');
+      for (BodyInterceptorProfile profile : profiles) {
+        List<BodyInterceptorProfile.MethodSample> slowest = profile.getSlowestMethods();
+        out.append(csvEscape(profile.getName()))
+            .append(',')
+            .append(Long.toString(profile.getInvocationCount()))
+            .append(',')
+            .append(Long.toString(profile.getTotalNanos()))
+            .append(',')
+            .append(Long.toString(profile.getMeanNanos()))
+            .append(',')
+            .append(Long.toString(profile.getDurationPercentileNanos(50)))
+            .append(',')
+            .append(Long.toString(profile.getDurationPercentileNanos(90)))
+            .append(',')
+            .append(Long.toString(profile.getDurationPercentileNanos(99)))
+            .append(',')
+            .append(Long.toString(profile.getMaxNanos()))
+            .append(',')
+            .append(Long.toString(profile.getAllocatedBytes()))
+            .append(',')
+            .append(Long.toString(profile.getMaxAllocatedBytes()))
+            .append(',');
+        if (!slowest.isEmpty()) {
+          out.append(csvEscape(slowest.get(0).getMethod().toString()))
+              .append(',')
+              .append(Long.toString(slowest.get(0).getNanos()));
+        } else {
+          out.append(',');
+        }
+        out.append('\n');
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Exports all measurements including the histograms (only non-empty buckets, identified by their
+   * inclusive upper bound) and the slowest methods of each interceptor.
+   */
+  @Nonnull
+  public String toJson() {
+    StringBuilder sb = new StringBuilder();
+    writeJson(sb);
+    return sb.toString();
+  }
+
+  public void writeJson(@Nonnull Appendable out) {
+    try {
+      out.append("{\"allocationMeasurementSupported\":")
+          .append(Boolean.toString(isAllocationMeasurementSupported()))
+          .append(",\"interceptors\":[");
+      boolean first = true;
+      for (BodyInterceptorProfile profile : profiles) {
+        if (!first) {
+          out.append(',');
+        }
+        first = false;
+        out.append("{\"name\":")
+            .append(jsonString(profile.getName()))
+            .append(",\"invocations\":")
+            .append(Long.toString(profile.getInvocationCount()))
+            .append(",\"totalNanos\":")
+            .append(Long.toString(profile.getTotalNanos()))
+            .append(",\"meanNanos\":")
+            .append(Long.toString(profile.getMeanNanos()))
+            .append(",\"p50Nanos\":")
+            .append(Long.toString(profile.getDurationPercentileNanos(50)))
+            .append(",\"p90Nanos\":")
+            .append(Long.toString(profile.getDurationPercentileNanos(90)))
+            .append(",\"p99Nanos\":")
+            .append(Long.toString(profile.getDurationPercentileNanos(99)))
+            .append(",\"maxNanos\":")
+            .append(Long.toString(profile.getMaxNanos()))
+            .append(",\"allocatedBytes\":")
+            .append(Long.toString(profile.getAllocatedBytes()))
+            .append(",\"maxAllocatedBytes\":")
+            .append(Long.toString(profile.getMaxAllocatedBytes()))
+            .append(",\"durationHistogram\":");
+        writeJsonHistogram(out, profile.getDurationHistogram());
+        out.append(",\"allocationHistogram\":");
+        writeJsonHistogram(out, profile.getAllocationHistogram());
+        out.append(",\"slowestMethods\":[");
+        boolean firstSample = true;
+        for (BodyInterceptorProfile.MethodSample sample : profile.getSlowestMethods()) {
+          if (!firstSample) {
+            out.append(',');
+          }
+          firstSample = false;
+          out.append("{\"method\":")
+              .append(jsonString(sample.getMethod().toString()))
+              .append(",\"nanos\":")
+              .append(Long.toString(sample.getNanos()))
+              .append(",\"allocatedBytes\":")
+              .append(Long.toString(sample.getAllocatedBytes()))
+              .append('}');
+        }
+        out.append("]}");
+      }
+      out.append("]}");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeJsonHistogram(@Nonnull Appendable out, @Nonnull long[] histogram)
+      throws IOException {
+    out.append('[');
+    boolean first = true;
+    for (int bucket = 0; bucket < histogram.length; bucket++) {
+      if (histogram[bucket] == 0) {
+        continue;
+      }
+      if (!first) {
+        out.append(',');
+      }
+      first = false;
+      out.append("{\"upTo\":")
+          .append(Long.toString(BodyInterceptorProfile.bucketUpperBound(bucket)))
+          .append(",\"count\":")
+          .append(Long.toString(histogram[bucket]))
+          .append('}');
+    }
+    out.append(']');
+  }
+
+  @Nonnull
+  private static String csvEscape(@Nonnull String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  @Nonnull
+  private static String jsonString(@Nonnull String value) {
+    StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    return sb.append('"').toString();
+  }
+}
@@ -22,43 +22,72 @@ package sootup.core.transform;
  * #L%
  */
 
+import java.util.Optional;
 import javax.annotation.Nonnull;
 import sootup.core.model.Body;
 import sootup.core.views.View;
 
+/**
+ * Measures the runtime and the allocated memory of the wrapped {@link BodyInterceptor}. The
+ * measurements are collected in a {@link BodyInterceptorProfile}; use a {@link
+ * BodyInterceptorProfiler} to profile a whole pipeline of interceptors.
+ */
 public class RunTimeBodyInterceptor implements BodyInterceptor {
 
-  private BodyInterceptorMetric biMetric = new BodyInterceptorMetric(0L, 0L);
+  private static final int MB = 1024 * 1024;
 
   private final BodyInterceptor bodyInterceptor;
+  private final BodyInterceptorProfile profile;
 
   public RunTimeBodyInterceptor(BodyInterceptor bodyInterceptor) {
+    this(
+        bodyInterceptor,
+        new BodyInterceptorProfile(
+            BodyInterceptorProfiler.nameOf(bodyInterceptor),
+            BodyInterceptorProfiler.DEFAULT_SLOWEST_METHOD_COUNT));
+  }
+
+  RunTimeBodyInterceptor(
+      @Nonnull BodyInterceptor bodyInterceptor, @Nonnull BodyInterceptorProfile profile) {
     this.bodyInterceptor = bodyInterceptor;
+    this.profile = profile;
   }
 
+  /** @return the summed runtime in ms and the summed allocated memory in MB */
   public BodyInterceptorMetric getBiMetric() {
-    return biMetric;
+    return new BodyInterceptorMetric(
+        profile.getTotalNanos() / 1_000_000, profile.getAllocatedBytes() / MB);
+  }
+
+  @Nonnull
+  public BodyInterceptorProfile getProfile() {
+    return profile;
   }
 
   public BodyInterceptor getBodyInterceptor() {
     return bodyInterceptor;
   }
 
+  /** measuring does not change the bodies, so the key is the one of the wrapped interceptor. */
+  @Nonnull
   @Override
-  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
-    long startTime = System.currentTimeMillis(); // Start time
-    final int MB = 1024 * 1024;
-    Runtime runtime = Runtime.getRuntime();
-    long usedMemoryBefore = runtime.totalMemory() - runtime.freeMemory();
-
-    bodyInterceptor.interceptBody(builder, view);
-
-    long endTime = System.currentTimeMillis(); // End time
-    long duration = endTime - startTime;
-    long usedMemoryAfter = runtime.totalMemory() - runtime.freeMemory();
-    long memoryUsed = (usedMemoryAfter - usedMemoryBefore) / MB;
+  public Optional<String> getCacheKey() {
+    return bodyInterceptor.getCacheKey();
+  }
 
-    biMetric.setRuntime(biMetric.getRuntime() + duration);
-    biMetric.setMemoryUsage(biMetric.getMemoryUsage() + memoryUsed);
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
+    long allocatedBefore = BodyInterceptorProfiler.currentThreadAllocatedBytes();
+    long startTime = System.nanoTime();
+    try {
+      bodyInterceptor.interceptBody(builder, view);
+    } finally {
+      long duration = System.nanoTime() - startTime;
+      long allocated =
+          allocatedBefore < 0
+              ? -1
+              : BodyInterceptorProfiler.currentThreadAllocatedBytes() - allocatedBefore;
+      profile.record(builder.getMethodSignature(), duration, allocated);
+    }
   }
 }
@@ -0,0 +1,477 @@
+package sootup.core.typehierarchy;
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * An immutable {@link TypeHierarchy} of the classes of a {@link View} at the time of its creation,
+ * for analyses which query the hierarchy very often (e.g. call graph construction).
+ *
+ * <p>Each type is numbered by a pre-order traversal of the superclass tree, so the subclasses of a
+ * class form the id interval directly after it. Additionally each type stores a (shared) bitset of
+ * all interfaces it implements or extends, transitively. Hence {@link #isSubtype(Type, Type)} of
+ * two class types is answered in constant time and the subtypes of a type are computed once and
+ * cached as an array of ids.
+ *
+ * <p>Like {@link ViewTypeHierarchy}, types which are referenced as superclass or interface but are
+ * not contained in the view are part of the hierarchy, without supertypes. Use it for a view whose
+ * classes are not changed anymore, e.g. via {@link
+ * sootup.core.views.AbstractView#setTypeHierarchy(TypeHierarchy)}.
+ */
+public class FrozenTypeHierarchy implements TypeHierarchy {
+
+  @Nonnull private final ClassType objectClassType;
+  private final int objectId;
+
+  @Nonnull private final Map<ClassType, Integer> typeToId;
+  /** id -&gt; type; ids are assigned in pre-order of the superclass tree. */
+  @Nonnull private final ClassType[] types;
+
+  @Nonnull private final boolean[] isInterface;
+  /** id of the direct superclass or -1. */
+  @Nonnull private final int[] superClass;
+  /** the subclasses of a type are the ids in [id+1, subtreeEnd[id]). */
+  @Nonnull private final int[] subtreeEnd;
+
+  @Nonnull private final int[][] directInterfaces;
+  @Nonnull private final int[][] directSubtypesOfInterface;
+  /** interfaces a type implements/extends transitively; equal sets share their instance. */
+  @Nonnull private final BitSet[] superInterfaces;
+
+  @Nonnull private final AtomicReferenceArray<int[]> subtypesCache;
+
+  public FrozenTypeHierarchy(@Nonnull View view) {
+    objectClassType = view.getIdentifierFactory().getClassType("java.lang.Object");
+
+    // collect the types and their direct supertypes; referenced types are added on the fly
+    final Map<ClassType, Integer> scanIds = new HashMap<>();
+    final List<ClassType> scanTypes = new ArrayList<>();
+    final List<Boolean> scanIsInterface = new ArrayList<>();
+    final List<Integer> scanSuperClass = new ArrayList<>();
+    final List<int[]> scanInterfaces = new ArrayList<>();
+
+    view.getClasses()
+        .forEach(
+            sootClass -> {
+              final int id =
+                  scanId(
+                      sootClass.getType(),
+                      sootClass.isInterface(),
+                      scanIds,
+                      scanTypes,
+                      scanIsInterface,
+                      scanSuperClass,
+                      scanInterfaces);
+              final Set<? extends ClassType> interfaces = sootClass.getInterfaces();
+              final int[] interfaceIds = new int[interfaces.size()];
+              int i = 0;
+              for (ClassType interfaceType : interfaces) {
+                interfaceIds[i++] =
+                    scanId(
+                        interfaceType,
+                        true,
+                        scanIds,
+                        scanTypes,
+                        scanIsInterface,
+                        scanSuperClass,
+                        scanInterfaces);
+              }
+              scanInterfaces.set(id, interfaceIds);
+              if (!sootClass.isInterface()) {
+                final Optional<? extends ClassType> superclass = sootClass.getSuperclass();
+                if (superclass.isPresent()) {
+                  scanSuperClass.set(
+                      id,
+                      scanId(
+                          superclass.get(),
+                          false,
+                          scanIds,
+                          scanTypes,
+                          scanIsInterface,
+                          scanSuperClass,
+                          scanInterfaces));
+                }
+              }
+            });
+
+    final int size = scanTypes.size();
+    final int[][] scanSubclasses = new int[size][];
+    final int[] subclassCount = new int[size];
+    for (int i = 0; i < size; i++) {
+      final int sup = scanSuperClass.get(i);
+      if (sup >= 0) {
+        subclassCount[sup]++;
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      scanSubclasses[i] = new int[subclassCount[i]];
+      subclassCount[i] = 0;
+    }
+    for (int i = 0; i < size; i++) {
+      final int sup = scanSuperClass.get(i);
+      if (sup >= 0) {
+        scanSubclasses[sup][subclassCount[sup]++] = i;
+      }
+    }
+
+    // number the types in pre-order of the superclass tree (interfaces are roots of their own)
+    final int[] scanToId = new int[size];
+    Arrays.fill(scanToId, -1);
+    final int[] idToScan = new int[size];
+    subtreeEnd = new int[size];
+    int nextId = 0;
+    for (int i = 0; i < size; i++) {
+      final int sup = scanSuperClass.get(i);
+      if (sup < 0 || scanToId[i] < 0 && isCyclicSuperclassChain(i, scanSuperClass)) {
+        nextId = numberSubtree(i, nextId, scanSubclasses, scanToId, idToScan, subtreeEnd);
+      }
+    }
+
+    types = new ClassType[size];
+    isInterface = new boolean[size];
+    superClass = new int[size];
+    directInterfaces = new int[size][];
+    typeToId = new HashMap<>(size * 4 / 3 + 1);
+    for (int id = 0; id < size; id++) {
+      final int scan = idToScan[id];
+      types[id] = scanTypes.get(scan);
+      isInterface[id] = scanIsInterface.get(scan);
+      final int sup = scanSuperClass.get(scan);
+      superClass[id] = sup < 0 ? -1 : scanToId[sup];
+      final int[] interfaces = scanInterfaces.get(scan);
+      directInterfaces[id] = new int[interfaces.length];
+      for (int i = 0; i < interfaces.length; i++) {
+        directInterfaces[id][i] = scanToId[interfaces[i]];
+      }
+      typeToId.put(types[id], id);
+    }
+    objectId = typeToId.getOrDefault(objectClassType, -1);
+
+    final int[] directSubtypeCount = new int[size];
+    for (int[] interfaces : directInterfaces) {
+      for (int interfaceId : interfaces) {
+        directSubtypeCount[interfaceId]++;
+      }
+    }
+    directSubtypesOfInterface = new int[size][];
+    for (int id = 0; id < size; id++) {
+      directSubtypesOfInterface[id] = new int[directSubtypeCount[id]];
+      directSubtypeCount[id] = 0;
+    }
+    for (int id = 0; id < size; id++) {
+      for (int interfaceId : directInterfaces[id]) {
+        directSubtypesOfInterface[interfaceId][directSubtypeCount[interfaceId]++] = id;
+      }
+    }
+
+    superInterfaces = new BitSet[size];
+    final Map<BitSet, BitSet> sharedSets = new HashMap<>();
+    for (int id = 0; id < size; id++) {
+      computeSuperInterfaces(id, sharedSets);
+    }
+
+    subtypesCache = new AtomicReferenceArray<>(size);
+  }
+
+  private static int scanId(
+      @Nonnull ClassType type,
+      boolean isInterface,
+      @Nonnull Map<ClassType, Integer> scanIds,
+      @Nonnull List<ClassType> scanTypes,
+      @Nonnull List<Boolean> scanIsInterface,
+      @Nonnull List<Integer> scanSuperClass,
+      @Nonnull List<int[]> scanInterfaces) {
+    return scanIds.computeIfAbsent(
+        type,
+        t -> {
+          scanTypes.add(t);
+          scanIsInterface.add(isInterface);
+          scanSuperClass.add(-1);
+          scanInterfaces.add(new int[0]);
+          return scanTypes.size() - 1;
+        });
+  }
+
+  /** detects classes which are (indirect) superclasses of themselves in an invalid input. */
+  private static boolean isCyclicSuperclassChain(int scan, @Nonnull List<Integer> scanSuperClass) {
+    int slow = scan;
+    int fast = scan;
+    while (true) {
+      for (int i = 0; i < 2; i++) {
+        fast = scanSuperClass.get(fast);
+        if (fast < 0) {
+          return false;
+        }
+        if (fast == scan) {
+          return true;
+        }
+      }
+      slow = scanSuperClass.get(slow);
+      if (slow == fast) {
+        // a cycle which does not contain scan itself is numbered from one of its members
+        return false;
+      }
+    }
+  }
+
+  private static int numberSubtree(
+      int root,
+      int nextId,
+      @Nonnull int[][] scanSubclasses,
+      @Nonnull int[] scanToId,
+      @Nonnull int[] idToScan,
+      @Nonnull int[] subtreeEnd) {
+    final Deque<Integer> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      final int scan = stack.pop();
+      if (scan < 0) {
+        // every subtype of the type has been numbered
+        subtreeEnd[scanToId[~scan]] = nextId;
+        continue;
+      }
+      if (scanToId[scan] >= 0) {
+        continue;
+      }
+      scanToId[scan] = nextId;
+      idToScan[nextId++] = scan;
+      stack.push(~scan);
+      final int[] subclasses = scanSubclasses[scan];
+      for (int i = subclasses.length - 1; i >= 0; i--) {
+        stack.push(subclasses[i]);
+      }
+    }
+    return nextId;
+  }
+
+  @Nonnull
+  private BitSet computeSuperInterfaces(int id, @Nonnull Map<BitSet, BitSet> sharedSets) {
+    BitSet result = superInterfaces[id];
+    if (result != null) {
+      return result;
+    }
+    // breaks cycles of an invalid input
+    superInterfaces[id] = new BitSet();
+
+    result = new BitSet();
+    final int sup = superClass[id];
+    if (sup >= 0) {
+      result.or(computeSuperInterfaces(sup, sharedSets));
+    }
+    for (int interfaceId : directInterfaces[id]) {
+      result.set(interfaceId);
+      result.or(computeSuperInterfaces(interfaceId, sharedSets));
+    }
+    result = sharedSets.computeIfAbsent(result, bitSet -> bitSet);
+    superInterfaces[id] = result;
+    return result;
+  }
+
+  private int idOf(@Nonnull ClassType type) {
+    final Integer id = typeToId.get(type);
+    if (id == null) {
+      throw new IllegalArgumentException("Could not find '" + type + "' in hierarchy.");
+    }
+    return id;
+  }
+
+  @Nonnull
+  private Stream<ClassType> typesOf(@Nonnull int[] ids) {
+    return Arrays.stream(ids).mapToObj(id -> types[id]);
+  }
+
+  /** @return the number of types in this hierarchy. */
+  public int size() {
+    return types.length;
+  }
+
+  /** @return the dense id of the type or -1 if it is not contained in this hierarchy. */
+  public int getId(@Nonnull ClassType type) {
+    final Integer id = typeToId.get(type);
+    return id == null ? -1 : id;
+  }
+
+  /** @return the type with the given dense id. */
+  @Nonnull
+  public ClassType getType(int id) {
+    return types[id];
+  }
+
+  /**
+   * Same as {@link #subtypesOf(ClassType)}, but returns the ids of the subtypes in ascending order.
+   * The returned array is cached and shared, so it must not be modified.
+   */
+  @Nonnull
+  public int[] subtypeIdsOf(@Nonnull ClassType type) {
+    final int id = idOf(type);
+    int[] subtypes = subtypesCache.get(id);
+    if (subtypes == null) {
+      if (isInterface[id]) {
+        subtypes = IntStream.range(0, types.length).filter(i -> isSubtype(id, i)).toArray();
+      } else {
+        subtypes = IntStream.range(id + 1, subtreeEnd[id]).toArray();
+      }
+      subtypesCache.compareAndSet(id, null, subtypes);
+      subtypes = subtypesCache.get(id);
+    }
+    return subtypes;
+  }
+
+  private boolean isSubtype(int supertype, int potentialSubtype) {
+    if (supertype == potentialSubtype) {
+      return false;
+    }
+    if (supertype == objectId) {
+      return true;
+    }
+    if (isInterface[supertype]) {
+      return superInterfaces[potentialSubtype].get(supertype);
+    }
+    return supertype < potentialSubtype && potentialSubtype < subtreeEnd[supertype];
+  }
+
+  @Override
+  public boolean isSubtype(@Nonnull Type supertype, @Nonnull Type potentialSubtype) {
+    if (supertype instanceof ClassType && potentialSubtype instanceof ClassType) {
+      final Integer supertypeId = typeToId.get(supertype);
+      final Integer potentialSubtypeId = typeToId.get(potentialSubtype);
+      if (supertypeId != null && potentialSubtypeId != null) {
+        return isSubtype(supertypeId, potentialSubtypeId);
+      }
+    }
+    return TypeHierarchy.super.isSubtype(supertype, potentialSubtype);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> implementersOf(@Nonnull ClassType interfaceType) {
+    if (!isInterface[idOf(interfaceType)]) {
+      throw new IllegalArgumentException("'" + interfaceType + "' is not an interface.");
+    }
+    return subtypesOf(interfaceType);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> subclassesOf(@Nonnull ClassType classType) {
+    if (isInterface[idOf(classType)]) {
+      throw new IllegalArgumentException("'" + classType + "' is not a class.");
+    }
+    return subtypesOf(classType);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> implementedInterfacesOf(@Nonnull ClassType type) {
+    return superInterfaces[idOf(type)].stream().mapToObj(id -> types[id]);
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> subtypesOf(@Nonnull ClassType type) {
+    return typesOf(subtypeIdsOf(type));
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> directSubtypesOf(@Nonnull ClassType type) {
+    final int id = idOf(type);
+    if (isInterface[id]) {
+      return typesOf(directSubtypesOfInterface[id]);
+    }
+    final List<ClassType> subclasses = new ArrayList<>();
+    for (int subclass = id + 1; subclass < subtreeEnd[id]; subclass = subtreeEnd[subclass]) {
+      subclasses.add(types[subclass]);
+    }
+    return subclasses.stream();
+  }
+
+  @Nonnull
+  @Override
+  public Optional<ClassType> superClassOf(@Nonnull ClassType classType) {
+    final int id = idOf(classType);
+    if (id == objectId) {
+      return Optional.empty();
+    }
+    if (superClass[id] >= 0) {
+      return Optional.of(types[superClass[id]]);
+    }
+    if (isInterface[id]) {
+      return Optional.of(objectClassType);
+    }
+    return Optional.empty();
+  }
+
+  @Nonnull
+  @Override
+  public Stream<ClassType> superClassesOf(@Nonnull ClassType classType) {
+    final int id = idOf(classType);
+    if (isInterface[id]) {
+      return id == objectId ? Stream.empty() : Stream.of(objectClassType);
+    }
+    final List<ClassType> superClasses = new ArrayList<>();
+    for (int sup = superClass[id]; sup >= 0 && sup != id; sup = superClass[sup]) {
+      superClasses.add(types[sup]);
+    }
+    return superClasses.stream();
+  }
+
+  @Override
+  public Stream<ClassType> directlyImplementedInterfacesOf(@Nonnull ClassType type) {
+    final int id = idOf(type);
+    if (isInterface[id]) {
+      throw new IllegalArgumentException(type + " is not a class.");
+    }
+    return typesOf(directInterfaces[id]);
+  }
+
+  @Override
+  public boolean isInterface(@Nonnull ClassType type) {
+    return isInterface[idOf(type)];
+  }
+
+  public boolean isClass(@Nonnull ClassType type) {
+    return !isInterface[idOf(type)];
+  }
+
+  @Override
+  public Stream<ClassType> directlyExtendedInterfacesOf(@Nonnull ClassType type) {
+    final int id = idOf(type);
+    if (!isInterface[id]) {
+      throw new IllegalArgumentException(type + " is not an interface.");
+    }
+    return typesOf(directInterfaces[id]);
+  }
+
+  @Override
+  public boolean contains(ClassType type) {
+    return typeToId.containsKey(type);
+  }
+}
@@ -39,17 +39,41 @@ import sootup.core.typehierarchy.ViewTypeHierarchy;
  * @author Linghui Luo
  */
 public abstract class AbstractView implements View {
-  @Nullable private TypeHierarchy typeHierarchy;
+  @Nullable private volatile TypeHierarchy typeHierarchy;
 
   public AbstractView() {}
 
   @Override
   @Nonnull
   public TypeHierarchy getTypeHierarchy() {
-    if (this.typeHierarchy == null) {
-      typeHierarchy = new ViewTypeHierarchy(this);
+    TypeHierarchy hierarchy = typeHierarchy;
+    if (hierarchy == null) {
+      synchronized (this) {
+        hierarchy = typeHierarchy;
+        if (hierarchy == null) {
+          hierarchy = createTypeHierarchy();
+          typeHierarchy = hierarchy;
+        }
+      }
     }
-    return typeHierarchy;
+    return hierarchy;
+  }
+
+  /**
+   * creates the TypeHierarchy that is returned by {@link #getTypeHierarchy()} until it is replaced
+   * via {@link #setTypeHierarchy(TypeHierarchy)}. Called at most once, on the first query.
+   */
+  @Nonnull
+  protected TypeHierarchy createTypeHierarchy() {
+    return new ViewTypeHierarchy(this);
+  }
+
+  /**
+   * replaces the TypeHierarchy of this view, e.g. by a {@link
+   * sootup.core.typehierarchy.FrozenTypeHierarchy} once all classes of the view are known.
+   */
+  public synchronized void setTypeHierarchy(@Nonnull TypeHierarchy typeHierarchy) {
+    this.typeHierarchy = typeHierarchy;
   }
 
   /**
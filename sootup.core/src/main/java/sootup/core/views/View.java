@@ -22,15 +22,26 @@ package sootup.core.views;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import sootup.core.IdentifierFactory;
+import sootup.core.cache.BodyCache;
+import sootup.core.model.Body;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootField;
 import sootup.core.model.SootMethod;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BatchBodyTransformer;
 import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.types.ClassType;
 
@@ -65,6 +76,85 @@ public interface View {
   @Nonnull
   IdentifierFactory getIdentifierFactory();
 
+  /**
+   * Returns the {@link BodyCache} that keeps the method bodies of this view. If it is empty, each
+   * method keeps its body as soon as it is resolved.
+   */
+  @Nonnull
+  default Optional<BodyCache> getBodyCache() {
+    return Optional.empty();
+  }
+
+  /**
+   * Builds the bodies of the given methods in the background, so they are usually ready when an
+   * analysis asks for them via {@link SootMethod#getBody()}. Each method is resolved in a separate
+   * task of the given executor; methods that can not be found or have no body are skipped. The
+   * bodies are kept in the same place as bodies that are resolved on demand, i.e. in the {@link
+   * SootMethod} or in the {@link #getBodyCache() BodyCache} of this view.
+   *
+   * <p>The tasks resolve classes of this view from other threads, so the view has to be
+   * thread-safe, e.g. a JavaView or ConcurrentJavaView.
+   *
+   * @return a future which completes when all bodies are built. It completes exceptionally if a
+   *     body could not be built, in that case {@link SootMethod#getBody()} throws the same error
+   *     again.
+   */
+  @Nonnull
+  default CompletableFuture<Void> prefetchBodies(
+      @Nonnull Collection<MethodSignature> methods, @Nonnull Executor executor) {
+    List<CompletableFuture<Void>> tasks = new ArrayList<>(methods.size());
+    for (MethodSignature method : methods) {
+      tasks.add(
+          CompletableFuture.runAsync(
+              () -> getMethod(method).filter(SootMethod::hasBody).ifPresent(SootMethod::getBody),
+              executor));
+    }
+    return CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]));
+  }
+
+  /**
+   * Builds the bodies of all methods of this view that match the filter, i.e. runs the configured
+   * {@link sootup.core.transform.BodyInterceptor}s, using the given executor. The bodies are kept
+   * like bodies that are resolved via {@link SootMethod#getBody()}. The call blocks until all
+   * bodies are built; errors are collected per method instead of aborting the batch.
+   *
+   * <p>The tasks resolve classes of this view from other threads, so the view has to be
+   * thread-safe, e.g. a JavaView or ConcurrentJavaView.
+   *
+   * @see BatchBodyTransformer
+   */
+  @Nonnull
+  default BatchBodyTransformer.Result transformBodies(
+      @Nonnull Predicate<? super SootMethod> filter, @Nonnull Executor executor) {
+    // the classes are resolved before the first task starts, as the tasks query the view as well
+    List<SootMethod> methods =
+        getClasses()
+            .flatMap(c -> c.getMethods().stream())
+            .filter(filter)
+            .collect(Collectors.toList());
+    return new BatchBodyTransformer(executor).transform(methods.stream());
+  }
+
+  /**
+   * Like {@link #transformBodies(Predicate, Executor)}, but streams the bodies to the consumer
+   * instead of keeping them, so the memory needed does not depend on the number of methods: at most
+   * {@code maxPendingBodies} bodies are built or consumed at the same time.
+   */
+  @Nonnull
+  default BatchBodyTransformer.Result transformBodies(
+      @Nonnull Predicate<? super SootMethod> filter,
+      @Nonnull Executor executor,
+      int maxPendingBodies,
+      @Nonnull BiConsumer<? super SootMethod, ? super Body> consumer) {
+    List<SootMethod> methods =
+        getClasses()
+            .flatMap(c -> c.getMethods().stream())
+            .filter(filter)
+            .collect(Collectors.toList());
+    return new BatchBodyTransformer(executor, maxPendingBodies)
+        .transform(methods.stream(), consumer);
+  }
+
   @Nonnull
   default SootClass getClassOrThrow(@Nonnull ClassType classType) {
     return getClass(classType)
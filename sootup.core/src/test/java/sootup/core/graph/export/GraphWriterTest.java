@@ -0,0 +1,163 @@
+package sootup.core.graph.export;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("Java8")
+public class GraphWriterTest {
+
+  private static final int NODES = 10_000;
+  private static final OpenOption[] WRITE = {
+    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING
+  };
+
+  /** a chain of nodes with a few distinct kinds, one long label and non-ASCII characters */
+  private static void writeGraph(GraphWriter writer) throws IOException {
+    StringBuilder longLabel = new StringBuilder();
+    while (longLabel.length() < 100_000) {
+      longLabel.append("long label ");
+    }
+    for (int i = 0; i < NODES; i++) {
+      String label = i == 42 ? longLabel.toString() : "node \"" + i + "\", ä";
+      assertEquals(i, writer.addNode(i % 2 == 0 ? "stmt" : "method", label));
+      if (i > 0) {
+        writer.addEdge("next", i - 1, i);
+      }
+    }
+    writer.addEdge("back", NODES - 1, 0);
+  }
+
+  private static void assertGraph(ExportedGraph graph) {
+    assertEquals(NODES, graph.getNodeCount());
+    assertEquals(NODES, graph.getEdgeCount());
+    assertEquals("stmt", graph.getNodeKind(0));
+    assertEquals("method", graph.getNodeKind(1));
+    assertEquals("node \"7\", ä", graph.getNodeLabel(7));
+    assertTrue(graph.getNodeLabel(42).length() >= 100_000);
+    assertEquals("next", graph.getEdgeType(0));
+    assertEquals(5, graph.getEdgeSource(5));
+    assertEquals(6, graph.getEdgeTarget(5));
+    int last = graph.getEdgeCount() - 1;
+    assertEquals("back", graph.getEdgeType(last));
+    assertEquals(NODES - 1, graph.getEdgeSource(last));
+    assertEquals(0, graph.getEdgeTarget(last));
+    // only kinds and types are interned, labels are stored inline
+    assertEquals(4, graph.getStrings().size());
+  }
+
+  @Test
+  public void testBinaryRoundTrip() throws IOException {
+    Path file = Files.createTempFile("graph", ".bin");
+    try {
+      try (GraphWriter writer = new BinaryGraphWriter(Files.newByteChannel(file, WRITE))) {
+        writeGraph(writer);
+        assertEquals(NODES, writer.getNodeCount());
+        assertEquals(NODES, writer.getEdgeCount());
+        assertThrows(IllegalArgumentException.class, () -> writer.addEdge("next", 0, NODES));
+      }
+      // memory-mapped
+      assertGraph(BinaryGraphReader.load(file));
+
+      // streamed from a channel that delivers the bytes in small pieces
+      byte[] bytes = Files.readAllBytes(file);
+      assertGraph(BinaryGraphReader.load(Channels.newChannel(new ByteArrayInputStream(bytes))));
+
+      List<String> records = new ArrayList<>();
+      BinaryGraphReader.read(
+          file,
+          new BinaryGraphReader.Visitor() {
+            @Override
+            public void visitNode(int id, String kind, String label) {
+              records.add("node");
+            }
+
+            @Override
+            public void visitEdge(String type, int source, int target) {
+              records.add(type);
+            }
+          });
+      assertEquals(2 * NODES, records.size());
+      assertEquals("node", records.get(0));
+      assertEquals("back", records.get(records.size() - 1));
+
+      bytes[0] = 'X';
+      assertThrows(
+          IOException.class,
+          () -> BinaryGraphReader.load(Channels.newChannel(new ByteArrayInputStream(bytes))));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testCorruptLength() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GraphWriter writer = new BinaryGraphWriter(Channels.newChannel(out))) {
+      writer.addNode("stmt", "label");
+    }
+    byte[] bytes = out.toByteArray();
+    // MAGIC VERSION STRING 4 "stmt" NODE 0 5 "label" END
+    int labelLength = BinaryGraphFormat.MAGIC.length + 1 + 1 + 1 + 4 + 1 + 1;
+    assertEquals(5, bytes[labelLength]);
+    assertEquals(1, BinaryGraphReader.load(channel(bytes)).getNodeCount());
+
+    // a length beyond the end of the input
+    bytes[labelLength] = 0x7f;
+    assertThrows(IOException.class, () -> BinaryGraphReader.load(channel(bytes)));
+    Path file = Files.createTempFile("graph", ".bin");
+    try {
+      Files.write(file, bytes);
+      assertThrows(IOException.class, () -> BinaryGraphReader.load(file));
+    } finally {
+      Files.delete(file);
+    }
+
+    // a negative length, i.e. a varint of five bytes with the highest bit set
+    byte[] negative = new byte[bytes.length + 4];
+    System.arraycopy(bytes, 0, negative, 0, labelLength);
+    negative[labelLength] = (byte) 0x80;
+    negative[labelLength + 1] = (byte) 0x80;
+    negative[labelLength + 2] = (byte) 0x80;
+    negative[labelLength + 3] = (byte) 0x80;
+    negative[labelLength + 4] = 0x08;
+    assertThrows(IOException.class, () -> BinaryGraphReader.load(channel(negative)));
+  }
+
+  private static ReadableByteChannel channel(byte[] bytes) {
+    return Channels.newChannel(new ByteArrayInputStream(bytes));
+  }
+
+  @Test
+  public void testCsv() throws IOException {
+    ByteArrayOutputStream nodes = new ByteArrayOutputStream();
+    ByteArrayOutputStream edges = new ByteArrayOutputStream();
+    try (GraphWriter writer =
+        new CsvGraphWriter(Channels.newChannel(nodes), Channels.newChannel(edges))) {
+      writeGraph(writer);
+    }
+    String[] nodeLines = nodes.toString(StandardCharsets.UTF_8.name()).split("\n");
+    assertEquals(CsvGraphWriter.NODE_HEADER, nodeLines[0]);
+    assertEquals(NODES + 1, nodeLines.length);
+    assertEquals("7,method,\"node \"\"7\"\", ä\"", nodeLines[8]);
+
+    String[] edgeLines = edges.toString(StandardCharsets.UTF_8.name()).split("\n");
+    assertEquals(CsvGraphWriter.EDGE_HEADER, edgeLines[0]);
+    assertEquals(NODES + 1, edgeLines.length);
+    assertEquals("0,1,next", edgeLines[1]);
+    assertEquals((NODES - 1) + ",0,back", edgeLines[NODES]);
+  }
+}
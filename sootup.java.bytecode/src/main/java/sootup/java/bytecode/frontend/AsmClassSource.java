@@ -27,8 +27,10 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.objectweb.asm.tree.*;
 import sootup.core.IdentifierFactory;
+import sootup.core.frontend.BodySource;
 import sootup.core.frontend.ResolveException;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.jimple.basic.NoPositionInformation;
@@ -45,14 +47,25 @@ import sootup.java.core.types.JavaClassType;
 class AsmClassSource extends JavaSootClassSource {
 
   @Nonnull private final ClassNode classNode;
+  @Nullable private final PersistentBodyCache persistentBodyCache;
 
   public AsmClassSource(
       AnalysisInputLocation inputLocation,
       Path sourcePath,
       JavaClassType javaClassType,
       @Nonnull ClassNode classNode) {
+    this(inputLocation, sourcePath, javaClassType, classNode, null);
+  }
+
+  public AsmClassSource(
+      AnalysisInputLocation inputLocation,
+      Path sourcePath,
+      JavaClassType javaClassType,
+      @Nonnull ClassNode classNode,
+      @Nullable PersistentBodyCache persistentBodyCache) {
     super(inputLocation, javaClassType, sourcePath);
     this.classNode = classNode;
+    this.persistentBodyCache = persistentBodyCache;
   }
 
   private static Set<JavaSootField> resolveFields(
@@ -137,14 +150,21 @@ class AsmClassSource extends JavaSootClassSource {
                 annotations.addAll(methodSource.invisibleAnnotations);
               }
 
+              BodySource bodySource =
+                  persistentBodyCache == null
+                      ? asmClassClassSourceContent
+                      : new PersistentCachedBodySource(
+                          asmClassClassSourceContent, persistentBodyCache);
+
               // TODO: position/line numbers if possible
               return new JavaSootMethod(
-                  asmClassClassSourceContent,
+                  bodySource,
                   methodSignature,
                   modifiers,
                   exceptions,
                   convertAnnotation(annotations),
-                  NoPositionInformation.getInstance());
+                  NoPositionInformation.getInstance(),
+                  asmClassClassSourceContent.getView().getBodyCache().orElse(null));
             })
         .collect(Collectors.toSet());
   }
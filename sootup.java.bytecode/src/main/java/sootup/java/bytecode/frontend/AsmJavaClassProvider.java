@@ -1,4 +1,5 @@
 package sootup.java.bytecode.frontend;
+
 /*-
  * #%L
  * Soot - a J*va Optimization Framework
@@ -24,6 +25,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
@@ -43,10 +45,21 @@ import sootup.java.core.types.ModuleJavaClassType;
 public class AsmJavaClassProvider implements ClassProvider {
 
   @Nonnull private final View view;
+  @Nullable private final PersistentBodyCache persistentBodyCache;
   private static final @Nonnull Logger logger = LoggerFactory.getLogger(AsmJavaClassProvider.class);
 
   public AsmJavaClassProvider(@Nonnull View view) {
+    this(view, null);
+  }
+
+  /**
+   * @param persistentBodyCache if not null the bodies of the created class sources are loaded from
+   *     and stored into the given cache.
+   */
+  public AsmJavaClassProvider(
+      @Nonnull View view, @Nullable PersistentBodyCache persistentBodyCache) {
     this.view = view;
+    this.persistentBodyCache = persistentBodyCache;
   }
 
   @Override
@@ -67,6 +80,41 @@ public class AsmJavaClassProvider implements ClassProvider {
       logger.warn("iae: " + sourcePath, exception);
       return Optional.empty();
     }
+    return createClassSource(
+        analysisInputLocation, sourcePath, classType, classNode, actualClassSignature);
+  }
+
+  /**
+   * Creates the class source from the already loaded contents of a class file e.g. read from an
+   * archive without a FileSystem.
+   *
+   * @param sourcePath the file which contains the class - used for error reporting.
+   */
+  public Optional<SootClassSource> createClassSource(
+      @Nonnull AnalysisInputLocation analysisInputLocation,
+      @Nonnull Path sourcePath,
+      @Nonnull ClassType classType,
+      @Nonnull byte[] classBytes) {
+
+    SootClassNode classNode;
+    final String actualClassSignature;
+    try {
+      classNode = new SootClassNode(analysisInputLocation);
+      actualClassSignature = AsmUtil.initAsmClassSource(classBytes, classNode);
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+      logger.warn("Invalid class file " + classType + " in " + sourcePath, exception);
+      return Optional.empty();
+    }
+    return createClassSource(
+        analysisInputLocation, sourcePath, classType, classNode, actualClassSignature);
+  }
+
+  private Optional<SootClassSource> createClassSource(
+      @Nonnull AnalysisInputLocation analysisInputLocation,
+      @Nonnull Path sourcePath,
+      @Nonnull ClassType classType,
+      @Nonnull SootClassNode classNode,
+      @Nonnull String actualClassSignature) {
 
     String requestedName = classType.getPackageName().getName();
     String requestedFQClassName =
@@ -91,7 +139,8 @@ public class AsmJavaClassProvider implements ClassProvider {
       }
 
       return Optional.of(
-          new AsmClassSource(analysisInputLocation, sourcePath, klassType, classNode));
+          new AsmClassSource(
+              analysisInputLocation, sourcePath, klassType, classNode, persistentBodyCache));
     }
   }
 
@@ -144,6 +144,11 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     return lazyMethodSignature.get();
   }
 
+  @Nonnull
+  View getView() {
+    return view;
+  }
+
   void setDeclaringClass(@Nonnull ClassType declaringClass) {
     this.declaringClass = (JavaClassType) declaringClass;
   }
@@ -154,11 +159,24 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
         : StmtPositionInfo.getNoStmtPositionInfo();
   }
 
+  /**
+   * Converts the instructions of the method. The conversion state is kept in fields of this source,
+   * so concurrent calls, e.g. by a BodyCache and a batch that streams bodies, are serialized.
+   */
   @Override
   @Nonnull
-  public Body resolveBody(@Nonnull Iterable<MethodModifier> modifierIt) {
-
-    /* initialize */
+  public synchronized Body resolveBody(@Nonnull Iterable<MethodModifier> modifierIt) {
+
+    /* initialize - the body can be resolved again if it was dropped from a BodyCache */
+    replacedStmt.clear();
+    startTrapHandler.clear();
+    endTrapHandler.clear();
+    activeTrapHandlers.clear();
+    inlineExceptionLabels.clear();
+    inlineExceptionHandlers.clear();
+    labelsToStmt.clear();
+    currentLineNumber = -1;
+    maxLineNumber = 0;
     nextLocal = maxLocals;
     locals =
         new NonIndexOutofBoundsArrayList<>(
@@ -241,7 +259,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
             "Failed to apply " + bodyInterceptor + " to " + lazyMethodSignature.get(), e);
       }
     }
-    return bodyBuilder.build();
+    return bodyBuilder.build().withImmutableStmtGraph();
   }
 
   @Override
@@ -1,4 +1,5 @@
 package sootup.java.bytecode.frontend;
+
 /*-
  * #%L
  * Soot - a J*va Optimization Framework
@@ -76,6 +77,20 @@ public final class AsmUtil {
     }
   }
 
+  /**
+   * Initializes a class node from the contents of a class file.
+   *
+   * @param classBytes The contents of the class file.
+   * @param classNode The node to initialize
+   * @return the actual class signature found in the compilation unit
+   */
+  protected static String initAsmClassSource(
+      @Nonnull byte[] classBytes, @Nonnull ClassVisitor classNode) {
+    ClassReader clsr = new ClassReader(classBytes);
+    clsr.accept(classNode, ClassReader.SKIP_FRAMES);
+    return clsr.getClassName();
+  }
+
   /**
    * Determines if a type is a dword type.
    *
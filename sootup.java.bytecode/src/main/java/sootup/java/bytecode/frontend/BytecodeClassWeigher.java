@@ -0,0 +1,53 @@
+package sootup.java.bytecode.frontend;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.ToIntFunction;
+import javax.annotation.Nonnull;
+import sootup.core.cache.ConcurrentLRUCache;
+import sootup.core.frontend.BodySource;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+
+/**
+ * Estimates the weight of a class for a {@link ConcurrentLRUCache} by the number of its members
+ * plus the number of bytecode instructions of its methods, i.e. the size of the bodies that will be
+ * resolved from it.
+ */
+public class BytecodeClassWeigher implements ToIntFunction<SootClass> {
+
+  @Override
+  public int applyAsInt(@Nonnull SootClass sootClass) {
+    int weight = ConcurrentLRUCache.estimateWeight(sootClass);
+    for (SootMethod method : sootClass.getMethods()) {
+      BodySource bodySource = method.getBodySource();
+      if (bodySource instanceof PersistentCachedBodySource) {
+        bodySource = ((PersistentCachedBodySource) bodySource).getDelegate();
+      }
+      if (bodySource instanceof AsmMethodSource) {
+        weight += ((AsmMethodSource) bodySource).instructions.size();
+      }
+    }
+    return weight;
+  }
+}
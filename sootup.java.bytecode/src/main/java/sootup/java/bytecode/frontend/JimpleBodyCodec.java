@@ -0,0 +1,1051 @@
+package sootup.java.bytecode.frontend;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.model.FullPosition;
+import sootup.core.model.LinePosition;
+import sootup.core.model.Position;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.SootClassMemberSignature;
+import sootup.core.types.*;
+import sootup.java.core.jimple.basic.JavaLocal;
+import sootup.java.core.language.JavaJimple;
+
+/**
+ * Compact binary (de)serialization of a Jimple {@link Body}. Strings are interned in a per-body
+ * string table, numbers are written as varints and Stmts, Locals and branch targets are referenced
+ * by their index. The {@link MethodSignature} of the body is not part of the encoding - it is the
+ * key under which the body is stored.
+ *
+ * <p>The StmtGraph is stored in its linearized form (i.e. the order of {@link
+ * StmtGraph#getStmts()}) together with the branch targets and the traps; decoding rebuilds it via
+ * {@link MutableBlockStmtGraph#initializeWith(List, Map, List)} - like the Jimple frontend does.
+ */
+final class JimpleBodyCodec {
+
+  /** increase whenever the encoding changes - previously persisted bodies are ignored then. */
+  static final int FORMAT_VERSION = 1;
+
+  /** signals that a Body contains a construct which can not be encoded e.g. a JPhiExpr. */
+  static class UnsupportedBodyException extends RuntimeException {
+    UnsupportedBodyException(String message) {
+      super(message);
+    }
+  }
+
+  // types
+  private static final int TYPE_CLASS = 0;
+  private static final int TYPE_ARRAY = 1;
+  private static final int TYPE_NULL = 2;
+  private static final int TYPE_VOID = 3;
+  private static final int TYPE_UNKNOWN = 4;
+  private static final int TYPE_PRIMITIVE = 5; // + index in PRIMITIVES
+
+  private static final List<PrimitiveType> PRIMITIVES =
+      Arrays.asList(
+          PrimitiveType.getBoolean(),
+          PrimitiveType.getByte(),
+          PrimitiveType.getChar(),
+          PrimitiveType.getShort(),
+          PrimitiveType.getInt(),
+          PrimitiveType.getLong(),
+          PrimitiveType.getFloat(),
+          PrimitiveType.getDouble());
+
+  // positions
+  private static final int POS_NONE = 0;
+  private static final int POS_LINE = 1;
+  private static final int POS_FULL = 2;
+
+  // values
+  private static final int LOCAL = 0;
+  private static final int CONST_INT = 1;
+  private static final int CONST_LONG = 2;
+  private static final int CONST_FLOAT = 3;
+  private static final int CONST_DOUBLE = 4;
+  private static final int CONST_NULL = 5;
+  private static final int CONST_BOOLEAN = 6;
+  private static final int CONST_STRING = 7;
+  private static final int CONST_CLASS = 8;
+  private static final int CONST_ENUM = 9;
+  private static final int CONST_METHODHANDLE = 10;
+  private static final int CONST_METHODTYPE = 11;
+  private static final int REF_STATICFIELD = 12;
+  private static final int REF_INSTANCEFIELD = 13;
+  private static final int REF_ARRAY = 14;
+  private static final int REF_PARAMETER = 15;
+  private static final int REF_THIS = 16;
+  private static final int REF_CAUGHTEXCEPTION = 17;
+  private static final int EXPR_CAST = 18;
+  private static final int EXPR_INSTANCEOF = 19;
+  private static final int EXPR_NEW = 20;
+  private static final int EXPR_NEWARRAY = 21;
+  private static final int EXPR_NEWMULTIARRAY = 22;
+  private static final int EXPR_NEG = 23;
+  private static final int EXPR_LENGTH = 24;
+  private static final int EXPR_STATICINVOKE = 25;
+  private static final int EXPR_SPECIALINVOKE = 26;
+  private static final int EXPR_VIRTUALINVOKE = 27;
+  private static final int EXPR_INTERFACEINVOKE = 28;
+  private static final int EXPR_DYNAMICINVOKE = 29;
+  private static final int EXPR_BINOP = 30; // + index in BINOPS
+
+  private static final List<Class<? extends AbstractBinopExpr>> BINOPS =
+      Arrays.asList(
+          JAddExpr.class,
+          JAndExpr.class,
+          JCmpExpr.class,
+          JCmpgExpr.class,
+          JCmplExpr.class,
+          JDivExpr.class,
+          JEqExpr.class,
+          JGeExpr.class,
+          JGtExpr.class,
+          JLeExpr.class,
+          JLtExpr.class,
+          JMulExpr.class,
+          JNeExpr.class,
+          JOrExpr.class,
+          JRemExpr.class,
+          JShlExpr.class,
+          JShrExpr.class,
+          JSubExpr.class,
+          JUshrExpr.class,
+          JXorExpr.class);
+
+  // stmts
+  private static final int STMT_ASSIGN = 0;
+  private static final int STMT_IDENTITY = 1;
+  private static final int STMT_INVOKE = 2;
+  private static final int STMT_IF = 3;
+  private static final int STMT_GOTO = 4;
+  private static final int STMT_TABLESWITCH = 5;
+  private static final int STMT_LOOKUPSWITCH = 6;
+  private static final int STMT_RETURN = 7;
+  private static final int STMT_RETURNVOID = 8;
+  private static final int STMT_THROW = 9;
+  private static final int STMT_NOP = 10;
+  private static final int STMT_ENTERMONITOR = 11;
+  private static final int STMT_EXITMONITOR = 12;
+  private static final int STMT_BREAKPOINT = 13;
+  private static final int STMT_RET = 14;
+
+  private JimpleBodyCodec() {}
+
+  @Nonnull
+  static byte[] encode(@Nonnull Body body) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    try {
+      new Encoder(new DataOutputStream(bytes)).writeBody(body);
+    } catch (IOException e) {
+      // writes into memory
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Nonnull
+  static Body decode(
+      @Nonnull byte[] data,
+      @Nonnull MethodSignature methodSignature,
+      @Nonnull IdentifierFactory identifierFactory)
+      throws IOException {
+    return new Decoder(new DataInputStream(new ByteArrayInputStream(data)), identifierFactory)
+        .readBody(methodSignature);
+  }
+
+  private static class Encoder {
+    @Nonnull private final DataOutputStream out;
+    @Nonnull private final Map<String, Integer> strings = new HashMap<>();
+    @Nonnull private final Map<Local, Integer> locals = new HashMap<>();
+    @Nonnull private final Map<Stmt, Integer> stmts = new IdentityHashMap<>();
+
+    Encoder(@Nonnull DataOutputStream out) {
+      this.out = out;
+    }
+
+    void writeBody(@Nonnull Body body) throws IOException {
+      writePosition(body.getPosition());
+
+      writeVarInt(body.getLocals().size());
+      for (Local local : body.getLocals()) {
+        if (local instanceof JavaLocal) {
+          if (((JavaLocal) local).getAnnotations().iterator().hasNext()) {
+            throw new UnsupportedBodyException("annotated Local " + local);
+          }
+          out.writeBoolean(true);
+        } else if (local.getClass() == Local.class) {
+          out.writeBoolean(false);
+        } else {
+          throw new UnsupportedBodyException("Local of " + local.getClass());
+        }
+        writeString(local.getName());
+        writeType(local.getType());
+        locals.put(local, locals.size());
+      }
+
+      final StmtGraph<?> graph = body.getStmtGraph();
+      final List<Stmt> stmtList = graph.getStmts();
+      for (Stmt stmt : stmtList) {
+        stmts.put(stmt, stmts.size());
+      }
+      writeVarInt(stmtList.size());
+      for (Stmt stmt : stmtList) {
+        writeStmt(stmt);
+      }
+
+      // branch targets in the order of the BranchingStmts
+      for (Stmt stmt : stmtList) {
+        if (stmt instanceof BranchingStmt) {
+          final List<Stmt> targets = graph.getBranchTargetsOf((BranchingStmt) stmt);
+          writeVarInt(targets.size());
+          for (Stmt target : targets) {
+            writeStmtRef(target);
+          }
+        }
+      }
+
+      final List<Trap> traps = graph.buildTraps();
+      writeVarInt(traps.size());
+      for (Trap trap : traps) {
+        writeString(trap.getExceptionType().getFullyQualifiedName());
+        writeStmtRef(trap.getBeginStmt());
+        writeStmtRef(trap.getEndStmt());
+        writeStmtRef(trap.getHandlerStmt());
+      }
+      out.flush();
+    }
+
+    private void writeStmtRef(@Nonnull Stmt stmt) throws IOException {
+      final Integer idx = stmts.get(stmt);
+      if (idx == null) {
+        throw new UnsupportedBodyException("Stmt '" + stmt + "' is not in the StmtGraph.");
+      }
+      writeVarInt(idx);
+    }
+
+    private void writeStmt(@Nonnull Stmt stmt) throws IOException {
+      if (stmt instanceof JAssignStmt) {
+        out.writeByte(STMT_ASSIGN);
+        writeValue(((JAssignStmt) stmt).getLeftOp());
+        writeValue(((JAssignStmt) stmt).getRightOp());
+      } else if (stmt instanceof JIdentityStmt) {
+        out.writeByte(STMT_IDENTITY);
+        writeValue(((JIdentityStmt) stmt).getLeftOp());
+        writeValue(((JIdentityStmt) stmt).getRightOp());
+      } else if (stmt instanceof JInvokeStmt) {
+        out.writeByte(STMT_INVOKE);
+        writeValue(((JInvokeStmt) stmt).getInvokeExpr().get());
+      } else if (stmt instanceof JIfStmt) {
+        out.writeByte(STMT_IF);
+        writeValue(((JIfStmt) stmt).getCondition());
+      } else if (stmt instanceof JGotoStmt) {
+        out.writeByte(STMT_GOTO);
+      } else if (stmt instanceof JSwitchStmt) {
+        final JSwitchStmt switchStmt = (JSwitchStmt) stmt;
+        final List<IntConstant> values = switchStmt.getValues();
+        if (switchStmt.isTableSwitch()) {
+          out.writeByte(STMT_TABLESWITCH);
+          writeValue(switchStmt.getKey());
+          writeSignedVarInt(values.get(0).getValue());
+          writeSignedVarInt(values.get(values.size() - 1).getValue());
+        } else {
+          out.writeByte(STMT_LOOKUPSWITCH);
+          writeValue(switchStmt.getKey());
+          writeVarInt(values.size());
+          for (IntConstant value : values) {
+            writeSignedVarInt(value.getValue());
+          }
+        }
+      } else if (stmt instanceof JReturnStmt) {
+        out.writeByte(STMT_RETURN);
+        writeValue(((JReturnStmt) stmt).getOp());
+      } else if (stmt instanceof JReturnVoidStmt) {
+        out.writeByte(STMT_RETURNVOID);
+      } else if (stmt instanceof JThrowStmt) {
+        out.writeByte(STMT_THROW);
+        writeValue(((JThrowStmt) stmt).getOp());
+      } else if (stmt instanceof JNopStmt) {
+        out.writeByte(STMT_NOP);
+      } else if (stmt instanceof JEnterMonitorStmt) {
+        out.writeByte(STMT_ENTERMONITOR);
+        writeValue(((JEnterMonitorStmt) stmt).getOp());
+      } else if (stmt instanceof JExitMonitorStmt) {
+        out.writeByte(STMT_EXITMONITOR);
+        writeValue(((JExitMonitorStmt) stmt).getOp());
+      } else if (stmt instanceof JBreakpointStmt) {
+        out.writeByte(STMT_BREAKPOINT);
+      } else if (stmt instanceof JRetStmt) {
+        out.writeByte(STMT_RET);
+        writeValue(((JRetStmt) stmt).getStmtAddress());
+      } else {
+        throw new UnsupportedBodyException("Stmt of " + stmt.getClass());
+      }
+      writePositionInfo(stmt.getPositionInfo());
+    }
+
+    private void writePositionInfo(@Nonnull StmtPositionInfo positionInfo) throws IOException {
+      if (positionInfo == StmtPositionInfo.getNoStmtPositionInfo()) {
+        out.writeBoolean(false);
+      } else if (positionInfo.getClass() == SimpleStmtPositionInfo.class) {
+        out.writeBoolean(true);
+        writePosition(positionInfo.getStmtPosition());
+      } else {
+        throw new UnsupportedBodyException("StmtPositionInfo of " + positionInfo.getClass());
+      }
+    }
+
+    private void writePosition(@Nonnull Position position) throws IOException {
+      if (position == NoPositionInformation.getInstance()) {
+        out.writeByte(POS_NONE);
+      } else if (position.getClass() == LinePosition.class) {
+        out.writeByte(POS_LINE);
+        writeSignedVarInt(position.getFirstLine());
+      } else if (position.getClass() == FullPosition.class) {
+        out.writeByte(POS_FULL);
+        writeSignedVarInt(position.getFirstLine());
+        writeSignedVarInt(position.getFirstCol());
+        writeSignedVarInt(position.getLastLine());
+        writeSignedVarInt(position.getLastCol());
+      } else {
+        throw new UnsupportedBodyException("Position of " + position.getClass());
+      }
+    }
+
+    private void writeValue(@Nonnull Value value) throws IOException {
+      if (value instanceof Local) {
+        final Integer idx = locals.get(value);
+        if (idx == null) {
+          throw new UnsupportedBodyException("Local '" + value + "' is not in the Locals.");
+        }
+        out.writeByte(LOCAL);
+        writeVarInt(idx);
+      } else if (value instanceof Constant) {
+        writeConstant((Constant) value);
+      } else if (value instanceof Ref) {
+        writeRef((Ref) value);
+      } else if (value instanceof AbstractBinopExpr) {
+        final int idx = BINOPS.indexOf(value.getClass());
+        if (idx < 0) {
+          throw new UnsupportedBodyException("Expr of " + value.getClass());
+        }
+        out.writeByte(EXPR_BINOP + idx);
+        writeValue(((AbstractBinopExpr) value).getOp1());
+        writeValue(((AbstractBinopExpr) value).getOp2());
+      } else if (value instanceof AbstractInvokeExpr) {
+        writeInvokeExpr((AbstractInvokeExpr) value);
+      } else if (value instanceof JCastExpr) {
+        out.writeByte(EXPR_CAST);
+        writeValue(((JCastExpr) value).getOp());
+        writeType(value.getType());
+      } else if (value instanceof JInstanceOfExpr) {
+        out.writeByte(EXPR_INSTANCEOF);
+        writeValue(((JInstanceOfExpr) value).getOp());
+        writeType(((JInstanceOfExpr) value).getCheckType());
+      } else if (value instanceof JNewExpr) {
+        out.writeByte(EXPR_NEW);
+        writeType(value.getType());
+      } else if (value instanceof JNewArrayExpr) {
+        out.writeByte(EXPR_NEWARRAY);
+        writeType(((JNewArrayExpr) value).getBaseType());
+        writeValue(((JNewArrayExpr) value).getSize());
+      } else if (value instanceof JNewMultiArrayExpr) {
+        out.writeByte(EXPR_NEWMULTIARRAY);
+        writeType(((JNewMultiArrayExpr) value).getBaseType());
+        writeValues(((JNewMultiArrayExpr) value).getSizes());
+      } else if (value instanceof JNegExpr) {
+        out.writeByte(EXPR_NEG);
+        writeValue(((JNegExpr) value).getOp());
+      } else if (value instanceof JLengthExpr) {
+        out.writeByte(EXPR_LENGTH);
+        writeValue(((JLengthExpr) value).getOp());
+      } else {
+        // e.g. JPhiExpr
+        throw new UnsupportedBodyException("Value of " + value.getClass());
+      }
+    }
+
+    private void writeValues(@Nonnull List<? extends Value> values) throws IOException {
+      writeVarInt(values.size());
+      for (Value value : values) {
+        writeValue(value);
+      }
+    }
+
+    private void writeConstant(@Nonnull Constant constant) throws IOException {
+      if (constant instanceof IntConstant) {
+        out.writeByte(CONST_INT);
+        writeSignedVarInt(((IntConstant) constant).getValue());
+      } else if (constant instanceof LongConstant) {
+        out.writeByte(CONST_LONG);
+        out.writeLong(((LongConstant) constant).getValue());
+      } else if (constant instanceof FloatConstant) {
+        out.writeByte(CONST_FLOAT);
+        out.writeInt(Float.floatToRawIntBits(((FloatConstant) constant).getValue()));
+      } else if (constant instanceof DoubleConstant) {
+        out.writeByte(CONST_DOUBLE);
+        out.writeLong(Double.doubleToRawLongBits(((DoubleConstant) constant).getValue()));
+      } else if (constant instanceof NullConstant) {
+        out.writeByte(CONST_NULL);
+      } else if (constant instanceof BooleanConstant) {
+        out.writeByte(CONST_BOOLEAN);
+        out.writeBoolean(constant == BooleanConstant.getTrue());
+      } else if (constant instanceof StringConstant) {
+        out.writeByte(CONST_STRING);
+        writeString(((StringConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof ClassConstant) {
+        out.writeByte(CONST_CLASS);
+        writeString(((ClassConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof EnumConstant) {
+        out.writeByte(CONST_ENUM);
+        writeString(((EnumConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof MethodHandle) {
+        final MethodHandle handle = (MethodHandle) constant;
+        out.writeByte(CONST_METHODHANDLE);
+        writeVarInt(handle.getKind().getValue());
+        writeType(handle.getType());
+        final SootClassMemberSignature<?> signature = handle.getReferenceSignature();
+        if (signature instanceof MethodSignature) {
+          writeMethodSignature((MethodSignature) signature);
+        } else {
+          writeFieldSignature((FieldSignature) signature);
+        }
+      } else if (constant instanceof MethodType) {
+        final MethodType methodType = (MethodType) constant;
+        out.writeByte(CONST_METHODTYPE);
+        writeTypes(methodType.getParameterTypes());
+        writeType(methodType.getReturnType());
+      } else {
+        throw new UnsupportedBodyException("Constant of " + constant.getClass());
+      }
+    }
+
+    private void writeRef(@Nonnull Ref ref) throws IOException {
+      if (ref instanceof JStaticFieldRef) {
+        out.writeByte(REF_STATICFIELD);
+        writeFieldSignature(((JStaticFieldRef) ref).getFieldSignature());
+      } else if (ref instanceof JInstanceFieldRef) {
+        out.writeByte(REF_INSTANCEFIELD);
+        writeValue(((JInstanceFieldRef) ref).getBase());
+        writeFieldSignature(((JInstanceFieldRef) ref).getFieldSignature());
+      } else if (ref instanceof JArrayRef) {
+        out.writeByte(REF_ARRAY);
+        writeValue(((JArrayRef) ref).getBase());
+        writeValue(((JArrayRef) ref).getIndex());
+      } else if (ref instanceof JParameterRef) {
+        out.writeByte(REF_PARAMETER);
+        writeType(ref.getType());
+        writeVarInt(((JParameterRef) ref).getIndex());
+      } else if (ref instanceof JThisRef) {
+        out.writeByte(REF_THIS);
+        writeType(ref.getType());
+      } else if (ref instanceof JCaughtExceptionRef) {
+        out.writeByte(REF_CAUGHTEXCEPTION);
+        writeType(ref.getType());
+      } else {
+        throw new UnsupportedBodyException("Ref of " + ref.getClass());
+      }
+    }
+
+    private void writeInvokeExpr(@Nonnull AbstractInvokeExpr expr) throws IOException {
+      if (expr instanceof JStaticInvokeExpr) {
+        out.writeByte(EXPR_STATICINVOKE);
+      } else if (expr instanceof JSpecialInvokeExpr) {
+        out.writeByte(EXPR_SPECIALINVOKE);
+      } else if (expr instanceof JVirtualInvokeExpr) {
+        out.writeByte(EXPR_VIRTUALINVOKE);
+      } else if (expr instanceof JInterfaceInvokeExpr) {
+        out.writeByte(EXPR_INTERFACEINVOKE);
+      } else if (expr instanceof JDynamicInvokeExpr) {
+        final JDynamicInvokeExpr dynamicInvoke = (JDynamicInvokeExpr) expr;
+        out.writeByte(EXPR_DYNAMICINVOKE);
+        writeMethodSignature(dynamicInvoke.getBootstrapMethodSignature());
+        writeValues(dynamicInvoke.getBootstrapArgs());
+        writeSignedVarInt(dynamicInvoke.getHandleTag());
+      } else {
+        throw new UnsupportedBodyException("InvokeExpr of " + expr.getClass());
+      }
+      if (expr instanceof AbstractInstanceInvokeExpr) {
+        writeValue(((AbstractInstanceInvokeExpr) expr).getBase());
+      }
+      writeMethodSignature(expr.getMethodSignature());
+      writeValues(expr.getArgs());
+    }
+
+    private void writeMethodSignature(@Nonnull MethodSignature signature) throws IOException {
+      writeString(signature.getDeclClassType().getFullyQualifiedName());
+      writeString(signature.getName());
+      writeTypes(signature.getParameterTypes());
+      writeType(signature.getType());
+    }
+
+    private void writeFieldSignature(@Nonnull FieldSignature signature) throws IOException {
+      writeString(signature.getDeclClassType().getFullyQualifiedName());
+      writeString(signature.getName());
+      writeType(signature.getType());
+    }
+
+    private void writeTypes(@Nonnull List<Type> types) throws IOException {
+      writeVarInt(types.size());
+      for (Type type : types) {
+        writeType(type);
+      }
+    }
+
+    private void writeType(@Nonnull Type type) throws IOException {
+      if (type instanceof PrimitiveType) {
+        final int idx = PRIMITIVES.indexOf(type);
+        if (idx < 0) {
+          throw new UnsupportedBodyException("Type of " + type.getClass());
+        }
+        out.writeByte(TYPE_PRIMITIVE + idx);
+      } else if (type instanceof ClassType) {
+        out.writeByte(TYPE_CLASS);
+        writeString(((ClassType) type).getFullyQualifiedName());
+      } else if (type instanceof ArrayType) {
+        out.writeByte(TYPE_ARRAY);
+        writeType(((ArrayType) type).getBaseType());
+        writeVarInt(((ArrayType) type).getDimension());
+      } else if (type == NullType.getInstance()) {
+        out.writeByte(TYPE_NULL);
+      } else if (type == VoidType.getInstance()) {
+        out.writeByte(TYPE_VOID);
+      } else if (type == UnknownType.getInstance()) {
+        out.writeByte(TYPE_UNKNOWN);
+      } else {
+        throw new UnsupportedBodyException("Type of " + type.getClass());
+      }
+    }
+
+    private void writeString(@Nonnull String str) throws IOException {
+      final Integer idx = strings.get(str);
+      if (idx != null) {
+        writeVarInt(idx);
+        return;
+      }
+      // the next free index denotes a new string that follows inline
+      writeVarInt(strings.size());
+      strings.put(str, strings.size());
+      final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(bytes.length);
+      out.write(bytes);
+    }
+
+    private void writeSignedVarInt(int value) throws IOException {
+      // zigzag encoding to keep small negative numbers small
+      writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    private void writeVarInt(int value) throws IOException {
+      while ((value & ~0x7F) != 0) {
+        out.writeByte((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      out.writeByte(value);
+    }
+  }
+
+  private static class Decoder {
+    @Nonnull private final DataInputStream in;
+    @Nonnull private final IdentifierFactory identifierFactory;
+    @Nonnull private final List<String> strings = new ArrayList<>();
+    private Local[] locals;
+
+    Decoder(@Nonnull DataInputStream in, @Nonnull IdentifierFactory identifierFactory) {
+      this.in = in;
+      this.identifierFactory = identifierFactory;
+    }
+
+    @Nonnull
+    Body readBody(@Nonnull MethodSignature methodSignature) throws IOException {
+      final Position position = readPosition();
+
+      locals = new Local[readVarInt()];
+      for (int i = 0; i < locals.length; i++) {
+        final boolean isJavaLocal = in.readBoolean();
+        final String name = readString();
+        final Type type = readType();
+        locals[i] = isJavaLocal ? JavaJimple.newLocal(name, type) : Jimple.newLocal(name, type);
+      }
+
+      final Stmt[] stmts = new Stmt[readVarInt()];
+      for (int i = 0; i < stmts.length; i++) {
+        stmts[i] = readStmt();
+      }
+
+      final Set<Stmt> labeledStmts = Collections.newSetFromMap(new IdentityHashMap<>());
+      final Map<BranchingStmt, List<Stmt>> successorMap = new HashMap<>();
+      for (Stmt stmt : stmts) {
+        if (stmt instanceof BranchingStmt) {
+          final int targetCount = readVarInt();
+          final List<Stmt> targets = new ArrayList<>(targetCount);
+          for (int i = 0; i < targetCount; i++) {
+            final Stmt target = stmts[readVarInt()];
+            targets.add(target);
+            labeledStmts.add(target);
+          }
+          successorMap.put((BranchingStmt) stmt, targets);
+        }
+      }
+
+      final int trapCount = readVarInt();
+      final List<Trap> traps = new ArrayList<>(trapCount);
+      for (int i = 0; i < trapCount; i++) {
+        final ClassType exceptionType = identifierFactory.getClassType(readString());
+        final Stmt beginStmt = stmts[readVarInt()];
+        final Stmt endStmt = stmts[readVarInt()];
+        final Stmt handlerStmt = stmts[readVarInt()];
+        labeledStmts.add(beginStmt);
+        labeledStmts.add(endStmt);
+        labeledStmts.add(handlerStmt);
+        traps.add(new Trap(exceptionType, beginStmt, endStmt, handlerStmt));
+      }
+
+      // split the linearized Stmts into blocks
+      final List<List<Stmt>> blocks = new ArrayList<>();
+      List<Stmt> block = new ArrayList<>();
+      for (Stmt stmt : stmts) {
+        if (!block.isEmpty() && labeledStmts.contains(stmt)) {
+          blocks.add(block);
+          block = new ArrayList<>();
+        }
+        block.add(stmt);
+        if (stmt instanceof BranchingStmt || !(stmt instanceof FallsThroughStmt)) {
+          blocks.add(block);
+          block = new ArrayList<>();
+        }
+      }
+      if (!block.isEmpty()) {
+        blocks.add(block);
+      }
+
+      final MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+      graph.initializeWith(blocks, successorMap, traps);
+
+      return Body.builder(graph)
+          .setMethodSignature(methodSignature)
+          .setLocals(new LinkedHashSet<>(Arrays.asList(locals)))
+          .setPosition(position)
+          .build()
+          .withImmutableStmtGraph();
+    }
+
+    @Nonnull
+    private Stmt readStmt() throws IOException {
+      final int kind = in.readUnsignedByte();
+      switch (kind) {
+        case STMT_ASSIGN:
+          {
+            final LValue leftOp = (LValue) readValue();
+            final Value rightOp = readValue();
+            return new JAssignStmt(leftOp, rightOp, readPositionInfo());
+          }
+        case STMT_IDENTITY:
+          {
+            final Local local = (Local) readValue();
+            final IdentityRef ref = (IdentityRef) readValue();
+            return new JIdentityStmt(local, ref, readPositionInfo());
+          }
+        case STMT_INVOKE:
+          {
+            final AbstractInvokeExpr invokeExpr = (AbstractInvokeExpr) readValue();
+            return new JInvokeStmt(invokeExpr, readPositionInfo());
+          }
+        case STMT_IF:
+          {
+            final AbstractConditionExpr condition = (AbstractConditionExpr) readValue();
+            return new JIfStmt(condition, readPositionInfo());
+          }
+        case STMT_GOTO:
+          return new JGotoStmt(readPositionInfo());
+        case STMT_TABLESWITCH:
+          {
+            final Immediate key = (Immediate) readValue();
+            final int lowIndex = readSignedVarInt();
+            final int highIndex = readSignedVarInt();
+            return new JSwitchStmt(key, lowIndex, highIndex, readPositionInfo());
+          }
+        case STMT_LOOKUPSWITCH:
+          {
+            final Immediate key = (Immediate) readValue();
+            final int valueCount = readVarInt();
+            final List<IntConstant> values = new ArrayList<>(valueCount);
+            for (int i = 0; i < valueCount; i++) {
+              values.add(IntConstant.getInstance(readSignedVarInt()));
+            }
+            return new JSwitchStmt(key, values, readPositionInfo());
+          }
+        case STMT_RETURN:
+          {
+            final Immediate op = (Immediate) readValue();
+            return new JReturnStmt(op, readPositionInfo());
+          }
+        case STMT_RETURNVOID:
+          return new JReturnVoidStmt(readPositionInfo());
+        case STMT_THROW:
+          {
+            final Immediate op = (Immediate) readValue();
+            return new JThrowStmt(op, readPositionInfo());
+          }
+        case STMT_NOP:
+          return new JNopStmt(readPositionInfo());
+        case STMT_ENTERMONITOR:
+          {
+            final Immediate op = (Immediate) readValue();
+            return new JEnterMonitorStmt(op, readPositionInfo());
+          }
+        case STMT_EXITMONITOR:
+          {
+            final Immediate op = (Immediate) readValue();
+            return new JExitMonitorStmt(op, readPositionInfo());
+          }
+        case STMT_BREAKPOINT:
+          return new JBreakpointStmt(readPositionInfo());
+        case STMT_RET:
+          {
+            final Value stmtAddress = readValue();
+            return new JRetStmt(stmtAddress, readPositionInfo());
+          }
+        default:
+          throw new IOException("Unknown Stmt kind: " + kind);
+      }
+    }
+
+    @Nonnull
+    private StmtPositionInfo readPositionInfo() throws IOException {
+      if (!in.readBoolean()) {
+        return StmtPositionInfo.getNoStmtPositionInfo();
+      }
+      return new SimpleStmtPositionInfo(readPosition());
+    }
+
+    @Nonnull
+    private Position readPosition() throws IOException {
+      final int kind = in.readUnsignedByte();
+      switch (kind) {
+        case POS_NONE:
+          return NoPositionInformation.getInstance();
+        case POS_LINE:
+          return new LinePosition(readSignedVarInt());
+        case POS_FULL:
+          return new FullPosition(
+              readSignedVarInt(), readSignedVarInt(), readSignedVarInt(), readSignedVarInt());
+        default:
+          throw new IOException("Unknown Position kind: " + kind);
+      }
+    }
+
+    @Nonnull
+    private Value readValue() throws IOException {
+      final int kind = in.readUnsignedByte();
+      switch (kind) {
+        case LOCAL:
+          return locals[readVarInt()];
+        case CONST_INT:
+          return IntConstant.getInstance(readSignedVarInt());
+        case CONST_LONG:
+          return LongConstant.getInstance(in.readLong());
+        case CONST_FLOAT:
+          return FloatConstant.getInstance(Float.intBitsToFloat(in.readInt()));
+        case CONST_DOUBLE:
+          return DoubleConstant.getInstance(Double.longBitsToDouble(in.readLong()));
+        case CONST_NULL:
+          return NullConstant.getInstance();
+        case CONST_BOOLEAN:
+          return BooleanConstant.getInstance(in.readBoolean());
+        case CONST_STRING:
+          {
+            final String value = readString();
+            return new StringConstant(value, readType());
+          }
+        case CONST_CLASS:
+          {
+            final String value = readString();
+            return new ClassConstant(value, readType());
+          }
+        case CONST_ENUM:
+          {
+            final String value = readString();
+            return new EnumConstant(value, (ClassType) readType());
+          }
+        case CONST_METHODHANDLE:
+          {
+            final MethodHandle.Kind handleKind = MethodHandle.Kind.getKind(readVarInt());
+            final Type type = readType();
+            if (MethodHandle.isMethodRef(handleKind.getValue())) {
+              return new MethodHandle(readMethodSignature(), handleKind, type);
+            }
+            return new MethodHandle(readFieldSignature(), handleKind, type);
+          }
+        case CONST_METHODTYPE:
+          {
+            final List<Type> parameterTypes = readTypes();
+            return JavaJimple.getInstance().newMethodType(parameterTypes, readType());
+          }
+        case REF_STATICFIELD:
+          return new JStaticFieldRef(readFieldSignature());
+        case REF_INSTANCEFIELD:
+          {
+            final Local base = (Local) readValue();
+            return new JInstanceFieldRef(base, readFieldSignature());
+          }
+        case REF_ARRAY:
+          {
+            final Local base = (Local) readValue();
+            return new JArrayRef(base, (Immediate) readValue());
+          }
+        case REF_PARAMETER:
+          {
+            final Type type = readType();
+            return new JParameterRef(type, readVarInt());
+          }
+        case REF_THIS:
+          return new JThisRef((ClassType) readType());
+        case REF_CAUGHTEXCEPTION:
+          return new JCaughtExceptionRef(readType());
+        case EXPR_CAST:
+          {
+            final Immediate op = (Immediate) readValue();
+            return new JCastExpr(op, readType());
+          }
+        case EXPR_INSTANCEOF:
+          {
+            final Immediate op = (Immediate) readValue();
+            return new JInstanceOfExpr(op, readType());
+          }
+        case EXPR_NEW:
+          return new JNewExpr((ClassType) readType());
+        case EXPR_NEWARRAY:
+          {
+            final Type baseType = readType();
+            return new JNewArrayExpr(baseType, (Immediate) readValue(), identifierFactory);
+          }
+        case EXPR_NEWMULTIARRAY:
+          {
+            final ArrayType baseType = (ArrayType) readType();
+            return new JNewMultiArrayExpr(baseType, readImmediates());
+          }
+        case EXPR_NEG:
+          return new JNegExpr((Immediate) readValue());
+        case EXPR_LENGTH:
+          return new JLengthExpr((Immediate) readValue());
+        case EXPR_STATICINVOKE:
+          {
+            final MethodSignature signature = readMethodSignature();
+            return new JStaticInvokeExpr(signature, readImmediates());
+          }
+        case EXPR_SPECIALINVOKE:
+          {
+            final Local base = (Local) readValue();
+            final MethodSignature signature = readMethodSignature();
+            return new JSpecialInvokeExpr(base, signature, readImmediates());
+          }
+        case EXPR_VIRTUALINVOKE:
+          {
+            final Local base = (Local) readValue();
+            final MethodSignature signature = readMethodSignature();
+            return new JVirtualInvokeExpr(base, signature, readImmediates());
+          }
+        case EXPR_INTERFACEINVOKE:
+          {
+            final Local base = (Local) readValue();
+            final MethodSignature signature = readMethodSignature();
+            return new JInterfaceInvokeExpr(base, signature, readImmediates());
+          }
+        case EXPR_DYNAMICINVOKE:
+          {
+            final MethodSignature bootstrapSignature = readMethodSignature();
+            final List<Immediate> bootstrapArgs = readImmediates();
+            final int tag = readSignedVarInt();
+            final MethodSignature signature = readMethodSignature();
+            return new JDynamicInvokeExpr(
+                bootstrapSignature, bootstrapArgs, signature, tag, readImmediates());
+          }
+        default:
+          if (kind >= EXPR_BINOP && kind < EXPR_BINOP + BINOPS.size()) {
+            final Immediate op1 = (Immediate) readValue();
+            final Immediate op2 = (Immediate) readValue();
+            return newBinopExpr(BINOPS.get(kind - EXPR_BINOP), op1, op2);
+          }
+          throw new IOException("Unknown Value kind: " + kind);
+      }
+    }
+
+    @Nonnull
+    private static AbstractBinopExpr newBinopExpr(
+        @Nonnull Class<? extends AbstractBinopExpr> exprClass,
+        @Nonnull Immediate op1,
+        @Nonnull Immediate op2) {
+      if (exprClass == JAddExpr.class) {
+        return Jimple.newAddExpr(op1, op2);
+      } else if (exprClass == JAndExpr.class) {
+        return Jimple.newAndExpr(op1, op2);
+      } else if (exprClass == JCmpExpr.class) {
+        return Jimple.newCmpExpr(op1, op2);
+      } else if (exprClass == JCmpgExpr.class) {
+        return Jimple.newCmpgExpr(op1, op2);
+      } else if (exprClass == JCmplExpr.class) {
+        return Jimple.newCmplExpr(op1, op2);
+      } else if (exprClass == JDivExpr.class) {
+        return Jimple.newDivExpr(op1, op2);
+      } else if (exprClass == JEqExpr.class) {
+        return Jimple.newEqExpr(op1, op2);
+      } else if (exprClass == JGeExpr.class) {
+        return Jimple.newGeExpr(op1, op2);
+      } else if (exprClass == JGtExpr.class) {
+        return Jimple.newGtExpr(op1, op2);
+      } else if (exprClass == JLeExpr.class) {
+        return Jimple.newLeExpr(op1, op2);
+      } else if (exprClass == JLtExpr.class) {
+        return Jimple.newLtExpr(op1, op2);
+      } else if (exprClass == JMulExpr.class) {
+        return Jimple.newMulExpr(op1, op2);
+      } else if (exprClass == JNeExpr.class) {
+        return Jimple.newNeExpr(op1, op2);
+      } else if (exprClass == JOrExpr.class) {
+        return Jimple.newOrExpr(op1, op2);
+      } else if (exprClass == JRemExpr.class) {
+        return Jimple.newRemExpr(op1, op2);
+      } else if (exprClass == JShlExpr.class) {
+        return Jimple.newShlExpr(op1, op2);
+      } else if (exprClass == JShrExpr.class) {
+        return Jimple.newShrExpr(op1, op2);
+      } else if (exprClass == JSubExpr.class) {
+        return Jimple.newSubExpr(op1, op2);
+      } else if (exprClass == JUshrExpr.class) {
+        return Jimple.newUshrExpr(op1, op2);
+      } else {
+        return Jimple.newXorExpr(op1, op2);
+      }
+    }
+
+    @Nonnull
+    private List<Immediate> readImmediates() throws IOException {
+      final int size = readVarInt();
+      final List<Immediate> immediates = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        immediates.add((Immediate) readValue());
+      }
+      return immediates;
+    }
+
+    @Nonnull
+    private MethodSignature readMethodSignature() throws IOException {
+      final ClassType declClassType = identifierFactory.getClassType(readString());
+      final String name = readString();
+      final List<Type> parameterTypes = readTypes();
+      return identifierFactory.getMethodSignature(declClassType, name, readType(), parameterTypes);
+    }
+
+    @Nonnull
+    private FieldSignature readFieldSignature() throws IOException {
+      final ClassType declClassType = identifierFactory.getClassType(readString());
+      final String name = readString();
+      return identifierFactory.getFieldSignature(name, declClassType, readType());
+    }
+
+    @Nonnull
+    private List<Type> readTypes() throws IOException {
+      final int size = readVarInt();
+      final List<Type> types = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        types.add(readType());
+      }
+      return types;
+    }
+
+    @Nonnull
+    private Type readType() throws IOException {
+      final int kind = in.readUnsignedByte();
+      switch (kind) {
+        case TYPE_CLASS:
+          return identifierFactory.getClassType(readString());
+        case TYPE_ARRAY:
+          {
+            final Type baseType = readType();
+            return identifierFactory.getArrayType(baseType, readVarInt());
+          }
+        case TYPE_NULL:
+          return NullType.getInstance();
+        case TYPE_VOID:
+          return VoidType.getInstance();
+        case TYPE_UNKNOWN:
+          return UnknownType.getInstance();
+        default:
+          if (kind >= TYPE_PRIMITIVE && kind < TYPE_PRIMITIVE + PRIMITIVES.size()) {
+            return PRIMITIVES.get(kind - TYPE_PRIMITIVE);
+          }
+          throw new IOException("Unknown Type kind: " + kind);
+      }
+    }
+
+    @Nonnull
+    private String readString() throws IOException {
+      final int idx = readVarInt();
+      if (idx < strings.size()) {
+        return strings.get(idx);
+      }
+      final byte[] bytes = new byte[readVarInt()];
+      in.readFully(bytes);
+      final String str = new String(bytes, StandardCharsets.UTF_8);
+      strings.add(str);
+      return str;
+    }
+
+    private int readSignedVarInt() throws IOException {
+      final int value = readVarInt();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readVarInt() throws IOException {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        final int b = in.readUnsignedByte();
+        value |= (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("Malformed varint.");
+    }
+  }
+}
@@ -0,0 +1,381 @@
+package sootup.java.bytecode.frontend;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.io.ByteStreams;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.IdentifierFactory;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+
+/**
+ * Persists fully intercepted {@link Body}s of an archive on disk so that subsequent analysis runs
+ * can skip the bytecode to Jimple conversion and the {@link BodyInterceptor}s.
+ *
+ * <p>There is one cache file per archive and interceptor configuration: its name is derived from
+ * the SHA-256 of the archive contents, the {@link BodyInterceptor#getCacheKey() cache keys} of the
+ * applied BodyInterceptors and the encoding version - so a modified archive or a different
+ * interceptor chain never sees stale bodies. Inside the file the bodies are indexed by their {@link
+ * MethodSignature}. The file is memory-mapped when it is opened and entries are only decoded when
+ * they are requested.
+ *
+ * <p>New bodies are kept in memory until {@link #flush()} (or {@link #close()}) writes them - plus
+ * the already persisted ones - into a new cache file which atomically replaces the old one.
+ *
+ * <p>If one of the interceptors has no cache key, e.g. a lambda or an interceptor with options that
+ * does not override {@link BodyInterceptor#getCacheKey()}, the cache is disabled: every body is
+ * converted from bytecode and nothing is persisted.
+ */
+public class PersistentBodyCache implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(PersistentBodyCache.class);
+
+  private static final int MAGIC = 0x4A424331; // "JBC1"
+
+  /** null if the cache is disabled. */
+  @Nullable private final Path cacheFile;
+
+  /** persisted bodies: the memory mapped cache file and the index into it. */
+  @Nonnull private volatile Snapshot snapshot;
+
+  /** bodies which are not persisted yet. */
+  @Nonnull private final Map<String, byte[]> pending = new ConcurrentHashMap<>();
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  private volatile boolean verifyBodies = false;
+
+  public PersistentBodyCache(
+      @Nonnull Path cacheDirectory,
+      @Nonnull Path archive,
+      @Nonnull List<BodyInterceptor> bodyInterceptors)
+      throws IOException {
+    final Optional<String> key = computeKey(archive, bodyInterceptors);
+    if (key.isPresent()) {
+      Files.createDirectories(cacheDirectory);
+      this.cacheFile = cacheDirectory.resolve(archive.getFileName() + "-" + key.get() + ".bodies");
+      this.snapshot = Snapshot.load(cacheFile);
+    } else {
+      logger.info("Body cache for {} is disabled: an interceptor has no cache key.", archive);
+      this.cacheFile = null;
+      this.snapshot = Snapshot.EMPTY;
+    }
+  }
+
+  /**
+   * @return the hex encoded SHA-256 of the archives contents, the cache keys of the interceptors
+   *     and the encoding version, or Optional.empty() if an interceptor has no cache key.
+   */
+  @Nonnull
+  public static Optional<String> computeKey(
+      @Nonnull Path archive, @Nonnull List<BodyInterceptor> bodyInterceptors) throws IOException {
+    final List<String> interceptorKeys = new ArrayList<>(bodyInterceptors.size());
+    for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
+      final Optional<String> interceptorKey = bodyInterceptor.getCacheKey();
+      if (!interceptorKey.isPresent()) {
+        return Optional.empty();
+      }
+      interceptorKeys.add(interceptorKey.get());
+    }
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    try (InputStream in = Files.newInputStream(archive)) {
+      final byte[] buffer = new byte[64 * 1024];
+      int read;
+      while ((read = in.read(buffer)) > 0) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    for (String interceptorKey : interceptorKeys) {
+      digest.update(interceptorKey.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+    }
+    digest.update((byte) JimpleBodyCodec.FORMAT_VERSION);
+
+    final StringBuilder sb = new StringBuilder();
+    for (byte b : digest.digest()) {
+      sb.append(String.format("%02x", b));
+    }
+    return Optional.of(sb.toString());
+  }
+
+  /** @return the cache file, or null if the cache is disabled. */
+  @Nullable
+  public Path getCacheFile() {
+    return cacheFile;
+  }
+
+  public boolean isEnabled() {
+    return cacheFile != null;
+  }
+
+  /**
+   * Decode every body again when it is added and only cache it if it reproduces the exact same
+   * Jimple. This doubles the cost of adding a body and is meant for debugging the encoding.
+   */
+  public void setVerifyBodies(boolean verifyBodies) {
+    this.verifyBodies = verifyBodies;
+  }
+
+  /**
+   * @return the cached body of the method with the given signature or Optional.empty() if it is not
+   *     cached (or the entry can not be read).
+   */
+  @Nonnull
+  public Optional<Body> getBody(
+      @Nonnull MethodSignature signature, @Nonnull IdentifierFactory identifierFactory) {
+    final String key = signature.toString();
+    byte[] compressed = pending.get(key);
+    if (compressed == null) {
+      compressed = snapshot.get(key);
+    }
+    if (compressed == null) {
+      missCount.incrementAndGet();
+      return Optional.empty();
+    }
+    try {
+      final Body body = JimpleBodyCodec.decode(inflate(compressed), signature, identifierFactory);
+      hitCount.incrementAndGet();
+      return Optional.of(body);
+    } catch (Exception e) {
+      logger.warn("Could not read the cached body of " + signature + " from " + cacheFile, e);
+      missCount.incrementAndGet();
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Adds the given body to the cache. Bodies which can not be encoded are not cached - they are
+   * converted from bytecode in every run. With {@link #setVerifyBodies(boolean)} the same holds for
+   * bodies which do not reproduce the exact same Jimple when they are decoded again.
+   *
+   * @return whether the body was added.
+   */
+  public boolean putBody(@Nonnull Body body, @Nonnull IdentifierFactory identifierFactory) {
+    if (cacheFile == null) {
+      return false;
+    }
+    final byte[] encoded;
+    try {
+      encoded = JimpleBodyCodec.encode(body);
+      if (verifyBodies) {
+        final Body decoded =
+            JimpleBodyCodec.decode(encoded, body.getMethodSignature(), identifierFactory);
+        if (!decoded.toString().equals(body.toString())) {
+          logger.debug(
+              "Body of {} does not survive the roundtrip - not caching it.",
+              body.getMethodSignature());
+          return false;
+        }
+      }
+    } catch (Exception e) {
+      logger.debug("Body of {} can not be cached: {}", body.getMethodSignature(), e.getMessage());
+      return false;
+    }
+    pending.put(body.getMethodSignature().toString(), deflate(encoded));
+    return true;
+  }
+
+  /** @return the number of cached bodies - persisted and not yet persisted. */
+  public int size() {
+    final Snapshot current = snapshot;
+    int size = current.index.size();
+    for (String key : pending.keySet()) {
+      if (!current.index.containsKey(key)) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /** Writes the bodies that were added since the last flush to the cache file. */
+  public synchronized void flush() throws IOException {
+    if (cacheFile == null || pending.isEmpty()) {
+      return;
+    }
+    final Snapshot current = snapshot;
+    final Map<String, byte[]> toWrite = new LinkedHashMap<>(pending);
+    final List<String> keys = new ArrayList<>(current.index.keySet());
+    keys.removeAll(toWrite.keySet());
+    keys.addAll(toWrite.keySet());
+
+    final Path tmpFile =
+        Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(JimpleBodyCodec.FORMAT_VERSION);
+        out.writeInt(keys.size());
+        final List<byte[]> entries = new ArrayList<>(keys.size());
+        for (String key : keys) {
+          final byte[] entry = toWrite.containsKey(key) ? toWrite.get(key) : current.get(key);
+          entries.add(entry);
+          final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+          out.writeInt(keyBytes.length);
+          out.write(keyBytes);
+          out.writeInt(entry.length);
+        }
+        for (byte[] entry : entries) {
+          out.write(entry);
+        }
+      }
+      try {
+        Files.move(
+            tmpFile,
+            cacheFile,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+
+    snapshot = Snapshot.load(cacheFile);
+    toWrite.forEach(pending::remove);
+  }
+
+  /** flushes the not yet persisted bodies. */
+  @Override
+  public void close() throws IOException {
+    flush();
+  }
+
+  @Nonnull
+  private static byte[] deflate(@Nonnull byte[] data) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 2 + 16);
+    try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+      out.write(data);
+    } catch (IOException e) {
+      // writes into memory
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Nonnull
+  private static byte[] inflate(@Nonnull byte[] data) throws IOException {
+    try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+      return ByteStreams.toByteArray(in);
+    }
+  }
+
+  /** an immutable view on a cache file. */
+  private static class Snapshot {
+    private static final Snapshot EMPTY = new Snapshot(ByteBuffer.allocate(0), new HashMap<>());
+
+    @Nonnull private final ByteBuffer buffer;
+
+    /** key -&gt; offset in the upper and length in the lower 32 bits. */
+    @Nonnull private final Map<String, Long> index;
+
+    private Snapshot(@Nonnull ByteBuffer buffer, @Nonnull Map<String, Long> index) {
+      this.buffer = buffer;
+      this.index = index;
+    }
+
+    @Nonnull
+    static Snapshot load(@Nonnull Path file) {
+      if (!Files.exists(file)) {
+        return EMPTY;
+      }
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        // the mapping stays valid after the channel is closed
+        final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (buffer.remaining() < 12
+            || buffer.getInt() != MAGIC
+            || buffer.getInt() != JimpleBodyCodec.FORMAT_VERSION) {
+          logger.warn("Ignoring incompatible body cache file " + file);
+          return EMPTY;
+        }
+        final int entryCount = buffer.getInt();
+        final String[] keys = new String[entryCount];
+        final int[] lengths = new int[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+          final byte[] keyBytes = new byte[buffer.getInt()];
+          buffer.get(keyBytes);
+          keys[i] = new String(keyBytes, StandardCharsets.UTF_8);
+          lengths[i] = buffer.getInt();
+        }
+        final Map<String, Long> index = new HashMap<>(entryCount * 2);
+        long offset = buffer.position();
+        for (int i = 0; i < entryCount; i++) {
+          index.put(keys[i], (offset << 32) | lengths[i]);
+          offset += lengths[i];
+        }
+        if (offset > buffer.limit()) {
+          logger.warn("Ignoring truncated body cache file " + file);
+          return EMPTY;
+        }
+        return new Snapshot(buffer, index);
+      } catch (IOException | RuntimeException e) {
+        logger.warn("Ignoring unreadable body cache file " + file, e);
+        return EMPTY;
+      }
+    }
+
+    byte[] get(@Nonnull String key) {
+      final Long entry = index.get(key);
+      if (entry == null) {
+        return null;
+      }
+      final byte[] data = new byte[(int) (entry & 0xFFFFFFFFL)];
+      // duplicate() as position() is not thread-safe
+      final ByteBuffer view = buffer.duplicate();
+      view.position((int) (entry >>> 32));
+      view.get(data);
+      return data;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package sootup.java.bytecode.frontend;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+import sootup.core.frontend.BodySource;
+import sootup.core.model.Body;
+import sootup.core.model.MethodModifier;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * A BodySource which loads the Body from a {@link PersistentBodyCache} and falls back to the
+ * conversion of the bytecode (and stores the result) if the body is not cached yet.
+ */
+class PersistentCachedBodySource implements BodySource {
+
+  @Nonnull private final AsmMethodSource delegate;
+  @Nonnull private final PersistentBodyCache persistentBodyCache;
+
+  PersistentCachedBodySource(
+      @Nonnull AsmMethodSource delegate, @Nonnull PersistentBodyCache persistentBodyCache) {
+    this.delegate = delegate;
+    this.persistentBodyCache = persistentBodyCache;
+  }
+
+  @Nonnull
+  AsmMethodSource getDelegate() {
+    return delegate;
+  }
+
+  @Nonnull
+  @Override
+  public Body resolveBody(@Nonnull Iterable<MethodModifier> modifiers) {
+    final IdentifierFactory identifierFactory = delegate.getView().getIdentifierFactory();
+    final Optional<Body> cachedBody =
+        persistentBodyCache.getBody(delegate.getSignature(), identifierFactory);
+    if (cachedBody.isPresent()) {
+      return cachedBody.get();
+    }
+    final Body body = delegate.resolveBody(modifiers);
+    persistentBodyCache.putBody(body, identifierFactory);
+    return body;
+  }
+
+  @Override
+  public Object resolveAnnotationsDefaultValue() {
+    return delegate.resolveAnnotationsDefaultValue();
+  }
+
+  @Nonnull
+  @Override
+  public MethodSignature getSignature() {
+    return delegate.getSignature();
+  }
+}
@@ -93,14 +93,18 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
     super(path, srcType, bodyInterceptors, ignoredPaths);
   }
 
+  @Nonnull
+  protected AsmJavaClassProvider createClassProvider(@Nonnull View view) {
+    return new AsmJavaClassProvider(view);
+  }
+
   @Override
   @Nonnull
   public Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
     try {
       FileSystem fs = fileSystemCache.get(path);
       final Path archiveRoot = fs.getPath("/");
-      return getClassSourceInternal(
-          (JavaClassType) type, archiveRoot, new AsmJavaClassProvider(view));
+      return getClassSourceInternal((JavaClassType) type, archiveRoot, createClassProvider(view));
     } catch (ExecutionException e) {
       throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
     }
@@ -112,8 +116,7 @@ public class ArchiveBasedAnalysisInputLocation extends PathBasedAnalysisInputLoc
     try {
       FileSystem fs = fileSystemCache.get(path);
       final Path archiveRoot = fs.getPath("/");
-      return walkDirectory(
-          archiveRoot, view.getIdentifierFactory(), new AsmJavaClassProvider(view));
+      return walkDirectory(archiveRoot, view.getIdentifierFactory(), createClassProvider(view));
     } catch (ExecutionException e) {
       throw new RuntimeException("Failed to retrieve file system from cache for " + path, e);
     }
@@ -0,0 +1,84 @@
+package sootup.java.bytecode.inputlocation;
+
+/*-
+ * #%L
+ * Soot
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.views.View;
+import sootup.java.bytecode.frontend.AsmJavaClassProvider;
+import sootup.java.bytecode.frontend.PersistentBodyCache;
+import sootup.java.core.interceptors.BytecodeBodyInterceptors;
+
+/**
+ * An archive input location whose (intercepted) method bodies are persisted in a {@link
+ * PersistentBodyCache} in the given cache directory. Analysis runs which use the same, unchanged
+ * archive with the same interceptors load the bodies from the cache instead of converting the
+ * bytecode again. Call {@link #close()} after the analysis to persist the bodies resolved in this
+ * run.
+ */
+public class CachedArchiveAnalysisInputLocation extends ArchiveBasedAnalysisInputLocation
+    implements Closeable {
+
+  @Nonnull private final PersistentBodyCache persistentBodyCache;
+
+  public CachedArchiveAnalysisInputLocation(
+      @Nonnull Path path, @Nonnull SourceType srcType, @Nonnull Path cacheDirectory) {
+    this(path, srcType, BytecodeBodyInterceptors.Default.getBodyInterceptors(), cacheDirectory);
+  }
+
+  public CachedArchiveAnalysisInputLocation(
+      @Nonnull Path path,
+      @Nonnull SourceType srcType,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      @Nonnull Path cacheDirectory) {
+    super(path, srcType, bodyInterceptors, Collections.emptyList());
+    try {
+      this.persistentBodyCache = new PersistentBodyCache(cacheDirectory, path, bodyInterceptors);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not open the body cache for " + path, e);
+    }
+  }
+
+  @Nonnull
+  public PersistentBodyCache getPersistentBodyCache() {
+    return persistentBodyCache;
+  }
+
+  @Nonnull
+  @Override
+  protected AsmJavaClassProvider createClassProvider(@Nonnull View view) {
+    return new AsmJavaClassProvider(view, persistentBodyCache);
+  }
+
+  /** persists the bodies which were resolved since the last call. */
+  @Override
+  public void close() throws IOException {
+    persistentBodyCache.close();
+  }
+}
@@ -0,0 +1,305 @@
+package sootup.java.bytecode.inputlocation;
+
+/*-
+ * #%L
+ * Soot
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.IdentifierFactory;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.bytecode.frontend.AsmJavaClassProvider;
+import sootup.java.core.JavaModuleIdentifierFactory;
+import sootup.java.core.JavaSootClassSource;
+import sootup.java.core.interceptors.BytecodeBodyInterceptors;
+
+/**
+ * An input location for a jar/zip archive which does not use a zip {@link
+ * java.nio.file.FileSystem}: the archive is memory-mapped once, its central directory is indexed by
+ * class name and the (inflated) contents of a class file are passed directly to the ASM
+ * ClassReader. No file descriptor is kept open after the construction.
+ *
+ * <p>Entries below META-INF/ (e.g. the versioned classes of a multi-release jar) and module-info
+ * are not indexed. Archives larger than 2GB are not supported.
+ */
+public class MappedArchiveAnalysisInputLocation extends PathBasedAnalysisInputLocation {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(MappedArchiveAnalysisInputLocation.class);
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int END_OF_CENTRAL_DIR_SIGNATURE = 0x06054b50;
+  private static final int ZIP64_END_OF_CENTRAL_DIR_SIGNATURE = 0x06064b50;
+  private static final int ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIGNATURE = 0x07064b50;
+  private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+  private static final int METHOD_STORED = 0;
+  private static final int METHOD_DEFLATED = 8;
+
+  @Nonnull private final ByteBuffer archive;
+
+  /** fully qualified class name -&gt; index into the entry arrays; in central directory order. */
+  @Nonnull private final Map<String, Integer> classIndex;
+
+  @Nonnull private final long[] localHeaderOffsets;
+  @Nonnull private final int[] compressedSizes;
+  @Nonnull private final int[] uncompressedSizes;
+  @Nonnull private final boolean[] deflated;
+
+  public MappedArchiveAnalysisInputLocation(@Nonnull Path path, @Nonnull SourceType srcType) {
+    this(path, srcType, BytecodeBodyInterceptors.Default.getBodyInterceptors());
+  }
+
+  public MappedArchiveAnalysisInputLocation(
+      @Nonnull Path path,
+      @Nonnull SourceType srcType,
+      @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    super(path, srcType, bodyInterceptors);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("The archive '" + path + "' is larger than 2GB.");
+      }
+      // the mapping stays valid after the channel is closed
+      archive =
+          channel
+              .map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+              .order(ByteOrder.LITTLE_ENDIAN);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Could not map the archive '" + path + "'.", e);
+    }
+
+    final ByteBuffer buffer = archive.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    final int endOfCentralDir = findEndOfCentralDirectory(buffer);
+    long entryCount = buffer.getShort(endOfCentralDir + 10) & 0xFFFF;
+    long centralDirOffset = buffer.getInt(endOfCentralDir + 16) & 0xFFFFFFFFL;
+    final int locator = endOfCentralDir - 20;
+    if (locator >= 0 && buffer.getInt(locator) == ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIGNATURE) {
+      final int zip64EndOfCentralDir = toIntExact(buffer.getLong(locator + 8));
+      if (buffer.getInt(zip64EndOfCentralDir) != ZIP64_END_OF_CENTRAL_DIR_SIGNATURE) {
+        throw new IllegalArgumentException("Invalid zip64 central directory in '" + path + "'.");
+      }
+      entryCount = buffer.getLong(zip64EndOfCentralDir + 32);
+      centralDirOffset = buffer.getLong(zip64EndOfCentralDir + 48);
+    }
+
+    final int capacity = toIntExact(entryCount);
+    final Map<String, Integer> index = new LinkedHashMap<>(capacity * 4 / 3 + 1);
+    final long[] offsets = new long[capacity];
+    final int[] compressed = new int[capacity];
+    final int[] uncompressed = new int[capacity];
+    final boolean[] isDeflated = new boolean[capacity];
+
+    final String moduleInfoFilename = JavaModuleIdentifierFactory.MODULE_INFO_FILE + ".class";
+    int pos = toIntExact(centralDirOffset);
+    for (long i = 0; i < entryCount; i++) {
+      if (buffer.getInt(pos) != CENTRAL_HEADER_SIGNATURE) {
+        throw new IllegalArgumentException("Invalid central directory in '" + path + "'.");
+      }
+      final int method = buffer.getShort(pos + 10) & 0xFFFF;
+      long compressedSize = buffer.getInt(pos + 20) & 0xFFFFFFFFL;
+      long uncompressedSize = buffer.getInt(pos + 24) & 0xFFFFFFFFL;
+      final int nameLength = buffer.getShort(pos + 28) & 0xFFFF;
+      final int extraLength = buffer.getShort(pos + 30) & 0xFFFF;
+      final int commentLength = buffer.getShort(pos + 32) & 0xFFFF;
+      long localHeaderOffset = buffer.getInt(pos + 42) & 0xFFFFFFFFL;
+
+      final byte[] nameBytes = new byte[nameLength];
+      buffer.position(pos + 46);
+      buffer.get(nameBytes);
+      final String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+      if (uncompressedSize == 0xFFFFFFFFL
+          || compressedSize == 0xFFFFFFFFL
+          || localHeaderOffset == 0xFFFFFFFFL) {
+        // the actual values are stored in the zip64 extra field - in this order
+        int extra = pos + 46 + nameLength;
+        final int extraEnd = extra + extraLength;
+        while (extra + 4 <= extraEnd) {
+          final int id = buffer.getShort(extra) & 0xFFFF;
+          final int size = buffer.getShort(extra + 2) & 0xFFFF;
+          if (id == ZIP64_EXTRA_FIELD_ID) {
+            int field = extra + 4;
+            if (uncompressedSize == 0xFFFFFFFFL) {
+              uncompressedSize = buffer.getLong(field);
+              field += 8;
+            }
+            if (compressedSize == 0xFFFFFFFFL) {
+              compressedSize = buffer.getLong(field);
+              field += 8;
+            }
+            if (localHeaderOffset == 0xFFFFFFFFL) {
+              localHeaderOffset = buffer.getLong(field);
+            }
+            break;
+          }
+          extra += 4 + size;
+        }
+      }
+      pos += 46 + nameLength + extraLength + commentLength;
+
+      if (!name.endsWith(".class")
+          || name.startsWith("META-INF/")
+          || name.endsWith(moduleInfoFilename)
+          || (method != METHOD_STORED && method != METHOD_DEFLATED)) {
+        continue;
+      }
+      final int idx = index.size();
+      final String className =
+          name.substring(0, name.length() - ".class".length()).replace('/', '.');
+      if (index.putIfAbsent(className, idx) != null) {
+        continue;
+      }
+      offsets[idx] = localHeaderOffset;
+      compressed[idx] = toIntExact(compressedSize);
+      uncompressed[idx] = toIntExact(uncompressedSize);
+      isDeflated[idx] = method == METHOD_DEFLATED;
+    }
+
+    classIndex = index;
+    localHeaderOffsets = Arrays.copyOf(offsets, index.size());
+    compressedSizes = Arrays.copyOf(compressed, index.size());
+    uncompressedSizes = Arrays.copyOf(uncompressed, index.size());
+    deflated = Arrays.copyOf(isDeflated, index.size());
+  }
+
+  private int findEndOfCentralDirectory(@Nonnull ByteBuffer buffer) {
+    // the record has 22 bytes plus a comment of at most 65535 bytes
+    final int minPos = Math.max(0, buffer.limit() - 22 - 0xFFFF);
+    for (int pos = buffer.limit() - 22; pos >= minPos; pos--) {
+      if (buffer.getInt(pos) == END_OF_CENTRAL_DIR_SIGNATURE) {
+        return pos;
+      }
+    }
+    throw new IllegalArgumentException("'" + path + "' is not a zip archive.");
+  }
+
+  private int toIntExact(long value) {
+    if (value < 0 || value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Unsupported zip entry in '" + path + "'.");
+    }
+    return (int) value;
+  }
+
+  /** @return the number of indexed class files. */
+  public int getClassCount() {
+    return classIndex.size();
+  }
+
+  /** @return the contents of the class file with the given index into the entry arrays. */
+  @Nonnull
+  byte[] readClassFile(int idx) throws DataFormatException {
+    final ByteBuffer buffer = archive.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    final int localHeader = (int) localHeaderOffsets[idx];
+    if (buffer.getInt(localHeader) != LOCAL_HEADER_SIGNATURE) {
+      throw new DataFormatException("Invalid local file header at " + localHeader);
+    }
+    // name and extra field lengths can differ from the ones in the central directory
+    final int nameLength = buffer.getShort(localHeader + 26) & 0xFFFF;
+    final int extraLength = buffer.getShort(localHeader + 28) & 0xFFFF;
+    buffer.position(localHeader + 30 + nameLength + extraLength);
+
+    if (!deflated[idx]) {
+      final byte[] classBytes = new byte[uncompressedSizes[idx]];
+      buffer.get(classBytes);
+      return classBytes;
+    }
+
+    // the inflater needs an extra dummy byte when the zlib header is omitted (nowrap)
+    final byte[] compressed = new byte[compressedSizes[idx] + 1];
+    buffer.get(compressed, 0, compressedSizes[idx]);
+    final byte[] classBytes = new byte[uncompressedSizes[idx]];
+    final Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(compressed);
+      int length = 0;
+      while (length < classBytes.length) {
+        final int read = inflater.inflate(classBytes, length, classBytes.length - length);
+        if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+          break;
+        }
+        length += read;
+      }
+      if (length != classBytes.length) {
+        throw new DataFormatException("Truncated entry at " + localHeader);
+      }
+      return classBytes;
+    } finally {
+      inflater.end();
+    }
+  }
+
+  @Nonnull
+  protected AsmJavaClassProvider createClassProvider(@Nonnull View view) {
+    return new AsmJavaClassProvider(view);
+  }
+
+  @Nonnull
+  private Optional<JavaSootClassSource> createClassSource(
+      @Nonnull AsmJavaClassProvider classProvider, @Nonnull ClassType type, int idx) {
+    final byte[] classBytes;
+    try {
+      classBytes = readClassFile(idx);
+    } catch (DataFormatException e) {
+      logger.warn("Could not read " + type + " from " + path, e);
+      return Optional.empty();
+    }
+    return classProvider
+        .createClassSource(this, path, type, classBytes)
+        .map(src -> (JavaSootClassSource) src);
+  }
+
+  @Override
+  @Nonnull
+  public Optional<JavaSootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
+    final Integer idx = classIndex.get(type.getFullyQualifiedName());
+    if (idx == null) {
+      return Optional.empty();
+    }
+    return createClassSource(createClassProvider(view), type, idx);
+  }
+
+  @Override
+  @Nonnull
+  public Collection<JavaSootClassSource> getClassSources(@Nonnull View view) {
+    final IdentifierFactory identifierFactory = view.getIdentifierFactory();
+    final AsmJavaClassProvider classProvider = createClassProvider(view);
+    final List<JavaSootClassSource> classSources = new ArrayList<>(classIndex.size());
+    classIndex.forEach(
+        (className, idx) ->
+            createClassSource(classProvider, identifierFactory.getClassType(className), idx)
+                .ifPresent(classSources::add));
+    return classSources;
+  }
+}
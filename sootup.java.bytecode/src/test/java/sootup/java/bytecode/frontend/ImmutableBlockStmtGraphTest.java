@@ -0,0 +1,115 @@
+package sootup.java.bytecode.frontend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import categories.TestCategories;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.graph.ImmutableBlockStmtGraph;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.interceptors.BytecodeBodyInterceptors;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class ImmutableBlockStmtGraphTest {
+
+  private static final String CLASS_PATH =
+      "../shared-test-resources/java-miniapps/MiniApp.jar"
+          + File.pathSeparator
+          + "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar";
+
+  private static void assertSameGraph(StmtGraph<?> expected, ImmutableBlockStmtGraph actual) {
+    assertEquals(expected.getStartingStmt(), actual.getStartingStmt());
+    assertEquals(expected.getStmts(), actual.getStmts());
+    assertEquals(new HashSet<>(expected.getNodes()), new HashSet<>(actual.getNodes()));
+    assertEquals(expected.getBlocks().size(), actual.getBlocks().size());
+    assertEquals(expected.buildTraps(), actual.buildTraps());
+    assertEquals(expected, actual);
+    assertEquals(actual, expected);
+
+    assertEquals(expected.getNodes().size(), actual.size());
+    for (int idx = 0; idx < actual.size(); idx++) {
+      Stmt stmt = actual.getStmt(idx);
+      assertEquals(idx, actual.indexOf(stmt));
+      assertTrue(actual.containsNode(stmt));
+
+      assertEquals(expected.successors(stmt), actual.successors(stmt));
+      assertEquals(expected.predecessors(stmt), actual.predecessors(stmt));
+      assertEquals(expected.exceptionalPredecessors(stmt), actual.exceptionalPredecessors(stmt));
+      assertEquals(expected.exceptionalSuccessors(stmt), actual.exceptionalSuccessors(stmt));
+      assertEquals(expected.inDegree(stmt), actual.inDegree(stmt));
+      assertEquals(expected.outDegree(stmt), actual.outDegree(stmt));
+      assertEquals(expected.getBlockOf(stmt).getStmts(), actual.getBlockOf(stmt).getStmts());
+      assertSame(actual.getBlocks().get(actual.getBlockIndex(idx)), actual.getBlockOf(stmt));
+
+      // index based traversal
+      List<Stmt> successors = new ArrayList<>();
+      for (int i = 0; i < actual.getSuccessorCount(idx); i++) {
+        successors.add(actual.getStmt(actual.getSuccessor(idx, i)));
+      }
+      assertEquals(expected.successors(stmt), successors);
+      List<Stmt> predecessors = new ArrayList<>();
+      for (int i = 0; i < actual.getPredecessorCount(idx); i++) {
+        predecessors.add(actual.getStmt(actual.getPredecessor(idx, i)));
+      }
+      assertEquals(expected.predecessors(stmt), predecessors);
+      List<Stmt> handlers = new ArrayList<>();
+      for (int i = 0; i < actual.getExceptionalSuccessorCount(idx); i++) {
+        handlers.add(actual.getStmt(actual.getExceptionalSuccessor(idx, i)));
+      }
+      assertEquals(new ArrayList<>(actual.exceptionalSuccessors(stmt).values()), handlers);
+      for (Stmt successor : successors) {
+        assertTrue(actual.hasEdgeConnecting(stmt, successor));
+      }
+    }
+  }
+
+  @Test
+  public void testSameAsMutableGraph() {
+    List<StmtGraph<?>> checked = new ArrayList<>();
+    List<BodyInterceptor> interceptors =
+        new ArrayList<>(BytecodeBodyInterceptors.Default.getBodyInterceptors());
+    // compares the final StmtGraph of the BodyBuilder with its immutable copy
+    interceptors.add(
+        (builder, view) -> {
+          ImmutableBlockStmtGraph immutableGraph =
+              new ImmutableBlockStmtGraph(builder.getStmtGraph());
+          assertSameGraph(builder.getStmtGraph(), immutableGraph);
+          checked.add(immutableGraph);
+        });
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                CLASS_PATH, SourceType.Application, interceptors));
+
+    List<SootMethod> methods =
+        view.getClasses()
+            .flatMap(c -> c.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .collect(Collectors.toList());
+    for (SootMethod method : methods) {
+      Body body = method.getBody();
+      StmtGraph<?> graph = body.getStmtGraph();
+      assertTrue(graph instanceof ImmutableBlockStmtGraph);
+      assertSame(body, body.withImmutableStmtGraph());
+
+      // the graph can be modified again via a BodyBuilder
+      MutableBlockStmtGraph copy = new MutableBlockStmtGraph(graph);
+      assertEquals(graph, copy);
+      assertEquals(body.toString(), Body.builder(body, method.getModifiers()).build().toString());
+    }
+    assertEquals(methods.size(), checked.size());
+  }
+}
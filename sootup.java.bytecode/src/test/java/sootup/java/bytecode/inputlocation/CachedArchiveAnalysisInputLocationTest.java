@@ -0,0 +1,126 @@
+package sootup.java.bytecode.inputlocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import categories.TestCategories;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.java.bytecode.frontend.PersistentBodyCache;
+import sootup.java.core.interceptors.Aggregator;
+import sootup.java.core.interceptors.BytecodeBodyInterceptors;
+import sootup.java.core.interceptors.TypeAssigner;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class CachedArchiveAnalysisInputLocationTest {
+
+  private static Map<String, String> resolveBodies(JavaView view) {
+    return view.getClasses()
+        .flatMap(c -> c.getMethods().stream())
+        .filter(SootMethod::hasBody)
+        .collect(Collectors.toMap(m -> m.getSignature().toString(), m -> m.getBody().toString()));
+  }
+
+  @Test
+  public void testWarmStartReproducesBodies() throws IOException {
+    for (String jar :
+        new String[] {
+          "../shared-test-resources/java-miniapps/MiniApp.jar",
+          "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar"
+        }) {
+      Path cacheDir = Files.createTempDirectory("sootup-body-cache");
+      Path path = Paths.get(jar);
+
+      CachedArchiveAnalysisInputLocation coldLocation =
+          new CachedArchiveAnalysisInputLocation(path, SourceType.Application, cacheDir);
+      Map<String, String> expected = resolveBodies(new JavaView(coldLocation));
+      coldLocation.close();
+      PersistentBodyCache coldCache = coldLocation.getPersistentBodyCache();
+      assertEquals(0, coldCache.getHitCount());
+      assertTrue(Files.size(coldCache.getCacheFile()) > 0);
+
+      CachedArchiveAnalysisInputLocation warmLocation =
+          new CachedArchiveAnalysisInputLocation(path, SourceType.Application, cacheDir);
+      PersistentBodyCache warmCache = warmLocation.getPersistentBodyCache();
+      assertEquals(expected.size(), warmCache.size(), jar);
+      assertEquals(expected, resolveBodies(new JavaView(warmLocation)));
+      assertEquals(expected.size(), warmCache.getHitCount());
+      assertEquals(0, warmCache.getMissCount());
+      warmLocation.close();
+
+      try (Stream<Path> files = Files.list(cacheDir)) {
+        files.forEach(p -> p.toFile().delete());
+      }
+      Files.delete(cacheDir);
+    }
+  }
+
+  @Test
+  public void testCacheKeyDependsOnInterceptors() throws IOException {
+    Path path = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+    assertTrue(
+        PersistentBodyCache.computeKey(path, BytecodeBodyInterceptors.Default.getBodyInterceptors())
+            .isPresent());
+    assertNotEquals(
+        PersistentBodyCache.computeKey(
+            path, BytecodeBodyInterceptors.Default.getBodyInterceptors()),
+        PersistentBodyCache.computeKey(path, Collections.emptyList()));
+    assertEquals(
+        PersistentBodyCache.computeKey(path, Collections.emptyList()),
+        PersistentBodyCache.computeKey(path, Collections.emptyList()));
+
+    // the options of an interceptor are part of the key
+    assertNotEquals(
+        PersistentBodyCache.computeKey(path, Collections.singletonList(new TypeAssigner(1))),
+        PersistentBodyCache.computeKey(path, Collections.singletonList(new TypeAssigner(2))));
+    assertEquals(
+        PersistentBodyCache.computeKey(path, Collections.singletonList(new Aggregator(true))),
+        PersistentBodyCache.computeKey(path, Collections.singletonList(new Aggregator(true))));
+    assertNotEquals(
+        PersistentBodyCache.computeKey(path, Collections.singletonList(new Aggregator(true))),
+        PersistentBodyCache.computeKey(path, Collections.singletonList(new Aggregator(false))));
+  }
+
+  @Test
+  public void testInterceptorWithoutCacheKeyDisablesCache() throws IOException {
+    Path path = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+    List<BodyInterceptor> interceptors =
+        new ArrayList<>(BytecodeBodyInterceptors.Default.getBodyInterceptors());
+    interceptors.add((builder, view) -> {});
+    assertFalse(PersistentBodyCache.computeKey(path, interceptors).isPresent());
+
+    Path cacheDir = Files.createTempDirectory("sootup-body-cache");
+    try {
+      CachedArchiveAnalysisInputLocation location =
+          new CachedArchiveAnalysisInputLocation(
+              path, SourceType.Application, interceptors, cacheDir);
+      PersistentBodyCache cache = location.getPersistentBodyCache();
+      assertFalse(cache.isEnabled());
+      assertFalse(resolveBodies(new JavaView(location)).isEmpty());
+      location.close();
+      assertEquals(0, cache.size());
+      assertEquals(0, cache.getHitCount());
+      try (Stream<Path> files = Files.list(cacheDir)) {
+        assertEquals(0, files.count());
+      }
+    } finally {
+      Files.delete(cacheDir);
+    }
+  }
+}
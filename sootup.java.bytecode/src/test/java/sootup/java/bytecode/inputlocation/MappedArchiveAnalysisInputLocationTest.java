@@ -0,0 +1,74 @@
+package sootup.java.bytecode.inputlocation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import categories.TestCategories;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class MappedArchiveAnalysisInputLocationTest {
+
+  private static Map<String, String> resolveBodies(AnalysisInputLocation inputLocation) {
+    JavaView view = new JavaView(inputLocation);
+    return view.getClasses()
+        .flatMap(c -> c.getMethods().stream())
+        .filter(SootMethod::hasBody)
+        .collect(Collectors.toMap(m -> m.getSignature().toString(), m -> m.getBody().toString()));
+  }
+
+  @Test
+  public void testSameClassesAsArchiveBasedInputLocation() {
+    for (String jar :
+        new String[] {
+          "../shared-test-resources/java-miniapps/MiniApp.jar",
+          "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar"
+        }) {
+      Path path = Paths.get(jar);
+      MappedArchiveAnalysisInputLocation mappedLocation =
+          new MappedArchiveAnalysisInputLocation(
+              path, SourceType.Application, Collections.emptyList());
+      ArchiveBasedAnalysisInputLocation archiveLocation =
+          new ArchiveBasedAnalysisInputLocation(
+              path, SourceType.Application, Collections.emptyList());
+
+      Map<String, String> expected = resolveBodies(archiveLocation);
+      assertFalse(expected.isEmpty());
+      assertEquals(expected, resolveBodies(mappedLocation), jar);
+
+      JavaView view = new JavaView(mappedLocation);
+      assertEquals(
+          archiveLocation.getClassSources(view).size(),
+          mappedLocation.getClassSources(view).size(),
+          jar);
+    }
+  }
+
+  @Test
+  public void testGetClassSource() {
+    MappedArchiveAnalysisInputLocation inputLocation =
+        new MappedArchiveAnalysisInputLocation(
+            Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+            SourceType.Application);
+    JavaView view = new JavaView(inputLocation);
+    assertTrue(
+        inputLocation
+            .getClassSource(view.getIdentifierFactory().getClassType("ds.Employee"), view)
+            .isPresent());
+    assertFalse(
+        inputLocation
+            .getClassSource(view.getIdentifierFactory().getClassType("does.not.Exist"), view)
+            .isPresent());
+  }
+}
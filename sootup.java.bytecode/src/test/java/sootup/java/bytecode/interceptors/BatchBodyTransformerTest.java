@@ -0,0 +1,180 @@
+package sootup.java.bytecode.interceptors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import categories.TestCategories;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BatchBodyTransformer;
+import sootup.core.transform.BodyInterceptor;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.interceptors.BytecodeBodyInterceptors;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class BatchBodyTransformerTest {
+
+  private static final String JAR =
+      "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar";
+
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static long countBodies(JavaView view) {
+    return view.getClasses()
+        .flatMap(c -> c.getMethods().stream())
+        .filter(SootMethod::hasBody)
+        .count();
+  }
+
+  @Test
+  public void testTransformBodies() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(JAR));
+    BatchBodyTransformer.Result result = view.transformBodies(m -> true, executor);
+    assertTrue(result.isSuccessful(), result::toString);
+    assertEquals(countBodies(view), result.getTransformedCount());
+
+    BatchBodyTransformer.Result constructors =
+        view.transformBodies(m -> m.getName().equals("<init>"), executor);
+    assertTrue(constructors.getTransformedCount() > 0);
+    assertTrue(constructors.getTransformedCount() < result.getTransformedCount());
+  }
+
+  @Test
+  public void testStreamBodiesWithBackpressure() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(JAR));
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    LongAdder stmts = new LongAdder();
+    BatchBodyTransformer.Result result =
+        view.transformBodies(
+            m -> true,
+            executor,
+            2,
+            (method, body) -> {
+              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              assertEquals(method.getSignature(), body.getMethodSignature());
+              stmts.add(body.getStmts().size());
+              inFlight.decrementAndGet();
+            });
+    assertTrue(result.isSuccessful(), result::toString);
+    assertEquals(countBodies(view), result.getTransformedCount());
+    assertTrue(stmts.sum() > 0);
+    assertTrue(maxInFlight.get() <= 2);
+  }
+
+  @Test
+  public void testFailuresAreIsolated() {
+    List<BodyInterceptor> interceptors =
+        new ArrayList<>(BytecodeBodyInterceptors.Default.getBodyInterceptors());
+    interceptors.add(
+        (builder, view) -> {
+          if (builder.getMethodSignature().getName().equals("toString")) {
+            throw new IllegalStateException("broken interceptor");
+          }
+        });
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(JAR, SourceType.Application, interceptors));
+    long toStringMethods =
+        view.getClasses()
+            .flatMap(c -> c.getMethods().stream())
+            .filter(m -> m.hasBody() && m.getName().equals("toString"))
+            .count();
+    assertTrue(toStringMethods > 0);
+
+    BatchBodyTransformer.Result result =
+        view.transformBodies(m -> true, executor, 3, (method, body) -> {});
+    assertEquals(toStringMethods, result.getFailures().size());
+    assertEquals(countBodies(view) - toStringMethods, result.getTransformedCount());
+    result
+        .getFailures()
+        .forEach(
+            (method, error) -> {
+              assertEquals("toString", method.getName());
+              assertTrue(error instanceof IllegalStateException);
+            });
+
+    // the executor is optional, the batch can also run on the calling thread
+    BatchBodyTransformer.Result sequential =
+        new BatchBodyTransformer(Runnable::run, 1)
+            .transform(
+                view.getClasses()
+                    .flatMap(c -> c.getMethods().stream())
+                    .filter(m -> m.getName().equals("toString")),
+                (method, body) -> {});
+    assertEquals(toStringMethods, sequential.getFailures().size());
+    assertEquals(0, sequential.getTransformedCount());
+  }
+
+  @Test
+  public void testSameMethodResolvedConcurrently() throws Exception {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(JAR));
+    SootMethod method =
+        view.getClasses()
+            .flatMap(c -> c.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .max(Comparator.comparingInt(m -> m.getBody().getStmts().size()))
+            .get();
+    String expected = method.getBodySource().resolveBody(method.getModifiers()).toString();
+
+    // the batch resolves the method on several workers while the view resolves it as well
+    Set<String> bodies = ConcurrentHashMap.newKeySet();
+    Future<Body> viewBody =
+        executor.submit(() -> method.getBodySource().resolveBody(method.getModifiers()));
+    BatchBodyTransformer.Result result =
+        new BatchBodyTransformer(executor, 4)
+            .transform(
+                Collections.nCopies(32, method).stream(),
+                (m, body) -> bodies.add(body.toString()));
+    assertTrue(result.isSuccessful(), result::toString);
+    assertEquals(32, result.getTransformedCount());
+    assertEquals(Collections.singleton(expected), bodies);
+    assertEquals(expected, viewBody.get().toString());
+  }
+
+  @Test
+  public void testErrorsAreReported() {
+    List<BodyInterceptor> interceptors =
+        new ArrayList<>(BytecodeBodyInterceptors.Default.getBodyInterceptors());
+    interceptors.add(
+        (builder, view) -> {
+          if (builder.getMethodSignature().getName().equals("toString")) {
+            throw new AssertionError("broken interceptor");
+          }
+        });
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(JAR, SourceType.Application, interceptors));
+    BatchBodyTransformer.Result result =
+        view.transformBodies(m -> true, executor, 3, (method, body) -> {});
+    assertFalse(result.getFailures().isEmpty());
+    assertEquals(countBodies(view), result.getTransformedCount() + result.getFailures().size());
+    result.getFailures().values().forEach(error -> assertTrue(error instanceof AssertionError));
+  }
+}
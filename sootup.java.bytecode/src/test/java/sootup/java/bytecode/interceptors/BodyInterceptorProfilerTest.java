@@ -0,0 +1,106 @@
+package sootup.java.bytecode.interceptors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import categories.TestCategories;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorMetric;
+import sootup.core.transform.BodyInterceptorProfile;
+import sootup.core.transform.BodyInterceptorProfiler;
+import sootup.core.transform.RunTimeBodyInterceptor;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.interceptors.CopyPropagator;
+import sootup.java.core.interceptors.TypeAssigner;
+import sootup.java.core.views.ConcurrentJavaView;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class BodyInterceptorProfilerTest {
+
+  @Test
+  public void testProfileParallelBodyResolution() {
+    BodyInterceptorProfiler profiler = new BodyInterceptorProfiler(3);
+    List<BodyInterceptor> interceptors =
+        profiler.instrument(Arrays.asList(new TypeAssigner(), new CopyPropagator()));
+    JavaView view =
+        new ConcurrentJavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/java-miniapps/MiniApp.jar",
+                SourceType.Application,
+                interceptors));
+
+    List<SootMethod> methods =
+        view.getClasses()
+            .flatMap(c -> c.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .collect(Collectors.toList());
+    assertTrue(methods.size() > 3);
+    methods.parallelStream().forEach(SootMethod::getBody);
+
+    List<BodyInterceptorProfile> profiles = profiler.getProfiles();
+    assertEquals(2, profiles.size());
+    assertEquals("TypeAssigner", profiles.get(0).getName());
+    assertEquals("CopyPropagator", profiles.get(1).getName());
+    for (BodyInterceptorProfile profile : profiles) {
+      assertEquals(methods.size(), profile.getInvocationCount());
+      assertEquals(methods.size(), Arrays.stream(profile.getDurationHistogram()).sum());
+      assertTrue(profile.getTotalNanos() > 0);
+      assertTrue(profile.getMaxNanos() <= profile.getTotalNanos());
+      assertTrue(profile.getDurationPercentileNanos(50) <= profile.getMaxNanos());
+      if (BodyInterceptorProfiler.isAllocationMeasurementSupported()) {
+        assertTrue(profile.getAllocatedBytes() > 0);
+        assertEquals(methods.size(), Arrays.stream(profile.getAllocationHistogram()).sum());
+      }
+
+      List<BodyInterceptorProfile.MethodSample> slowest = profile.getSlowestMethods();
+      assertEquals(3, slowest.size());
+      assertEquals(profile.getMaxNanos(), slowest.get(0).getNanos());
+      assertTrue(slowest.get(0).getNanos() >= slowest.get(1).getNanos());
+      assertTrue(slowest.get(1).getNanos() >= slowest.get(2).getNanos());
+    }
+
+    String csv = profiler.toCsv();
+    String[] lines = csv.split("\n");
+    assertEquals(3, lines.length);
+    assertTrue(lines[0].startsWith("interceptor,invocations,"));
+    assertTrue(lines[1].startsWith("TypeAssigner," + methods.size() + ","));
+
+    String json = profiler.toJson();
+    assertTrue(json.startsWith("{\"allocationMeasurementSupported\":"));
+    assertTrue(json.contains("\"name\":\"CopyPropagator\""));
+    assertTrue(
+        json.contains("\"method\":\"" + profiles.get(0).getSlowestMethods().get(0).getMethod()));
+
+    profiler.reset();
+    assertEquals(0, profiles.get(0).getInvocationCount());
+    assertTrue(profiles.get(0).getSlowestMethods().isEmpty());
+  }
+
+  @Test
+  public void testRunTimeBodyInterceptorMetric() {
+    RunTimeBodyInterceptor interceptor = new RunTimeBodyInterceptor(new TypeAssigner());
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/java-miniapps/MiniApp.jar",
+                SourceType.Application,
+                Arrays.asList(interceptor)));
+    long bodies =
+        view.getClasses()
+            .flatMap(c -> c.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .peek(SootMethod::getBody)
+            .count();
+    assertEquals(bodies, interceptor.getProfile().getInvocationCount());
+    BodyInterceptorMetric metric = interceptor.getBiMetric();
+    assertEquals(interceptor.getProfile().getTotalNanos() / 1_000_000, metric.getRuntime());
+    assertTrue(metric.getMemoryUsage() >= 0);
+  }
+}
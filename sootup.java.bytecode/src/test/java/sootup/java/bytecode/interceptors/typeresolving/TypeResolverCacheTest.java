@@ -0,0 +1,128 @@
+package sootup.java.bytecode.interceptors.typeresolving;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import categories.TestCategories;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.jimple.basic.Local;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.interceptors.TypeAssigner;
+import sootup.java.core.interceptors.typeresolving.BytecodeHierarchy;
+import sootup.java.core.interceptors.typeresolving.TypeResolver;
+import sootup.java.core.interceptors.typeresolving.types.BottomType;
+import sootup.java.core.views.JavaView;
+
+@Tag(TestCategories.JAVA_8_CATEGORY)
+public class TypeResolverCacheTest {
+
+  private static final String JAR =
+      "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar";
+
+  private static JavaView createView(BodyInterceptor interceptor) {
+    return new JavaView(
+        new JavaClassPathAnalysisInputLocation(
+            JAR, SourceType.Application, Collections.singletonList(interceptor)));
+  }
+
+  /** the types of all locals of each method, independent of the names of the locals */
+  private static Map<String, List<String>> resolveLocalTypes(JavaView view) {
+    List<SootMethod> methods =
+        view.getClasses()
+            .flatMap(c -> c.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .collect(Collectors.toList());
+    Map<String, List<String>> localTypes = new HashMap<>();
+    for (SootMethod method : methods) {
+      List<String> types = new ArrayList<>();
+      for (Local local : method.getBody().getLocals()) {
+        types.add(local.getType().toString());
+      }
+      Collections.sort(types);
+      localTypes.put(method.getSignature().toString(), types);
+    }
+    return localTypes;
+  }
+
+  @Test
+  public void testCachedHierarchyAnswersLikeUncached() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(JAR));
+    List<ClassType> types = view.getClasses().map(SootClass::getType).collect(Collectors.toList());
+    assertTrue(types.size() > 10);
+
+    BytecodeHierarchy uncached = new BytecodeHierarchy(view, false);
+    // two instances of the same view share their query results
+    BytecodeHierarchy.QueryCache cache = new BytecodeHierarchy.QueryCache(view.getTypeHierarchy());
+    for (BytecodeHierarchy cached :
+        Arrays.asList(new BytecodeHierarchy(view, cache), new BytecodeHierarchy(view, cache))) {
+      for (ClassType a : types) {
+        for (ClassType b : types) {
+          assertEquals(uncached.isAncestor(a, b), cached.isAncestor(a, b), a + " <: " + b);
+          assertEquals(
+              new HashSet<>(uncached.getLeastCommonAncestor(a, b)),
+              new HashSet<>(cached.getLeastCommonAncestor(a, b)),
+              "lca(" + a + ", " + b + ")");
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testBoundedCache() {
+    JavaView view = new JavaView(new JavaClassPathAnalysisInputLocation(JAR));
+    List<ClassType> types = view.getClasses().map(SootClass::getType).collect(Collectors.toList());
+    BytecodeHierarchy uncached = new BytecodeHierarchy(view, false);
+    BytecodeHierarchy.QueryCache cache =
+        new BytecodeHierarchy.QueryCache(view.getTypeHierarchy(), 10);
+    BytecodeHierarchy cached = new BytecodeHierarchy(view, cache);
+    for (ClassType a : types) {
+      for (ClassType b : types) {
+        assertEquals(uncached.isAncestor(a, b), cached.isAncestor(a, b), a + " <: " + b);
+        assertEquals(
+            new HashSet<>(uncached.getLeastCommonAncestor(a, b)),
+            new HashSet<>(cached.getLeastCommonAncestor(a, b)),
+            "lca(" + a + ", " + b + ")");
+      }
+    }
+    assertTrue(cache.size() <= 20);
+
+    JavaView other = new JavaView(new JavaClassPathAnalysisInputLocation(JAR));
+    assertThrows(IllegalArgumentException.class, () -> new BytecodeHierarchy(other, cache));
+  }
+
+  @Test
+  public void testSameTypesAsUncachedResolver() {
+    JavaView cachedView = createView(new TypeAssigner());
+    JavaView uncachedView =
+        createView(
+            (builder, view) ->
+                new TypeResolver(
+                        (JavaView) view, new BytecodeHierarchy(view, false), Integer.MAX_VALUE)
+                    .resolve(builder));
+
+    Map<String, List<String>> expected = resolveLocalTypes(uncachedView);
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, resolveLocalTypes(cachedView));
+  }
+
+  @Test
+  public void testLimitedTypings() {
+    JavaView view = createView(new TypeAssigner(1));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new TypeResolver(view, new BytecodeHierarchy(view), 0));
+
+    Map<String, List<String>> localTypes = resolveLocalTypes(view);
+    assertFalse(localTypes.isEmpty());
+    for (List<String> types : localTypes.values()) {
+      assertFalse(types.contains(BottomType.getInstance().toString()));
+    }
+  }
+}
@@ -27,6 +27,8 @@ import java.util.Collections;
 import java.util.Optional;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.cache.BodyCache;
 import sootup.core.frontend.BodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.model.Body;
@@ -47,7 +49,18 @@ public class JavaSootMethod extends SootMethod {
       @Nonnull Iterable<ClassType> thrownExceptions,
       @Nonnull Iterable<AnnotationUsage> annotations,
       @Nonnull Position position) {
-    super(source, methodSignature, modifiers, thrownExceptions, position);
+    this(source, methodSignature, modifiers, thrownExceptions, annotations, position, null);
+  }
+
+  public JavaSootMethod(
+      @Nonnull BodySource source,
+      @Nonnull MethodSignature methodSignature,
+      @Nonnull Iterable<MethodModifier> modifiers,
+      @Nonnull Iterable<ClassType> thrownExceptions,
+      @Nonnull Iterable<AnnotationUsage> annotations,
+      @Nonnull Position position,
+      @Nullable BodyCache bodyCache) {
+    super(source, methodSignature, modifiers, thrownExceptions, position, bodyCache);
     this.annotations = annotations;
   }
 
@@ -81,7 +94,8 @@ public class JavaSootMethod extends SootMethod {
         getModifiers(),
         exceptions,
         getAnnotations(Optional.empty()),
-        getPosition());
+        getPosition(),
+        bodyCache);
   }
 
   @Nonnull
@@ -93,7 +107,8 @@ public class JavaSootMethod extends SootMethod {
         getModifiers(),
         exceptions,
         getAnnotations(Optional.empty()),
-        getPosition());
+        getPosition(),
+        bodyCache);
   }
 
   @Nonnull
@@ -105,7 +120,8 @@ public class JavaSootMethod extends SootMethod {
         modifiers,
         getExceptionSignatures(),
         getAnnotations(Optional.empty()),
-        getPosition());
+        getPosition(),
+        bodyCache);
   }
 
   @Nonnull
@@ -117,7 +133,8 @@ public class JavaSootMethod extends SootMethod {
         getModifiers(),
         thrownExceptions,
         getAnnotations(Optional.empty()),
-        getPosition());
+        getPosition(),
+        bodyCache);
   }
 
   @Nonnull
@@ -128,7 +145,8 @@ public class JavaSootMethod extends SootMethod {
         getModifiers(),
         getExceptionSignatures(),
         annotations,
-        getPosition());
+        getPosition(),
+        bodyCache);
   }
 
   @Nonnull
@@ -140,7 +158,8 @@ public class JavaSootMethod extends SootMethod {
         getModifiers(),
         exceptions,
         getAnnotations(Optional.empty()),
-        getPosition());
+        getPosition(),
+        bodyCache);
   }
 
   @Nonnull
@@ -60,6 +60,13 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
     this.eliminateOnlyStackLocals = eliminateOnlyStackLocals;
   }
 
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(
+        getClass().getName() + "(eliminateOnlyStackLocals=" + eliminateOnlyStackLocals + ")");
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
     MutableStmtGraph stmtGraph = builder.getStmtGraph();
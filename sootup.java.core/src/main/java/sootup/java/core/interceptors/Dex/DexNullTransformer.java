@@ -60,6 +60,12 @@ public class DexNullTransformer extends AbstractNullTransformer {
 
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
+    // l and usedAsObject describe the local that is currently checked; a transformer per body keeps
+    // the interceptor in DexBodyInterceptors stateless
+    new DexNullTransformer().transform(builder);
+  }
+
+  private void transform(@Nonnull Body.BodyBuilder builder) {
     final DexDefUseAnalysis localDefs = new DexDefUseAnalysis(builder);
 
     AbstractStmtVisitor checkDef =
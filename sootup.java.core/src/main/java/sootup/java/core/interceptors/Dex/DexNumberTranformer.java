@@ -55,6 +55,12 @@ public class DexNumberTranformer extends DexTransformer {
 
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
+    // usedAsFloatingPoint belongs to the local that is currently typed, so each body is typed by its
+    // own transformer
+    new DexNumberTranformer().transform(builder);
+  }
+
+  private void transform(@Nonnull Body.BodyBuilder builder) {
 
     final DexDefUseAnalysis localDefs = new DexDefUseAnalysis(builder);
 
@@ -21,24 +21,54 @@ package sootup.java.core.interceptors;
  * #L%
  */
 
+import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.model.Body;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.views.View;
+import sootup.java.core.interceptors.typeresolving.BytecodeHierarchy;
 import sootup.java.core.interceptors.typeresolving.TypeResolver;
 import sootup.java.core.views.JavaView;
 
 /**
  * This transformer assigns types to local variables.
  *
+ * <p>The results of the subtyping queries are shared by all bodies of a view that this instance
+ * types, also across threads.
+ *
  * @author Zun Wang
  */
 public class TypeAssigner implements BodyInterceptor {
 
-  public TypeAssigner() {}
+  private final int maxTypings;
+  /* the query results of the TypeHierarchy of the view whose bodies were typed last */
+  @Nullable private volatile BytecodeHierarchy.QueryCache queryCache;
+
+  public TypeAssigner() {
+    this(TypeResolver.DEFAULT_MAX_TYPINGS);
+  }
+
+  /** @param maxTypings limits the typings the TypeResolver explores at the same time */
+  public TypeAssigner(int maxTypings) {
+    this.maxTypings = maxTypings;
+  }
+
+  @Nonnull
+  @Override
+  public Optional<String> getCacheKey() {
+    return Optional.of(getClass().getName() + "(maxTypings=" + maxTypings + ")");
+  }
 
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View view) {
-    new TypeResolver((JavaView) view).resolve(builder);
+    JavaView javaView = (JavaView) view;
+    BytecodeHierarchy.QueryCache cache = queryCache;
+    if (cache == null || !cache.isFor(view.getTypeHierarchy())) {
+      cache = new BytecodeHierarchy.QueryCache(view.getTypeHierarchy());
+      queryCache = cache;
+    }
+    new TypeResolver(javaView, new BytecodeHierarchy(javaView, cache), maxTypings)
+        .resolve(builder);
   }
 }
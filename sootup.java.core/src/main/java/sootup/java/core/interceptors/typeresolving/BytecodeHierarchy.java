@@ -21,6 +21,9 @@ package sootup.java.core.interceptors.typeresolving;
  * #L%
  */
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -32,16 +35,44 @@ import sootup.core.views.View;
 import sootup.java.core.interceptors.typeresolving.types.BottomType;
 import sootup.java.core.interceptors.typeresolving.types.TopType;
 
-/** @author Zun Wang */
+/**
+ * Answers the subtyping and least common ancestor queries of the type inference.
+ *
+ * <p>The results of the queries between class types are kept in a {@link QueryCache}. A cache can
+ * be handed to several instances on the same {@link TypeHierarchy}, e.g., by the {@link
+ * sootup.java.core.interceptors.TypeAssigner} of a view, so the type inference of all methods and
+ * all threads that resolve bodies of the view share the results.
+ *
+ * @author Zun Wang
+ */
 public class BytecodeHierarchy {
+
   private final TypeHierarchy typeHierarchy;
+  @Nullable private final QueryCache queryCache;
   public final ClassType objectClassType;
   public final ClassType throwableClassType;
   private final ClassType serializableClassType;
   private final ClassType cloneableClassType;
 
   public BytecodeHierarchy(View view) {
+    this(view, true);
+  }
+
+  /** @param cacheQueries whether the query results are cached by this instance */
+  public BytecodeHierarchy(View view, boolean cacheQueries) {
+    this(view, cacheQueries ? new QueryCache(view.getTypeHierarchy()) : null);
+  }
+
+  /**
+   * @param queryCache the cache of the query results, null to answer every query from the
+   *     TypeHierarchy
+   */
+  public BytecodeHierarchy(View view, @Nullable QueryCache queryCache) {
     this.typeHierarchy = view.getTypeHierarchy();
+    if (queryCache != null && !queryCache.isFor(typeHierarchy)) {
+      throw new IllegalArgumentException("The cache belongs to a different TypeHierarchy.");
+    }
+    this.queryCache = queryCache;
     IdentifierFactory factory = view.getIdentifierFactory();
     objectClassType = factory.getClassType("java.lang.Object");
     throwableClassType = factory.getClassType("java.lang.Throwable");
@@ -178,50 +209,82 @@ public class BytecodeHierarchy {
       }
     } else {
       // if a and b are both ClassType
-      Set<AncestryPath> pathsA = buildAncestryPaths((ClassType) a);
-      Set<AncestryPath> pathsB = buildAncestryPaths((ClassType) b);
-      // TODO: [ms] implement an algorithm with better wc runtime costs.. e.g.
-      // https://www.baeldung.com/cs/tree-lowest-common-ancestor /
-      for (AncestryPath pathA : pathsA) {
-        for (AncestryPath pathB : pathsB) {
-          ClassType lcn = null;
-          while (pathA != null && pathB != null && pathA.type == pathB.type) {
-            lcn = pathA.type;
-            pathA = pathA.next;
-            pathB = pathB.next;
-          }
-          if (lcn == null) {
-            continue;
-          }
+      if (queryCache == null) {
+        return getLeastCommonAncestorOfClasses((ClassType) a, (ClassType) b);
+      }
+      TypePair key = new TypePair(a, b);
+      Collection<Type> cached = queryCache.leastCommonAncestors.getIfPresent(key);
+      if (cached == null) {
+        cached =
+            Collections.unmodifiableSet(
+                getLeastCommonAncestorOfClasses((ClassType) a, (ClassType) b));
+        queryCache.leastCommonAncestors.put(key, cached);
+      }
+      return cached;
+    }
+    return ret;
+  }
+
+  private Set<Type> getLeastCommonAncestorOfClasses(ClassType a, ClassType b) {
+    Set<Type> ret = new HashSet<>();
+    Set<AncestryPath> pathsA = buildAncestryPaths(a);
+    Set<AncestryPath> pathsB = buildAncestryPaths(b);
+    // TODO: [ms] implement an algorithm with better wc runtime costs.. e.g.
+    // https://www.baeldung.com/cs/tree-lowest-common-ancestor /
+    for (AncestryPath pathA : pathsA) {
+      for (AncestryPath pathB : pathsB) {
+        ClassType lcn = null;
+        while (pathA != null && pathB != null && pathA.type == pathB.type) {
+          lcn = pathA.type;
+          pathA = pathA.next;
+          pathB = pathB.next;
+        }
+        if (lcn == null) {
+          continue;
+        }
 
-          boolean isLcn = true;
-          Iterator<Type> it = ret.iterator();
-          while (it.hasNext()) {
-            Type l = it.next();
-            if (isAncestor(lcn, l)) {
-              isLcn = false;
-              break;
-            }
-            if (isAncestor(l, lcn)) {
-              it.remove();
-            }
+        boolean isLcn = true;
+        Iterator<Type> it = ret.iterator();
+        while (it.hasNext()) {
+          Type l = it.next();
+          if (isAncestor(lcn, l)) {
+            isLcn = false;
+            break;
           }
-          if (isLcn) {
-            ret.add(lcn);
+          if (isAncestor(l, lcn)) {
+            it.remove();
           }
         }
+        if (isLcn) {
+          ret.add(lcn);
+        }
       }
-      if (ret.isEmpty()) {
-        ret.add(objectClassType);
-      }
+    }
+    if (ret.isEmpty()) {
+      ret.add(objectClassType);
     }
     return ret;
   }
 
   private boolean canStoreType(ClassType ancestor, ClassType child) {
-    return ancestor == objectClassType
-        || (typeHierarchy.contains(ancestor)
-            && typeHierarchy.subtypesOf(ancestor).anyMatch(t -> t == child));
+    if (ancestor == objectClassType) {
+      return true;
+    }
+    if (queryCache == null) {
+      return isSubtype(ancestor, child);
+    }
+    TypePair key = new TypePair(ancestor, child);
+    Boolean cached = queryCache.canStore.getIfPresent(key);
+    if (cached == null) {
+      cached = isSubtype(ancestor, child);
+      queryCache.canStore.put(key, cached);
+    }
+    return cached;
+  }
+
+  private boolean isSubtype(ClassType ancestor, ClassType child) {
+    return typeHierarchy.contains(ancestor)
+        && typeHierarchy.subtypesOf(ancestor).anyMatch(t -> t == child);
   }
 
   private Set<AncestryPath> buildAncestryPaths(ClassType type) {
@@ -268,6 +331,64 @@ public class BytecodeHierarchy {
     return paths;
   }
 
+  /**
+   * The query results of a TypeHierarchy, bounded in size. It only refers weakly to its
+   * TypeHierarchy, which in turn refers to its view.
+   */
+  public static final class QueryCache {
+    public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    @Nonnull private final WeakReference<TypeHierarchy> typeHierarchy;
+    private final Cache<TypePair, Boolean> canStore;
+    private final Cache<TypePair, Collection<Type>> leastCommonAncestors;
+
+    public QueryCache(@Nonnull TypeHierarchy typeHierarchy) {
+      this(typeHierarchy, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /** @param maximumSize the number of results that are kept per kind of query */
+    public QueryCache(@Nonnull TypeHierarchy typeHierarchy, long maximumSize) {
+      this.typeHierarchy = new WeakReference<>(typeHierarchy);
+      this.canStore = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+      this.leastCommonAncestors = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /** @return whether this cache holds the results of the given TypeHierarchy */
+    public boolean isFor(@Nonnull TypeHierarchy typeHierarchy) {
+      return this.typeHierarchy.get() == typeHierarchy;
+    }
+
+    /** @return the number of cached results */
+    public long size() {
+      return canStore.size() + leastCommonAncestors.size();
+    }
+  }
+
+  /** an ordered pair of types that are compared by identity, like the queries do */
+  private static final class TypePair {
+    private final Type first;
+    private final Type second;
+
+    private TypePair(Type first, Type second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof TypePair)) {
+        return false;
+      }
+      TypePair other = (TypePair) o;
+      return first == other.first && second == other.second;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(first) + System.identityHashCode(second);
+    }
+  }
+
   // TODO: [ms] thats a linked list.. please refactor that
   private static class AncestryPath {
     public AncestryPath next;
@@ -52,22 +52,44 @@ import sootup.java.core.views.JavaView;
 
 /** @author Zun Wang Algorithm: see 'Efficient Local Type Inference' at OOPSLA 08 */
 public class TypeResolver {
+
+  /** the default limit for the number of typings that are explored at the same time */
+  public static final int DEFAULT_MAX_TYPINGS = 256;
+
   private final ArrayList<AbstractDefinitionStmt> assignments = new ArrayList<>();
   private final Map<Local, BitSet> depends = new HashMap<>();
   private final JavaView view;
+  private final BytecodeHierarchy hierarchy;
+  private final int maxTypings;
 
   private final Type objectType;
 
   private static final Logger logger = LoggerFactory.getLogger(TypeResolver.class);
 
   public TypeResolver(@Nonnull JavaView view) {
+    this(view, new BytecodeHierarchy(view), DEFAULT_MAX_TYPINGS);
+  }
+
+  /**
+   * @param hierarchy answers the subtyping queries; its results are shared with the other
+   *     TypeResolvers that use the same {@link BytecodeHierarchy.QueryCache}
+   * @param maxTypings the number of typings that are explored at the same time. If an assignment
+   *     has more least common ancestors than the limit allows, only the first ones are explored.
+   *     The resulting typing is still valid but may need more casts.
+   */
+  public TypeResolver(
+      @Nonnull JavaView view, @Nonnull BytecodeHierarchy hierarchy, int maxTypings) {
+    if (maxTypings < 1) {
+      throw new IllegalArgumentException("maxTypings must be positive.");
+    }
     this.view = view;
+    this.hierarchy = hierarchy;
+    this.maxTypings = maxTypings;
     objectType = view.getIdentifierFactory().getClassType("java.lang.Object");
   }
 
   public boolean resolve(@Nonnull Body.BodyBuilder builder) {
     init(builder);
-    BytecodeHierarchy hierarchy = new BytecodeHierarchy(view);
     AugEvalFunction evalFunction = new AugEvalFunction(view);
     final Collection<Local> locals = Lists.newArrayList(builder.getLocals());
     Typing iniTyping = new Typing(locals);
@@ -107,8 +129,8 @@ public class TypeResolver {
         .forEach(
             local -> {
               Type oldType = local.getType();
-              Type type = minCastsTyping.getMap().getOrDefault(local, oldType);
-              if (type != oldType) {
+              Type type = minCastsTyping.getType(local);
+              if (type != null && type != oldType) {
                 Local newLocal = local.withType(type);
                 builder.replaceLocal(local, newLocal);
               }
@@ -267,6 +289,12 @@ public class TypeResolver {
           // Up to now there's no ambiguity of types
           if (isFirstType) {
             isFirstType = false;
+          } else if (workQueue.size() + ret.size() >= maxTypings) {
+            logger.debug(
+                "Reached the limit of {} typings, skipping the alternative types of {}.",
+                maxTypings,
+                local);
+            break;
           } else {
             // Ambiguity handling: create new Typing and add it into workQueue
             actualTyping = new Typing(actualTyping, (BitSet) actualSL.clone());
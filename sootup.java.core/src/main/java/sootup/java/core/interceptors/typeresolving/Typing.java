@@ -27,39 +27,78 @@ import sootup.core.jimple.basic.Local;
 import sootup.core.types.Type;
 import sootup.java.core.interceptors.typeresolving.types.BottomType;
 
+/**
+ * Assigns a type to each local of a body. The locals are numbered once and the numbering is shared
+ * by all typings that are derived from each other via {@link #Typing(Typing, BitSet)}. A derived
+ * typing shares the types of its origin as well until one of them is modified (copy-on-write), so
+ * branching the type inference does not copy a map per branch.
+ */
 public class Typing {
-  @Nonnull private final Map<Local, Type> local2Type;
+  /** the index of each local in {@link #types}; it is shared until a new local is added */
+  @Nonnull private Map<Local, Integer> localIndices;
+
+  @Nonnull private Type[] types;
+  private boolean localIndicesShared;
+  private boolean typesShared;
   @Nonnull private BitSet stmtsIDList;
 
   public Typing(@Nonnull Collection<Local> locals) {
     // initialize
-    local2Type = new HashMap<>(locals.size());
+    localIndices = new HashMap<>(locals.size() * 2);
     for (Local local : locals) {
-      local2Type.put(local, BottomType.getInstance());
+      localIndices.putIfAbsent(local, localIndices.size());
     }
+    types = new Type[localIndices.size()];
+    Arrays.fill(types, BottomType.getInstance());
     stmtsIDList = new BitSet();
   }
 
   public Typing(@Nonnull Typing typing, @Nonnull BitSet stmtsIDList) {
-    this.local2Type = new HashMap<>(typing.local2Type);
+    this.localIndices = typing.localIndices;
+    this.types = typing.types;
+    this.localIndicesShared = true;
+    this.typesShared = true;
+    typing.localIndicesShared = true;
+    typing.typesShared = true;
     this.stmtsIDList = stmtsIDList;
   }
 
   @Nullable
   public Type getType(@Nonnull Local local) {
-    return local2Type.get(local);
+    Integer idx = localIndices.get(local);
+    return idx == null ? null : types[idx];
   }
 
   public void set(@Nonnull Local local, @Nonnull Type type) {
-    this.local2Type.put(local, type);
+    Integer idx = localIndices.get(local);
+    if (idx == null) {
+      // e.g. a local that was introduced for a cast
+      if (localIndicesShared) {
+        localIndices = new HashMap<>(localIndices);
+        localIndicesShared = false;
+      }
+      idx = localIndices.size();
+      localIndices.put(local, idx);
+      types = Arrays.copyOf(types, idx + 1);
+      typesShared = false;
+    } else if (typesShared) {
+      types = types.clone();
+      typesShared = false;
+    }
+    types[idx] = type;
   }
 
   public Collection<Local> getLocals() {
-    return local2Type.keySet();
+    return Collections.unmodifiableSet(localIndices.keySet());
   }
 
+  /** @return a copy of the assignment of types to locals */
   public Map<Local, Type> getMap() {
-    return this.local2Type;
+    Map<Local, Type> map = new HashMap<>(localIndices.size() * 2);
+    for (Map.Entry<Local, Integer> entry : localIndices.entrySet()) {
+      map.put(entry.getKey(), types[entry.getValue()]);
+    }
+    return map;
   }
 
   public void setStmtsIDList(@Nonnull BitSet bitSet) {
@@ -87,18 +126,19 @@ public class Typing {
       @Nonnull BytecodeHierarchy hierarchy,
       @Nonnull Collection<Local> localsToIgnore) {
 
-    if (!typing.getLocals().equals(this.getLocals())) { // TODO: ms: check isnt it even == then?
+    if (typing.localIndices != localIndices && !typing.getLocals().equals(this.getLocals())) {
       throw new RuntimeException("The compared typings should have the same locals' set!");
     }
 
+    final boolean sameIndices = typing.localIndices == localIndices;
     int ret = 0;
-    for (Map.Entry<Local, Type> local : this.local2Type.entrySet()) {
+    for (Map.Entry<Local, Integer> local : localIndices.entrySet()) {
       if (localsToIgnore.contains(local.getKey())) {
         continue;
       }
 
-      Type ta = local.getValue();
-      Type tb = typing.getType(local.getKey());
+      Type ta = types[local.getValue()];
+      Type tb = sameIndices ? typing.types[local.getValue()] : typing.getType(local.getKey());
 
       int cmp;
       if (ta.equals(tb)) {
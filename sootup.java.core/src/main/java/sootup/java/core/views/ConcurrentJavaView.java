@@ -0,0 +1,216 @@
+package sootup.java.core.views;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.cache.ConcurrentFullCache;
+import sootup.core.cache.provider.BodyCacheProvider;
+import sootup.core.cache.provider.ClassCacheProvider;
+import sootup.core.cache.provider.ConcurrentFullCacheProvider;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.types.ClassType;
+import sootup.java.core.JavaSootClass;
+
+/**
+ * A {@link JavaView} that can be shared between many analysis threads. In contrast to the {@link
+ * JavaView} it does not lock the whole view while resolving: looking up a class that is already
+ * cached needs no lock at all and each {@link ClassType} is read and built exactly once, even if
+ * several threads ask for it at the same time. Threads that request a class which is currently
+ * built by another thread wait for that result instead of building it again.
+ *
+ * <p>The {@link ClassCacheProvider} passed to this view has to create a thread-safe cache, e.g. the
+ * default {@link ConcurrentFullCacheProvider}.
+ */
+public class ConcurrentJavaView extends JavaView {
+
+  /** Classes that are currently resolved by some thread. */
+  @Nonnull
+  private final Map<ClassType, FutureTask<Optional<JavaSootClass>>> inProgress =
+      new ConcurrentHashMap<>();
+
+  public ConcurrentJavaView(@Nonnull AnalysisInputLocation inputLocation) {
+    this(Collections.singletonList(inputLocation));
+  }
+
+  public ConcurrentJavaView(@Nonnull List<AnalysisInputLocation> inputLocations) {
+    this(inputLocations, new ConcurrentFullCacheProvider());
+  }
+
+  public ConcurrentJavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider) {
+    super(inputLocations, cacheProvider);
+  }
+
+  public ConcurrentJavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nonnull BodyCacheProvider bodyCacheProvider) {
+    super(inputLocations, cacheProvider, bodyCacheProvider);
+  }
+
+  /** Resolves all classes that are part of the view and stores them in the cache. */
+  @Override
+  @Nonnull
+  public Stream<JavaSootClass> getClasses() {
+    if (isFullyResolved && cache instanceof ConcurrentFullCache) {
+      return cache.getClasses().stream().map(clazz -> (JavaSootClass) clazz);
+    }
+
+    List<JavaSootClass> resolvedClasses =
+        inputLocations.stream()
+            .flatMap(location -> location.getClassSources(this).stream())
+            .map(this::buildClassFrom)
+            .filter(Optional::isPresent)
+            .map(Optional::get)
+            .collect(Collectors.toList());
+
+    isFullyResolved = true;
+
+    return resolvedClasses.stream();
+  }
+
+  /** Resolves the class matching the provided {@link ClassType ClassType}. */
+  @Override
+  @Nonnull
+  public Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
+    JavaSootClass cachedClass = (JavaSootClass) cache.getClass(type);
+    if (cachedClass != null) {
+      return Optional.of(cachedClass);
+    }
+
+    Optional<JavaSootClass> theClass =
+        resolveOnce(type, () -> getClassSource(type).map(this::buildAndCache));
+    theClass.ifPresent(this::resolveAnnotationDefaults);
+    return theClass;
+  }
+
+  @Override
+  @Nonnull
+  protected Optional<JavaSootClass> buildClassFrom(AbstractClassSource classSource) {
+    ClassType classType = classSource.getClassType();
+    JavaSootClass theClass = (JavaSootClass) cache.getClass(classType);
+    if (theClass == null) {
+      Optional<JavaSootClass> resolvedClass =
+          resolveOnce(classType, () -> Optional.of(buildAndCache(classSource)));
+      if (!resolvedClass.isPresent()) {
+        return resolvedClass;
+      }
+      theClass = resolvedClass.get();
+    }
+
+    resolveAnnotationDefaults(theClass);
+    return Optional.of(theClass);
+  }
+
+  /**
+   * Runs the given resolver unless another thread is already resolving the same type, in which case
+   * the result of that thread is awaited.
+   */
+  @Nonnull
+  private Optional<JavaSootClass> resolveOnce(
+      @Nonnull ClassType type, @Nonnull Callable<Optional<JavaSootClass>> resolver) {
+    FutureTask<Optional<JavaSootClass>> task =
+        new FutureTask<>(
+            () -> {
+              // another thread may have finished this type between our cache miss and now
+              JavaSootClass cachedClass = (JavaSootClass) cache.getClass(type);
+              return cachedClass != null ? Optional.of(cachedClass) : resolver.call();
+            });
+
+    FutureTask<Optional<JavaSootClass>> runningTask = inProgress.putIfAbsent(type, task);
+    if (runningTask == null) {
+      runningTask = task;
+      try {
+        task.run();
+      } finally {
+        inProgress.remove(type, task);
+      }
+    }
+
+    try {
+      return runningTask.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for " + type + ".", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Could not resolve " + type + ".", cause);
+    }
+  }
+
+  @Nonnull
+  private JavaSootClass buildAndCache(@Nonnull AbstractClassSource classSource) {
+    ClassType classType = classSource.getClassType();
+    JavaSootClass theClass =
+        (JavaSootClass)
+            classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType());
+    cache.putClass(classType, theClass);
+    return theClass;
+  }
+
+  @Override
+  @Nullable
+  protected JavaSootClass getCachedClass(@Nonnull ClassType classType) {
+    return (JavaSootClass) cache.getClass(classType);
+  }
+
+  /** Stores the class unless another thread resolved the same type first, without locking. */
+  @Override
+  @Nonnull
+  protected JavaSootClass cacheBuiltClass(@Nonnull JavaSootClass builtClass) {
+    ClassType classType = builtClass.getType();
+    JavaSootClass theClass = (JavaSootClass) cache.getClass(classType);
+    if (theClass == null) {
+      theClass =
+          resolveOnce(
+                  classType,
+                  () -> {
+                    cache.putClass(classType, builtClass);
+                    return Optional.of(builtClass);
+                  })
+              .get();
+    }
+
+    resolveAnnotationDefaults(theClass);
+    return theClass;
+  }
+}
@@ -22,19 +22,33 @@ package sootup.java.core.views;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.cache.BodyCache;
 import sootup.core.cache.ClassCache;
 import sootup.core.cache.FullCache;
+import sootup.core.cache.provider.BodyCacheProvider;
 import sootup.core.cache.provider.ClassCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
 import sootup.core.frontend.AbstractClassSource;
+import sootup.core.frontend.SootClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.FrozenTypeHierarchy;
+import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.types.ClassType;
 import sootup.core.views.AbstractView;
 import sootup.java.core.*;
@@ -52,6 +66,10 @@ public class JavaView extends AbstractView {
 
   @Nonnull protected final List<AnalysisInputLocation> inputLocations;
   @Nonnull protected final ClassCache cache;
+  @Nullable protected final BodyCache bodyCache;
+
+  /** The number of class sources that {@link #resolveAll} builds in a single task. */
+  public static final int RESOLVE_CHUNK_SIZE = 64;
 
   protected volatile boolean isFullyResolved = false;
 
@@ -69,13 +87,37 @@ public class JavaView extends AbstractView {
     this(inputLocations, cacheProvider, JavaIdentifierFactory.getInstance());
   }
 
+  /**
+   * Creates a view whose method bodies are kept by a {@link BodyCache} instead of the methods
+   * themselves, e.g. to bound the memory that is used for bodies in a whole-program analysis.
+   */
+  public JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nonnull BodyCacheProvider bodyCacheProvider) {
+    this(
+        inputLocations,
+        cacheProvider,
+        JavaIdentifierFactory.getInstance(),
+        bodyCacheProvider.createBodyCache());
+  }
+
   protected JavaView(
       @Nonnull List<AnalysisInputLocation> inputLocations,
       @Nonnull ClassCacheProvider cacheProvider,
       @Nonnull JavaIdentifierFactory idf) {
+    this(inputLocations, cacheProvider, idf, null);
+  }
+
+  protected JavaView(
+      @Nonnull List<AnalysisInputLocation> inputLocations,
+      @Nonnull ClassCacheProvider cacheProvider,
+      @Nonnull JavaIdentifierFactory idf,
+      @Nullable BodyCache bodyCache) {
     this.inputLocations = inputLocations;
     this.cache = cacheProvider.createCache();
     this.identifierFactory = idf;
+    this.bodyCache = bodyCache;
   }
 
   /** Resolves all classes that are part of the view and stores them in the cache. */
@@ -98,6 +140,107 @@ public class JavaView extends AbstractView {
     return resolvedClasses;
   }
 
+  /**
+   * Uses a {@link FrozenTypeHierarchy} if all classes of the view are cached when the hierarchy is
+   * first queried, e.g. after {@link #resolveAll}, as no class can be added to the view anymore.
+   * Otherwise the hierarchy is built lazily from the classes of the view.
+   */
+  @Override
+  @Nonnull
+  protected TypeHierarchy createTypeHierarchy() {
+    if (isFullyResolved && cache instanceof FullCache) {
+      return new FrozenTypeHierarchy(this);
+    }
+    return super.createTypeHierarchy();
+  }
+
+  /**
+   * Resolves all classes that are part of the view like {@link #getClasses()}, but reads the class
+   * sources of all input locations and builds their classes in parallel on the given executor. The
+   * result does not depend on the number of threads: classes are returned in the order of the input
+   * locations and if a class is contained in several input locations, the one of the first location
+   * is kept.
+   *
+   * @param executor runs one task per input location and one per chunk of {@link
+   *     #RESOLVE_CHUNK_SIZE} class sources of a location; it is not shut down by this method.
+   */
+  @Nonnull
+  public Stream<JavaSootClass> resolveAll(@Nonnull ExecutorService executor) {
+    List<Future<? extends Collection<? extends SootClassSource>>> sourcesPerLocation =
+        inputLocations.stream()
+            .map(location -> executor.submit(() -> location.getClassSources(this)))
+            .collect(Collectors.toList());
+
+    // the classes of a location are built while the sources of the next ones are still read;
+    // like getClass(), classes which are already cached are not built again
+    List<ClassType> resolvedTypes = new ArrayList<>();
+    Map<ClassType, JavaSootClass> resolvedClasses = new HashMap<>();
+    List<Future<List<JavaSootClass>>> chunks = new ArrayList<>();
+    for (Future<? extends Collection<? extends SootClassSource>> sources : sourcesPerLocation) {
+      List<SootClassSource> locationSources = new ArrayList<>();
+      for (SootClassSource classSource : await(sources)) {
+        ClassType classType = classSource.getClassType();
+        resolvedTypes.add(classType);
+        JavaSootClass cachedClass = getCachedClass(classType);
+        if (cachedClass != null) {
+          resolvedClasses.putIfAbsent(classType, cachedClass);
+        } else {
+          locationSources.add(classSource);
+        }
+      }
+      for (int from = 0; from < locationSources.size(); from += RESOLVE_CHUNK_SIZE) {
+        List<SootClassSource> chunk =
+            locationSources.subList(
+                from, Math.min(locationSources.size(), from + RESOLVE_CHUNK_SIZE));
+        chunks.add(executor.submit(() -> buildClasses(chunk)));
+      }
+    }
+
+    // merging in the order of the chunks keeps the classes of the first location
+    for (Future<List<JavaSootClass>> chunk : chunks) {
+      for (JavaSootClass builtClass : await(chunk)) {
+        JavaSootClass theClass = cacheBuiltClass(builtClass);
+        resolvedClasses.putIfAbsent(theClass.getType(), theClass);
+      }
+    }
+
+    // only reached if every task succeeded, as await() rethrows their exceptions
+    isFullyResolved = true;
+
+    return resolvedTypes.stream().map(resolvedClasses::get);
+  }
+
+  /** Builds the classes without touching the cache, so it can run on any thread. */
+  @Nonnull
+  private static List<JavaSootClass> buildClasses(@Nonnull List<SootClassSource> classSources) {
+    List<JavaSootClass> classes = new ArrayList<>(classSources.size());
+    for (SootClassSource classSource : classSources) {
+      classes.add(
+          (JavaSootClass)
+              classSource.buildClass(classSource.getAnalysisInputLocation().getSourceType()));
+    }
+    return classes;
+  }
+
+  @Nonnull
+  private static <T> T await(@Nonnull Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while resolving the input locations.", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Could not resolve an input location.", cause);
+    }
+  }
+
   /** Resolves the class matching the provided {@link ClassType ClassType}. */
   @Override
   @Nonnull
@@ -131,6 +274,12 @@ public class JavaView extends AbstractView {
     return identifierFactory;
   }
 
+  @Nonnull
+  @Override
+  public Optional<BodyCache> getBodyCache() {
+    return Optional.ofNullable(bodyCache);
+  }
+
   /** Returns the number of classes that are currently stored in the cache. */
   public int getCachedClassesCount() {
     return cache.size();
@@ -164,11 +313,39 @@ public class JavaView extends AbstractView {
       cache.putClass(classType, theClass);
     }
 
+    resolveAnnotationDefaults(theClass);
+    return Optional.of(theClass);
+  }
+
+  /** Returns the cached class of the given type, or null if it is not resolved yet. */
+  @Nullable
+  protected synchronized JavaSootClass getCachedClass(@Nonnull ClassType classType) {
+    return (JavaSootClass) cache.getClass(classType);
+  }
+
+  /**
+   * Stores a class that was built by {@link #resolveAll} unless the cache already contains a class
+   * of the same type.
+   *
+   * @return the class that is in the cache afterwards
+   */
+  @Nonnull
+  protected synchronized JavaSootClass cacheBuiltClass(@Nonnull JavaSootClass builtClass) {
+    ClassType classType = builtClass.getType();
+    JavaSootClass theClass = (JavaSootClass) cache.getClass(classType);
+    if (theClass == null) {
+      theClass = builtClass;
+      cache.putClass(classType, theClass);
+    }
+
+    resolveAnnotationDefaults(theClass);
+    return theClass;
+  }
+
+  protected void resolveAnnotationDefaults(@Nonnull JavaSootClass theClass) {
     if (theClass.getType() instanceof AnnotationType) {
       JavaAnnotationSootClass jasc = (JavaAnnotationSootClass) theClass;
       jasc.getAnnotations(Optional.of(this)).forEach(AnnotationUsage::getValuesWithDefaults);
     }
-
-    return Optional.of(theClass);
   }
 }
@@ -51,6 +51,7 @@ public class JimpleAnalysisInputLocation implements AnalysisInputLocation {
   private final SourceType srcType;
 
   @Nonnull private final List<BodyInterceptor> bodyInterceptors;
+  private final boolean lazyBodies;
 
   public JimpleAnalysisInputLocation(@Nonnull Path path) {
     this(path, SourceType.Application, Collections.emptyList());
@@ -64,6 +65,19 @@ public class JimpleAnalysisInputLocation implements AnalysisInputLocation {
       @Nonnull Path path,
       @Nullable SourceType srcType,
       @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    this(path, srcType, bodyInterceptors, false);
+  }
+
+  /**
+   * @param lazyBodies if set, only the class-level structure of a .jimple file is parsed when its
+   *     class is resolved and each method body is parsed when it is requested. This saves time and
+   *     memory if only a few bodies of a large input are analyzed.
+   */
+  public JimpleAnalysisInputLocation(
+      @Nonnull Path path,
+      @Nullable SourceType srcType,
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      boolean lazyBodies) {
     if (!Files.exists(path)) {
       throw new IllegalArgumentException(
           "The configured path '"
@@ -73,6 +87,7 @@ public class JimpleAnalysisInputLocation implements AnalysisInputLocation {
               + "' does not exist.");
     }
     this.bodyInterceptors = bodyInterceptors;
+    this.lazyBodies = lazyBodies;
     this.path = path;
     this.srcType = srcType;
   }
@@ -120,13 +135,13 @@ public class JimpleAnalysisInputLocation implements AnalysisInputLocation {
   @Nonnull
   public Collection<SootClassSource> getClassSources(@Nonnull View view) {
     return walkDirectory(
-        path, view.getIdentifierFactory(), new JimpleClassProvider(bodyInterceptors));
+        path, view.getIdentifierFactory(), new JimpleClassProvider(bodyInterceptors, lazyBodies));
   }
 
   @Override
   @Nonnull
   public Optional<SootClassSource> getClassSource(@Nonnull ClassType type, @Nonnull View view) {
-    final JimpleClassProvider classProvider = new JimpleClassProvider(bodyInterceptors);
+    final JimpleClassProvider classProvider = new JimpleClassProvider(bodyInterceptors, lazyBodies);
 
     final String ext = classProvider.getHandledFileType().toString().toLowerCase();
 
@@ -42,11 +42,18 @@ import sootup.core.types.ClassType;
 public class JimpleClassProvider implements ClassProvider {
 
   @Nonnull private final List<BodyInterceptor> bodyInterceptors;
+  private final boolean lazyBodies;
 
   private static final @Nonnull Logger logger = LoggerFactory.getLogger(JimpleClassProvider.class);
 
   public JimpleClassProvider(List<BodyInterceptor> bodyInterceptors) {
+    this(bodyInterceptors, false);
+  }
+
+  /** @param lazyBodies whether method bodies are parsed when they are requested */
+  public JimpleClassProvider(List<BodyInterceptor> bodyInterceptors, boolean lazyBodies) {
     this.bodyInterceptors = bodyInterceptors;
+    this.lazyBodies = lazyBodies;
   }
 
   @Override
@@ -54,7 +61,7 @@ public class JimpleClassProvider implements ClassProvider {
       AnalysisInputLocation inputlocation, Path sourcePath, ClassType classSignature) {
 
     try {
-      final JimpleConverter jimpleConverter = new JimpleConverter();
+      final JimpleConverter jimpleConverter = new JimpleConverter(lazyBodies);
       return Optional.of(
           jimpleConverter.run(
               CharStreams.fromPath(sourcePath), inputlocation, sourcePath, bodyInterceptors));
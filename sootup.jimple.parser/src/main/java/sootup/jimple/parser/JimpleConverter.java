@@ -22,13 +22,20 @@ package sootup.jimple.parser;
  * #L%
  */
 
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Interval;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.TerminalNode;
 import sootup.core.IdentifierFactory;
+import sootup.core.frontend.BodySource;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.OverridingClassSource;
 import sootup.core.frontend.ResolveException;
@@ -52,10 +59,27 @@ import sootup.core.types.*;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.language.JavaJimple;
 import sootup.jimple.JimpleBaseVisitor;
+import sootup.jimple.JimpleLexer;
 import sootup.jimple.JimpleParser;
+import sootup.jimple.parser.MethodBodySkippingTokenSource.SkippedMethodBody;
 
 public class JimpleConverter {
 
+  private final boolean lazyBodies;
+
+  public JimpleConverter() {
+    this(false);
+  }
+
+  /**
+   * @param lazyBodies if set, the Stmts of a method body are parsed and converted when the body is
+   *     requested for the first time instead of when the class is converted. Syntax errors in a
+   *     body are reported by then as well.
+   */
+  public JimpleConverter(boolean lazyBodies) {
+    this.lazyBodies = lazyBodies;
+  }
+
   public OverridingClassSource run(
       @Nonnull CharStream charStream,
       @Nonnull AnalysisInputLocation inputlocation,
@@ -69,8 +93,10 @@ public class JimpleConverter {
       @Nonnull Path sourcePath,
       @Nonnull List<BodyInterceptor> bodyInterceptors) {
 
+    final JimpleLexer lexer = JimpleConverterUtil.createJimpleLexer(charStream, sourcePath);
     final JimpleParser jimpleParser =
-        JimpleConverterUtil.createJimpleParser(charStream, sourcePath);
+        JimpleConverterUtil.createJimpleParser(
+            lazyBodies ? new MethodBodySkippingTokenSource(lexer) : lexer, sourcePath);
     jimpleParser.setErrorHandler(new BailErrorStrategy());
 
     return run(jimpleParser, inputlocation, sourcePath, bodyInterceptors);
@@ -249,6 +275,80 @@ public class JimpleConverter {
           .collect(Collectors.toCollection(() -> EnumSet.noneOf(FieldModifier.class)));
     }
 
+    /** the text of the converted file, shared by the lazy bodies of the class */
+    private SourceText sourceText = null;
+
+    /**
+     * Parses and converts a method body that was skipped by the class-level pass. Only the
+     * position of the body is kept, its text is read from the file again when it is requested.
+     */
+    private class LazyBodySource implements BodySource {
+
+      @Nonnull private final MethodSignature methodSignature;
+      @Nonnull private final Set<MethodModifier> modifier;
+      @Nonnull private final Position methodPosition;
+      @Nonnull private final SourceText source;
+      private final int startIndex;
+      private final int stopIndex;
+      private final int bodyLine;
+      private final int bodyCharPositionInLine;
+
+      private LazyBodySource(
+          @Nonnull MethodSignature methodSignature,
+          @Nonnull Set<MethodModifier> modifier,
+          @Nonnull Position methodPosition,
+          @Nonnull SourceText source,
+          @Nonnull SkippedMethodBody skippedBody) {
+        this.methodSignature = methodSignature;
+        this.modifier = modifier;
+        this.methodPosition = methodPosition;
+        this.source = source;
+        this.startIndex = skippedBody.getStartIndex();
+        this.stopIndex = skippedBody.getStopIndex();
+        this.bodyLine = skippedBody.getBodyLine();
+        this.bodyCharPositionInLine = skippedBody.getBodyCharPositionInLine();
+      }
+
+      @Nonnull
+      @Override
+      public Body resolveBody(@Nonnull Iterable<MethodModifier> modifiers) {
+        final String bodyText = source.getText(startIndex, stopIndex);
+        if (bodyText.isEmpty()
+            || bodyText.charAt(0) != '{'
+            || bodyText.charAt(bodyText.length() - 1) != '}') {
+          throw new ResolveException(
+              "The body of " + methodSignature + " is not at its position anymore.",
+              path,
+              methodPosition);
+        }
+        final JimpleLexer lexer =
+            JimpleConverterUtil.createJimpleLexer(
+                CharStreams.fromString(bodyText, path.toString()), path);
+        // keep the positions of the Stmts relative to the whole file
+        lexer.setLine(bodyLine);
+        lexer.setCharPositionInLine(bodyCharPositionInLine);
+        final JimpleParser parser = JimpleConverterUtil.createJimpleParser(lexer, path);
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+          return new MethodVisitor()
+              .buildBody(parser.method_body(), methodSignature, modifier, methodPosition);
+        } catch (ParseCancellationException ex) {
+          throw new ResolveException("Syntax Error", path, ex);
+        }
+      }
+
+      @Override
+      public Object resolveAnnotationsDefaultValue() {
+        return null;
+      }
+
+      @Nonnull
+      @Override
+      public MethodSignature getSignature() {
+        return methodSignature;
+      }
+    }
+
     private class MethodVisitor extends JimpleBaseVisitor<SootMethod> {
 
       private final HashMap<BranchingStmt, List<String>> unresolvedBranches = new HashMap<>();
@@ -298,19 +398,48 @@ public class JimpleConverter {
                 ? Collections.emptyList()
                 : util.getClassTypeList(ctx.throws_clause().type_list());
 
+        if (ctx.method_body() == null) {
+          throw new ResolveException(
+              "404 Body not found.", path, JimpleConverterUtil.buildPositionFromCtx(ctx));
+        }
+        Position methodPosition = JimpleConverterUtil.buildPositionFromCtx(ctx);
+
+        final BodySource bodySource;
+        final TerminalNode semicolon = ctx.method_body().SEMICOLON();
+        if (semicolon != null && semicolon.getSymbol() instanceof SkippedMethodBody) {
+          // the body is parsed when it is requested
+          final SkippedMethodBody skippedBody = (SkippedMethodBody) semicolon.getSymbol();
+          if (sourceText == null) {
+            sourceText = new SourceText(path, skippedBody.getInputStream());
+          }
+          bodySource =
+              new LazyBodySource(
+                  methodSignature, modifier, methodPosition, sourceText, skippedBody);
+        } else {
+          bodySource =
+              new OverridingBodySource(
+                  methodSignature,
+                  buildBody(ctx.method_body(), methodSignature, modifier, methodPosition));
+        }
+        return new SootMethod(bodySource, methodSignature, modifier, exceptions, methodPosition);
+      }
+
+      @Nonnull
+      private Body buildBody(
+          @Nonnull JimpleParser.Method_bodyContext bodyCtx,
+          @Nonnull MethodSignature methodSignature,
+          @Nonnull Set<MethodModifier> modifier,
+          @Nonnull Position methodPosition) {
         List<Trap> traps = new ArrayList<>();
         List<List<Stmt>> blocks = new ArrayList<>();
         Map<BranchingStmt, List<Stmt>> successorMap = new HashMap<>();
 
-        if (ctx.method_body() == null) {
-          throw new ResolveException(
-              "404 Body not found.", path, JimpleConverterUtil.buildPositionFromCtx(ctx));
-        } else if (ctx.method_body().SEMICOLON() == null) {
+        if (bodyCtx.SEMICOLON() == null) {
 
           // declare locals
           locals = new HashMap<>();
           final JimpleParser.Method_body_contentsContext method_body_contentsContext =
-              ctx.method_body().method_body_contents();
+              bodyCtx.method_body_contents();
           if (method_body_contentsContext.declarations() != null) {
             for (JimpleParser.DeclarationContext it :
                 method_body_contentsContext.declarations().declaration()) {
@@ -321,9 +450,7 @@ public class JimpleConverter {
               // validate nonvoid
               if (localtype == VoidType.getInstance()) {
                 throw new ResolveException(
-                    "Void is not an allowed Type for a Local.",
-                    path,
-                    JimpleConverterUtil.buildPositionFromCtx(ctx));
+                    "Void is not an allowed Type for a Local.", path, methodPosition);
               }
 
               if (it.arg_list() != null) {
@@ -335,9 +462,7 @@ public class JimpleConverter {
                       locals.put(localname, new Local(localname, localtype));
                     } else {
                       throw new ResolveException(
-                          "Thats not a Local in the Local Declaration.",
-                          path,
-                          JimpleConverterUtil.buildPositionFromCtx(ctx));
+                          "Thats not a Local in the Local Declaration.", path, methodPosition);
                     }
                   }
                 }
@@ -399,8 +524,6 @@ public class JimpleConverter {
           }
         }
 
-        Position classPosition = JimpleConverterUtil.buildPositionFromCtx(ctx);
-
         // associate labeled Stmts with Branching Stmts
         for (Map.Entry<BranchingStmt, List<String>> item : unresolvedBranches.entrySet()) {
           final List<String> targetLabels = item.getValue();
@@ -414,14 +537,13 @@ public class JimpleConverter {
                       + " to "
                       + targetLabel,
                   path,
-                  JimpleConverterUtil.buildPositionFromCtx(ctx));
+                  methodPosition);
             }
             targets.add(target);
           }
           successorMap.put(item.getKey(), targets);
         }
 
-        Position methodPosition = JimpleConverterUtil.buildPositionFromCtx(ctx);
         final Body build;
         try {
 
@@ -432,15 +554,15 @@ public class JimpleConverter {
           builder.setModifiers(modifier);
           builder.setMethodSignature(methodSignature);
           builder.setLocals(new HashSet<>(locals.values()));
-          builder.setPosition(classPosition);
+          builder.setPosition(methodPosition);
 
           build = builder.build();
         } catch (Exception e) {
-          throw new ResolveException(methodname + " " + e.getMessage(), path, methodPosition, e);
+          throw new ResolveException(
+              methodSignature.getName() + " " + e.getMessage(), path, methodPosition, e);
         }
 
-        OverridingBodySource oms = new OverridingBodySource(methodSignature, build);
-        return new SootMethod(oms, methodSignature, modifier, exceptions, methodPosition);
+        return build;
       }
 
       private class StmtVisitor extends JimpleBaseVisitor<Stmt> {
@@ -865,4 +987,42 @@ public class JimpleConverter {
       }
     }
   }
+
+  /**
+   * The text of a converted file. The text of a file that is on disk is only softly reachable and
+   * read again when it was collected, the text of any other input is kept.
+   */
+  private static final class SourceText {
+    @Nonnull private final Path path;
+    @Nullable private final CharStream pinned;
+    @Nonnull private SoftReference<CharStream> cached;
+
+    private SourceText(@Nonnull Path path, @Nonnull CharStream charStream) {
+      this.path = path;
+      if (Files.isRegularFile(path)) {
+        this.pinned = null;
+      } else {
+        this.pinned = charStream;
+      }
+      this.cached = new SoftReference<>(charStream);
+    }
+
+    /** @return the text from start to stop, both inclusive, as code point indices */
+    @Nonnull
+    synchronized String getText(int start, int stop) {
+      CharStream charStream = pinned != null ? pinned : cached.get();
+      if (charStream == null) {
+        try {
+          charStream = CharStreams.fromPath(path);
+        } catch (IOException e) {
+          throw new ResolveException("The file could not be read again.", path, e);
+        }
+        cached = new SoftReference<>(charStream);
+      }
+      if (stop >= charStream.size()) {
+        return "";
+      }
+      return charStream.getText(Interval.of(start, stop));
+    }
+  }
 }
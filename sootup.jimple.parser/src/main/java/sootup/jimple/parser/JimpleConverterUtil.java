@@ -214,6 +214,11 @@ public class JimpleConverterUtil {
 
   @Nonnull
   public static JimpleParser createJimpleParser(CharStream charStream, Path path) {
+    return createJimpleParser(createJimpleLexer(charStream, path), path);
+  }
+
+  @Nonnull
+  static JimpleLexer createJimpleLexer(CharStream charStream, Path path) {
     JimpleLexer lexer = new JimpleLexer(charStream);
 
     lexer.removeErrorListeners();
@@ -235,7 +240,16 @@ public class JimpleConverterUtil {
           }
         });
 
-    TokenStream tokens = new CommonTokenStream(lexer);
+    return lexer;
+  }
+
+  /**
+   * @param tokenSource e.g. a {@link JimpleLexer} or a {@link MethodBodySkippingTokenSource} that
+   *     wraps it
+   */
+  @Nonnull
+  public static JimpleParser createJimpleParser(TokenSource tokenSource, Path path) {
+    TokenStream tokens = new CommonTokenStream(tokenSource);
     JimpleParser parser = new JimpleParser(tokens);
 
     parser.removeErrorListeners();
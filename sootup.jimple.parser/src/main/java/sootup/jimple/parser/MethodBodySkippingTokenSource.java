@@ -0,0 +1,155 @@
+package sootup.jimple.parser;
+
+/*-
+ * #%L
+ * SootUp
+ * %%
+ * Copyright (C) 1997 - 2024 Raja Vallée-Rai and others
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Pair;
+import sootup.jimple.JimpleLexer;
+
+/**
+ * Hands the tokens of a {@link JimpleLexer} to the parser but replaces the tokens of each method
+ * body by a single {@link SkippedMethodBody} token. The parser accepts it like the semicolon of a
+ * method without body, so the class-level pass builds no parse tree for the Stmts. The {@link
+ * JimpleConverter} parses the skipped body when it is requested.
+ */
+public class MethodBodySkippingTokenSource implements TokenSource {
+
+  @Nonnull private final JimpleLexer lexer;
+  /** the nesting of braces: the class body is at depth 1, the method bodies at depth 2 */
+  private int depth = 0;
+
+  public MethodBodySkippingTokenSource(@Nonnull JimpleLexer lexer) {
+    this.lexer = lexer;
+  }
+
+  @Override
+  public Token nextToken() {
+    Token token = lexer.nextToken();
+    if (token.getType() == JimpleLexer.L_BRACE) {
+      if (++depth == 2) {
+        return skipMethodBody(token);
+      }
+    } else if (token.getType() == JimpleLexer.R_BRACE) {
+      depth--;
+    }
+    return token;
+  }
+
+  @Nonnull
+  private Token skipMethodBody(@Nonnull Token start) {
+    // the text of the tokens without the skipped whitespace, like ParserRuleContext.getText()
+    StringBuilder tokenText = new StringBuilder(start.getText());
+    Token token = start;
+    while (depth > 1) {
+      token = lexer.nextToken();
+      if (token.getType() == Token.EOF) {
+        // unbalanced braces: let the parser report the missing brace
+        return token;
+      }
+      if (token.getType() == JimpleLexer.L_BRACE) {
+        depth++;
+      } else if (token.getType() == JimpleLexer.R_BRACE) {
+        depth--;
+      }
+      tokenText.append(token.getText());
+    }
+    return new SkippedMethodBody(
+        new Pair<>(this, lexer.getInputStream()), start, token, tokenText.toString());
+  }
+
+  @Override
+  public int getLine() {
+    return lexer.getLine();
+  }
+
+  @Override
+  public int getCharPositionInLine() {
+    return lexer.getCharPositionInLine();
+  }
+
+  @Override
+  public CharStream getInputStream() {
+    return lexer.getInputStream();
+  }
+
+  @Override
+  public String getSourceName() {
+    return lexer.getSourceName();
+  }
+
+  @Override
+  public void setTokenFactory(TokenFactory<?> factory) {
+    lexer.setTokenFactory(factory);
+  }
+
+  @Override
+  public TokenFactory<?> getTokenFactory() {
+    return lexer.getTokenFactory();
+  }
+
+  /**
+   * Stands for a complete method body, from its opening to its closing brace. For the parser it is
+   * a {@link JimpleLexer#SEMICOLON}; its position is the position of the closing brace, so the
+   * positions of the method are the same as if the body was parsed.
+   */
+  public static class SkippedMethodBody extends CommonToken {
+
+    @Nonnull private final String tokenText;
+    private final int bodyLine;
+    private final int bodyCharPositionInLine;
+
+    SkippedMethodBody(
+        @Nonnull Pair<TokenSource, CharStream> source,
+        @Nonnull Token start,
+        @Nonnull Token stop,
+        @Nonnull String tokenText) {
+      super(
+          source,
+          JimpleLexer.SEMICOLON,
+          Token.DEFAULT_CHANNEL,
+          start.getStartIndex(),
+          stop.getStopIndex());
+      setLine(stop.getLine());
+      setCharPositionInLine(stop.getCharPositionInLine());
+      this.tokenText = tokenText;
+      this.bodyLine = start.getLine();
+      this.bodyCharPositionInLine = start.getCharPositionInLine();
+    }
+
+    @Override
+    public String getText() {
+      return tokenText;
+    }
+
+    /** @return the line of the opening brace */
+    public int getBodyLine() {
+      return bodyLine;
+    }
+
+    /** @return the position of the opening brace in its line */
+    public int getBodyCharPositionInLine() {
+      return bodyCharPositionInLine;
+    }
+  }
+}
@@ -2,6 +2,7 @@ package sootup.jimple.parser;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.Collections;
@@ -17,6 +18,7 @@ import sootup.core.frontend.ResolveException;
 import sootup.core.inputlocation.EagerInputLocation;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.Trap;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.*;
 import sootup.core.signatures.MethodSubSignature;
 import sootup.core.types.PrimitiveType;
@@ -827,4 +829,69 @@ public class JimpleConverterTest {
     List<Trap> traps = method.getBody().getTraps();
     assertEquals(0, traps.size());
   }
+
+  @Test
+  public void testLazyBodiesEqualEagerBodies() throws IOException {
+    File[] files = new File("src/test/java/resources/jimple/").listFiles();
+    assertNotNull(files);
+    int comparedBodies = 0;
+    for (File file : files) {
+      final SootClass eagerClass;
+      try {
+        eagerClass = parseJimpleClass(CharStreams.fromPath(file.toPath()));
+      } catch (ResolveException e) {
+        // invalid on purpose
+        continue;
+      }
+      final OverridingClassSource lazySource =
+          new JimpleConverter(true)
+              .run(CharStreams.fromPath(file.toPath()), new EagerInputLocation(), file.toPath());
+      SootClass lazyClass = new SootClass(lazySource, SourceType.Application);
+
+      assertEquals(eagerClass.getPosition(), lazyClass.getPosition());
+      assertEquals(eagerClass.getMethods().size(), lazyClass.getMethods().size());
+      for (SootMethod eagerMethod : eagerClass.getMethods()) {
+        SootMethod lazyMethod =
+            lazyClass.getMethod(eagerMethod.getSignature().getSubSignature()).get();
+        assertEquals(eagerMethod.getPosition(), lazyMethod.getPosition(), file.getName());
+        assertEquals(eagerMethod.hasBody(), lazyMethod.hasBody());
+        if (!eagerMethod.hasBody()) {
+          continue;
+        }
+
+        Body eagerBody = eagerMethod.getBody();
+        Body lazyBody = lazyMethod.getBody();
+        assertEquals(eagerBody.toString(), lazyBody.toString(), file.getName());
+        assertEquals(eagerBody.getPosition(), lazyBody.getPosition());
+        List<Stmt> eagerStmts = eagerBody.getStmts();
+        List<Stmt> lazyStmts = lazyBody.getStmts();
+        for (int i = 0; i < eagerStmts.size(); i++) {
+          assertEquals(
+              eagerStmts.get(i).getPositionInfo().getStmtPosition(),
+              lazyStmts.get(i).getPositionInfo().getStmtPosition());
+        }
+        comparedBodies++;
+      }
+    }
+    assertTrue(comparedBodies > 100);
+  }
+
+  @Test
+  public void testLazyBodySyntaxError() {
+    String jimple =
+        "public class A extends java.lang.Object {\n"
+            + "  public void valid() { return; }\n"
+            + "  public void invalid() { lookupswitch(1) { case 1: goto label1; }; return ) }\n"
+            + "}";
+    assertThrows(ResolveException.class, () -> parseJimpleClass(CharStreams.fromString(jimple)));
+
+    OverridingClassSource classSource =
+        new JimpleConverter(true)
+            .run(CharStreams.fromString(jimple), new EagerInputLocation(), Paths.get(""));
+    SootClass clazz = new SootClass(classSource, SourceType.Application);
+    assertEquals(2, clazz.getMethods().size());
+    assertEquals(1, clazz.getMethodsByName("valid").iterator().next().getBody().getStmts().size());
+    SootMethod invalid = clazz.getMethodsByName("invalid").iterator().next();
+    assertThrows(ResolveException.class, invalid::getBody);
+  }
 }
@@ -40,6 +40,11 @@ public class CoreConfig {
     APP
   }
 
+  public enum PointsToSetKind {
+    HYBRID,
+    SHARED
+  }
+
   public static class CorePTAConfiguration {
     public boolean singleentry = false;
 
@@ -83,6 +88,21 @@ public class CoreConfig {
     /** in qilin.spark limit heap context for strings if we are object sensitive */
     public boolean enforceEmptyCtxForIgnoreTypes = false;
 
+    /**
+     * the number of threads that propagate points-to sets; with more than one thread the
+     * qilin.core.solver.ParallelSolver is used, which computes the same results.
+     */
+    public int solverThreads = 1;
+
+    /** collapse cycles of simple edges in the PAG before and during solving. */
+    public boolean collapseCycles = false;
+
+    /**
+     * the implementation of points-to sets. HYBRID: an array for small sets and a bit vector for
+     * large ones (default). SHARED: compressed sparse bitmaps, equal sets share their storage.
+     */
+    public PointsToSetKind pointsToSetKind = PointsToSetKind.HYBRID;
+
     public String ptaName;
   }
 
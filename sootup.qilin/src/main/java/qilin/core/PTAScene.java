@@ -42,6 +42,7 @@ public class PTAScene {
   private final View view;
   private OnFlyCallGraph callgraph;
   private final FakeMainFactory fakeMainFactory;
+  private final VirtualCalls virtualCalls;
 
   public final Set<SootMethod> nativeBuilt;
   public final Set<SootMethod> reflectionBuilt;
@@ -52,6 +53,7 @@ public class PTAScene {
     this.reflectionBuilt = DataFactory.createSet();
     this.arraycopyBuilt = DataFactory.createSet();
     this.view = view;
+    this.virtualCalls = new VirtualCalls(view);
     SootClass mainClass = getSootClass(mainClassSig);
     // setup fakemain
     this.fakeMainFactory = new FakeMainFactory(view, mainClass);
@@ -80,6 +82,11 @@ public class PTAScene {
     this.callgraph = cg;
   }
 
+  /** Returns the dispatch of the analyses on this scene. */
+  public VirtualCalls getVirtualCalls() {
+    return virtualCalls;
+  }
+
   public View getView() {
     return view;
   }
@@ -19,9 +19,9 @@
 package qilin.core;
 
 import java.util.*;
-import qilin.util.DataFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import qilin.util.PTAUtils;
-import qilin.util.queue.ChunkedQueue;
 import sootup.core.jimple.common.expr.JSpecialInvokeExpr;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
@@ -36,15 +36,36 @@ import sootup.core.views.View;
 /**
  * Resolves virtual calls.
  *
+ * <p>The vtables map a runtime type and a subsignature to the target, including the absence of a
+ * target. They are filled lazily and thread-safe. The {@link PTAScene} keeps one instance, so the
+ * vtables are shared by all analyses on the scene, e.g., by the pre-analysis and the main analysis
+ * of a staged PTA, and are dropped together with the scene. The call graph algorithms of
+ * sootup.callgraph do not use them: their dispatch also considers default methods of interfaces,
+ * so they resolve some pairs to different targets.
+ *
  * @author Ondrej Lhotak
  */
 public class VirtualCalls {
-  private final Map<Type, Map<MethodSubSignature, SootMethod>> typeToVtbl;
+  private final Map<ClassType, Map<MethodSubSignature, Optional<SootMethod>>> typeToVtbl =
+      new ConcurrentHashMap<>();
+  private final AtomicLong lookups = new AtomicLong();
   protected View view;
 
   public VirtualCalls(View view) {
     this.view = view;
-    this.typeToVtbl = DataFactory.createMap((int) view.getClasses().count());
+  }
+
+  /** Returns the number of (type, subsignature) pairs resolved so far. */
+  public int getNumberOfResolvedCalls() {
+    return typeToVtbl.values().stream().mapToInt(Map::size).sum();
+  }
+
+  /**
+   * Returns the number of times a pair was looked up in the class hierarchy so far. Without
+   * concurrent misses on the same pair, this is the number of resolved pairs.
+   */
+  public long getNumberOfLookups() {
+    return lookups.get();
   }
 
   public SootMethod resolveSpecial(
@@ -79,63 +100,51 @@ public class VirtualCalls {
   }
 
   public SootMethod resolveNonSpecial(ClassType t, MethodSubSignature subSig, boolean appOnly) {
-    Map<MethodSubSignature, SootMethod> vtbl =
-        typeToVtbl.computeIfAbsent(t, k -> DataFactory.createMap(8));
-    SootMethod ret = vtbl.get(subSig);
-    if (ret != null) {
-      return ret;
-    }
-    SootClass cls = view.getClass(t).get();
-    if (appOnly && cls.isLibraryClass()) {
+    if (appOnly && view.getClass(t).get().isLibraryClass()) {
       return null;
     }
+    Map<MethodSubSignature, Optional<SootMethod>> vtbl =
+        typeToVtbl.computeIfAbsent(t, k -> new ConcurrentHashMap<>(8));
+    Optional<SootMethod> ret = vtbl.get(subSig);
+    if (ret == null) {
+      // resolved outside of computeIfAbsent, which must not be called recursively.
+      lookups.incrementAndGet();
+      ret = Optional.ofNullable(lookup(view.getClass(t).get(), subSig));
+      vtbl.putIfAbsent(subSig, ret);
+    }
+    return ret.orElse(null);
+  }
+
+  private SootMethod lookup(SootClass cls, MethodSubSignature subSig) {
     Optional<? extends SootMethod> om = cls.getMethod(subSig);
     if (om.isPresent()) {
       SootMethod m = om.get();
-      if (!m.isAbstract()) {
-        ret = m;
-      }
-    } else {
-      Optional<? extends ClassType> oc = cls.getSuperclass();
-      if (oc.isPresent()) {
-        ClassType ct = oc.get();
-        SootClass c = view.getClass(ct).get();
-        ret = resolveNonSpecial(c.getType(), subSig);
-      }
+      return m.isAbstract() ? null : m;
     }
-    if (ret == null) {
-      return null;
+    Optional<? extends ClassType> oc = cls.getSuperclass();
+    if (oc.isPresent()) {
+      return resolveNonSpecial(oc.get(), subSig);
     }
-    vtbl.put(subSig, ret);
-    return ret;
+    return null;
   }
 
-  public void resolve(
-      Type t,
-      Type declaredType,
-      MethodSubSignature subSig,
-      SootMethod container,
-      ChunkedQueue<SootMethod> targets) {
-    resolve(t, declaredType, null, subSig, container, targets);
+  public SootMethod resolve(
+      Type t, Type declaredType, MethodSubSignature subSig, SootMethod container) {
+    return resolve(t, declaredType, null, subSig, container);
   }
 
-  public void resolve(
-      Type t,
-      Type declaredType,
-      Type sigType,
-      MethodSubSignature subSig,
-      SootMethod container,
-      ChunkedQueue<SootMethod> targets) {
-    resolve(t, declaredType, sigType, subSig, container, targets, false);
+  public SootMethod resolve(
+      Type t, Type declaredType, Type sigType, MethodSubSignature subSig, SootMethod container) {
+    return resolve(t, declaredType, sigType, subSig, container, false);
   }
 
-  public void resolve(
+  /** Returns the target of calling subSig on an object of type t, or null if there is none. */
+  public SootMethod resolve(
       Type t,
       Type declaredType,
       Type sigType,
       MethodSubSignature subSig,
       SootMethod container,
-      ChunkedQueue<SootMethod> targets,
       boolean appOnly) {
     if (declaredType instanceof ArrayType) {
       declaredType = PTAUtils.getClassType("java.lang.Object");
@@ -148,16 +157,13 @@ public class VirtualCalls {
     }
 
     if (declaredType != null && !PTAUtils.canStoreType(view, t, declaredType)) {
-      return;
+      return null;
     }
     if (sigType != null && !PTAUtils.canStoreType(view, t, sigType)) {
-      return;
+      return null;
     }
     if (t instanceof ClassType) {
-      SootMethod target = resolveNonSpecial((ClassType) t, subSig, appOnly);
-      if (target != null) {
-        targets.add(target);
-      }
+      return resolveNonSpecial((ClassType) t, subSig, appOnly);
     }
     //        else if (t instanceof AnySubType) {
     //            ClassType base = ((AnySubType) t).getBase();
@@ -183,6 +189,7 @@ public class VirtualCalls {
     // base);
     //        }
     else if (t instanceof NullType) {
+      return null;
     } else {
       throw new RuntimeException("oops " + t);
     }
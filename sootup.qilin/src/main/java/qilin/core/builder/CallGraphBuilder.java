@@ -33,7 +33,6 @@ import qilin.core.sets.PointsToSetInternal;
 import qilin.util.DataFactory;
 import qilin.util.PTAUtils;
 import qilin.util.queue.ChunkedQueue;
-import qilin.util.queue.QueueReader;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.basic.Value;
@@ -71,7 +70,7 @@ public class CallGraphBuilder {
     this.pag = pta.getPag();
     this.ptaScene = pta.getScene();
     ptaScene.setCallGraph(new OnFlyCallGraph());
-    this.virtualCalls = new VirtualCalls(ptaScene.getView());
+    this.virtualCalls = ptaScene.getVirtualCalls();
     receiverToSites = DataFactory.createMap((int) ptaScene.getView().getClasses().count());
     methodToInvokeStmt = DataFactory.createMap();
     reachMethods = DataFactory.createSet();
@@ -164,17 +163,17 @@ public class CallGraphBuilder {
 
   protected void dispatch(AllocNode receiverNode, VirtualCallSite site) {
     Type type = receiverNode.getType();
-    final QueueReader<SootMethod> targets = dispatch(type, site);
-    while (targets.hasNext()) {
-      SootMethod target = targets.next();
-      if (site.iie() instanceof JSpecialInvokeExpr) {
-        Type calleeDeclType = target.getDeclaringClassType();
-        if (!PTAUtils.canStoreType(pta.getView(), type, calleeDeclType)) {
-          continue;
-        }
+    SootMethod target = dispatch(type, site);
+    if (target == null) {
+      return;
+    }
+    if (site.iie() instanceof JSpecialInvokeExpr) {
+      Type calleeDeclType = target.getDeclaringClassType();
+      if (!PTAUtils.canStoreType(pta.getView(), type, calleeDeclType)) {
+        return;
       }
-      addVirtualEdge(site.container(), site.getUnit(), target, site.kind(), receiverNode);
     }
+    addVirtualEdge(site.container(), site.getUnit(), target, site.kind(), receiverNode);
   }
 
   private void addVirtualEdge(
@@ -302,27 +301,24 @@ public class CallGraphBuilder {
     }
   }
 
-  public QueueReader<SootMethod> dispatch(Type type, VirtualCallSite site) {
-    final ChunkedQueue<SootMethod> targetsQueue = new ChunkedQueue<>();
-    final QueueReader<SootMethod> targets = targetsQueue.reader();
+  /**
+   * Returns the target of site for a receiver object of the given type, or null if there is none.
+   * The targets are memoised per scene by {@link VirtualCalls}.
+   */
+  public SootMethod dispatch(Type type, VirtualCallSite site) {
     if (site.kind() == Kind.THREAD
         && !PTAUtils.canStoreType(ptaScene.getView(), type, clRunnable)) {
-      return targets;
+      return null;
     }
     ContextMethod container = site.container();
     if (site.iie() instanceof JSpecialInvokeExpr && site.kind() != Kind.THREAD) {
-      SootMethod target =
-          virtualCalls.resolveSpecial(
-              (JSpecialInvokeExpr) site.iie(), site.subSig(), container.method());
       // if the call target resides in a phantom class then
-      // "target" will be null, simply do not add the target in that case
-      if (target != null) {
-        targetsQueue.add(target);
-      }
+      // the target will be null, simply do not add the target in that case
+      return virtualCalls.resolveSpecial(
+          (JSpecialInvokeExpr) site.iie(), site.subSig(), container.method());
     } else {
       Type mType = site.recNode().getType();
-      virtualCalls.resolve(type, mType, site.subSig(), container.method(), targetsQueue);
+      return virtualCalls.resolve(type, mType, site.subSig(), container.method());
     }
-    return targets;
   }
 }
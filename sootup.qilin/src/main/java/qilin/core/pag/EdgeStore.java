@@ -0,0 +1,432 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.pag;
+
+import java.util.*;
+import qilin.util.ArrayNumberer;
+
+/**
+ * The edges of one kind of the PAG, stored as int arrays indexed by the numbers that the {@link
+ * ArrayNumberer}s of the PAG assign to its nodes.
+ *
+ * <p>New edges go to a growable array per source. {@link #compact()} moves all edges into
+ * compressed sparse row form: one array of offsets indexed by the source and one array holding the
+ * sorted targets of all sources. Edges added after compacting go to growable arrays again.
+ *
+ * <p>{@link Cursor} iterates the target numbers of a source without allocation, {@link
+ * #lookup(Node)} and {@link #asMap()} provide read-only views on the nodes.
+ */
+public class EdgeStore<S extends Node, T extends Node> {
+  /* sources with more added targets keep an additional hash set of them */
+  private static final int HUB_DEGREE = 16;
+
+  private final ArrayNumberer<? super S> sourceNumberer;
+  private final ArrayNumberer<? super T> targetNumberer;
+
+  // compacted edges: the targets of s are compactedTargets[offsets[s] .. offsets[s + 1]), sorted.
+  private int[] offsets = new int[1];
+  private int[] compactedTargets = new int[0];
+
+  // edges added since the last compaction.
+  private int[][] addedTargets = new int[64][];
+  private int[] addedDegrees = new int[64];
+  private IntSet[] hubs = new IntSet[64];
+
+  private int size = 0;
+
+  public EdgeStore(
+      ArrayNumberer<? super S> sourceNumberer, ArrayNumberer<? super T> targetNumberer) {
+    this.sourceNumberer = sourceNumberer;
+    this.targetNumberer = targetNumberer;
+  }
+
+  /** Adds the edge from -&gt; to, returns false if it was already there. */
+  public boolean add(S from, T to) {
+    return add(number(from), number(to));
+  }
+
+  private boolean add(int s, int t) {
+    if (containsCompacted(s, t)) {
+      return false;
+    }
+    ensureCapacity(s);
+    int degree = addedDegrees[s];
+    int[] targets = addedTargets[s];
+    if (hubs[s] != null) {
+      if (!hubs[s].add(t)) {
+        return false;
+      }
+    } else {
+      for (int i = 0; i < degree; i++) {
+        if (targets[i] == t) {
+          return false;
+        }
+      }
+      if (degree == HUB_DEGREE) {
+        IntSet hub = new IntSet();
+        for (int i = 0; i < degree; i++) {
+          hub.add(targets[i]);
+        }
+        hub.add(t);
+        hubs[s] = hub;
+      }
+    }
+    if (targets == null) {
+      targets = addedTargets[s] = new int[4];
+    } else if (degree == targets.length) {
+      targets = addedTargets[s] = Arrays.copyOf(targets, degree * 2);
+    }
+    targets[degree] = t;
+    addedDegrees[s] = degree + 1;
+    size++;
+    return true;
+  }
+
+  public boolean contains(S from, T to) {
+    return contains(from.getNumber(), to.getNumber());
+  }
+
+  private boolean contains(int s, int t) {
+    if (containsCompacted(s, t)) {
+      return true;
+    }
+    if (s >= addedDegrees.length) {
+      return false;
+    }
+    if (hubs[s] != null) {
+      return hubs[s].contains(t);
+    }
+    int[] targets = addedTargets[s];
+    for (int i = 0; i < addedDegrees[s]; i++) {
+      if (targets[i] == t) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean containsCompacted(int s, int t) {
+    return s < offsets.length - 1
+        && offsets[s] < offsets[s + 1]
+        && Arrays.binarySearch(compactedTargets, offsets[s], offsets[s + 1], t) >= 0;
+  }
+
+  /** Returns the number of targets of the source with the given number. */
+  public int degree(int source) {
+    int ret = 0;
+    if (source < offsets.length - 1) {
+      ret += offsets[source + 1] - offsets[source];
+    }
+    if (source < addedDegrees.length) {
+      ret += addedDegrees[source];
+    }
+    return ret;
+  }
+
+  /** Returns the number of edges. */
+  public int size() {
+    return size;
+  }
+
+  /** Moves all edges into the compressed sparse row arrays. */
+  public void compact() {
+    int sources = Math.max(offsets.length - 1, addedDegrees.length);
+    while (sources > 0 && degree(sources - 1) == 0) {
+      sources--;
+    }
+    int[] newOffsets = new int[sources + 1];
+    int[] newTargets = new int[size];
+    int pos = 0;
+    for (int s = 0; s < sources; s++) {
+      newOffsets[s] = pos;
+      int start = pos;
+      if (s < offsets.length - 1) {
+        int from = offsets[s];
+        int len = offsets[s + 1] - from;
+        System.arraycopy(compactedTargets, from, newTargets, pos, len);
+        pos += len;
+      }
+      if (s < addedDegrees.length && addedDegrees[s] > 0) {
+        System.arraycopy(addedTargets[s], 0, newTargets, pos, addedDegrees[s]);
+        pos += addedDegrees[s];
+      }
+      Arrays.sort(newTargets, start, pos);
+    }
+    newOffsets[sources] = pos;
+    offsets = newOffsets;
+    compactedTargets = newTargets;
+    addedTargets = new int[64][];
+    addedDegrees = new int[64];
+    hubs = new IntSet[64];
+  }
+
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /** Returns a read-only view on the targets of from. */
+  public Set<T> lookup(S from) {
+    if (from.getNumber() == 0 || degree(from.getNumber()) == 0) {
+      return Collections.emptySet();
+    }
+    return new TargetSet(from.getNumber());
+  }
+
+  /** Returns a read-only view mapping every source to its targets. */
+  public Map<S, Set<T>> asMap() {
+    return new AbstractMap<S, Set<T>>() {
+      @Override
+      public Set<T> get(Object key) {
+        return containsKey(key) ? new TargetSet(((Node) key).getNumber()) : null;
+      }
+
+      @Override
+      public boolean containsKey(Object key) {
+        return key instanceof Node
+            && isNumbered(sourceNumberer, (Node) key)
+            && degree(((Node) key).getNumber()) > 0;
+      }
+
+      @Override
+      public Set<Entry<S, Set<T>>> entrySet() {
+        return new AbstractSet<Entry<S, Set<T>>>() {
+          @Override
+          public Iterator<Entry<S, Set<T>>> iterator() {
+            return new Iterator<Entry<S, Set<T>>>() {
+              private int next = advance(0);
+
+              private int advance(int s) {
+                int sources = Math.max(offsets.length - 1, addedDegrees.length);
+                while (s < sources && degree(s) == 0) {
+                  s++;
+                }
+                return s < sources ? s : -1;
+              }
+
+              @Override
+              public boolean hasNext() {
+                return next >= 0;
+              }
+
+              @Override
+              public Entry<S, Set<T>> next() {
+                if (next < 0) {
+                  throw new NoSuchElementException();
+                }
+                int s = next;
+                next = advance(s + 1);
+                return new SimpleImmutableEntry<>(source(s), new TargetSet(s));
+              }
+            };
+          }
+
+          @Override
+          public int size() {
+            int ret = 0;
+            int sources = Math.max(offsets.length - 1, addedDegrees.length);
+            for (int s = 0; s < sources; s++) {
+              if (degree(s) > 0) {
+                ret++;
+              }
+            }
+            return ret;
+          }
+        };
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private S source(int number) {
+    return (S) sourceNumberer.get(number);
+  }
+
+  @SuppressWarnings("unchecked")
+  private T target(int number) {
+    return (T) targetNumberer.get(number);
+  }
+
+  private static int number(Node node) {
+    int ret = node.getNumber();
+    if (ret == 0) {
+      throw new RuntimeException("unnumbered: " + node);
+    }
+    return ret;
+  }
+
+  private static boolean isNumbered(ArrayNumberer<?> numberer, Node node) {
+    int number = node.getNumber();
+    return number > 0 && number <= numberer.size() && numberer.get(number) == node;
+  }
+
+  private void ensureCapacity(int s) {
+    if (s >= addedDegrees.length) {
+      int length = Math.max(addedDegrees.length * 2, s + 1);
+      addedTargets = Arrays.copyOf(addedTargets, length);
+      addedDegrees = Arrays.copyOf(addedDegrees, length);
+      hubs = Arrays.copyOf(hubs, length);
+    }
+  }
+
+  /**
+   * Iterates the target numbers of a source. A cursor can be reused for any number of sources, the
+   * edges added to the source while iterating are not visited.
+   */
+  public final class Cursor implements PrimitiveIterator.OfInt {
+    private int[] compacted;
+    private int pos;
+    private int end;
+    private int[] added;
+    private int addedPos;
+    private int addedEnd;
+
+    private Cursor() {}
+
+    /** Resets this cursor to the targets of the given source. */
+    public Cursor of(S source) {
+      return of(source.getNumber());
+    }
+
+    /** Resets this cursor to the targets of the source with the given number. */
+    public Cursor of(int source) {
+      compacted = compactedTargets;
+      if (source < offsets.length - 1) {
+        pos = offsets[source];
+        end = offsets[source + 1];
+      } else {
+        pos = end = 0;
+      }
+      addedPos = 0;
+      if (source < addedDegrees.length) {
+        added = addedTargets[source];
+        addedEnd = addedDegrees[source];
+      } else {
+        added = null;
+        addedEnd = 0;
+      }
+      return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return pos < end || addedPos < addedEnd;
+    }
+
+    @Override
+    public int nextInt() {
+      if (pos < end) {
+        return compacted[pos++];
+      }
+      if (addedPos < addedEnd) {
+        return added[addedPos++];
+      }
+      throw new NoSuchElementException();
+    }
+
+    /** Returns the next target node. */
+    public T nextTarget() {
+      return target(nextInt());
+    }
+  }
+
+  private class TargetSet extends AbstractSet<T> {
+    private final int source;
+
+    TargetSet(int source) {
+      this.source = source;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      final Cursor cursor = new Cursor().of(source);
+      return new Iterator<T>() {
+        @Override
+        public boolean hasNext() {
+          return cursor.hasNext();
+        }
+
+        @Override
+        public T next() {
+          return cursor.nextTarget();
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Node
+          && isNumbered(targetNumberer, (Node) o)
+          && EdgeStore.this.contains(source, ((Node) o).getNumber());
+    }
+
+    @Override
+    public int size() {
+      return degree(source);
+    }
+  }
+
+  /** An open addressing set of positive ints. */
+  private static final class IntSet {
+    private int[] table = new int[64];
+    private int size = 0;
+
+    boolean add(int value) {
+      if ((size + 1) * 2 > table.length) {
+        rehash();
+      }
+      int mask = table.length - 1;
+      for (int i = hash(value) & mask; ; i = (i + 1) & mask) {
+        if (table[i] == 0) {
+          table[i] = value;
+          size++;
+          return true;
+        }
+        if (table[i] == value) {
+          return false;
+        }
+      }
+    }
+
+    boolean contains(int value) {
+      int mask = table.length - 1;
+      for (int i = hash(value) & mask; table[i] != 0; i = (i + 1) & mask) {
+        if (table[i] == value) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void rehash() {
+      int[] old = table;
+      table = new int[old.length * 2];
+      size = 0;
+      for (int value : old) {
+        if (value != 0) {
+          add(value);
+        }
+      }
+    }
+
+    private static int hash(int value) {
+      int h = value * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+  }
+}
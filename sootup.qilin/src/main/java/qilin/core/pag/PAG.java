@@ -30,6 +30,7 @@ import qilin.core.natives.NativeMethodDriver;
 import qilin.core.reflection.NopReflectionModel;
 import qilin.core.reflection.ReflectionModel;
 import qilin.core.reflection.TamiflexModel;
+import qilin.core.sets.SharedPointsToSet;
 import qilin.util.ArrayNumberer;
 import qilin.util.DataFactory;
 import qilin.util.PTAUtils;
@@ -90,27 +91,31 @@ public class PAG {
   // ==========================outer objects==============================
   protected ChunkedQueue<Node> edgeQueue;
 
-  protected final Map<ValNode, Set<ValNode>> simple;
-  protected final Map<ValNode, Set<ValNode>> simpleInv;
-  protected final Map<FieldRefNode, Set<VarNode>> load;
-  protected final Map<VarNode, Set<FieldRefNode>> loadInv;
-  protected final Map<AllocNode, Set<VarNode>> alloc;
-  protected final Map<VarNode, Set<AllocNode>> allocInv;
-  protected final Map<VarNode, Set<FieldRefNode>> store;
-  protected final Map<FieldRefNode, Set<VarNode>> storeInv;
+  // edges are stored by the numbers of their nodes.
+  protected final EdgeStore<ValNode, ValNode> simple;
+  protected final EdgeStore<ValNode, ValNode> simpleInv;
+  protected final EdgeStore<FieldRefNode, VarNode> load;
+  protected final EdgeStore<VarNode, FieldRefNode> loadInv;
+  protected final EdgeStore<AllocNode, VarNode> alloc;
+  protected final EdgeStore<VarNode, AllocNode> allocInv;
+  protected final EdgeStore<VarNode, FieldRefNode> store;
+  protected final EdgeStore<FieldRefNode, VarNode> storeInv;
+
+  protected final SCCCollapser collapser;
+  protected final SharedPointsToSet.Table sharedSets = new SharedPointsToSet.Table();
 
   protected final PTA pta;
 
   public PAG(PTA pta) {
     this.pta = pta;
-    this.simple = DataFactory.createMap();
-    this.simpleInv = DataFactory.createMap();
-    this.load = DataFactory.createMap();
-    this.loadInv = DataFactory.createMap();
-    this.alloc = DataFactory.createMap();
-    this.allocInv = DataFactory.createMap();
-    this.store = DataFactory.createMap();
-    this.storeInv = DataFactory.createMap();
+    this.simple = new EdgeStore<>(valNodeNumberer, valNodeNumberer);
+    this.simpleInv = new EdgeStore<>(valNodeNumberer, valNodeNumberer);
+    this.load = new EdgeStore<>(fieldRefNodeNumberer, valNodeNumberer);
+    this.loadInv = new EdgeStore<>(valNodeNumberer, fieldRefNodeNumberer);
+    this.alloc = new EdgeStore<>(allocNodeNumberer, valNodeNumberer);
+    this.allocInv = new EdgeStore<>(valNodeNumberer, allocNodeNumberer);
+    this.store = new EdgeStore<>(valNodeNumberer, fieldRefNodeNumberer);
+    this.storeInv = new EdgeStore<>(fieldRefNodeNumberer, valNodeNumberer);
     this.nativeDriver = new NativeMethodDriver(pta.getScene());
     this.reflectionModel = createReflectionModel();
     this.contextVarNodeMap = DataFactory.createMap(16000);
@@ -123,6 +128,7 @@ public class PAG {
     this.methodToPag = DataFactory.createMap();
     this.globals = DataFactory.createSet(100000);
     this.locals = DataFactory.createSet(100000);
+    this.collapser = new SCCCollapser(this);
   }
 
   public void setEdgeQueue(ChunkedQueue<Node> edgeQueue) {
@@ -130,25 +136,96 @@ public class PAG {
   }
 
   public Map<AllocNode, Set<VarNode>> getAlloc() {
-    return alloc;
+    return alloc.asMap();
   }
 
   public Map<ValNode, Set<ValNode>> getSimple() {
-    return simple;
+    return simple.asMap();
   }
 
   public Map<ValNode, Set<ValNode>> getSimpleInv() {
-    return simpleInv;
+    return simpleInv.asMap();
   }
 
   public Map<FieldRefNode, Set<VarNode>> getLoad() {
-    return load;
+    return load.asMap();
   }
 
   public Map<FieldRefNode, Set<VarNode>> getStoreInv() {
+    return storeInv.asMap();
+  }
+
+  // the edge stores can be iterated with a reusable EdgeStore.Cursor, without allocation.
+  /** Returns the simple edges, to iterate the numbers of their targets without allocation. */
+  public EdgeStore<ValNode, ValNode> getSimpleEdges() {
+    return simple;
+  }
+
+  public EdgeStore<ValNode, ValNode> getSimpleInvEdges() {
+    return simpleInv;
+  }
+
+  public EdgeStore<FieldRefNode, VarNode> getLoadEdges() {
+    return load;
+  }
+
+  public EdgeStore<VarNode, FieldRefNode> getLoadInvEdges() {
+    return loadInv;
+  }
+
+  public EdgeStore<AllocNode, VarNode> getAllocEdges() {
+    return alloc;
+  }
+
+  public EdgeStore<VarNode, AllocNode> getAllocInvEdges() {
+    return allocInv;
+  }
+
+  public EdgeStore<VarNode, FieldRefNode> getStoreEdges() {
+    return store;
+  }
+
+  public EdgeStore<FieldRefNode, VarNode> getStoreInvEdges() {
     return storeInv;
   }
 
+  /**
+   * Moves all edges into compact arrays. The PAG stays modifiable, but is best compacted once it
+   * is not expected to grow any more.
+   */
+  public void compactEdges() {
+    simple.compact();
+    simpleInv.compact();
+    load.compact();
+    loadInv.compact();
+    alloc.compact();
+    allocInv.compact();
+    store.compact();
+    storeInv.compact();
+  }
+
+  public SCCCollapser getCollapser() {
+    return collapser;
+  }
+
+  /** Returns the canonical points-to sets of this PAG. */
+  public SharedPointsToSet.Table getSharedSets() {
+    return sharedSets;
+  }
+
+  /**
+   * Hash-conses the points-to sets of all value nodes, if they are {@link SharedPointsToSet}s. The
+   * sets are best shared once the propagation is done, as a write to a shared set copies it.
+   */
+  public void shareP2Sets() {
+    for (int i = 1; i <= valNodeNumberer.size(); i++) {
+      ValNode node = valNodeNumberer.get(i);
+      if (node != null && node.p2set != null) {
+        node.p2set.share(sharedSets);
+      }
+    }
+  }
+
   public PTA getPta() {
     return this.pta;
   }
@@ -162,38 +239,33 @@ public class PAG {
   }
 
   // =======================add edge===============================
-  protected <K, V> boolean addToMap(Map<K, Set<V>> m, K key, V value) {
-    Set<V> valueList = m.computeIfAbsent(key, k -> DataFactory.createSet(4));
-    return valueList.add(value);
-  }
-
   private boolean addAllocEdge(AllocNode from, VarNode to) {
-    if (addToMap(alloc, from, to)) {
-      addToMap(allocInv, to, from);
+    if (alloc.add(from, to)) {
+      allocInv.add(to, from);
       return true;
     }
     return false;
   }
 
   private boolean addSimpleEdge(ValNode from, ValNode to) {
-    if (addToMap(simple, from, to)) {
-      addToMap(simpleInv, to, from);
+    if (simple.add(from, to)) {
+      simpleInv.add(to, from);
       return true;
     }
     return false;
   }
 
   private boolean addStoreEdge(VarNode from, FieldRefNode to) {
-    if (addToMap(storeInv, to, from)) {
-      addToMap(store, from, to);
+    if (storeInv.add(to, from)) {
+      store.add(from, to);
       return true;
     }
     return false;
   }
 
   private boolean addLoadEdge(FieldRefNode from, VarNode to) {
-    if (addToMap(load, from, to)) {
-      addToMap(loadInv, to, from);
+    if (load.add(from, to)) {
+      loadInv.add(to, from);
       return true;
     }
     return false;
@@ -229,40 +301,37 @@ public class PAG {
   }
 
   // ======================lookups===========================
-  protected <K, V> Set<V> lookup(Map<K, Set<V>> m, K key) {
-    return m.getOrDefault(key, Collections.emptySet());
-  }
-
+  // each lookup returns a new read-only view; hot loops use a cursor of the edge store instead.
   public Set<VarNode> allocLookup(AllocNode key) {
-    return lookup(alloc, key);
+    return alloc.lookup(key);
   }
 
   public Set<AllocNode> allocInvLookup(VarNode key) {
-    return lookup(allocInv, key);
+    return allocInv.lookup(key);
   }
 
   public Set<ValNode> simpleLookup(ValNode key) {
-    return lookup(simple, key);
+    return simple.lookup(key);
   }
 
   public Set<ValNode> simpleInvLookup(ValNode key) {
-    return lookup(simpleInv, key);
+    return simpleInv.lookup(key);
   }
 
   public Set<FieldRefNode> loadInvLookup(VarNode key) {
-    return lookup(loadInv, key);
+    return loadInv.lookup(key);
   }
 
   public Set<VarNode> loadLookup(FieldRefNode key) {
-    return lookup(load, key);
+    return load.lookup(key);
   }
 
   public Set<FieldRefNode> storeLookup(VarNode key) {
-    return lookup(store, key);
+    return store.lookup(key);
   }
 
   public Set<VarNode> storeInvLookup(FieldRefNode key) {
-    return lookup(storeInv, key);
+    return storeInv.lookup(key);
   }
 
   public static int nextFinishNumber() {
@@ -642,5 +711,6 @@ public class PAG {
         .forEach(ValNode::discardP2Set);
     valToValNode.values().forEach(ValNode::discardP2Set);
     addedContexts.clear();
+    collapser.reset();
   }
 }
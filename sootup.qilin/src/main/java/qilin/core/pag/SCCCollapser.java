@@ -0,0 +1,247 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.pag;
+
+import java.util.*;
+import qilin.core.sets.DoublePointsToSet;
+import qilin.util.DataFactory;
+import qilin.util.Pair;
+import qilin.util.UnionFindSet;
+
+/**
+ * Collapses cycles of simple edges in the PAG. All nodes on such a cycle end up with the same
+ * points-to set, so they share a single {@link DoublePointsToSet} and the solver propagates along
+ * the edges of the cycle only once.
+ *
+ * <p>Only edges between nodes of the same type are considered, so the nodes of a collapsed cycle
+ * also agree on the type filter and the points-to sets are the same as without collapsing. The
+ * collapsed nodes stay in the PAG, {@link #find(ValNode)} returns the representative of the class
+ * of a node.
+ *
+ * <p>Cycles are found offline on the PAG built before solving ({@link #collapseCycles()}) and
+ * lazily during solving ({@link #checkEdge(ValNode, ValNode)}): when propagating along an edge adds
+ * nothing to its target and the points-to sets of both ends are equal, the edge likely closes a
+ * cycle. Every edge triggers at most one detection.
+ */
+public class SCCCollapser {
+  private final PAG pag;
+  private final EdgeStore<ValNode, ValNode>.Cursor simpleTargets;
+  private UnionFindSet<ValNode> classes = new UnionFindSet<>(Collections.emptySet());
+  private final Map<ValNode, List<ValNode>> members = DataFactory.createMap();
+  /* edges that already triggered a cycle detection */
+  private final Set<Pair<ValNode, ValNode>> checkedEdges = DataFactory.createSet();
+
+  private int offlineCollapsedNodes = 0;
+  private int onlineCollapsedNodes = 0;
+  private int cycleChecks = 0;
+  private long skippedPropagations = 0;
+  private long collapseTime = 0; // in nanoseconds
+
+  public SCCCollapser(PAG pag) {
+    this.pag = pag;
+    this.simpleTargets = pag.getSimpleEdges().cursor();
+  }
+
+  /** Returns the representative of the collapsed cycle containing node, or node itself. */
+  public ValNode find(ValNode node) {
+    if (members.isEmpty() || !classes.contains(node)) {
+      return node;
+    }
+    return classes.find(node);
+  }
+
+  /** Returns all nodes represented by the representative rep. */
+  public List<ValNode> members(ValNode rep) {
+    List<ValNode> ret = members.get(rep);
+    return ret != null ? ret : Collections.singletonList(rep);
+  }
+
+  /** Collapses all cycles of the simple edges currently in the PAG. */
+  public void collapseCycles() {
+    long start = System.nanoTime();
+    Set<ValNode> nodes = DataFactory.createSet();
+    for (Map.Entry<ValNode, Set<ValNode>> e : pag.getSimple().entrySet()) {
+      nodes.add(find(e.getKey()));
+      for (ValNode to : e.getValue()) {
+        nodes.add(find(to));
+      }
+    }
+    for (List<ValNode> scc : findCycles(nodes)) {
+      collapse(scc);
+      offlineCollapsedNodes += scc.size() - 1;
+    }
+    collapseTime += System.nanoTime() - start;
+  }
+
+  /**
+   * Looks for cycles through the simple edge from -&gt; to the first time it is checked. Returns
+   * the representatives of the cycles that were collapsed.
+   */
+  public List<ValNode> checkEdge(ValNode from, ValNode to) {
+    if (find(from) == find(to) || !checkedEdges.add(new Pair<>(from, to))) {
+      return Collections.emptyList();
+    }
+    long start = System.nanoTime();
+    ++cycleChecks;
+    List<ValNode> reps = new ArrayList<>();
+    for (List<ValNode> scc : findCycles(Collections.singleton(find(to)))) {
+      reps.add(collapse(scc));
+      onlineCollapsedNodes += scc.size() - 1;
+    }
+    collapseTime += System.nanoTime() - start;
+    return reps;
+  }
+
+  /** Returns true if the simple edge from -&gt; to already triggered a cycle detection. */
+  public boolean isChecked(ValNode from, ValNode to) {
+    return checkedEdges.contains(new Pair<>(from, to));
+  }
+
+  /** Returns true if the simple edge from -&gt; to may be part of a collapsible cycle. */
+  public static boolean isCollapsible(ValNode from, ValNode to) {
+    return Objects.equals(from.getType(), to.getType());
+  }
+
+  public void recordSkippedPropagation() {
+    ++skippedPropagations;
+  }
+
+  /** Tarjan's algorithm over the representatives reachable from roots, without recursion. */
+  private List<List<ValNode>> findCycles(Collection<ValNode> roots) {
+    final Map<ValNode, Integer> index = DataFactory.createMap();
+    final Map<ValNode, Integer> lowlink = DataFactory.createMap();
+    final Deque<ValNode> stack = new ArrayDeque<>();
+    final Set<ValNode> onStack = DataFactory.createSet();
+    final Deque<Pair<ValNode, Iterator<ValNode>>> callStack = new ArrayDeque<>();
+    final List<List<ValNode>> sccs = new ArrayList<>();
+    for (ValNode root : roots) {
+      if (index.containsKey(root)) {
+        continue;
+      }
+      index.put(root, index.size());
+      lowlink.put(root, index.get(root));
+      stack.push(root);
+      onStack.add(root);
+      callStack.push(new Pair<>(root, successors(root).iterator()));
+      while (!callStack.isEmpty()) {
+        ValNode v = callStack.peek().getFirst();
+        Iterator<ValNode> it = callStack.peek().getSecond();
+        if (it.hasNext()) {
+          ValNode w = it.next();
+          if (!index.containsKey(w)) {
+            index.put(w, index.size());
+            lowlink.put(w, index.get(w));
+            stack.push(w);
+            onStack.add(w);
+            callStack.push(new Pair<>(w, successors(w).iterator()));
+          } else if (onStack.contains(w)) {
+            lowlink.put(v, Math.min(lowlink.get(v), index.get(w)));
+          }
+          continue;
+        }
+        callStack.pop();
+        if (!callStack.isEmpty()) {
+          ValNode parent = callStack.peek().getFirst();
+          lowlink.put(parent, Math.min(lowlink.get(parent), lowlink.get(v)));
+        }
+        if (lowlink.get(v).equals(index.get(v))) {
+          List<ValNode> scc = new ArrayList<>();
+          ValNode w;
+          do {
+            w = stack.pop();
+            onStack.remove(w);
+            scc.add(w);
+          } while (w != v);
+          if (scc.size() > 1) {
+            sccs.add(scc);
+          }
+        }
+      }
+    }
+    return sccs;
+  }
+
+  private Set<ValNode> successors(ValNode rep) {
+    Set<ValNode> ret = DataFactory.createSet();
+    for (ValNode member : members(rep)) {
+      for (simpleTargets.of(member); simpleTargets.hasNext(); ) {
+        ValNode to = simpleTargets.nextTarget();
+        ValNode target = find(to);
+        if (target != rep && isCollapsible(member, to)) {
+          ret.add(target);
+        }
+      }
+    }
+    return ret;
+  }
+
+  /** Merges the classes of the given representatives and returns the new representative. */
+  private ValNode collapse(List<ValNode> reps) {
+    ValNode first = reps.get(0);
+    DoublePointsToSet pts = first.getP2Set();
+    List<ValNode> merged = new ArrayList<>(members(first));
+    classes.add(first);
+    for (int i = 1; i < reps.size(); ++i) {
+      ValNode rep = reps.get(i);
+      DoublePointsToSet other = rep.getP2Set();
+      if (other != pts) {
+        pts.mergeWith(other);
+      }
+      merged.addAll(members(rep));
+      members.remove(rep);
+      classes.add(rep);
+      classes.union(first, rep);
+    }
+    members.remove(first);
+    for (ValNode member : merged) {
+      member.p2set = pts;
+    }
+    ValNode rep = classes.find(first);
+    members.put(rep, merged);
+    return rep;
+  }
+
+  /** Forgets all collapsed cycles, their points-to sets have to be discarded as well. */
+  public void reset() {
+    classes = new UnionFindSet<>(Collections.emptySet());
+    members.clear();
+    checkedEdges.clear();
+  }
+
+  public int getOfflineCollapsedNodes() {
+    return offlineCollapsedNodes;
+  }
+
+  public int getOnlineCollapsedNodes() {
+    return onlineCollapsedNodes;
+  }
+
+  public int getCycleChecks() {
+    return cycleChecks;
+  }
+
+  public long getSkippedPropagations() {
+    return skippedPropagations;
+  }
+
+  /** Returns the time spent on finding and collapsing cycles in seconds. */
+  public double getCollapseTime() {
+    return collapseTime / 1e9;
+  }
+}
@@ -19,6 +19,7 @@
 package qilin.core.sets;
 
 import java.util.Iterator;
+import qilin.CoreConfig;
 
 /**
  * Implementation of points-to set that holds two sets: one for new elements that have not yet been
@@ -27,12 +28,25 @@ import java.util.Iterator;
  * @author Ondrej Lhotak
  */
 public class DoublePointsToSet extends PointsToSetInternal {
-  protected HybridPointsToSet newSet;
-  protected HybridPointsToSet oldSet;
+  protected final CoreConfig.PointsToSetKind kind;
+  protected PointsToSetInternal newSet;
+  protected PointsToSetInternal oldSet;
 
   public DoublePointsToSet() {
-    newSet = new HybridPointsToSet();
-    oldSet = new HybridPointsToSet();
+    this(CoreConfig.v().getPtaConfig().pointsToSetKind);
+  }
+
+  public DoublePointsToSet(CoreConfig.PointsToSetKind kind) {
+    this.kind = kind;
+    newSet = createSet();
+    oldSet = createSet();
+  }
+
+  private PointsToSetInternal createSet() {
+    if (kind == CoreConfig.PointsToSetKind.SHARED) {
+      return new SharedPointsToSet();
+    }
+    return new HybridPointsToSet();
   }
 
   /** Returns true if this set contains no run-time objects. */
@@ -108,17 +122,17 @@ public class DoublePointsToSet extends PointsToSetInternal {
   }
 
   /** Returns set of nodes already present before last call to flushNew. */
-  public HybridPointsToSet getOldSet() {
+  public PointsToSetInternal getOldSet() {
     return oldSet;
   }
 
   /** Returns set of newly-added nodes since last call to flushNew. */
-  public HybridPointsToSet getNewSet() {
+  public PointsToSetInternal getNewSet() {
     return newSet;
   }
 
-  public HybridPointsToSet getNewSetCopy() {
-    HybridPointsToSet newCopy = new HybridPointsToSet();
+  public PointsToSetInternal getNewSetCopy() {
+    PointsToSetInternal newCopy = createSet();
     newCopy.addAll(newSet, null);
     return newCopy;
   }
@@ -126,7 +140,32 @@ public class DoublePointsToSet extends PointsToSetInternal {
   /** Sets all newly-added nodes to old nodes. */
   public void flushNew() {
     oldSet.addAll(newSet, null);
-    newSet = new HybridPointsToSet();
+    newSet = createSet();
+  }
+
+  /** Hash-conses the old set in the given table, if it is a {@link SharedPointsToSet}. */
+  public void share(SharedPointsToSet.Table table) {
+    if (oldSet instanceof SharedPointsToSet) {
+      ((SharedPointsToSet) oldSet).share(table);
+    }
+  }
+
+  /**
+   * Merges the objects of other into this set. Only objects in the old sets of both sets stay old,
+   * all others become new as they have not been propagated for both nodes yet.
+   */
+  public void mergeWith(DoublePointsToSet other) {
+    PointsToSetInternal bothOld = createSet();
+    for (Iterator<Integer> it = oldSet.iterator(); it.hasNext(); ) {
+      int idx = it.next();
+      if (other.oldSet.contains(idx)) {
+        bothOld.add(idx);
+      }
+    }
+    newSet.addAll(oldSet, bothOld);
+    newSet.addAll(other.oldSet, bothOld);
+    newSet.addAll(other.newSet, bothOld);
+    oldSet = bothOld;
   }
 
   /** Returns true iff the set contains idx. */
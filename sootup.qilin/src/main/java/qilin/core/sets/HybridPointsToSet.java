@@ -59,7 +59,7 @@ public final class HybridPointsToSet extends PointsToSetInternal {
     size = 0;
   }
 
-  private boolean nativeAddAll(HybridPointsToSet other, PointsToSetInternal exclude) {
+  private boolean nativeAddAll(PointsToSetInternal other, PointsToSetInternal exclude) {
     boolean ret = false;
     for (Iterator<Integer> it = other.iterator(); it.hasNext(); ) {
       int idx = it.next();
@@ -79,7 +79,7 @@ public final class HybridPointsToSet extends PointsToSetInternal {
       DoublePointsToSet dpts = (DoublePointsToSet) other;
       return nativeAddAll(dpts.getNewSet(), exclude) | nativeAddAll(dpts.getOldSet(), exclude);
     }
-    return nativeAddAll((HybridPointsToSet) other, exclude);
+    return nativeAddAll(other, exclude);
   }
 
   private class HybridPTSIterator implements Iterator<Integer> {
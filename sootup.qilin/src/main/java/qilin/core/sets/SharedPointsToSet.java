@@ -0,0 +1,155 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.sets;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Implementation of points-to set backed by a compressed {@link SparseBitmap}. After {@link
+ * #share(Table)} the set is hash-consed: all sets shared in the same {@link Table} with the same
+ * objects use the same bitmap, which is copied on the next write.
+ *
+ * <p>The solver shares the old sets of all nodes once the propagation is done (see {@link
+ * qilin.core.pag.PAG#shareP2Sets()}), as many variables end up pointing to exactly the same
+ * objects. Sets are not shared while they still grow, as every write would copy the bitmap again.
+ */
+public final class SharedPointsToSet extends PointsToSetInternal {
+  private SparseBitmap bits = null;
+  private boolean shared = false;
+
+  /** The canonical bitmaps of one analysis, they are dropped once no set uses them any more. */
+  public static final class Table {
+    private final Map<SparseBitmap, WeakReference<SparseBitmap>> canonicalBitmaps =
+        new WeakHashMap<>();
+    private long shareRequests = 0;
+
+    /** Returns the number of distinct bitmaps used by shared sets. */
+    public synchronized int getNumberOfCanonicalSets() {
+      return canonicalBitmaps.size();
+    }
+
+    /** Returns how often sets were shared, including the sets that were already canonical. */
+    public synchronized long getShareRequests() {
+      return shareRequests;
+    }
+
+    private synchronized SparseBitmap intern(SparseBitmap bits) {
+      ++shareRequests;
+      WeakReference<SparseBitmap> ref = canonicalBitmaps.get(bits);
+      SparseBitmap ret = ref == null ? null : ref.get();
+      if (ret == null) {
+        canonicalBitmaps.put(bits, new WeakReference<>(bits));
+        ret = bits;
+      }
+      return ret;
+    }
+  }
+
+  /** Replaces the bitmap of this set by the canonical one of the table with the same objects. */
+  public void share(Table table) {
+    if (bits != null && !shared) {
+      bits = table.intern(bits);
+      shared = true;
+    }
+  }
+
+  /** Returns true if this set and other use the same bitmap. */
+  public boolean sharesBitmapWith(SharedPointsToSet other) {
+    return bits != null && bits == other.bits;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return bits == null || bits.cardinality() == 0;
+  }
+
+  @Override
+  public void clear() {
+    bits = null;
+    shared = false;
+  }
+
+  @Override
+  public int size() {
+    return bits == null ? 0 : bits.cardinality();
+  }
+
+  /** Adds contents of other into this set, returns true if this set changed. */
+  @Override
+  public boolean addAll(final PointsToSetInternal other, final PointsToSetInternal exclude) {
+    if (other == null) {
+      return false;
+    }
+    if (other instanceof SharedPointsToSet
+        && exclude == null
+        && bits == null
+        && ((SharedPointsToSet) other).shared) {
+      // the canonical bitmap of other can be used as is.
+      bits = ((SharedPointsToSet) other).bits;
+      shared = true;
+      return true;
+    }
+    boolean ret = false;
+    for (Iterator<Integer> it = other.iterator(); it.hasNext(); ) {
+      int idx = it.next();
+      if (exclude == null || !exclude.contains(idx)) {
+        ret |= add(idx);
+      }
+    }
+    return ret;
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return bits == null ? Collections.<Integer>emptyIterator() : bits.iterator();
+  }
+
+  /** Calls v's visit method on all nodes in this set. */
+  @Override
+  public boolean forall(P2SetVisitor v) {
+    if (bits != null) {
+      bits.forall(v);
+    }
+    return v.getReturnValue();
+  }
+
+  @Override
+  public boolean contains(int idx) {
+    return bits != null && bits.contains(idx);
+  }
+
+  /** Adds idx to this set, returns true if idx was not already in this set. */
+  @Override
+  public boolean add(int idx) {
+    if (bits == null) {
+      bits = new SparseBitmap();
+    } else if (shared) {
+      if (bits.contains(idx)) {
+        return false;
+      }
+      bits = bits.copy();
+      shared = false;
+    }
+    return bits.add(idx);
+  }
+}
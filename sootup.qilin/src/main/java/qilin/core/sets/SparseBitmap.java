@@ -0,0 +1,297 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.sets;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A compressed bitmap of non-negative ints in the style of Roaring bitmaps. The ints are grouped by
+ * their upper 16 bits, each group is stored in a container: a sorted char array for up to 4096
+ * values, a bitmap of 65536 bits for more.
+ *
+ * <p>{@link #copy()} shares the containers with the copy, a container is only cloned by the first
+ * write to it.
+ */
+final class SparseBitmap {
+  private static final int ARRAY_LIMIT = 4096;
+  private static final int BITMAP_WORDS = 1 << 10;
+
+  private char[] keys = new char[2];
+  // a char[] of sorted values or a long[] bitmap for every key.
+  private Object[] containers = new Object[2];
+  private int[] cardinalities = new int[2];
+  // containers shared with a copy, which are cloned before they are written.
+  private boolean[] borrowed = new boolean[2];
+  private int size = 0;
+  private int cardinality = 0;
+  private int hash = 0;
+
+  SparseBitmap() {}
+
+  private SparseBitmap(SparseBitmap other) {
+    keys = other.keys.clone();
+    containers = other.containers.clone();
+    cardinalities = other.cardinalities.clone();
+    borrowed = new boolean[keys.length];
+    Arrays.fill(borrowed, 0, other.size, true);
+    Arrays.fill(other.borrowed, 0, other.size, true);
+    size = other.size;
+    cardinality = other.cardinality;
+    hash = other.hash;
+  }
+
+  SparseBitmap copy() {
+    return new SparseBitmap(this);
+  }
+
+  int cardinality() {
+    return cardinality;
+  }
+
+  boolean contains(int value) {
+    int i = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+    if (i < 0) {
+      return false;
+    }
+    char low = (char) value;
+    Object container = containers[i];
+    if (container instanceof long[]) {
+      return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+    return Arrays.binarySearch((char[]) container, 0, cardinalities[i], low) >= 0;
+  }
+
+  boolean add(int value) {
+    char high = (char) (value >>> 16);
+    char low = (char) value;
+    int i = Arrays.binarySearch(keys, 0, size, high);
+    if (i < 0) {
+      i = -i - 1;
+      insertContainer(i, high);
+    }
+    Object container = containers[i];
+    if (container instanceof long[]) {
+      long[] words = (long[]) container;
+      long mask = 1L << low;
+      if ((words[low >>> 6] & mask) != 0) {
+        return false;
+      }
+      if (borrowed[i]) {
+        words = words.clone();
+        containers[i] = words;
+        borrowed[i] = false;
+      }
+      words[low >>> 6] |= mask;
+    } else {
+      char[] values = (char[]) container;
+      int card = cardinalities[i];
+      int j = Arrays.binarySearch(values, 0, card, low);
+      if (j >= 0) {
+        return false;
+      }
+      j = -j - 1;
+      if (card == ARRAY_LIMIT) {
+        long[] words = new long[BITMAP_WORDS];
+        for (int k = 0; k < card; k++) {
+          words[values[k] >>> 6] |= 1L << values[k];
+        }
+        words[low >>> 6] |= 1L << low;
+        containers[i] = words;
+      } else {
+        char[] target = values;
+        if (card == values.length) {
+          target = new char[Math.min(ARRAY_LIMIT, card * 2)];
+          System.arraycopy(values, 0, target, 0, j);
+        } else if (borrowed[i]) {
+          target = new char[values.length];
+          System.arraycopy(values, 0, target, 0, j);
+        }
+        System.arraycopy(values, j, target, j + 1, card - j);
+        target[j] = low;
+        containers[i] = target;
+      }
+      borrowed[i] = false;
+    }
+    cardinalities[i]++;
+    cardinality++;
+    hash = 0;
+    return true;
+  }
+
+  private void insertContainer(int i, char key) {
+    if (size == keys.length) {
+      int length = keys.length * 2;
+      keys = Arrays.copyOf(keys, length);
+      containers = Arrays.copyOf(containers, length);
+      cardinalities = Arrays.copyOf(cardinalities, length);
+      borrowed = Arrays.copyOf(borrowed, length);
+    }
+    System.arraycopy(keys, i, keys, i + 1, size - i);
+    System.arraycopy(containers, i, containers, i + 1, size - i);
+    System.arraycopy(cardinalities, i, cardinalities, i + 1, size - i);
+    System.arraycopy(borrowed, i, borrowed, i + 1, size - i);
+    keys[i] = key;
+    containers[i] = new char[4];
+    cardinalities[i] = 0;
+    borrowed[i] = false;
+    size++;
+  }
+
+  void forall(P2SetVisitor v) {
+    for (int i = 0; i < size; i++) {
+      int high = keys[i] << 16;
+      Object container = containers[i];
+      if (container instanceof long[]) {
+        long[] words = (long[]) container;
+        for (int w = 0; w < words.length; w++) {
+          long word = words[w];
+          while (word != 0) {
+            v.visit(high | (w << 6) | Long.numberOfTrailingZeros(word));
+            word &= word - 1;
+          }
+        }
+      } else {
+        char[] values = (char[]) container;
+        for (int k = 0; k < cardinalities[i]; k++) {
+          v.visit(high | values[k]);
+        }
+      }
+    }
+  }
+
+  Iterator<Integer> iterator() {
+    return new Iterator<Integer>() {
+      private int container = 0;
+      private int pos = 0; // index in a char[] container, next bit in a long[] container
+      private int next = -1;
+
+      @Override
+      public boolean hasNext() {
+        if (next >= 0) {
+          return true;
+        }
+        for (; container < size; container++, pos = 0) {
+          int high = keys[container] << 16;
+          Object c = containers[container];
+          if (c instanceof long[]) {
+            int bit = nextSetBit((long[]) c, pos);
+            if (bit >= 0) {
+              pos = bit + 1;
+              next = high | bit;
+              return true;
+            }
+          } else if (pos < cardinalities[container]) {
+            next = high | ((char[]) c)[pos++];
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      public Integer next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        int ret = next;
+        next = -1;
+        return ret;
+      }
+    };
+  }
+
+  private static int nextSetBit(long[] words, int from) {
+    int w = from >>> 6;
+    if (w >= words.length) {
+      return -1;
+    }
+    long word = words[w] & (-1L << from);
+    while (true) {
+      if (word != 0) {
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+      }
+      if (++w == words.length) {
+        return -1;
+      }
+      word = words[w];
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SparseBitmap)) {
+      return false;
+    }
+    SparseBitmap other = (SparseBitmap) o;
+    if (cardinality != other.cardinality || size != other.size || hashCode() != other.hashCode()) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (keys[i] != other.keys[i] || cardinalities[i] != other.cardinalities[i]) {
+        return false;
+      }
+      Object c1 = containers[i];
+      Object c2 = other.containers[i];
+      if (c1 == c2) {
+        continue;
+      }
+      // without removal, containers of equal cardinality have the same kind.
+      if (c1 instanceof long[]) {
+        if (!Arrays.equals((long[]) c1, (long[]) c2)) {
+          return false;
+        }
+      } else {
+        char[] values1 = (char[]) c1;
+        char[] values2 = (char[]) c2;
+        for (int k = 0; k < cardinalities[i]; k++) {
+          if (values1[k] != values2[k]) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    if (hash == 0) {
+      int h = cardinality;
+      for (int i = 0; i < size; i++) {
+        h = 31 * h + keys[i];
+        Object container = containers[i];
+        if (container instanceof long[]) {
+          h = 31 * h + Arrays.hashCode((long[]) container);
+        } else {
+          char[] values = (char[]) container;
+          for (int k = 0; k < cardinalities[i]; k++) {
+            h = 31 * h + values[k];
+          }
+        }
+      }
+      hash = h == 0 ? 1 : h;
+    }
+    return hash;
+  }
+}
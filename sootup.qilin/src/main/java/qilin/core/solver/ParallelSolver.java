@@ -0,0 +1,262 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.solver;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import qilin.core.PTA;
+import qilin.core.pag.*;
+import qilin.core.sets.DoublePointsToSet;
+import qilin.core.sets.P2SetVisitor;
+import qilin.core.sets.PointsToSetInternal;
+import qilin.util.PTAUtils;
+import qilin.util.queue.QueueReader;
+import sootup.core.types.Type;
+
+/**
+ * A {@link Solver} that propagates the points-to sets along the simple (copy) edges of the PAG on
+ * several threads. The solver works in rounds: all nodes of the worklist are taken at once and
+ * their new objects (the deltas) are flushed, so the deltas stay unchanged during the round.
+ *
+ * <ol>
+ *   <li>The PAG is partitioned by the targets of the simple edges of these nodes. Every target is
+ *       owned by a single task that adds the deltas of all its sources to its points-to set, so the
+ *       points-to sets are written without locks.
+ *   <li>Field accesses, call sites and throw sites of the nodes are resolved and new constraints
+ *       are activated on the calling thread, as they change the PAG and the call graph.
+ * </ol>
+ *
+ * The analysis is monotone, so the solver computes the same points-to sets and call graph as the
+ * sequential {@link Solver}; only the order in which nodes are created may differ. Cycles of the
+ * PAG are only collapsed before solving, the lazy cycle detection of {@link Solver} is not done.
+ */
+public class ParallelSolver extends Solver {
+  /** rounds with fewer targets than the shard size are propagated on the calling thread */
+  public static final int DEFAULT_SHARD_SIZE = 64;
+
+  private final int threads;
+  private final int shardSize;
+  private ForkJoinPool pool;
+  private int parallelRounds = 0;
+
+  /** memoized results of the type filter, the type hierarchy is not accessed concurrently */
+  private final Map<Type, Map<Type, Boolean>> castNeverFails = new ConcurrentHashMap<>();
+
+  public ParallelSolver(PTA pta, int threads) {
+    this(pta, threads, DEFAULT_SHARD_SIZE);
+  }
+
+  /**
+   * @param threads the number of workers
+   * @param shardSize the number of targets a worker propagates to without splitting them further
+   */
+  public ParallelSolver(PTA pta, int threads, int shardSize) {
+    super(pta);
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be positive: " + threads);
+    }
+    if (shardSize < 1) {
+      throw new IllegalArgumentException("shardSize must be positive: " + shardSize);
+    }
+    this.threads = threads;
+    this.shardSize = shardSize;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public int getShardSize() {
+    return shardSize;
+  }
+
+  /** Returns the number of rounds whose targets were propagated by the workers. */
+  public int getParallelRounds() {
+    return parallelRounds;
+  }
+
+  @Override
+  public void propagate() {
+    final QueueReader<ContextMethod> newRMs = rmQueue.reader();
+    final QueueReader<Node> newPAGEdges = edgeQueue.reader();
+    final QueueReader<ExceptionThrowSite> newThrows = throwSiteQueue.reader();
+    final QueueReader<VirtualCallSite> newCalls = virtualCallSiteQueue.reader();
+    cgb.initReachableMethods();
+    processStmts(newRMs);
+    if (collapseCycles) {
+      collapser.collapseCycles();
+    }
+    pag.getAlloc().forEach((a, set) -> set.forEach(v -> propagatePTS(v, a)));
+    pool = new ForkJoinPool(threads);
+    try {
+      while (!valNodeWorkList.isEmpty()) {
+        final Set<ValNode> reps = new LinkedHashSet<>();
+        for (ValNode node : valNodeWorkList) {
+          reps.add(collapser.find(node));
+        }
+        valNodeWorkList.clear();
+        final List<ValNode> nodes = new ArrayList<>(reps);
+        final List<PointsToSetInternal> deltas = new ArrayList<>(nodes.size());
+        for (ValNode node : nodes) {
+          DoublePointsToSet pts = node.getP2Set();
+          deltas.add(pts.getNewSet());
+          // flushNew replaces the new set, so objects added in this round do not change the delta
+          pts.flushNew();
+        }
+        // Step 1: Resolving Direct Constraints.
+        propagateAlongSimpleEdges(nodes, deltas);
+        // Step 1 continues, Step 2 and Step 3.
+        for (int i = 0; i < nodes.size(); i++) {
+          for (ValNode member : collapser.members(nodes.get(i))) {
+            if (member instanceof VarNode) {
+              resolveComplexConstraints((VarNode) member, deltas.get(i), newRMs);
+            }
+          }
+        }
+        // Step 4: Activating New Constraints.
+        activateConstraints(newCalls, newRMs, newThrows, newPAGEdges);
+      }
+    } finally {
+      pool.shutdown();
+      pool = null;
+    }
+    pag.compactEdges();
+    pag.shareP2Sets();
+  }
+
+  private void propagateAlongSimpleEdges(List<ValNode> nodes, List<PointsToSetInternal> deltas) {
+    final Map<ValNode, List<PointsToSetInternal>> incoming = new LinkedHashMap<>();
+    final EdgeStore<ValNode, ValNode>.Cursor simpleTargets = pag.getSimpleEdges().cursor();
+    for (int i = 0; i < nodes.size(); i++) {
+      PointsToSetInternal delta = deltas.get(i);
+      if (delta.isEmpty()) {
+        continue;
+      }
+      for (ValNode member : collapser.members(nodes.get(i))) {
+        for (simpleTargets.of(member.getNumber()); simpleTargets.hasNext(); ) {
+          // targets sharing a points-to set must be owned by the same task
+          ValNode target = collapser.find(pag.getValNodeNumberer().get(simpleTargets.nextInt()));
+          if (target != nodes.get(i)) {
+            incoming.computeIfAbsent(target, k -> new ArrayList<>(2)).add(delta);
+          }
+        }
+      }
+    }
+    final ValNode[] targets = new ValNode[incoming.size()];
+    final List<List<PointsToSetInternal>> sources = new ArrayList<>(incoming.size());
+    int idx = 0;
+    for (Map.Entry<ValNode, List<PointsToSetInternal>> entry : incoming.entrySet()) {
+      targets[idx++] = entry.getKey();
+      // create the points-to set before it is accessed by the owning task
+      entry.getKey().getP2Set();
+      sources.add(entry.getValue());
+    }
+    final boolean[] changed = new boolean[targets.length];
+    if (targets.length < shardSize) {
+      new PropagationTask(targets, sources, changed, 0, targets.length).compute();
+    } else {
+      ++parallelRounds;
+      pool.invoke(new PropagationTask(targets, sources, changed, 0, targets.length));
+    }
+    for (int i = 0; i < targets.length; i++) {
+      if (changed[i]) {
+        valNodeWorkList.add(targets[i]);
+      }
+    }
+  }
+
+  /** adds the deltas of the sources to the points-to sets of the targets in [from, to) */
+  private class PropagationTask extends RecursiveAction {
+    private final ValNode[] targets;
+    private final List<List<PointsToSetInternal>> sources;
+    private final boolean[] changed;
+    private final int from;
+    private final int to;
+
+    PropagationTask(
+        ValNode[] targets,
+        List<List<PointsToSetInternal>> sources,
+        boolean[] changed,
+        int from,
+        int to) {
+      this.targets = targets;
+      this.sources = sources;
+      this.changed = changed;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > shardSize) {
+        int mid = (from + to) >>> 1;
+        invokeAll(
+            new PropagationTask(targets, sources, changed, from, mid),
+            new PropagationTask(targets, sources, changed, mid, to));
+        return;
+      }
+      for (int i = from; i < to; i++) {
+        final ValNode pointer = targets[i];
+        final DoublePointsToSet addTo = pointer.getP2Set();
+        P2SetVisitor p2SetVisitor =
+            new P2SetVisitor(pta) {
+              @Override
+              public void visit(Node n) {
+                if (addWithTypeFiltering(addTo, pointer.getType(), n)) {
+                  returnValue = true;
+                }
+              }
+            };
+        for (PointsToSetInternal delta : sources.get(i)) {
+          delta.forall(p2SetVisitor);
+        }
+        changed[i] = p2SetVisitor.getReturnValue();
+      }
+    }
+  }
+
+  @Override
+  protected boolean addWithTypeFiltering(PointsToSetInternal pts, Type type, Node node) {
+    if (castNeverFails(node.getType(), type)) {
+      return pts.add(node.getNumber());
+    }
+    return false;
+  }
+
+  private boolean castNeverFails(Type src, Type dst) {
+    if (dst == null) {
+      return true;
+    }
+    if (src == null) {
+      return false;
+    }
+    Map<Type, Boolean> results =
+        castNeverFails.computeIfAbsent(dst, k -> new ConcurrentHashMap<>());
+    Boolean result = results.get(src);
+    if (result == null) {
+      synchronized (castNeverFails) {
+        result = PTAUtils.castNeverFails(pta.getView(), src, dst);
+      }
+      results.put(src, result);
+    }
+    return result;
+  }
+}
@@ -49,16 +49,24 @@ import sootup.core.types.Type;
 import sootup.java.core.JavaIdentifierFactory;
 
 public class Solver extends Propagator {
-  private final TreeSet<ValNode> valNodeWorkList = new TreeSet<>();
-  private final PAG pag;
-  private final PTA pta;
-  private final CallGraphBuilder cgb;
-  private final ExceptionHandler eh;
-  private final ChunkedQueue<ExceptionThrowSite> throwSiteQueue = new ChunkedQueue<>();
-  private final ChunkedQueue<VirtualCallSite> virtualCallSiteQueue = new ChunkedQueue<>();
-  private final ChunkedQueue<Node> edgeQueue = new ChunkedQueue<>();
+  protected final TreeSet<ValNode> valNodeWorkList = new TreeSet<>();
+  protected final PAG pag;
+  protected final PTA pta;
+  protected final CallGraphBuilder cgb;
+  protected final ExceptionHandler eh;
+  protected final ChunkedQueue<ExceptionThrowSite> throwSiteQueue = new ChunkedQueue<>();
+  protected final ChunkedQueue<VirtualCallSite> virtualCallSiteQueue = new ChunkedQueue<>();
+  protected final ChunkedQueue<Node> edgeQueue = new ChunkedQueue<>();
 
-  private final ChunkedQueue<ContextMethod> rmQueue = new ChunkedQueue<>();
+  protected final ChunkedQueue<ContextMethod> rmQueue = new ChunkedQueue<>();
+
+  protected final SCCCollapser collapser;
+  protected final boolean collapseCycles;
+  // simple edges (from, to) whose ends have equal points-to sets after propagation.
+  private final List<ValNode> cycleCandidates = new ArrayList<>();
+  private final EdgeStore<ValNode, ValNode>.Cursor simpleTargets;
+  private final EdgeStore<FieldRefNode, VarNode>.Cursor storeSources;
+  private final EdgeStore<FieldRefNode, VarNode>.Cursor loadTargets;
 
   public Solver(PTA pta) {
     this.cgb = pta.getCgb();
@@ -67,6 +75,11 @@ public class Solver extends Propagator {
     this.pag.setEdgeQueue(edgeQueue);
     this.eh = pta.getExceptionHandler();
     this.pta = pta;
+    this.collapser = pag.getCollapser();
+    this.collapseCycles = CoreConfig.v().getPtaConfig().collapseCycles;
+    this.simpleTargets = pag.getSimpleEdges().cursor();
+    this.storeSources = pag.getStoreInvEdges().cursor();
+    this.loadTargets = pag.getLoadEdges().cursor();
   }
 
   @Override
@@ -77,37 +90,104 @@ public class Solver extends Propagator {
     final QueueReader<VirtualCallSite> newCalls = virtualCallSiteQueue.reader();
     cgb.initReachableMethods();
     processStmts(newRMs);
+    if (collapseCycles) {
+      collapser.collapseCycles();
+    }
     pag.getAlloc().forEach((a, set) -> set.forEach(v -> propagatePTS(v, a)));
     while (!valNodeWorkList.isEmpty()) {
-      ValNode curr = valNodeWorkList.pollFirst();
+      ValNode polled = valNodeWorkList.pollFirst();
       // Step 1: Resolving Direct Constraints
-      assert curr != null;
+      assert polled != null;
+      // the nodes of a collapsed cycle share the points-to set of their representative.
+      final ValNode curr = collapser.find(polled);
       final DoublePointsToSet pts = curr.getP2Set();
       final PointsToSetInternal newset = pts.getNewSet();
-      pag.simpleLookup(curr).forEach(to -> propagatePTS(to, newset));
-
-      if (curr instanceof VarNode) {
-        VarNode mSrc = (VarNode) curr;
-        // Step 1 continues.
-        Collection<ExceptionThrowSite> throwSites = eh.throwSitesLookUp(mSrc);
-        for (ExceptionThrowSite site : throwSites) {
-          eh.exceptionDispatch(newset, site);
+      for (ValNode member : collapser.members(curr)) {
+        for (simpleTargets.of(member.getNumber()); simpleTargets.hasNext(); ) {
+          ValNode to = pag.getValNodeNumberer().get(simpleTargets.nextInt());
+          propagateAlongSimpleEdge(curr, member, to, newset);
         }
-        // Step 2: Resolving Indirect Constraints.
-        handleStoreAndLoadOnBase(mSrc);
-        // Step 3: Collecting New Constraints.
-        Collection<VirtualCallSite> sites = cgb.callSitesLookUp(mSrc);
-        for (VirtualCallSite site : sites) {
-          cgb.virtualCallDispatch(newset, site);
+        if (member instanceof VarNode) {
+          resolveComplexConstraints((VarNode) member, newset, newRMs);
         }
-        processStmts(newRMs);
       }
       pts.flushNew();
       // Step 4: Activating New Constraints.
       activateConstraints(newCalls, newRMs, newThrows, newPAGEdges);
+      if (collapseCycles) {
+        collapseCandidateCycles();
+      }
+    }
+    pag.compactEdges();
+    pag.shareP2Sets();
+  }
+
+  private void propagateAlongSimpleEdge(
+      ValNode curr, ValNode from, ValNode to, PointsToSetInternal newset) {
+    if (collapser.find(to) == curr) {
+      if (to != curr) {
+        collapser.recordSkippedPropagation();
+      }
+      return;
+    }
+    // only an edge that adds nothing to its target may close a cycle, each edge is checked once.
+    if (!propagatePTS(to, newset)
+        && collapseCycles
+        && SCCCollapser.isCollapsible(from, to)
+        && !collapser.isChecked(from, to)
+        && haveSamePointsToSet(curr, to)) {
+      cycleCandidates.add(from);
+      cycleCandidates.add(to);
     }
   }
 
+  private static boolean haveSamePointsToSet(ValNode a, ValNode b) {
+    DoublePointsToSet ptsA = a.getP2Set();
+    DoublePointsToSet ptsB = b.getP2Set();
+    if (ptsA.size() != ptsB.size()) {
+      return false;
+    }
+    for (Iterator<Integer> it = ptsA.iterator(); it.hasNext(); ) {
+      if (!ptsB.contains(it.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** lazy cycle detection: collapses the cycles through the candidate edges. */
+  private void collapseCandidateCycles() {
+    for (int i = 0; i < cycleCandidates.size(); i += 2) {
+      for (ValNode rep : collapser.checkEdge(cycleCandidates.get(i), cycleCandidates.get(i + 1))) {
+        if (!rep.getP2Set().getNewSet().isEmpty()) {
+          valNodeWorkList.add(rep);
+        }
+      }
+    }
+    cycleCandidates.clear();
+  }
+
+  /**
+   * Handles the throw sites, field accesses and call sites based on mSrc for the objects that were
+   * newly added to its points-to set.
+   */
+  protected void resolveComplexConstraints(
+      VarNode mSrc, PointsToSetInternal newset, Iterator<ContextMethod> newRMs) {
+    // Step 1 continues.
+    Collection<ExceptionThrowSite> throwSites = eh.throwSitesLookUp(mSrc);
+    for (ExceptionThrowSite site : throwSites) {
+      eh.exceptionDispatch(newset, site);
+    }
+    // Step 2: Resolving Indirect Constraints.
+    handleStoreAndLoadOnBase(mSrc, newset);
+    // Step 3: Collecting New Constraints.
+    Collection<VirtualCallSite> sites = cgb.callSitesLookUp(mSrc);
+    for (VirtualCallSite site : sites) {
+      cgb.virtualCallDispatch(newset, site);
+    }
+    processStmts(newRMs);
+  }
+
   public void processStmts(Iterator<ContextMethod> newRMs) {
     while (newRMs.hasNext()) {
       ContextMethod momc = newRMs.next();
@@ -248,13 +328,13 @@ public class Solver extends Propagator {
     return false;
   }
 
-  private void handleStoreAndLoadOnBase(VarNode base) {
+  private void handleStoreAndLoadOnBase(VarNode base, PointsToSetInternal newset) {
     for (final FieldRefNode fr : base.getAllFieldRefs()) {
-      for (final VarNode v : pag.storeInvLookup(fr)) {
-        handleStoreEdge(base.getP2Set().getNewSet(), fr.getField(), v);
+      for (storeSources.of(fr); storeSources.hasNext(); ) {
+        handleStoreEdge(newset, fr.getField(), storeSources.nextTarget());
       }
-      for (final VarNode to : pag.loadLookup(fr)) {
-        handleLoadEdge(base.getP2Set().getNewSet(), fr.getField(), to);
+      for (loadTargets.of(fr); loadTargets.hasNext(); ) {
+        handleLoadEdge(newset, fr.getField(), loadTargets.nextTarget());
       }
     }
   }
@@ -289,7 +369,7 @@ public class Solver extends Propagator {
         });
   }
 
-  private void activateConstraints(
+  protected void activateConstraints(
       QueueReader<VirtualCallSite> newCalls,
       QueueReader<ContextMethod> newRMs,
       QueueReader<ExceptionThrowSite> newThrows,
@@ -336,7 +416,8 @@ public class Solver extends Propagator {
     }
   }
 
-  protected void propagatePTS(final ValNode pointer, PointsToSetInternal other) {
+  /** Adds the objects of other to the points-to set of pointer, returns true if it changed. */
+  protected boolean propagatePTS(final ValNode pointer, PointsToSetInternal other) {
     final DoublePointsToSet addTo = pointer.getP2Set();
     P2SetVisitor p2SetVisitor =
         new P2SetVisitor(pta) {
@@ -350,7 +431,9 @@ public class Solver extends Propagator {
     other.forall(p2SetVisitor);
     if (p2SetVisitor.getReturnValue()) {
       valNodeWorkList.add(pointer);
+      return true;
     }
+    return false;
   }
 
   protected void propagatePTS(final ValNode pointer, AllocNode heap) {
@@ -366,7 +449,7 @@ public class Solver extends Propagator {
     return PTAUtils.isEmptyArray(base);
   }
 
-  private boolean addWithTypeFiltering(PointsToSetInternal pts, Type type, Node node) {
+  protected boolean addWithTypeFiltering(PointsToSetInternal pts, Type type, Node node) {
     if (PTAUtils.castNeverFails(pta.getView(), node.getType(), type)) {
       return pts.add(node.getNumber());
     }
@@ -26,6 +26,19 @@ import qilin.pta.tools.*;
 import sootup.core.views.View;
 
 public class PTAFactory {
+  /**
+   * Creates the pointer analysis like {@link #createPTA(PTAPattern, View, String)}, its points-to
+   * sets are propagated by the given number of threads. The configuration is not changed, so other
+   * analyses keep using {@code solverThreads} of the configuration.
+   */
+  public static PTA createPTA(
+      PTAPattern ptaPattern, View view, String mainClassSig, int solverThreads) {
+    // every analysis created by the factory is a BasePTA
+    BasePTA pta = (BasePTA) createPTA(ptaPattern, view, mainClassSig);
+    pta.setSolverThreads(solverThreads);
+    return pta;
+  }
+
   public static PTA createPTA(PTAPattern ptaPattern, View view, String mainClassSig) {
     PTAScene scene = new PTAScene(view, mainClassSig);
     switch (ptaPattern.getContextKind()) {
@@ -114,6 +114,20 @@ public class PTAOption extends Options {
     addOption("pae", "precisearray", "Enable precise Array Element type (default value: false)");
     addOption(
         "pe", "preciseexceptions", "Enable precisely handling exceptions (default value: false)");
+    addOption(
+        "st",
+        "solverthreads",
+        "n",
+        "Number of threads propagating points-to sets, >1 uses the parallel solver (default value: 1)");
+    addOption(
+        "ptsset",
+        "pointstoset",
+        "HYBRID|SHARED",
+        "Implementation of points-to sets, SHARED deduplicates equal sets (default value: HYBRID)");
+    addOption(
+        "cc",
+        "collapsecycles",
+        "Collapse cycles of assignments in the PAG while solving (default value: false)");
 
     // a specific PTA's configuration
     addOption(
@@ -203,6 +217,17 @@ public class PTAOption extends Options {
     if (cmd.hasOption("precisearray")) {
       PTAConfig.v().getPtaConfig().preciseArrayElement = true;
     }
+    if (cmd.hasOption("pointstoset")) {
+      PTAConfig.v().getPtaConfig().pointsToSetKind =
+          PTAConfig.PointsToSetKind.valueOf(cmd.getOptionValue("pointstoset"));
+    }
+    if (cmd.hasOption("collapsecycles")) {
+      PTAConfig.v().getPtaConfig().collapseCycles = true;
+    }
+    if (cmd.hasOption("solverthreads")) {
+      PTAConfig.v().getPtaConfig().solverThreads =
+          Integer.parseInt(cmd.getOptionValue("solverthreads"));
+    }
     // application configuration
     if (cmd.hasOption("mainclass")) {
       PTAConfig.v().getAppConfig().MAIN_CLASS = cmd.getOptionValue("mainclass");
@@ -7,7 +7,6 @@ import qilin.core.builder.MethodNodeFactory;
 import qilin.core.pag.*;
 import qilin.util.PTAUtils;
 import qilin.util.Pair;
-import qilin.util.queue.QueueReader;
 import qilin.util.queue.UniqueQueue;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
@@ -171,9 +170,8 @@ public class IntraFlowAnalysis {
               iie,
               subSig,
               qilin.core.builder.callgraph.Edge.ieToKind(iie));
-      QueueReader<SootMethod> targets = pag.getCgb().dispatch(type, virtualCallSite);
-      while (targets.hasNext()) {
-        SootMethod target = targets.next();
+      SootMethod target = pag.getCgb().dispatch(type, virtualCallSite);
+      if (target != null) {
         MethodPAG tgtmpag = pag.getMethodPAG(target);
         MethodNodeFactory tgtnf = tgtmpag.nodeFactory();
         int numParms = target.getParameterCount();
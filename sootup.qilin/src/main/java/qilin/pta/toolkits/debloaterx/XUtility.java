@@ -251,9 +251,8 @@ public class XUtility {
       LocalVarNode receiver =
           pag.findLocalVarNode(vcallsite.container().method(), base, base.getType());
       for (AllocNode heap : pta.reachingObjects(receiver).toCIPointsToSet().toCollection()) {
-        QueueReader<SootMethod> reader = pta.getCgb().dispatch(heap.getType(), vcallsite);
-        while (reader.hasNext()) {
-          SootMethod tgtM = reader.next();
+        SootMethod tgtM = pta.getCgb().dispatch(heap.getType(), vcallsite);
+        if (tgtM != null) {
           m2receiverObjects.computeIfAbsent(tgtM, k -> new HashSet<>()).add(heap);
           o2InvokedMethods.computeIfAbsent(heap, k -> new HashSet<>()).add(tgtM);
           t2InvokedMethods.computeIfAbsent(heap.getType(), k -> new HashSet<>()).add(tgtM);
@@ -396,10 +396,10 @@ public class Eagle {
             contextField -> {
               AllocNode base = contextField.getBase();
               SparkField field = contextField.getField();
-              if (!prePAG.simpleInvLookup(contextField).isEmpty()) {
+              if (prePAG.getSimpleInvEdges().degree(contextField.getNumber()) > 0) {
                 this.addHloadEdge(base, field);
               }
-              if (!prePAG.simpleLookup(contextField).isEmpty()) {
+              if (prePAG.getSimpleEdges().degree(contextField.getNumber()) > 0) {
                 this.addHstoreEdge(field, base);
               }
             });
@@ -106,10 +106,10 @@ public class Turner {
             contextField -> {
               SparkField field = contextField.getField();
               fields.add(field);
-              if (!pag.simpleInvLookup(contextField).isEmpty()) {
+              if (pag.getSimpleInvEdges().degree(contextField.getNumber()) > 0) {
                 writeSet.add(field);
               }
-              if (!pag.simpleLookup(contextField).isEmpty()) {
+              if (pag.getSimpleEdges().degree(contextField.getNumber()) > 0) {
                 readSet.add(field);
               }
             });
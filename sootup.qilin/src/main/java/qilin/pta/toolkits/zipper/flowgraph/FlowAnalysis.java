@@ -219,20 +219,20 @@ public class FlowAnalysis {
                 if (Global.isEnableWrappedFlow()) {
                   Set<VarNode> r = new HashSet<>();
                   AllocNode mBase = (AllocNode) pta.parameterize(base, pta.emptyContext());
-                  pta.getPag()
-                      .allocLookup(mBase)
-                      .forEach(
-                          v -> {
-                            if (v instanceof ContextVarNode) {
-                              ContextVarNode cvn = (ContextVarNode) v;
-                              if (cvn.base() instanceof LocalVarNode) {
-                                LocalVarNode lvn = (LocalVarNode) cvn.base();
-                                if (!lvn.isThis()) {
-                                  r.add(lvn);
-                                }
-                              }
-                            }
-                          });
+                  EdgeStore<AllocNode, VarNode>.Cursor assignees =
+                      pta.getPag().getAllocEdges().cursor().of(mBase);
+                  while (assignees.hasNext()) {
+                    VarNode v = assignees.nextTarget();
+                    if (v instanceof ContextVarNode) {
+                      ContextVarNode cvn = (ContextVarNode) v;
+                      if (cvn.base() instanceof LocalVarNode) {
+                        LocalVarNode lvn = (LocalVarNode) cvn.base();
+                        if (!lvn.isThis()) {
+                          r.add(lvn);
+                        }
+                      }
+                    }
+                  }
                   Iterator<VarNode> it = r.iterator();
                   if (it.hasNext()) {
                     Node assigned = r.iterator().next();
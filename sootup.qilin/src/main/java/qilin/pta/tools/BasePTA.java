@@ -38,6 +38,7 @@ import qilin.core.pag.PAG;
 import qilin.core.pag.ValNode;
 import qilin.core.pag.VarNode;
 import qilin.core.sets.PointsToSet;
+import qilin.core.solver.ParallelSolver;
 import qilin.core.solver.Propagator;
 import qilin.core.solver.Solver;
 import qilin.stat.IEvaluator;
@@ -49,6 +50,8 @@ import sootup.core.model.SootMethod;
 
 public abstract class BasePTA extends CorePTA {
   protected IEvaluator evaluator;
+  protected int solverThreads = CoreConfig.v().getPtaConfig().solverThreads;
+  protected int solverShardSize = ParallelSolver.DEFAULT_SHARD_SIZE;
 
   public BasePTA(PTAScene scene) {
     super(scene);
@@ -70,8 +73,25 @@ public abstract class BasePTA extends CorePTA {
     return new CallGraphBuilder(this);
   }
 
+  /** Sets the number of threads that propagate the points-to sets of this analysis. */
+  public void setSolverThreads(int threads) {
+    setSolverThreads(threads, solverShardSize);
+  }
+
+  /**
+   * Sets the number of threads that propagate the points-to sets of this analysis and the shard
+   * size of the {@link ParallelSolver}.
+   */
+  public void setSolverThreads(int threads, int shardSize) {
+    this.solverThreads = threads;
+    this.solverShardSize = shardSize;
+  }
+
   @Override
   public Propagator getPropagator() {
+    if (solverThreads > 1) {
+      return new ParallelSolver(this, solverThreads, solverShardSize);
+    }
     return new Solver(this);
   }
 
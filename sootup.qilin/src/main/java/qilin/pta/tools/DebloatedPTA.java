@@ -126,6 +126,12 @@ public class DebloatedPTA extends StagedPTA {
     }
   }
 
+  @Override
+  public void setSolverThreads(int threads, int shardSize) {
+    super.setSolverThreads(threads, shardSize);
+    basePTA.setSolverThreads(threads, shardSize);
+  }
+
   @Override
   public Propagator getPropagator() {
     return basePTA.getPropagator();
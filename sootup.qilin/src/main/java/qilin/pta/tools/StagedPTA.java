@@ -36,6 +36,14 @@ public abstract class StagedPTA extends BasePTA {
     return this.prePTA;
   }
 
+  @Override
+  public void setSolverThreads(int threads, int shardSize) {
+    super.setSolverThreads(threads, shardSize);
+    if (prePTA != null) {
+      prePTA.setSolverThreads(threads, shardSize);
+    }
+  }
+
   protected abstract void preAnalysis();
 
   protected void mainAnalysis() {
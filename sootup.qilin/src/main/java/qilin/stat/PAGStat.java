@@ -20,6 +20,7 @@ package qilin.stat;
 
 import java.util.Map;
 import java.util.Set;
+import qilin.CoreConfig;
 import qilin.core.PTA;
 import qilin.core.pag.*;
 
@@ -33,6 +34,7 @@ public class PAGStat implements AbstractStat {
   private int hstoreEdges = 0; // o.f = v;
   private int storeEdges = 0; // v.f = v;
   private int loadEdges = 0; // v = v.f;
+  private int collapsedEdges = 0; // simple edges inside a collapsed cycle.
 
   public PAGStat(PTA pta) {
     this.pta = pta;
@@ -44,9 +46,16 @@ public class PAGStat implements AbstractStat {
     for (Set<VarNode> s : pag.getAlloc().values()) {
       newEdges += s.size();
     }
+    SCCCollapser collapser = pag.getCollapser();
     for (Map.Entry<ValNode, Set<ValNode>> e : pag.getSimple().entrySet()) {
       Set<ValNode> tagets = e.getValue();
       int nt = tagets.size();
+      ValNode rep = collapser.find(e.getKey());
+      for (ValNode v : tagets) {
+        if (collapser.find(v) == rep) {
+          collapsedEdges++;
+        }
+      }
       simpleEdges += nt;
       if (e.getKey() instanceof ContextField) {
         hloadEdges += nt;
@@ -76,5 +85,14 @@ public class PAGStat implements AbstractStat {
     exporter.collectMetric("\t#Local-to-Field:", String.valueOf(hstoreEdges));
     exporter.collectMetric("#Store-pag-edge:", String.valueOf(storeEdges));
     exporter.collectMetric("#Load-pag-edge:", String.valueOf(loadEdges));
+    if (CoreConfig.v().getPtaConfig().collapseCycles) {
+      SCCCollapser collapser = pag.getCollapser();
+      int offline = collapser.getOfflineCollapsedNodes();
+      int online = collapser.getOnlineCollapsedNodes();
+      exporter.collectMetric("#Collapsed-pag-node:", String.valueOf(offline + online));
+      exporter.collectMetric("\t#Offline:", String.valueOf(offline));
+      exporter.collectMetric("\t#Online:", String.valueOf(online));
+      exporter.collectMetric("#Collapsed-simple-edge:", String.valueOf(collapsedEdges));
+    }
   }
 }
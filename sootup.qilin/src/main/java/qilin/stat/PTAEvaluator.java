@@ -39,7 +39,7 @@ public class PTAEvaluator implements IEvaluator {
 
   public PTAEvaluator(PTA pta) {
     this.pta = pta;
-    runtimeStat = new RuntimeStat();
+    runtimeStat = new RuntimeStat(pta);
     exporter = new Exporter(pta);
   }
 
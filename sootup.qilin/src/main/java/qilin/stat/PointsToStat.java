@@ -325,6 +325,16 @@ public class PointsToStat implements AbstractStat {
     exporter.collectMetric(
         "#App Context Local Avg Points-To Target(CS):",
         String.valueOf(((double) appLocalCsToCs) / ((double) appLocalPointersCs)));
+    CoreConfig.PointsToSetKind ptsKind = CoreConfig.v().getPtaConfig().pointsToSetKind;
+    exporter.collectMetric("Points-To Set Kind:", ptsKind.toString());
+    if (ptsKind == CoreConfig.PointsToSetKind.SHARED) {
+      exporter.collectMetric(
+          "#Distinct Shared Points-To Set:",
+          String.valueOf(pag.getSharedSets().getNumberOfCanonicalSets()));
+      exporter.collectMetric(
+          "#Shared Points-To Set Requests:",
+          String.valueOf(pag.getSharedSets().getShareRequests()));
+    }
     if (CoreConfig.v().getOutConfig().dumpStats) {
       exporter.dumpMethodThrowPointsto(methodThrowPts);
       exporter.dumpReachableLocalVars(mLocalVarNodes);
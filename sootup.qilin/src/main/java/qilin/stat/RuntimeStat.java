@@ -19,11 +19,19 @@
 package qilin.stat;
 
 import java.util.Date;
+import qilin.CoreConfig;
+import qilin.core.PTA;
+import qilin.core.pag.SCCCollapser;
 
 public class RuntimeStat implements AbstractStat {
+  private final PTA pta;
   private Date startTime;
   private long elapsedTime;
 
+  public RuntimeStat(PTA pta) {
+    this.pta = pta;
+  }
+
   public void begin() {
     startTime = new Date();
   }
@@ -36,5 +44,13 @@ public class RuntimeStat implements AbstractStat {
   @Override
   public void export(Exporter exporter) {
     exporter.collectMetric("Time (sec):", String.valueOf(((double) elapsedTime) / 1000.0));
+    if (CoreConfig.v().getPtaConfig().collapseCycles) {
+      SCCCollapser collapser = pta.getPag().getCollapser();
+      exporter.collectMetric(
+          "\tCycle Collapsing Time (sec):", String.valueOf(collapser.getCollapseTime()));
+      exporter.collectMetric("\t#Cycle Checks:", String.valueOf(collapser.getCycleChecks()));
+      exporter.collectMetric(
+          "\t#Skipped Propagations:", String.valueOf(collapser.getSkippedPropagations()));
+    }
   }
 }
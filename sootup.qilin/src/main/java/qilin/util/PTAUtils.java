@@ -18,6 +18,7 @@
 
 package qilin.util;
 
+import com.google.common.collect.MapMaker;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
@@ -329,7 +330,8 @@ public final class PTAUtils {
     return mainClass;
   }
 
-  private static final Map<SootMethod, Body> methodToBody = DataFactory.createMap();
+  /* weak keys: a method reaches its view through its body source, the view must not be kept */
+  private static final Map<SootMethod, Body> methodToBody = new MapMaker().weakKeys().makeMap();
 
   public static Body getMethodBody(SootMethod m) {
     Body body = methodToBody.get(m);
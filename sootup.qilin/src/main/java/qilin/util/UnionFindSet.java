@@ -34,6 +34,20 @@ public class UnionFindSet<E> {
     this.nrsets = this.entries.size();
   }
 
+  /** Adds elem as a singleton set, returns false if it is already an element. */
+  public boolean add(final E elem) {
+    if (this.entries.containsKey(elem)) {
+      return false;
+    }
+    this.entries.put(elem, new Entry(elem));
+    ++this.nrsets;
+    return true;
+  }
+
+  public boolean contains(final E elem) {
+    return this.entries.containsKey(elem);
+  }
+
   public boolean union(final E e1, final E e2) {
     final Entry root1 = this.findRoot(this.entries.get(e1));
     final Entry root2 = this.findRoot(this.entries.get(e2));
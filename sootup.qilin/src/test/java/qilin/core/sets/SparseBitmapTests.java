@@ -0,0 +1,193 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.core.sets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.*;
+import org.junit.Test;
+import qilin.core.pag.Node;
+
+/** Compares {@link SparseBitmap} and {@link SharedPointsToSet} with a {@link TreeSet}. */
+public class SparseBitmapTests {
+  private static final int ROUNDS = 200;
+
+  /* values are clustered, so both array and bitmap containers are used */
+  private static int randomValue(Random random) {
+    int high = random.nextInt(4);
+    int low = random.nextInt(high == 0 ? 10_000 : high == 1 ? 500 : 65_536);
+    return (high << 16) | low;
+  }
+
+  private static List<Integer> toList(Iterator<Integer> it) {
+    List<Integer> ret = new ArrayList<>();
+    it.forEachRemaining(ret::add);
+    return ret;
+  }
+
+  private static void assertContents(TreeSet<Integer> expected, SparseBitmap bits) {
+    assertEquals(expected.size(), bits.cardinality());
+    assertEquals(new ArrayList<>(expected), toList(bits.iterator()));
+    List<Integer> visited = new ArrayList<>();
+    bits.forall(
+        new P2SetVisitor(null) {
+          @Override
+          public void visit(long idx) {
+            visited.add((int) idx);
+          }
+
+          @Override
+          protected void visit(Node n) {
+            throw new AssertionError();
+          }
+        });
+    assertEquals(new ArrayList<>(expected), visited);
+  }
+
+  @Test
+  public void testAddAndContains() {
+    Random random = new Random(1);
+    for (int round = 0; round < ROUNDS; round++) {
+      TreeSet<Integer> expected = new TreeSet<>();
+      SparseBitmap bits = new SparseBitmap();
+      int count = random.nextInt(round < ROUNDS / 2 ? 100 : 20_000);
+      for (int i = 0; i < count; i++) {
+        int value = randomValue(random);
+        assertEquals(expected.add(value), bits.add(value));
+      }
+      assertContents(expected, bits);
+      for (int i = 0; i < 1000; i++) {
+        int value = randomValue(random);
+        assertEquals(expected.contains(value), bits.contains(value));
+      }
+    }
+  }
+
+  @Test
+  public void testEqualsAndHashCode() {
+    Random random = new Random(2);
+    for (int round = 0; round < ROUNDS; round++) {
+      List<Integer> values = new ArrayList<>();
+      int count = random.nextInt(round < ROUNDS / 2 ? 100 : 10_000);
+      for (int i = 0; i < count; i++) {
+        values.add(randomValue(random));
+      }
+      SparseBitmap inOrder = new SparseBitmap();
+      values.forEach(inOrder::add);
+      Collections.shuffle(values, random);
+      SparseBitmap shuffled = new SparseBitmap();
+      values.forEach(shuffled::add);
+      assertEquals(inOrder, shuffled);
+      assertEquals(inOrder.hashCode(), shuffled.hashCode());
+
+      int extra = randomValue(random);
+      if (!inOrder.contains(extra)) {
+        shuffled.add(extra);
+        assertNotEquals(inOrder, shuffled);
+        inOrder.add(extra);
+        assertEquals(inOrder, shuffled);
+        assertEquals(inOrder.hashCode(), shuffled.hashCode());
+      }
+    }
+  }
+
+  @Test
+  public void testCopyOnWrite() {
+    Random random = new Random(3);
+    for (int round = 0; round < ROUNDS; round++) {
+      TreeSet<Integer> expected = new TreeSet<>();
+      SparseBitmap bits = new SparseBitmap();
+      int count = random.nextInt(round < ROUNDS / 2 ? 100 : 10_000);
+      for (int i = 0; i < count; i++) {
+        int value = randomValue(random);
+        expected.add(value);
+        bits.add(value);
+      }
+      int hash = bits.hashCode();
+      SparseBitmap copy = bits.copy();
+      TreeSet<Integer> expectedCopy = new TreeSet<>(expected);
+      // writes to either side must not be visible on the other one
+      for (int i = 0; i < 200; i++) {
+        int value = randomValue(random);
+        if (random.nextBoolean()) {
+          assertEquals(expectedCopy.add(value), copy.add(value));
+        } else {
+          assertEquals(expected.add(value), bits.add(value));
+        }
+      }
+      assertContents(expected, bits);
+      assertContents(expectedCopy, copy);
+      if (expected.equals(expectedCopy)) {
+        assertEquals(bits, copy);
+      } else {
+        assertNotEquals(bits, copy);
+      }
+      if (expected.size() == count) {
+        assertEquals(hash, bits.hashCode());
+      }
+    }
+  }
+
+  @Test
+  public void testSharedPointsToSet() {
+    Random random = new Random(4);
+    SharedPointsToSet.Table table = new SharedPointsToSet.Table();
+    long shareRequests = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      TreeSet<Integer> expected = new TreeSet<>();
+      SharedPointsToSet first = new SharedPointsToSet();
+      SharedPointsToSet second = new SharedPointsToSet();
+      HybridPointsToSet hybrid = new HybridPointsToSet();
+      int count = random.nextInt(round < ROUNDS / 2 ? 100 : 5_000);
+      for (int i = 0; i < count; i++) {
+        int value = 1 + randomValue(random);
+        assertEquals(expected.add(value), first.add(value));
+        second.add(value);
+        hybrid.add(value);
+      }
+      first.share(table);
+      second.share(table);
+      shareRequests += expected.isEmpty() ? 0 : 2;
+      assertEquals(!expected.isEmpty(), first.sharesBitmapWith(second));
+
+      // addAll of a shared set into an empty one reuses the canonical bitmap
+      SharedPointsToSet third = new SharedPointsToSet();
+      assertEquals(!expected.isEmpty(), third.addAll(first, null));
+      assertEquals(!expected.isEmpty(), third.sharesBitmapWith(first));
+      SharedPointsToSet fromHybrid = new SharedPointsToSet();
+      fromHybrid.addAll(hybrid, null);
+      assertEquals(new ArrayList<>(expected), toList(fromHybrid.iterator()));
+
+      // a write after sharing copies the bitmap, the other sets keep their objects
+      int value = 1 + randomValue(random);
+      boolean added = !expected.contains(value);
+      assertEquals(added, second.add(value));
+      assertEquals(!added, first.contains(value));
+      assertEquals(!added && !expected.isEmpty(), first.sharesBitmapWith(second));
+      assertEquals(new ArrayList<>(expected), toList(first.iterator()));
+      assertEquals(new ArrayList<>(expected), toList(third.iterator()));
+      expected.add(value);
+      assertEquals(new ArrayList<>(expected), toList(second.iterator()));
+    }
+    assertTrue(table.getNumberOfCanonicalSets() <= ROUNDS);
+    assertEquals(shareRequests, table.getShareRequests());
+  }
+}
@@ -81,6 +81,11 @@ public class AssignTests extends JunitTests {
     checkAssertions(run("qilin.microben.core.assign.NullPointer"));
   }
 
+  @Test
+  public void testAssignCycle() {
+    checkAssertions(run("qilin.microben.core.assign.AssignCycle"));
+  }
+
   @Test
   public void testRecursion() {
     checkAssertions(run("qilin.microben.core.assign.Recursion"));
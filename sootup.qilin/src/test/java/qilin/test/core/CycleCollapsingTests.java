@@ -0,0 +1,130 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import qilin.core.PTA;
+import qilin.core.pag.PAG;
+import qilin.core.pag.SCCCollapser;
+import qilin.core.pag.ValNode;
+import qilin.pta.PTAConfig;
+import qilin.test.util.JunitTests;
+import qilin.test.util.PTAResults;
+
+public class CycleCollapsingTests extends JunitTests {
+  @Before
+  public void collapseCycles() {
+    PTAConfig.v().getPtaConfig().collapseCycles = true;
+  }
+
+  @After
+  public void keepCycles() {
+    PTAConfig.v().getPtaConfig().collapseCycles = false;
+  }
+
+  @Test
+  public void testAssignCycle() {
+    PTA pta = checkCollapsed("qilin.microben.core.assign.AssignCycle", "insens");
+    checkAssertions(pta);
+    // x, y and t are on a cycle of the PAG built before solving
+    assertTrue(pta.getPag().getCollapser().getOfflineCollapsedNodes() >= 2);
+  }
+
+  @Test
+  public void testCallCycle() {
+    PTA pta = checkCollapsed("qilin.microben.core.assign.CallCycle", "insens");
+    checkAssertions(pta);
+    // the cycle is closed by the edges of the call, which are added during solving
+    SCCCollapser collapser = pta.getPag().getCollapser();
+    assertTrue(collapser.getOnlineCollapsedNodes() >= 2);
+    assertTrue(collapser.getCycleChecks() > 0);
+  }
+
+  @Test
+  public void testRecursion() {
+    checkAssertions(checkCollapsed("qilin.microben.core.assign.Recursion", "insens"));
+  }
+
+  @Test
+  public void testFieldSensitivity2() {
+    checkAssertions(checkCollapsed("qilin.microben.core.field.FieldSensitivity2", "insens"));
+  }
+
+  @Test
+  public void testOBJ2k2() {
+    checkAssertions(checkCollapsed("qilin.microben.context.obj.OBJ2k2", "2o"));
+  }
+
+  @Test
+  public void testParallelSolver() {
+    PTAConfig.v().getPtaConfig().solverThreads = 4;
+    try {
+      PTA pta = checkCollapsed("qilin.microben.core.assign.AssignCycle", "insens");
+      checkAssertions(pta);
+      SCCCollapser collapser = pta.getPag().getCollapser();
+      assertTrue(collapser.getOfflineCollapsedNodes() >= 2);
+      // the parallel solver only collapses the cycles found before solving
+      assertEquals(0, collapser.getOnlineCollapsedNodes());
+    } finally {
+      PTAConfig.v().getPtaConfig().solverThreads = 1;
+    }
+  }
+
+  /**
+   * Runs the analysis with and without collapsing cycles, checks that both compute the same
+   * points-to sets and that the nodes of every collapsed cycle share the set of their
+   * representative.
+   */
+  private PTA checkCollapsed(String mainClass, String ptaPattern) {
+    PTA collapsed = run(mainClass, ptaPattern);
+    PTAConfig.v().getPtaConfig().collapseCycles = false;
+    PTA plain = run(mainClass, ptaPattern);
+    PTAConfig.v().getPtaConfig().collapseCycles = true;
+    assertEquals(PTAResults.pointsToSets(plain), PTAResults.pointsToSets(collapsed));
+
+    PAG pag = collapsed.getPag();
+    SCCCollapser collapser = pag.getCollapser();
+    int collapsedNodes = 0;
+    for (int i = 1; i <= pag.getValNodeNumberer().size(); i++) {
+      ValNode node = pag.getValNodeNumberer().get(i);
+      if (node == null) {
+        continue;
+      }
+      ValNode rep = collapser.find(node);
+      List<ValNode> members = collapser.members(rep);
+      assertTrue(members.contains(node));
+      if (rep != node) {
+        ++collapsedNodes;
+        assertSame(rep.getP2Set(), node.getP2Set());
+        assertTrue(SCCCollapser.isCollapsible(rep, node));
+      }
+    }
+    assertEquals(
+        collapser.getOfflineCollapsedNodes() + collapser.getOnlineCollapsedNodes(), collapsedNodes);
+    assertEquals(0, plain.getPag().getCollapser().getOfflineCollapsedNodes());
+    return collapsed;
+  }
+}
@@ -0,0 +1,84 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import org.junit.Test;
+import qilin.core.PTA;
+import qilin.core.VirtualCalls;
+import qilin.pta.tools.Spark;
+import qilin.test.util.JunitTests;
+import sootup.core.views.View;
+
+public class DispatchCacheTests extends JunitTests {
+  private static final String MAIN_CLASS = "qilin.microben.core.call.VirtualCall1";
+
+  @Test
+  public void testSharedByAnalysesOnTheSameScene() {
+    PTA pre = create(MAIN_CLASS, "insens");
+    VirtualCalls calls = pre.getScene().getVirtualCalls();
+    assertEquals(0, calls.getNumberOfLookups());
+    pre.pureRun();
+    int resolved = calls.getNumberOfResolvedCalls();
+    long lookups = calls.getNumberOfLookups();
+    assertTrue(resolved > 0);
+    assertEquals(resolved, lookups);
+
+    // a second analysis on the scene, like the main analysis of a staged PTA, finds every pair in
+    // the vtables.
+    new Spark(pre.getScene()).pureRun();
+    assertEquals(resolved, calls.getNumberOfResolvedCalls());
+    assertEquals(lookups, calls.getNumberOfLookups());
+
+    // an analysis on a new scene starts with empty vtables.
+    PTA other = create(pre.getView(), MAIN_CLASS, "insens");
+    assertEquals(0, other.getScene().getVirtualCalls().getNumberOfLookups());
+  }
+
+  @Test
+  public void testSharedByStagedAnalysis() {
+    PTA staged = create(MAIN_CLASS, "Z-2o");
+    staged.run();
+    checkAssertions(staged);
+    // the pre-analysis and the main analysis look up every pair only once.
+    VirtualCalls calls = staged.getScene().getVirtualCalls();
+    assertTrue(calls.getNumberOfResolvedCalls() > 0);
+    assertEquals(calls.getNumberOfResolvedCalls(), calls.getNumberOfLookups());
+  }
+
+  @Test
+  public void testViewIsCollectedAfterAnalysis() throws InterruptedException {
+    WeakReference<View> view = analyze();
+    for (int i = 0; i < 20 && view.get() != null; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertNull(view.get());
+  }
+
+  private WeakReference<View> analyze() {
+    PTA pta = run(MAIN_CLASS, "insens");
+    assertTrue(pta.getScene().getVirtualCalls().getNumberOfResolvedCalls() > 0);
+    return new WeakReference<>(pta.getView());
+  }
+}
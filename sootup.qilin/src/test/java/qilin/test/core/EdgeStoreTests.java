@@ -0,0 +1,109 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.*;
+import org.junit.Test;
+import qilin.core.pag.EdgeStore;
+import qilin.core.pag.Node;
+import qilin.util.ArrayNumberer;
+
+/** Compares {@link EdgeStore} with a map of hash sets, before and after compacting. */
+public class EdgeStoreTests {
+  private static final int NODES = 300;
+
+  private final ArrayNumberer<Node> numberer = new ArrayNumberer<>();
+  private final Node[] nodes = new Node[NODES + 1];
+  private final EdgeStore<Node, Node> store = new EdgeStore<>(numberer, numberer);
+  private final Map<Integer, Set<Integer>> expected = new TreeMap<>();
+
+  public EdgeStoreTests() {
+    for (int i = 1; i <= NODES; i++) {
+      nodes[i] = new Node(null) {};
+      numberer.add(nodes[i]);
+    }
+  }
+
+  @Test
+  public void testSameEdgesAsHashSets() {
+    Random random = new Random(42);
+    for (int round = 0; round < 4; round++) {
+      addRandomEdges(random, 3000);
+      assertSameEdges();
+      store.compact();
+      assertSameEdges();
+    }
+    // adding edges that are only in the compacted arrays has no effect
+    for (Map.Entry<Integer, Set<Integer>> e : expected.entrySet()) {
+      for (int t : e.getValue()) {
+        assertFalse(store.add(nodes[e.getKey()], nodes[t]));
+      }
+    }
+    assertSameEdges();
+  }
+
+  /* a few sources get many targets, so some of them exceed the degree of a hub */
+  private void addRandomEdges(Random random, int count) {
+    for (int i = 0; i < count; i++) {
+      int s = random.nextBoolean() ? 1 + random.nextInt(8) : 1 + random.nextInt(NODES);
+      int t = 1 + random.nextInt(NODES);
+      boolean added = expected.computeIfAbsent(s, k -> new HashSet<>()).add(t);
+      assertEquals(added, store.add(nodes[s], nodes[t]));
+    }
+  }
+
+  private void assertSameEdges() {
+    int size = 0;
+    EdgeStore<Node, Node>.Cursor cursor = store.cursor();
+    for (int s = 1; s <= NODES; s++) {
+      Set<Integer> targets = expected.getOrDefault(s, Collections.emptySet());
+      size += targets.size();
+      assertEquals(targets.size(), store.degree(s));
+
+      List<Integer> visited = new ArrayList<>();
+      for (cursor.of(nodes[s]); cursor.hasNext(); ) {
+        visited.add(cursor.nextInt());
+      }
+      assertEquals(targets.size(), visited.size());
+      assertEquals(targets, new HashSet<>(visited));
+
+      Set<Node> lookup = store.lookup(nodes[s]);
+      assertEquals(targets.size(), lookup.size());
+      for (int t = 1; t <= NODES; t++) {
+        assertEquals(targets.contains(t), store.contains(nodes[s], nodes[t]));
+        assertEquals(targets.contains(t), lookup.contains(nodes[t]));
+      }
+    }
+    assertEquals(size, store.size());
+
+    Map<Integer, Set<Integer>> map = new TreeMap<>();
+    for (Map.Entry<Node, Set<Node>> e : store.asMap().entrySet()) {
+      Set<Integer> targets = new HashSet<>();
+      for (Node t : e.getValue()) {
+        assertTrue(targets.add(t.getNumber()));
+      }
+      map.put(e.getKey().getNumber(), targets);
+    }
+    assertEquals(expected, map);
+  }
+}
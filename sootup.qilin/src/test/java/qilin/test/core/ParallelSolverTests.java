@@ -0,0 +1,105 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import qilin.core.PTA;
+import qilin.core.solver.ParallelSolver;
+import qilin.pta.PTAConfig;
+import qilin.pta.tools.BasePTA;
+import qilin.test.util.JunitTests;
+import qilin.test.util.PTAResults;
+
+public class ParallelSolverTests extends JunitTests {
+  @Before
+  public void useParallelSolver() {
+    PTAConfig.v().getPtaConfig().solverThreads = 4;
+  }
+
+  @After
+  public void useSequentialSolver() {
+    PTAConfig.v().getPtaConfig().solverThreads = 1;
+  }
+
+  @Test
+  public void testVirtualCall1() {
+    checkAssertions(runParallel("qilin.microben.core.call.VirtualCall1", "insens"));
+  }
+
+  @Test
+  public void testFieldSensitivity2() {
+    checkAssertions(runParallel("qilin.microben.core.field.FieldSensitivity2", "insens"));
+  }
+
+  @Test
+  public void testMultiArrayComplex() {
+    checkAssertions(runParallel("qilin.microben.core.array.MultiArrayComplex", "insens"));
+  }
+
+  @Test
+  public void testOBJ2k2() {
+    checkAssertions(runParallel("qilin.microben.context.obj.OBJ2k2", "2o"));
+  }
+
+  @Test
+  public void testSolverThreads() {
+    BasePTA pta = (BasePTA) create("qilin.microben.core.call.VirtualCall1", "insens");
+    assertTrue(pta.getPropagator() instanceof ParallelSolver);
+    pta.setSolverThreads(1);
+    assertFalse(pta.getPropagator() instanceof ParallelSolver);
+  }
+
+  @Test
+  public void testSameResultAsSequentialSolver() {
+    checkSameResultAsSequentialSolver("qilin.microben.core.call.VirtualCall1", "insens");
+    checkSameResultAsSequentialSolver("qilin.microben.core.field.FieldSensitivity2", "insens");
+    checkSameResultAsSequentialSolver("qilin.microben.context.obj.OBJ2k2", "2o");
+  }
+
+  /** a shard size of 1 makes every round with a target use the worker threads */
+  private PTA runParallel(String mainClass, String ptaPattern) {
+    PTA pta = create(mainClass, ptaPattern);
+    ParallelSolver solver = new ParallelSolver(pta, 4, 1);
+    solver.propagate();
+    assertTrue(solver.getParallelRounds() > 0);
+    return pta;
+  }
+
+  private void checkSameResultAsSequentialSolver(String mainClass, String ptaPattern) {
+    BasePTA sequential = (BasePTA) create(mainClass, ptaPattern);
+    sequential.setSolverThreads(1);
+    sequential.pureRun();
+    PTA parallel = runParallel(mainClass, ptaPattern);
+
+    Map<String, Set<String>> pointsToSets = PTAResults.pointsToSets(sequential);
+    assertFalse(pointsToSets.isEmpty());
+    assertEquals(pointsToSets, PTAResults.pointsToSets(parallel));
+    Set<String> callEdges = PTAResults.callEdges(sequential);
+    assertFalse(callEdges.isEmpty());
+    assertEquals(callEdges, PTAResults.callEdges(parallel));
+  }
+}
@@ -0,0 +1,109 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import qilin.core.PTA;
+import qilin.core.pag.PAG;
+import qilin.core.pag.ValNode;
+import qilin.core.sets.DoublePointsToSet;
+import qilin.core.sets.SharedPointsToSet;
+import qilin.pta.PTAConfig;
+import qilin.test.util.JunitTests;
+import qilin.test.util.PTAResults;
+
+public class SharedPointsToSetTests extends JunitTests {
+  @Before
+  public void useSharedPointsToSets() {
+    PTAConfig.v().getPtaConfig().pointsToSetKind = PTAConfig.PointsToSetKind.SHARED;
+  }
+
+  @After
+  public void useHybridPointsToSets() {
+    PTAConfig.v().getPtaConfig().pointsToSetKind = PTAConfig.PointsToSetKind.HYBRID;
+  }
+
+  @Test
+  public void testVirtualCall1() {
+    checkAssertions(checkShared("qilin.microben.core.call.VirtualCall1", "insens"));
+  }
+
+  @Test
+  public void testFieldSensitivity2() {
+    checkAssertions(checkShared("qilin.microben.core.field.FieldSensitivity2", "insens"));
+  }
+
+  @Test
+  public void testMultiArrayComplex() {
+    checkAssertions(checkShared("qilin.microben.core.array.MultiArrayComplex", "insens"));
+  }
+
+  @Test
+  public void testOBJ2k2() {
+    checkAssertions(checkShared("qilin.microben.context.obj.OBJ2k2", "2o"));
+  }
+
+  /**
+   * Runs the analysis with shared and with hybrid points-to sets, checks that both compute the
+   * same points-to sets and that equal shared sets use a single bitmap of the table of the PAG.
+   */
+  private PTA checkShared(String mainClass, String ptaPattern) {
+    PTA shared = run(mainClass, ptaPattern);
+    PTAConfig.v().getPtaConfig().pointsToSetKind = PTAConfig.PointsToSetKind.HYBRID;
+    PTA hybrid = run(mainClass, ptaPattern);
+    PTAConfig.v().getPtaConfig().pointsToSetKind = PTAConfig.PointsToSetKind.SHARED;
+    assertEquals(PTAResults.pointsToSets(hybrid), PTAResults.pointsToSets(shared));
+
+    PAG pag = shared.getPag();
+    Map<List<Integer>, SharedPointsToSet> canonical = new HashMap<>();
+    int sets = 0;
+    for (int i = 1; i <= pag.getValNodeNumberer().size(); i++) {
+      ValNode node = pag.getValNodeNumberer().get(i);
+      if (node == null) {
+        continue;
+      }
+      DoublePointsToSet pts = node.getP2Set();
+      assertTrue(pts.getNewSet().isEmpty());
+      SharedPointsToSet old = (SharedPointsToSet) pts.getOldSet();
+      if (old.isEmpty()) {
+        continue;
+      }
+      ++sets;
+      List<Integer> objects = new ArrayList<>();
+      old.iterator().forEachRemaining(objects::add);
+      SharedPointsToSet first = canonical.putIfAbsent(objects, old);
+      if (first != null) {
+        assertTrue(first.sharesBitmapWith(old));
+      }
+    }
+    SharedPointsToSet.Table table = pag.getSharedSets();
+    assertEquals(sets, table.getShareRequests());
+    assertEquals(canonical.size(), table.getNumberOfCanonicalSets());
+    assertTrue(canonical.size() < sets);
+    // the table belongs to the PAG, the other analysis did not share anything
+    assertEquals(0, hybrid.getPag().getSharedSets().getShareRequests());
+    return shared;
+  }
+}
@@ -91,14 +91,24 @@ public abstract class JunitTests {
   }
 
   public PTA run(String mainClass, String ptaPattern) {
+    PTA pta = create(mainClass, ptaPattern);
+    pta.pureRun();
+    return pta;
+  }
+
+  /** Creates the analysis like {@link #run(String, String)} without running it. */
+  public PTA create(String mainClass, String ptaPattern) {
+    PTAConfig.v().getAppConfig().MAIN_CLASS = mainClass;
+    System.out.println(PTAConfig.v().getAppConfig().APP_PATH);
+    return create(PTAUtils.createView(), mainClass, ptaPattern);
+  }
+
+  /** Creates the analysis on an existing view, so that several analyses can share it. */
+  public PTA create(View view, String mainClass, String ptaPattern) {
     PTAConfig.v().getAppConfig().MAIN_CLASS = mainClass;
     PTAConfig.v().getPtaConfig().ptaPattern = new PTAPattern(ptaPattern);
     PTAConfig.v().getPtaConfig().ptaName = PTAConfig.v().getPtaConfig().ptaPattern.toString();
-    System.out.println(PTAConfig.v().getAppConfig().APP_PATH);
-    View view = PTAUtils.createView();
-    PTA pta = PTAFactory.createPTA(PTAConfig.v().getPtaConfig().ptaPattern, view, mainClass);
-    pta.pureRun();
-    return pta;
+    return PTAFactory.createPTA(PTAConfig.v().getPtaConfig().ptaPattern, view, mainClass);
   }
 
   public static String[] generateArgumentsx() {
@@ -0,0 +1,69 @@
+/* Qilin - a Java Pointer Analysis Framework
+ * Copyright (C) 2021-2030 Qilin developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3.0 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <https://www.gnu.org/licenses/lgpl-3.0.en.html>.
+ */
+
+package qilin.test.util;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import qilin.core.PTA;
+import qilin.core.builder.callgraph.Edge;
+import qilin.core.pag.AllocNode;
+import qilin.core.pag.GlobalVarNode;
+import qilin.core.pag.LocalVarNode;
+import qilin.core.pag.ValNode;
+
+/**
+ * The results of an analysis without the numbers of the nodes, so that the results of two runs on
+ * the same program can be compared.
+ */
+public final class PTAResults {
+  private PTAResults() {}
+
+  /** Maps every variable to the allocation sites it points to, under any context. */
+  public static Map<String, Set<String>> pointsToSets(PTA pta) {
+    Map<String, Set<String>> ret = new TreeMap<>();
+    for (ValNode node : pta.getPag().getValNodes()) {
+      String key;
+      if (node instanceof LocalVarNode) {
+        LocalVarNode lvn = (LocalVarNode) node;
+        key = lvn.getVariable() + " in " + lvn.getMethod();
+      } else if (node instanceof GlobalVarNode) {
+        key = "global " + ((GlobalVarNode) node).getVariable();
+      } else {
+        // context-sensitive nodes are merged into their base variables
+        continue;
+      }
+      Set<String> objects = ret.computeIfAbsent(key, k -> new TreeSet<>());
+      for (AllocNode heap : pta.reachingObjects(node).toCIPointsToSet().toCollection()) {
+        objects.add(heap.toString2());
+      }
+    }
+    return ret;
+  }
+
+  /** Returns the context-insensitive edges of the call graph. */
+  public static Set<String> callEdges(PTA pta) {
+    Set<String> ret = new TreeSet<>();
+    for (Edge e : pta.getCallGraph()) {
+      ret.add(e.src() + " @ " + e.srcUnit() + " -" + e.kind() + "-> " + e.tgt());
+    }
+    return ret;
+  }
+}
@@ -1,6 +1,9 @@
 package sootup.tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -9,12 +12,23 @@ import java.util.List;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import sootup.core.cache.BodyCache;
+import sootup.core.cache.ConcurrentLRUCache;
+import sootup.core.cache.provider.ConcurrentFullCacheProvider;
+import sootup.core.cache.provider.ConcurrentLRUCacheProvider;
 import sootup.core.cache.provider.FullCacheProvider;
+import sootup.core.cache.provider.LRUBodyCacheProvider;
 import sootup.core.cache.provider.LRUCacheProvider;
+import sootup.core.cache.provider.SoftBodyCacheProvider;
 import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.Body;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
 import sootup.core.model.SourceType;
 import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.BytecodeClassWeigher;
 import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.views.ConcurrentJavaView;
 import sootup.java.core.views.JavaView;
 
 /**
@@ -75,4 +89,108 @@ public class CacheTest {
     newView.getClasses().count();
     assertEquals(6, newView.getCachedClassesCount());
   }
+
+  /** Test the {@link sootup.core.cache.ConcurrentFullCache} class */
+  @Test
+  public void concurrentFullCacheTest() {
+    JavaView view = new ConcurrentJavaView(inputLocations, new ConcurrentFullCacheProvider());
+    assertEquals(0, view.getCachedClassesCount());
+
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    view.getClass(miniAppClassType);
+    assertEquals(1, view.getCachedClassesCount());
+    assertSame(view.getClass(miniAppClassType).get(), view.getClass(miniAppClassType).get());
+
+    view.getClasses().count();
+    assertEquals(6, view.getCachedClassesCount());
+    assertEquals(6, view.getClasses().count());
+  }
+
+  /** Test the {@link sootup.core.cache.SoftBodyCache} class */
+  @Test
+  public void softBodyCacheTest() {
+    JavaView view =
+        new JavaView(inputLocations, new FullCacheProvider(), new SoftBodyCacheProvider());
+    BodyCache bodyCache = view.getBodyCache().get();
+
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    SootMethod mainMethod =
+        view.getClass(miniAppClassType).get().getMethods().stream()
+            .filter(method -> method.getName().equals("main"))
+            .findFirst()
+            .get();
+
+    Body body = mainMethod.getBody();
+    assertSame(body, mainMethod.getBody());
+    assertEquals(1, bodyCache.getMissCount());
+    assertEquals(1, bodyCache.getHitCount());
+    assertEquals(1, bodyCache.size());
+
+    // a dropped body is rebuilt from its BodySource
+    bodyCache.invalidateAll();
+    Body rebuiltBody = mainMethod.getBody();
+    assertNotSame(body, rebuiltBody);
+    assertEquals(body.toString(), rebuiltBody.toString());
+    assertEquals(2, bodyCache.getMissCount());
+  }
+
+  /** Test the {@link sootup.core.cache.LRUBodyCache} class */
+  @Test
+  public void lruBodyCacheTest() {
+    JavaView view =
+        new JavaView(inputLocations, new FullCacheProvider(), new LRUBodyCacheProvider(1));
+    BodyCache bodyCache = view.getBodyCache().get();
+
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    for (SootMethod method : view.getClass(miniAppClassType).get().getMethods()) {
+      method.getBody();
+      method.getBody();
+    }
+    // every body has more than one statement, so none of them fits into the cache
+    assertEquals(0, bodyCache.size());
+    assertEquals(0, bodyCache.getHitCount());
+    assertTrue(bodyCache.getEvictionCount() > 0);
+    assertEquals(bodyCache.getMissCount(), bodyCache.getEvictionCount());
+  }
+
+  /** Test the {@link sootup.core.cache.ConcurrentLRUCache} class */
+  @Test
+  public void concurrentLRUCacheTest() {
+    JavaView view = new ConcurrentJavaView(inputLocations, new ConcurrentLRUCacheProvider(1));
+    assertEquals(0, view.getCachedClassesCount());
+
+    // every class weighs more than 1, so it is evicted right away
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+    assertTrue(view.getClass(miniAppClassType).isPresent());
+    assertEquals(0, view.getCachedClassesCount());
+
+    JavaView newView = new ConcurrentJavaView(inputLocations, new ConcurrentLRUCacheProvider());
+    newView.getClasses().count();
+    assertEquals(6, newView.getCachedClassesCount());
+    newView.getClass(miniAppClassType);
+
+    ConcurrentLRUCache cache = (ConcurrentLRUCache) new ConcurrentLRUCacheProvider().createCache();
+    SootClass miniAppClass = newView.getClass(miniAppClassType).get();
+    cache.putClass(miniAppClassType, miniAppClass);
+    assertSame(miniAppClass, cache.getClass(miniAppClassType));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1.0, cache.getHitRate());
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+  /** Test the {@link BytecodeClassWeigher} class */
+  @Test
+  public void bytecodeClassWeigherTest() {
+    JavaView view = new JavaView(inputLocations);
+    SootClass miniAppClass =
+        view.getClass(view.getIdentifierFactory().getClassType("MiniApp")).get();
+    int memberWeight = ConcurrentLRUCache.estimateWeight(miniAppClass);
+    int bytecodeWeight = new BytecodeClassWeigher().applyAsInt(miniAppClass);
+    assertTrue(bytecodeWeight > memberWeight);
+
+    ConcurrentLRUCache cache = new ConcurrentLRUCache(memberWeight, new BytecodeClassWeigher());
+    cache.putClass(miniAppClass.getType(), miniAppClass);
+    assertEquals(0, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+  }
 }
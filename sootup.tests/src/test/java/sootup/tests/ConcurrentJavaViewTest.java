@@ -0,0 +1,59 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.model.SourceType;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.ConcurrentJavaView;
+
+/** Resolves classes of the MiniApp.jar from many threads through one shared view. */
+@Tag("Java8")
+public class ConcurrentJavaViewTest {
+  static Path pathToJar = Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar");
+
+  @Test
+  public void testEachClassIsBuiltOnce() throws Exception {
+    ConcurrentJavaView view =
+        new ConcurrentJavaView(
+            PathBasedAnalysisInputLocation.create(pathToJar, SourceType.Application));
+    ClassType miniAppClassType = view.getIdentifierFactory().getClassType("MiniApp");
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<JavaSootClass>> futures = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        futures.add(executor.submit(() -> view.getClass(miniAppClassType).get()));
+      }
+      JavaSootClass expected = futures.get(0).get();
+      for (Future<JavaSootClass> future : futures) {
+        assertSame(expected, future.get());
+      }
+
+      List<Future<Long>> counts = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        counts.add(executor.submit(() -> view.getClasses().count()));
+      }
+      for (Future<Long> count : counts) {
+        assertEquals(6, count.get().longValue());
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(6, view.getCachedClassesCount());
+    assertTrue(view.getClass(miniAppClassType).isPresent());
+  }
+}
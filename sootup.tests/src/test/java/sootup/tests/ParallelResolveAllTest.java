@@ -0,0 +1,138 @@
+package sootup.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SourceType;
+import sootup.core.typehierarchy.FrozenTypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.views.ConcurrentJavaView;
+import sootup.java.core.views.JavaView;
+
+/** Compares the parallel {@link JavaView#resolveAll} with the sequential getClasses(). */
+@Tag("Java8")
+public class ParallelResolveAllTest {
+
+  final List<AnalysisInputLocation> inputLocations =
+      Arrays.asList(
+          PathBasedAnalysisInputLocation.create(
+              Paths.get("../shared-test-resources/java-miniapps/MiniApp.jar"),
+              SourceType.Application),
+          PathBasedAnalysisInputLocation.create(
+              Paths.get("../shared-test-resources/bugfixes"), SourceType.Library));
+
+  @Test
+  public void testSameResultAsSequentialResolving() {
+    List<ClassType> expected =
+        new JavaView(inputLocations)
+            .getClasses()
+            .map(JavaSootClass::getType)
+            .collect(Collectors.toList());
+
+    for (int threads : new int[] {1, 2, 8}) {
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        JavaView view = new JavaView(inputLocations);
+        List<ClassType> resolved =
+            view.resolveAll(executor).map(JavaSootClass::getType).collect(Collectors.toList());
+        assertEquals(expected, resolved);
+        assertEquals(expected.size(), view.getCachedClassesCount());
+
+        JavaView concurrentView = new ConcurrentJavaView(inputLocations);
+        assertEquals(
+            expected,
+            concurrentView
+                .resolveAll(executor)
+                .map(JavaSootClass::getType)
+                .collect(Collectors.toList()));
+      } finally {
+        executor.shutdown();
+      }
+    }
+  }
+
+  @Test
+  public void testSingleLocationIsBuiltInChunks() {
+    List<AnalysisInputLocation> singleLocation =
+        Collections.singletonList(
+            PathBasedAnalysisInputLocation.create(
+                Paths.get("../shared-test-resources/miniTestSuite/java6/binary"),
+                SourceType.Application));
+    List<ClassType> expected =
+        new JavaView(singleLocation)
+            .getClasses()
+            .map(JavaSootClass::getType)
+            .collect(Collectors.toList());
+    assertTrue(expected.size() > JavaView.RESOLVE_CHUNK_SIZE);
+
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    try {
+      List<ClassType> resolved =
+          new JavaView(singleLocation)
+              .resolveAll(executor)
+              .map(JavaSootClass::getType)
+              .collect(Collectors.toList());
+      assertEquals(expected, resolved);
+      // one task reads the location, the others build its classes in chunks
+      int chunks =
+          (expected.size() + JavaView.RESOLVE_CHUNK_SIZE - 1) / JavaView.RESOLVE_CHUNK_SIZE;
+      assertEquals(1 + chunks, executor.getTaskCount());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testCachedClassesAreNotBuiltAgain() {
+    List<ClassType> expected =
+        new JavaView(inputLocations)
+            .getClasses()
+            .map(JavaSootClass::getType)
+            .collect(Collectors.toList());
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      JavaView view = new JavaView(inputLocations);
+      JavaSootClass cachedClass = view.getClass(expected.get(0)).get();
+      List<JavaSootClass> resolved = view.resolveAll(executor).collect(Collectors.toList());
+      assertEquals(
+          expected, resolved.stream().map(JavaSootClass::getType).collect(Collectors.toList()));
+      assertSame(cachedClass, resolved.get(0));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testFrozenTypeHierarchyAfterResolveAll() {
+    assertTrue(new JavaView(inputLocations).getTypeHierarchy() instanceof ViewTypeHierarchy);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      JavaView view = new JavaView(inputLocations);
+      view.resolveAll(executor);
+      assertTrue(view.getTypeHierarchy() instanceof FrozenTypeHierarchy);
+      assertSame(view.getTypeHierarchy(), view.getTypeHierarchy());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
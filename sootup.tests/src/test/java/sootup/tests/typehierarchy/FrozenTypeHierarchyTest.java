@@ -0,0 +1,96 @@
+package sootup.tests.typehierarchy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import sootup.core.typehierarchy.FrozenTypeHierarchy;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ArrayType;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.views.JavaView;
+
+@Tag("Java8")
+public class FrozenTypeHierarchyTest {
+
+  @Test
+  public void testSameAnswersAsViewTypeHierarchy() {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/java-miniapps/MiniApp.jar"
+                    + File.pathSeparator
+                    + "../shared-test-resources/jigsaw-examples/layer-hierarchy/jar/javax.json-1.0.4.jar"));
+    ViewTypeHierarchy expected = new ViewTypeHierarchy(view);
+    FrozenTypeHierarchy frozen = new FrozenTypeHierarchy(view);
+
+    List<ClassType> types =
+        view.getClasses()
+            .flatMap(
+                c ->
+                    Stream.concat(
+                        Stream.of(c.getType()),
+                        Stream.concat(
+                            c.getInterfaces().stream(),
+                            c.getSuperclass().map(Stream::of).orElseGet(Stream::empty))))
+            .distinct()
+            .collect(Collectors.toList());
+    assertEquals(types.size(), frozen.size());
+
+    for (ClassType type : types) {
+      assertTrue(frozen.contains(type));
+      assertEquals(type, frozen.getType(frozen.getId(type)));
+      assertEquals(expected.isInterface(type), frozen.isInterface(type), type.toString());
+      assertEquals(expected.superClassOf(type), frozen.superClassOf(type), type.toString());
+      assertEquals(
+          expected.superClassesOf(type).collect(Collectors.toList()),
+          frozen.superClassesOf(type).collect(Collectors.toList()),
+          type.toString());
+      assertEquals(
+          expected.implementedInterfacesOf(type).collect(Collectors.toSet()),
+          frozen.implementedInterfacesOf(type).collect(Collectors.toSet()),
+          type.toString());
+      assertEquals(
+          expected.subtypesOf(type).collect(Collectors.toSet()),
+          frozen.subtypesOf(type).collect(Collectors.toSet()),
+          type.toString());
+      assertEquals(
+          expected.directSubtypesOf(type).collect(Collectors.toSet()),
+          frozen.directSubtypesOf(type).collect(Collectors.toSet()),
+          type.toString());
+      for (ClassType other : types) {
+        assertEquals(
+            expected.isSubtype(type, other), frozen.isSubtype(type, other), type + " :> " + other);
+      }
+    }
+
+    ClassType jsonValue = view.getIdentifierFactory().getClassType("javax.json.JsonValue");
+    ClassType jsonObject = view.getIdentifierFactory().getClassType("javax.json.JsonObject");
+    ArrayType jsonObjects = view.getIdentifierFactory().getArrayType(jsonObject, 1);
+    assertTrue(
+        frozen.isSubtype(view.getIdentifierFactory().getArrayType(jsonValue, 1), jsonObjects));
+    assertSame(frozen.subtypeIdsOf(jsonValue), frozen.subtypeIdsOf(jsonValue));
+    assertFalse(frozen.contains(view.getIdentifierFactory().getClassType("does.not.Exist")));
+  }
+
+  @Test
+  public void testSetTypeHierarchy() {
+    JavaView view =
+        new JavaView(
+            new JavaClassPathAnalysisInputLocation(
+                "../shared-test-resources/java-miniapps/MiniApp.jar"));
+    FrozenTypeHierarchy frozen = new FrozenTypeHierarchy(view);
+    view.setTypeHierarchy(frozen);
+    assertSame(frozen, view.getTypeHierarchy());
+    ClassType employee = view.getIdentifierFactory().getClassType("ds.Employee");
+    assertEquals(
+        Optional.of(view.getIdentifierFactory().getClassType("ds.AbstractDataStrcture")),
+        view.getTypeHierarchy().superClassOf(employee));
+  }
+}